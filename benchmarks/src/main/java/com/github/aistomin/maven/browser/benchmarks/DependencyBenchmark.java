@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser.benchmarks;
+
+import com.github.aistomin.maven.browser.DependencyFormat;
+import com.github.aistomin.maven.browser.DependencyRenderer;
+import com.github.aistomin.maven.browser.MavenArtifact;
+import com.github.aistomin.maven.browser.MavenArtifactVersion;
+import com.github.aistomin.maven.browser.MavenGroup;
+import com.github.aistomin.maven.browser.MvnArtifact;
+import com.github.aistomin.maven.browser.MvnArtifactVersion;
+import com.github.aistomin.maven.browser.MvnDependency;
+import com.github.aistomin.maven.browser.MvnPackagingType;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The benchmark of the dependency snippets rendering for all the supported
+ * build tools: the snippets which are formatted with {@link String#format}
+ * as {@link MvnDependency} used to do it, the snippets of
+ * {@link MvnDependency} which are rendered with the precompiled templates,
+ * and the snippets which are appended to one reused buffer.
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DependencyBenchmark {
+
+    /**
+     * The amount of the rendered dependencies.
+     */
+    private static final int DEPENDENCIES = 100;
+
+    /**
+     * The versions to render.
+     */
+    private List<MvnArtifactVersion> versions;
+
+    /**
+     * The reused buffer of the snippets.
+     */
+    private StringBuilder buffer;
+
+    /**
+     * The renderers of the snippets for all the build tools.
+     */
+    private List<DependencyRenderer> renderers;
+
+    /**
+     * Generate the versions.
+     */
+    @Setup
+    public void setUp() {
+        this.versions = new ArrayList<>(DEPENDENCIES);
+        for (int idx = 0; idx < DEPENDENCIES; ++idx) {
+            final MvnArtifact artifact = new MavenArtifact(
+                new MavenGroup(String.format("org.example.group%d", idx)),
+                String.format("artifact-%d", idx)
+            );
+            this.versions.add(
+                new MavenArtifactVersion(
+                    artifact, Fixtures.version(idx), MvnPackagingType.JAR, null
+                )
+            );
+        }
+        this.buffer = new StringBuilder();
+        this.renderers = new ArrayList<>(DependencyFormat.values().length);
+        for (final DependencyFormat format : DependencyFormat.values()) {
+            this.renderers.add(new DependencyRenderer(format));
+        }
+    }
+
+    /**
+     * Format the Maven snippets with {@link String#format}.
+     *
+     * @param sink The sink of the snippets.
+     */
+    @Benchmark
+    public void formatted(final Blackhole sink) {
+        for (final MvnArtifactVersion version : this.versions) {
+            final MvnArtifact artifact = version.artifact();
+            sink.consume(
+                String.format(
+                    "<dependency>%n%s%n%s%n%s%n</dependency>",
+                    String.format(
+                        "  <groupId>%s</groupId>", artifact.group().name()
+                    ),
+                    String.format(
+                        "  <artifactId>%s</artifactId>", artifact.name()
+                    ),
+                    String.format("  <version>%s</version>", version.name())
+                )
+            );
+        }
+    }
+
+    /**
+     * Render the Maven snippets.
+     *
+     * @param sink The sink of the snippets.
+     */
+    @Benchmark
+    public void maven(final Blackhole sink) {
+        for (final MvnArtifactVersion version : this.versions) {
+            sink.consume(version.dependency().forMaven());
+        }
+    }
+
+    /**
+     * Render the snippets for all the build tools.
+     *
+     * @param sink The sink of the snippets.
+     */
+    @Benchmark
+    public void all(final Blackhole sink) {
+        for (final MvnArtifactVersion version : this.versions) {
+            final MvnDependency dependency = version.dependency();
+            sink.consume(dependency.forMaven());
+            sink.consume(dependency.forBuildr());
+            sink.consume(dependency.forIvy());
+            sink.consume(dependency.forGroovyGrape());
+            sink.consume(dependency.forGradle());
+            sink.consume(dependency.forScala());
+            sink.consume(dependency.forLeiningen());
+        }
+    }
+
+    /**
+     * Append the Maven snippets to the reused buffer.
+     *
+     * @return The length of the snippets.
+     * @throws IOException If the buffer fails.
+     */
+    @Benchmark
+    public int appendMaven() throws IOException {
+        this.buffer.setLength(0);
+        for (final MvnArtifactVersion version : this.versions) {
+            DependencyFormat.MAVEN.render(version, this.buffer);
+        }
+        return this.buffer.length();
+    }
+
+    /**
+     * Append the snippets for all the build tools to the reused buffer with
+     * the batch renderers.
+     *
+     * @return The length of the snippets.
+     * @throws IOException If the buffer fails.
+     */
+    @Benchmark
+    public int appendAll() throws IOException {
+        this.buffer.setLength(0);
+        for (final DependencyRenderer renderer : this.renderers) {
+            renderer.render(this.versions, this.buffer);
+        }
+        return this.buffer.length();
+    }
+}
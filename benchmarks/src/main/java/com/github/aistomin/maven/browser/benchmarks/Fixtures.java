@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * The recorded and synthetic data for the benchmarks.
+ *
+ * @since 2.0
+ */
+final class Fixtures {
+
+    /**
+     * The amount of minor versions per major version.
+     */
+    private static final int MINORS = 10;
+
+    /**
+     * The amount of patch versions per minor version.
+     */
+    private static final int PATCHES = 10;
+
+    /**
+     * Utility class.
+     */
+    private Fixtures() {
+    }
+
+    /**
+     * Generate maven-metadata.xml with the given amount of versions.
+     *
+     * @param amount The amount of versions.
+     * @return The content of maven-metadata.xml.
+     */
+    static String metadata(final int amount) {
+        final StringBuilder xml = new StringBuilder(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<metadata>\n"
+        ).append("  <groupId>org.example</groupId>\n")
+            .append("  <artifactId>example</artifactId>\n")
+            .append("  <versioning>\n    <versions>\n");
+        for (int idx = 0; idx < amount; ++idx) {
+            xml.append("      <version>")
+                .append(Fixtures.version(idx))
+                .append("</version>\n");
+        }
+        return xml.append("    </versions>\n")
+            .append("    <lastUpdated>20240101000000</lastUpdated>\n")
+            .append("  </versioning>\n</metadata>\n")
+            .toString();
+    }
+
+    /**
+     * Generate the version name by its index.
+     *
+     * @param idx The index of the version.
+     * @return The version name.
+     */
+    static String version(final int idx) {
+        return String.format(
+            "%d.%d.%d", idx / (MINORS * PATCHES), idx / PATCHES % MINORS,
+            idx % PATCHES
+        );
+    }
+
+    /**
+     * Generate the response of the search API with the given amount of
+     * documents. The documents look like the ones of search.maven.org.
+     *
+     * @param amount The amount of documents.
+     * @return The JSON response.
+     */
+    static String search(final int amount) {
+        final StringBuilder json = new StringBuilder(
+            "{\"responseHeader\":{\"status\":0,\"QTime\":1,"
+        ).append("\"params\":{\"q\":\"example\",\"wt\":\"json\"}},")
+            .append("\"response\":{\"numFound\":")
+            .append(amount)
+            .append(",\"start\":0,\"docs\":[");
+        for (int idx = 0; idx < amount; ++idx) {
+            if (idx > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"org.example.group").append(idx)
+                .append(":artifact-").append(idx)
+                .append("\",\"g\":\"org.example.group").append(idx)
+                .append("\",\"a\":\"artifact-").append(idx)
+                .append("\",\"latestVersion\":\"")
+                .append(Fixtures.version(idx))
+                .append("\",\"repositoryId\":\"central\",\"p\":\"jar\",")
+                .append("\"timestamp\":1479480474000,\"versionCount\":")
+                .append(idx % PATCHES + 1)
+                .append(",\"text\":[\"org.example\",\"artifact\",")
+                .append("\"-javadoc.jar\",\"-sources.jar\",\".jar\",")
+                .append("\".pom\"],\"ec\":[\"-javadoc.jar\",")
+                .append("\"-sources.jar\",\".jar\",\".pom\"]}");
+        }
+        return json.append("]}}").toString();
+    }
+
+    /**
+     * Read the fixture which was recorded from Maven Central.
+     *
+     * @param name The name of the fixture.
+     * @return The content of the fixture.
+     */
+    static byte[] recorded(final String name) {
+        try (
+            InputStream stream = Fixtures.class.getResourceAsStream(
+                String.format("/fixtures/%s", name)
+            )
+        ) {
+            if (stream == null) {
+                throw new IllegalStateException(
+                    String.format("Fixture %s was not found", name)
+                );
+            }
+            return stream.readAllBytes();
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
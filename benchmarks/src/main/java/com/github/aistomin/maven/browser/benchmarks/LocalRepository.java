@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The embedded HTTP server which plays Maven Central for the end-to-end
+ * benchmarks. The requests to "/search" get the search fixture, all the other
+ * requests get the metadata fixture.
+ *
+ * @since 2.0
+ */
+final class LocalRepository implements Closeable {
+
+    /**
+     * HTTP OK status.
+     */
+    private static final int OK = 200;
+
+    /**
+     * The server.
+     */
+    private final HttpServer server;
+
+    /**
+     * The threads which handle the requests.
+     */
+    private final ExecutorService threads;
+
+    /**
+     * Start the server on a free loopback port.
+     *
+     * @param search The response of the search API.
+     * @param metadata The content of maven-metadata.xml.
+     * @throws IOException If the server can't be started.
+     */
+    LocalRepository(
+        final byte[] search, final byte[] metadata
+    ) throws IOException {
+        this.server = HttpServer.create(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0
+        );
+        this.threads = Executors.newVirtualThreadPerTaskExecutor();
+        this.server.setExecutor(this.threads);
+        this.server.createContext(
+            "/",
+            exchange -> {
+                if (exchange.getRequestURI().getPath().startsWith("/search")) {
+                    LocalRepository.send(exchange, search, "application/json");
+                } else {
+                    LocalRepository.send(exchange, metadata, "text/xml");
+                }
+            }
+        );
+        this.server.start();
+    }
+
+    /**
+     * The base URL of the repository.
+     *
+     * @return The URL without the trailing slash.
+     */
+    String url() {
+        return String.format(
+            "http://%s:%d",
+            this.server.getAddress().getHostString(),
+            this.server.getAddress().getPort()
+        );
+    }
+
+    /**
+     * The URL of the search API.
+     *
+     * @return The URL.
+     */
+    String search() {
+        return String.format("%s/search", this.url());
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.threads.shutdownNow();
+    }
+
+    /**
+     * Send the response.
+     *
+     * @param exchange The exchange.
+     * @param body The body.
+     * @param type The content type.
+     * @throws IOException If sending fails.
+     */
+    private static void send(
+        final HttpExchange exchange, final byte[] body, final String type
+    ) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", type);
+            exchange.sendResponseHeaders(OK, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser.benchmarks;
+
+import com.github.aistomin.maven.browser.MavenCentral;
+import com.github.aistomin.maven.browser.MavenMetadata;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.NodeList;
+
+/**
+ * The benchmark of maven-metadata.xml parsing: the streaming
+ * {@link MavenMetadata} against the DOM parsing which was used before.
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetadataBenchmark {
+
+    /**
+     * The amount of versions in the synthetic metadata.
+     */
+    @Param({"100", "5000"})
+    private int versions;
+
+    /**
+     * The synthetic metadata.
+     */
+    private byte[] metadata;
+
+    /**
+     * Generate the synthetic metadata.
+     */
+    @Setup
+    public void setUp() {
+        this.metadata = Fixtures.metadata(this.versions)
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse all the versions with DOM, like MavenCentral did before.
+     *
+     * @return The versions, newest first.
+     * @throws Exception If parsing fails.
+     */
+    @Benchmark
+    public List<String> dom() throws Exception {
+        final NodeList nodes = DocumentBuilderFactory.newInstance()
+            .newDocumentBuilder()
+            .parse(new ByteArrayInputStream(this.metadata))
+            .getElementsByTagName("version");
+        final List<String> result = new ArrayList<>(nodes.getLength());
+        for (int idx = 0; idx < nodes.getLength(); ++idx) {
+            result.add(nodes.item(idx).getTextContent());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Parse all the versions with the streaming parser.
+     *
+     * @return The versions, newest first.
+     * @throws Exception If parsing fails.
+     */
+    @Benchmark
+    public List<String> stax() throws Exception {
+        return new MavenMetadata(
+            new ByteArrayInputStream(this.metadata)
+        ).versions();
+    }
+
+    /**
+     * Parse the first page of the newest versions with the streaming parser.
+     *
+     * @return The versions, newest first.
+     * @throws Exception If parsing fails.
+     */
+    @Benchmark
+    public List<String> staxPage() throws Exception {
+        return new MavenMetadata(
+            new ByteArrayInputStream(this.metadata), MavenCentral.MAX_ROWS
+        ).versions();
+    }
+}
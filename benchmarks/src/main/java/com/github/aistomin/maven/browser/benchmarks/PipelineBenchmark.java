@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser.benchmarks;
+
+import com.github.aistomin.maven.browser.MavenArtifact;
+import com.github.aistomin.maven.browser.MavenCentral;
+import com.github.aistomin.maven.browser.MavenGroup;
+import com.github.aistomin.maven.browser.MvnArtifact;
+import com.github.aistomin.maven.browser.MvnArtifactVersion;
+import com.github.aistomin.maven.browser.MvnRepo;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The end-to-end benchmark of {@link MavenCentral}: HTTP request, response
+ * parsing and filtering. The requests are served by the embedded HTTP server,
+ * so the numbers don't depend on the network and on the real Maven Central.
+ * The "recorded" fixtures were taken from Maven Central, the "synthetic" ones
+ * are big generated responses. The embedded server runs with TCP_NODELAY,
+ * otherwise Nagle's algorithm adds tens of milliseconds to every request.
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class PipelineBenchmark {
+
+    /**
+     * The amount of the documents in the synthetic search response.
+     */
+    private static final int DOCS = 200;
+
+    /**
+     * The amount of the versions in the synthetic metadata.
+     */
+    private static final int VERSIONS = 1_000;
+
+    /**
+     * The kind of the fixtures.
+     */
+    @Param({"recorded", "synthetic"})
+    private String fixtures;
+
+    /**
+     * The embedded repository.
+     */
+    private LocalRepository server;
+
+    /**
+     * The repository client.
+     */
+    private MvnRepo repo;
+
+    /**
+     * The artifact.
+     */
+    private MvnArtifact artifact;
+
+    /**
+     * The anchor version in the middle of the version history.
+     */
+    private MvnArtifactVersion anchor;
+
+    /**
+     * Start the embedded repository.
+     *
+     * @throws Exception If the repository can't be started.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        if ("recorded".equals(this.fixtures)) {
+            this.server = new LocalRepository(
+                Fixtures.recorded("search.json"),
+                Fixtures.recorded("maven-metadata.xml")
+            );
+        } else {
+            this.server = new LocalRepository(
+                Fixtures.search(DOCS).getBytes(StandardCharsets.UTF_8),
+                Fixtures.metadata(VERSIONS).getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        this.repo = new MavenCentral(this.server.url(), this.server.search());
+        this.artifact = new MavenArtifact(
+            new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+        );
+        final List<MvnArtifactVersion> all = this.repo.findVersions(
+            this.artifact, 0, Integer.MAX_VALUE
+        );
+        this.anchor = all.get(all.size() / 2);
+    }
+
+    /**
+     * Stop the embedded repository.
+     */
+    @TearDown
+    public void tearDown() {
+        this.server.close();
+    }
+
+    /**
+     * Search for the artifacts.
+     *
+     * @return The artifacts.
+     * @throws Exception If something went wrong.
+     */
+    @Benchmark
+    public List<MvnArtifact> findArtifacts() throws Exception {
+        return this.repo.findArtifacts("aistomin");
+    }
+
+    /**
+     * Read the first page of the versions.
+     *
+     * @return The versions.
+     * @throws Exception If something went wrong.
+     */
+    @Benchmark
+    public List<MvnArtifactVersion> findVersions() throws Exception {
+        return this.repo.findVersions(this.artifact);
+    }
+
+    /**
+     * Find the versions which are newer than the anchor.
+     *
+     * @return The versions.
+     * @throws Exception If something went wrong.
+     */
+    @Benchmark
+    public List<MvnArtifactVersion> findVersionsNewerThan() throws Exception {
+        return this.repo.findVersionsNewerThan(this.anchor);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser.benchmarks;
+
+import com.github.aistomin.maven.browser.MavenArtifact;
+import com.github.aistomin.maven.browser.MvnArtifact;
+import com.github.aistomin.maven.browser.SearchResponse;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The benchmark of the search API response parsing: the streaming
+ * {@link SearchResponse} against the json-simple tree which was used before.
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    /**
+     * The amount of the documents in the synthetic response.
+     */
+    @Param({"20", "200"})
+    private int docs;
+
+    /**
+     * The synthetic response.
+     */
+    private byte[] response;
+
+    /**
+     * Generate the synthetic response.
+     */
+    @Setup
+    public void setUp() {
+        this.response = Fixtures.search(this.docs)
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the body into a string and parse it into the json-simple tree,
+     * like MavenCentral did before.
+     *
+     * @return The artifacts.
+     * @throws Exception If parsing fails.
+     */
+    @Benchmark
+    public List<MvnArtifact> tree() throws Exception {
+        final JSONArray found = (JSONArray) (
+            (JSONObject) ((JSONObject) new JSONParser().parse(
+                new String(this.response, StandardCharsets.UTF_8)
+            )).get("response")
+        ).get("docs");
+        final List<MvnArtifact> result = new ArrayList<>(found.size());
+        for (final Object doc : found) {
+            result.add(new MavenArtifact((JSONObject) doc));
+        }
+        return result;
+    }
+
+    /**
+     * Parse the body with the streaming tokenizer.
+     *
+     * @return The artifacts.
+     * @throws Exception If parsing fails.
+     */
+    @Benchmark
+    public List<MvnArtifact> streaming() throws Exception {
+        final List<MvnArtifact> result = new ArrayList<>(this.docs);
+        new SearchResponse(new ByteArrayInputStream(this.response))
+            .artifacts(result::add);
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser.benchmarks;
+
+import com.github.aistomin.maven.browser.MavenArtifact;
+import com.github.aistomin.maven.browser.MavenArtifactVersion;
+import com.github.aistomin.maven.browser.MavenGroup;
+import com.github.aistomin.maven.browser.MvnArtifact;
+import com.github.aistomin.maven.browser.MvnArtifactVersion;
+import com.github.aistomin.maven.browser.MvnPackagingType;
+import com.github.aistomin.maven.browser.VersionIndex;
+import java.lang.module.ModuleDescriptor.Version;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The benchmark of filtering the versions which are newer than the anchor
+ * version: parsing both versions on every comparison, like MavenCentral did
+ * before, against comparing the cached version keys and against the binary
+ * search in the sorted {@link VersionIndex}.
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionBenchmark {
+
+    /**
+     * The amount of versions of the artifact.
+     */
+    @Param({"100", "3000"})
+    private int versions;
+
+    /**
+     * The versions of the artifact.
+     */
+    private List<MvnArtifactVersion> all;
+
+    /**
+     * The sorted index of the versions.
+     */
+    private VersionIndex index;
+
+    /**
+     * The anchor version.
+     */
+    private MvnArtifactVersion anchor;
+
+    /**
+     * Generate the versions.
+     */
+    @Setup
+    public void setUp() {
+        final MvnArtifact artifact = new MavenArtifact(
+            new MavenGroup("org.example"), "example"
+        );
+        this.all = new ArrayList<>(this.versions);
+        for (int idx = 0; idx < this.versions; ++idx) {
+            this.all.add(
+                new MavenArtifactVersion(
+                    artifact, Fixtures.version(idx), MvnPackagingType.JAR, null
+                )
+            );
+        }
+        this.anchor = this.all.get(this.versions / 2);
+        for (final MvnArtifactVersion version : this.all) {
+            version.key();
+        }
+        this.index = new VersionIndex(this.all);
+    }
+
+    /**
+     * Filter the newer versions parsing both versions on every comparison.
+     *
+     * @return The newer versions.
+     */
+    @Benchmark
+    public List<MvnArtifactVersion> parse() {
+        final List<MvnArtifactVersion> result = new ArrayList<>();
+        for (final MvnArtifactVersion version : this.all) {
+            if (Version.parse(version.name())
+                .compareTo(Version.parse(this.anchor.name())) > 0) {
+                result.add(version);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Filter the newer versions comparing the cached version keys.
+     *
+     * @return The newer versions.
+     */
+    @Benchmark
+    public List<MvnArtifactVersion> keys() {
+        final List<MvnArtifactVersion> result = new ArrayList<>();
+        for (final MvnArtifactVersion version : this.all) {
+            if (version.key().compareTo(this.anchor.key()) > 0) {
+                result.add(version);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the newer versions with the binary search in the sorted index.
+     *
+     * @return The newer versions.
+     */
+    @Benchmark
+    public List<MvnArtifactVersion> index() {
+        return this.index.newerThan(this.anchor);
+    }
+}
@@ -0,0 +1,26 @@
+import com.github.aistomin.maven.browser.UpgradeCheck
+
+import java.nio.file.Paths
+
+/**
+ * This example demonstrates how we can check all the dependencies, the managed
+ * dependencies and the plugins of the pom file for the available upgrades at
+ * once.
+ */
+@Grapes(
+    @Grab(
+        group = 'com.github.aistomin',
+        module = 'maven-browser',
+        version = '5.0'
+    )
+)
+println('Checking pom_sample.xml for upgrades .....')
+final report = new UpgradeCheck().report(Paths.get('pom_sample.xml'))
+println()
+report.upgrades().each { println(it) }
+report.failures().each { artifact, error ->
+    println("Failed to look up ${artifact.identifier()}: ${error.message}")
+}
+report.unresolved().each { println("Version is not declared: ${it.key()}") }
+println()
+println('Done.')
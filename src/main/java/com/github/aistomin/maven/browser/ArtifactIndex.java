@@ -0,0 +1,611 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The on-disk index of the {@code groupId:artifactId} coordinates which is
+ * written by {@link ArtifactIndexWriter}.
+ * The index consists of the shard files of its current generation: the
+ * subdirectory which is named by the file {@code CURRENT}, or the directory
+ * of the index itself if there is no such file. Every shard keeps a
+ * contiguous range
+ * of the coordinates which are sorted case-insensitively, and the table of
+ * their tokens which is sorted by the rest of the coordinate from the token on:
+ * <pre>
+ * magic | count | tokens | offsets (count + 1 ints)
+ *  | token table (tokens * (position, coordinate) ints) | coordinates (bytes)
+ * </pre>
+ * The shards are memory-mapped, so opening the index doesn't read them. The
+ * prefix and the token queries are answered with the binary search, and the
+ * substring query scans the coordinates. The search compares the bytes of the
+ * mapped shards in place and passes every hit to the {@link Visitor} as the
+ * same reused {@link CharSequence}, so it doesn't allocate per hit. The
+ * matching ignores the case of ASCII letters.
+ * The index is immutable and may be searched concurrently.
+ *
+ * @since 2.0
+ */
+public final class ArtifactIndex {
+
+    /**
+     * The first int of every shard file.
+     */
+    static final int MAGIC = 0x4d424149;
+
+    /**
+     * The size of the shard header in bytes: the magic, the amount of the
+     * coordinates and the amount of the tokens.
+     */
+    static final int HEADER = 3 * Integer.BYTES;
+
+    /**
+     * The size of the entry of the table of the tokens in bytes: the
+     * position of the token and the number of its coordinate.
+     */
+    static final int ENTRY = 2 * Integer.BYTES;
+
+    /**
+     * The pattern of the names of the shard files.
+     */
+    static final Pattern SHARD = Pattern.compile("shard-\\d+\\.idx");
+
+    /**
+     * The name of the file which names the current generation.
+     */
+    static final String CURRENT = "CURRENT";
+
+    /**
+     * The shards in the order of their coordinates.
+     */
+    private final Shard[] shards;
+
+    /**
+     * Ctor.
+     *
+     * @param dir The directory of the index.
+     * @throws IOException If the index can't be read.
+     */
+    public ArtifactIndex(final Path dir) throws IOException {
+        Shard[] opened;
+        try {
+            opened = ArtifactIndex.open(dir);
+        } catch (final NoSuchFileException exception) {
+            opened = ArtifactIndex.open(dir);
+        }
+        this.shards = opened;
+    }
+
+    /**
+     * The amount of the coordinates in the index.
+     *
+     * @return The amount of the coordinates.
+     */
+    public int size() {
+        int size = 0;
+        for (final Shard shard : this.shards) {
+            size += shard.count;
+        }
+        return size;
+    }
+
+    /**
+     * The amount of the shards of the index.
+     *
+     * @return The amount of the shards.
+     */
+    public int shards() {
+        return this.shards.length;
+    }
+
+    /**
+     * Search the coordinates which match the query. The hits are visited in
+     * the case-insensitive order of the coordinates.
+     *
+     * @param query The query.
+     * @param match How the query matches the coordinates.
+     * @param visitor The visitor of the hits.
+     */
+    public void search(
+        final String query, final Match match, final Visitor visitor
+    ) {
+        final byte[] needle = query.getBytes(StandardCharsets.UTF_8);
+        for (int idx = 0; idx < needle.length; ++idx) {
+            needle[idx] = (byte) ArtifactIndex.fold(needle[idx]);
+        }
+        final Coordinate hit = new Coordinate();
+        for (final Shard shard : this.shards) {
+            if (!shard.search(needle, match, hit, visitor)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * The directory of the current generation of the shards.
+     *
+     * @param dir The directory of the index.
+     * @return The directory of the shards.
+     * @throws IOException If the name of the generation can't be read.
+     */
+    static Path generation(final Path dir) throws IOException {
+        final Path manifest = dir.resolve(ArtifactIndex.CURRENT);
+        Path result = dir;
+        if (Files.exists(manifest)) {
+            result = dir.resolve(
+                Files.readString(manifest, StandardCharsets.UTF_8).trim()
+            );
+        }
+        return result;
+    }
+
+    /**
+     * The shard files of the index in the order of their names.
+     *
+     * @param dir The directory of the index.
+     * @return The shard files.
+     * @throws IOException If the directory can't be read.
+     */
+    static List<Path> files(final Path dir) throws IOException {
+        try (Stream<Path> list = Files.list(dir)) {
+            return list
+                .filter(
+                    file -> ArtifactIndex.SHARD.matcher(
+                        file.getFileName().toString()
+                    ).matches()
+                )
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Open the shards of the current generation.
+     *
+     * @param dir The directory of the index.
+     * @return The shards.
+     * @throws IOException If the shards can't be read.
+     */
+    private static Shard[] open(final Path dir) throws IOException {
+        final List<Path> files = ArtifactIndex.files(
+            ArtifactIndex.generation(dir)
+        );
+        final Shard[] opened = new Shard[files.size()];
+        for (int idx = 0; idx < opened.length; ++idx) {
+            opened[idx] = new Shard(files.get(idx));
+        }
+        return opened;
+    }
+
+    /**
+     * Lower the case of the ASCII letter.
+     *
+     * @param value The byte.
+     * @return The lower case byte.
+     */
+    static int fold(final byte value) {
+        int result = Byte.toUnsignedInt(value);
+        if (result >= 'A' && result <= 'Z') {
+            result += 'a' - 'A';
+        }
+        return result;
+    }
+
+    /**
+     * Check whether the byte separates the tokens of the coordinate.
+     *
+     * @param value The byte.
+     * @return True if it is a separator.
+     */
+    static boolean separator(final byte value) {
+        return value == ':' || value == '.' || value == '-' || value == '_';
+    }
+
+    /**
+     * How the query matches the coordinate.
+     *
+     * @since 2.0
+     */
+    public enum Match {
+
+        /**
+         * The coordinate starts with the query. It is answered with the
+         * binary search.
+         */
+        PREFIX,
+
+        /**
+         * The coordinate contains the query.
+         */
+        SUBSTRING,
+
+        /**
+         * The coordinate contains the query which starts at the beginning of
+         * the coordinate or after one of {@code : . - _}. It is answered with
+         * the binary search.
+         */
+        TOKEN
+    }
+
+    /**
+     * The visitor of the hits of the search.
+     *
+     * @since 2.0
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * Visit the hit.
+         *
+         * @param coordinate The coordinate {@code groupId:artifactId}. It is
+         *  reused for the next hit, so it must not be kept.
+         * @return True to continue the search, false to stop it.
+         */
+        boolean visit(CharSequence coordinate);
+    }
+
+    /**
+     * One memory-mapped shard of the index.
+     *
+     * @since 2.0
+     */
+    private static final class Shard {
+
+        /**
+         * The mapped shard file.
+         */
+        private final ByteBuffer data;
+
+        /**
+         * The amount of the coordinates in the shard.
+         */
+        private final int count;
+
+        /**
+         * The amount of the tokens in the shard.
+         */
+        private final int tokens;
+
+        /**
+         * The position of the table of the tokens.
+         */
+        private final int table;
+
+        /**
+         * Ctor.
+         *
+         * @param file The shard file.
+         * @throws IOException If the file can't be read or is not a shard.
+         */
+        Shard(final Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(
+                file, StandardOpenOption.READ
+            )) {
+                this.data = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size()
+                );
+            }
+            if (this.data.capacity() < HEADER
+                || this.data.getInt(0) != MAGIC) {
+                throw new IOException(
+                    String.format("Not an artifact index shard: %s", file)
+                );
+            }
+            this.count = this.data.getInt(Integer.BYTES);
+            this.tokens = this.data.getInt(2 * Integer.BYTES);
+            this.table = HEADER + (this.count + 1) * Integer.BYTES;
+        }
+
+        /**
+         * Search the coordinates of the shard.
+         *
+         * @param needle The lower case query.
+         * @param match How the query matches the coordinates.
+         * @param hit The reused hit.
+         * @param visitor The visitor of the hits.
+         * @return False if the visitor stopped the search.
+         */
+        boolean search(
+            final byte[] needle, final Match match, final Coordinate hit,
+            final Visitor visitor
+        ) {
+            final boolean more;
+            if (match == Match.PREFIX) {
+                more = this.prefix(needle, hit, visitor);
+            } else if (match == Match.TOKEN) {
+                more = this.token(needle, hit, visitor);
+            } else {
+                more = this.scan(needle, hit, visitor);
+            }
+            return more;
+        }
+
+        /**
+         * Visit the coordinates which start with the query. They are found
+         * with the binary search.
+         *
+         * @param needle The lower case query.
+         * @param hit The reused hit.
+         * @param visitor The visitor of the hits.
+         * @return False if the visitor stopped the search.
+         */
+        private boolean prefix(
+            final byte[] needle, final Coordinate hit, final Visitor visitor
+        ) {
+            int low = 0;
+            int high = this.count;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                final int start = this.start(mid);
+                if (this.compare(start, this.start(mid + 1), needle) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            boolean more = true;
+            for (int idx = low; more && idx < this.count; ++idx) {
+                final int start = this.start(idx);
+                final int end = this.start(idx + 1);
+                if (end - start < needle.length || !this.at(start, needle)) {
+                    break;
+                }
+                more = this.visit(idx, hit, visitor);
+            }
+            return more;
+        }
+
+        /**
+         * Visit the coordinates which have the token which starts with the
+         * query. The tokens are found with the binary search in the table of
+         * the tokens which is sorted by the rest of the coordinate from the
+         * token on.
+         *
+         * @param needle The lower case query.
+         * @param hit The reused hit.
+         * @param visitor The visitor of the hits.
+         * @return False if the visitor stopped the search.
+         */
+        private boolean token(
+            final byte[] needle, final Coordinate hit, final Visitor visitor
+        ) {
+            int low = 0;
+            int high = this.tokens;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (this.compareToken(mid, needle) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int[] found = new int[0];
+            int size = 0;
+            for (int idx = low; idx < this.tokens; ++idx) {
+                final int pos = this.data.getInt(this.table + idx * ENTRY);
+                final int end = this.start(this.owner(idx) + 1);
+                if (end - pos < needle.length || !this.at(pos, needle)) {
+                    break;
+                }
+                if (size == found.length) {
+                    found = Arrays.copyOf(found, Math.max(2, size * 2));
+                }
+                found[size] = this.owner(idx);
+                ++size;
+            }
+            Arrays.sort(found, 0, size);
+            boolean more = true;
+            for (int idx = 0; more && idx < size; ++idx) {
+                if (idx == 0 || found[idx] != found[idx - 1]) {
+                    more = this.visit(found[idx], hit, visitor);
+                }
+            }
+            return more;
+        }
+
+        /**
+         * Visit the coordinates which contain the query. They are found by
+         * scanning all the coordinates of the shard.
+         *
+         * @param needle The lower case query.
+         * @param hit The reused hit.
+         * @param visitor The visitor of the hits.
+         * @return False if the visitor stopped the search.
+         */
+        private boolean scan(
+            final byte[] needle, final Coordinate hit, final Visitor visitor
+        ) {
+            boolean more = true;
+            for (int idx = 0; more && idx < this.count; ++idx) {
+                final int start = this.start(idx);
+                final int last = this.start(idx + 1) - needle.length;
+                boolean found = false;
+                for (int pos = start; !found && pos <= last; ++pos) {
+                    found = this.at(pos, needle);
+                }
+                if (found) {
+                    more = this.visit(idx, hit, visitor);
+                }
+            }
+            return more;
+        }
+
+        /**
+         * Visit the coordinate.
+         *
+         * @param idx The number of the coordinate.
+         * @param hit The reused hit.
+         * @param visitor The visitor of the hits.
+         * @return False if the visitor stopped the search.
+         */
+        private boolean visit(
+            final int idx, final Coordinate hit, final Visitor visitor
+        ) {
+            final int start = this.start(idx);
+            hit.point(this.data, start, this.start(idx + 1) - start);
+            return visitor.visit(hit);
+        }
+
+        /**
+         * The position of the coordinate in the shard file.
+         *
+         * @param idx The number of the coordinate, count for the end of the
+         *  last one.
+         * @return The position.
+         */
+        private int start(final int idx) {
+            return this.data.getInt(HEADER + idx * Integer.BYTES);
+        }
+
+        /**
+         * The number of the coordinate which the token belongs to.
+         *
+         * @param idx The number of the token.
+         * @return The number of the coordinate.
+         */
+        private int owner(final int idx) {
+            return this.data.getInt(this.table + idx * ENTRY + Integer.BYTES);
+        }
+
+        /**
+         * Compare the rest of the coordinate from the token on with the query
+         * ignoring the case.
+         *
+         * @param idx The number of the token.
+         * @param needle The lower case query.
+         * @return Negative, zero or positive like {@link Comparable}.
+         */
+        private int compareToken(final int idx, final byte[] needle) {
+            return this.compare(
+                this.data.getInt(this.table + idx * ENTRY),
+                this.start(this.owner(idx) + 1), needle
+            );
+        }
+
+        /**
+         * Compare the bytes with the query ignoring the case.
+         *
+         * @param start The position of the bytes.
+         * @param end The position after the bytes.
+         * @param needle The lower case query.
+         * @return Negative, zero or positive like {@link Comparable}.
+         */
+        private int compare(
+            final int start, final int end, final byte[] needle
+        ) {
+            final int length = end - start;
+            final int common = Math.min(length, needle.length);
+            int result = 0;
+            for (int pos = 0; result == 0 && pos < common; ++pos) {
+                result = ArtifactIndex.fold(this.data.get(start + pos))
+                    - Byte.toUnsignedInt(needle[pos]);
+            }
+            if (result == 0) {
+                result = length - needle.length;
+            }
+            return result;
+        }
+
+        /**
+         * Check whether the query is located at the position.
+         *
+         * @param pos The position.
+         * @param needle The lower case query.
+         * @return True if it is.
+         */
+        private boolean at(final int pos, final byte[] needle) {
+            boolean same = true;
+            for (int idx = 0; same && idx < needle.length; ++idx) {
+                same = ArtifactIndex.fold(this.data.get(pos + idx))
+                    == Byte.toUnsignedInt(needle[idx]);
+            }
+            return same;
+        }
+    }
+
+    /**
+     * The reused view of the coordinate in the mapped shard. The coordinates
+     * are ASCII, so every byte is one character.
+     *
+     * @since 2.0
+     */
+    private static final class Coordinate implements CharSequence {
+
+        /**
+         * The mapped shard file.
+         */
+        private ByteBuffer data;
+
+        /**
+         * The position of the coordinate.
+         */
+        private int start;
+
+        /**
+         * The length of the coordinate.
+         */
+        private int size;
+
+        /**
+         * Point the view to the coordinate.
+         *
+         * @param buffer The mapped shard file.
+         * @param pos The position of the coordinate.
+         * @param length The length of the coordinate.
+         */
+        void point(final ByteBuffer buffer, final int pos, final int length) {
+            this.data = buffer;
+            this.start = pos;
+            this.size = length;
+        }
+
+        @Override
+        public int length() {
+            return this.size;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return (char) Byte.toUnsignedInt(this.data.get(this.start + index));
+        }
+
+        @Override
+        public CharSequence subSequence(final int begin, final int end) {
+            return this.toString().substring(begin, end);
+        }
+
+        @Override
+        public String toString() {
+            final byte[] bytes = new byte[this.size];
+            this.data.get(this.start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
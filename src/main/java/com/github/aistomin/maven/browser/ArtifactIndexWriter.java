@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * The writer of {@link ArtifactIndex}. It collects the coordinates from the
+ * search results, the local repository or the dump file, sorts them and
+ * writes them into the shard files of the given size. Every write creates a
+ * new generation of the shards and switches the index to it by replacing
+ * the file {@code CURRENT} atomically, so the readers see either the old or
+ * the new index; the previous generation is deleted then.
+ *
+ * @since 2.0
+ */
+public final class ArtifactIndexWriter {
+
+    /**
+     * Default max amount of the coordinates in one shard.
+     */
+    public static final int SHARD_SIZE = 1 << 18;
+
+    /**
+     * Max amount of the coordinates in one shard.
+     */
+    private final int shard;
+
+    /**
+     * The collected coordinates.
+     */
+    private final Set<String> coordinates;
+
+    /**
+     * Ctor.
+     *
+     * @param size Max amount of the coordinates in one shard.
+     */
+    public ArtifactIndexWriter(final int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException(
+                String.format("The shard size must be positive: %d", size)
+            );
+        }
+        this.shard = size;
+        this.coordinates = new HashSet<>();
+    }
+
+    /**
+     * Ctor.
+     */
+    public ArtifactIndexWriter() {
+        this(SHARD_SIZE);
+    }
+
+    /**
+     * Add the artifact.
+     *
+     * @param artifact The artifact.
+     * @return This writer.
+     */
+    public ArtifactIndexWriter add(final MvnArtifact artifact) {
+        this.coordinates.add(artifact.identifier());
+        return this;
+    }
+
+    /**
+     * Add the artifacts, for example the search results.
+     *
+     * @param artifacts The artifacts.
+     * @return This writer.
+     */
+    public ArtifactIndexWriter add(
+        final Collection<? extends MvnArtifact> artifacts
+    ) {
+        for (final MvnArtifact artifact : artifacts) {
+            this.add(artifact);
+        }
+        return this;
+    }
+
+    /**
+     * Add all the artifacts of the local repository.
+     *
+     * @param repo The local repository.
+     * @return This writer.
+     * @throws MvnException If the problem occurred while scanning the repo.
+     */
+    public ArtifactIndexWriter add(final LocalRepo repo) throws MvnException {
+        return this.add(repo.findArtifacts("", 0, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Add the coordinates from the dump file. Every line of the file is
+     * {@code groupId:artifactId}, optionally followed by more
+     * {@code :}-separated parts which are ignored. The empty lines and the
+     * lines which start with {@code #} are skipped.
+     *
+     * @param file The dump file.
+     * @return This writer.
+     * @throws IOException If the file can't be read or has a malformed line.
+     */
+    public ArtifactIndexWriter dump(final Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(
+            file, StandardCharsets.UTF_8
+        )) {
+            int number = 0;
+            for (String line = reader.readLine(); line != null;
+                line = reader.readLine()) {
+                ++number;
+                final String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.charAt(0) == '#') {
+                    continue;
+                }
+                final String[] parts = trimmed.split(":", -1);
+                if (parts.length < 2 || parts[0].isEmpty()
+                    || parts[1].isEmpty()) {
+                    throw new IOException(
+                        String.format(
+                            "Malformed coordinate at %s:%d: %s",
+                            file, number, line
+                        )
+                    );
+                }
+                this.coordinates.add(
+                    String.format("%s:%s", parts[0], parts[1])
+                );
+            }
+        }
+        return this;
+    }
+
+    /**
+     * The amount of the collected coordinates.
+     *
+     * @return The amount of the coordinates.
+     */
+    public int size() {
+        return this.coordinates.size();
+    }
+
+    /**
+     * Write the index into the directory and open it. The shards of the
+     * previous index in the directory are replaced.
+     *
+     * @param dir The directory of the index.
+     * @return The written index.
+     * @throws IOException If the index can't be written.
+     */
+    public ArtifactIndex write(final Path dir) throws IOException {
+        final List<byte[]> sorted = new ArrayList<>(this.coordinates.size());
+        for (final String coordinate : this.coordinates) {
+            sorted.add(coordinate.getBytes(StandardCharsets.UTF_8));
+        }
+        sorted.sort(
+            Comparator.comparing(
+                (byte[] bytes) -> bytes,
+                (first, second) -> ArtifactIndexWriter.compare(
+                    first, 0, second, 0
+                )
+            ).thenComparing(Arrays::compareUnsigned)
+        );
+        Files.createDirectories(dir);
+        final Path previous = ArtifactIndex.generation(dir);
+        final Path next = Files.createTempDirectory(dir, "gen-");
+        try {
+            for (int from = 0, number = 0; from < sorted.size();
+                from += this.shard, ++number) {
+                ArtifactIndexWriter.shard(
+                    next.resolve(String.format("shard-%05d.idx", number)),
+                    sorted.subList(
+                        from, Math.min(from + this.shard, sorted.size())
+                    )
+                );
+            }
+            final Path manifest = Files.createTempFile(
+                dir, ArtifactIndex.CURRENT, ".tmp"
+            );
+            Files.writeString(
+                manifest, next.getFileName().toString(),
+                StandardCharsets.UTF_8
+            );
+            Files.move(
+                manifest, dir.resolve(ArtifactIndex.CURRENT),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+        } catch (final IOException exception) {
+            ArtifactIndexWriter.delete(next);
+            throw exception;
+        }
+        if (previous.equals(dir)) {
+            for (final Path old : ArtifactIndex.files(dir)) {
+                Files.delete(old);
+            }
+        } else {
+            ArtifactIndexWriter.delete(previous);
+        }
+        return new ArtifactIndex(dir);
+    }
+
+    /**
+     * Write one shard file. The file is written next to its place and moved
+     * there, so the readers never see the partial shard.
+     *
+     * @param file The shard file.
+     * @param coordinates The sorted coordinates of the shard.
+     * @throws IOException If the file can't be written.
+     */
+    private static void shard(
+        final Path file, final List<byte[]> coordinates
+    ) throws IOException {
+        final List<long[]> tokens = ArtifactIndexWriter.tokens(coordinates);
+        final long table = ArtifactIndex.HEADER
+            + (coordinates.size() + 1L) * Integer.BYTES;
+        final long base = table + (long) tokens.size() * ArtifactIndex.ENTRY;
+        long size = base;
+        final int[] starts = new int[coordinates.size() + 1];
+        for (int idx = 0; idx < coordinates.size(); ++idx) {
+            starts[idx] = (int) size;
+            size += coordinates.get(idx).length;
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(
+                    String.format("The shard is too big: %s", file)
+                );
+            }
+        }
+        starts[coordinates.size()] = (int) size;
+        final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(ArtifactIndex.MAGIC)
+            .putInt(coordinates.size())
+            .putInt(tokens.size());
+        for (final int start : starts) {
+            buffer.putInt(start);
+        }
+        for (final long[] token : tokens) {
+            final int owner = (int) token[0];
+            buffer.putInt(starts[owner] + (int) token[1]).putInt(owner);
+        }
+        for (final byte[] coordinate : coordinates) {
+            buffer.put(coordinate);
+        }
+        buffer.flip();
+        final Path temp = file.resolveSibling(
+            String.format("%s.tmp", file.getFileName())
+        );
+        try (FileChannel channel = FileChannel.open(
+            temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Delete the generation directory with its files.
+     *
+     * @param generation The directory.
+     * @throws IOException If the directory can't be deleted.
+     */
+    private static void delete(final Path generation) throws IOException {
+        if (Files.isDirectory(generation)) {
+            try (Stream<Path> files = Files.list(generation)) {
+                for (final Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(generation);
+        }
+    }
+
+    /**
+     * Find the tokens of the coordinates and sort them by the rest of the
+     * coordinate from the token on.
+     *
+     * @param coordinates The coordinates.
+     * @return The tokens: the number of the coordinate and the position of
+     *  the token in it.
+     */
+    private static List<long[]> tokens(final List<byte[]> coordinates) {
+        final List<long[]> tokens = new ArrayList<>(coordinates.size() * 2);
+        for (int idx = 0; idx < coordinates.size(); ++idx) {
+            final byte[] coordinate = coordinates.get(idx);
+            for (int pos = 0; pos < coordinate.length; ++pos) {
+                if (pos == 0 || ArtifactIndex.separator(coordinate[pos - 1])) {
+                    tokens.add(new long[] {idx, pos});
+                }
+            }
+        }
+        tokens.sort(
+            (first, second) -> ArtifactIndexWriter.compare(
+                coordinates.get((int) first[0]), (int) first[1],
+                coordinates.get((int) second[0]), (int) second[1]
+            )
+        );
+        return tokens;
+    }
+
+    /**
+     * Compare the rests of the coordinates ignoring the case like
+     * {@link ArtifactIndex} does.
+     *
+     * @param first The first coordinate.
+     * @param from The position in the first coordinate.
+     * @param second The second coordinate.
+     * @param start The position in the second coordinate.
+     * @return Negative, zero or positive like {@link Comparable}.
+     */
+    private static int compare(
+        final byte[] first, final int from, final byte[] second,
+        final int start
+    ) {
+        final int common = Math.min(
+            first.length - from, second.length - start
+        );
+        int result = 0;
+        for (int pos = 0; result == 0 && pos < common; ++pos) {
+            result = ArtifactIndex.fold(first[from + pos])
+                - ArtifactIndex.fold(second[start + pos]);
+        }
+        if (result == 0) {
+            result = (first.length - from) - (second.length - start);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The search results which are read from the repository page by page.
+ * The next page is fetched only when the consumer reads past the current one,
+ * so the short-circuiting operations like {@link Stream#findFirst()} or
+ * {@link Stream#limit(long)} stop fetching. Optionally one page ahead is
+ * prefetched in the background while the current one is consumed. The paging
+ * stops after the first page which is shorter than the page size.
+ * The prefetching stream must be closed when it's abandoned before the end:
+ * closing interrupts the thread which fetches the next page. The prefetch of
+ * an abandoned {@link #iterator()} can't be interrupted, it runs until the
+ * page is fetched.
+ * The problems of the repository are thrown as
+ * {@link UncheckedMvnException}.
+ *
+ * @since 2.0
+ */
+public final class ArtifactPages implements Iterable<MvnArtifact> {
+
+    /**
+     * The repository.
+     */
+    private final MvnRepo repo;
+
+    /**
+     * The search string.
+     */
+    private final String query;
+
+    /**
+     * The amount of the artifacts in one page.
+     */
+    private final int rows;
+
+    /**
+     * Whether the next page should be fetched in the background.
+     */
+    private final boolean prefetch;
+
+    /**
+     * Ctor.
+     *
+     * @param repository The repository.
+     * @param str The search string. It may be a part of group or artifact
+     *  name.
+     * @param size The amount of the artifacts in one page.
+     * @param ahead Whether the next page should be fetched in the background.
+     */
+    public ArtifactPages(
+        final MvnRepo repository, final String str, final int size,
+        final boolean ahead
+    ) {
+        if (size < 1) {
+            throw new IllegalArgumentException(
+                String.format("Page size must be positive: %d", size)
+            );
+        }
+        this.repo = repository;
+        this.query = str;
+        this.rows = size;
+        this.prefetch = ahead;
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param repository The repository.
+     * @param str The search string. It may be a part of group or artifact
+     *  name.
+     */
+    public ArtifactPages(final MvnRepo repository, final String str) {
+        this(repository, str, MavenCentral.MAX_ROWS, false);
+    }
+
+    @Override
+    public Iterator<MvnArtifact> iterator() {
+        return new Pages();
+    }
+
+    /**
+     * The lazy stream of the found artifacts. Closing the stream interrupts
+     * the prefetch and discards the prefetched page.
+     *
+     * @return The stream of the artifacts.
+     */
+    public Stream<MvnArtifact> stream() {
+        final Pages pages = new Pages();
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                pages, Spliterator.ORDERED | Spliterator.NONNULL
+            ),
+            false
+        ).onClose(pages::close);
+    }
+
+    /**
+     * Fetch one page of the artifacts from the repository.
+     *
+     * @param start The start index of the page.
+     * @return The artifacts.
+     */
+    private List<MvnArtifact> page(final int start) {
+        try {
+            return this.repo.findArtifacts(this.query, start, this.rows);
+        } catch (final MvnException exception) {
+            throw new UncheckedMvnException(exception);
+        }
+    }
+
+    /**
+     * The iterator over the pages of the search results.
+     *
+     * @since 2.0
+     */
+    private final class Pages implements Iterator<MvnArtifact> {
+
+        /**
+         * The current page.
+         */
+        private List<MvnArtifact> current;
+
+        /**
+         * The position in the current page.
+         */
+        private int position;
+
+        /**
+         * The start index of the next page.
+         */
+        private int offset;
+
+        /**
+         * Whether the current page is the last one.
+         */
+        private boolean last;
+
+        /**
+         * The next page which is fetched in the background or null.
+         */
+        private FutureTask<List<MvnArtifact>> ahead;
+
+        /**
+         * Ctor.
+         */
+        Pages() {
+            this.current = List.of();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.position >= this.current.size() && !this.last) {
+                this.current = this.advance();
+                this.position = 0;
+            }
+            return this.position < this.current.size();
+        }
+
+        @Override
+        public MvnArtifact next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final MvnArtifact artifact = this.current.get(this.position);
+            ++this.position;
+            return artifact;
+        }
+
+        /**
+         * Stop paging, interrupt the prefetch and discard the prefetched page.
+         */
+        void close() {
+            this.last = true;
+            this.current = List.of();
+            if (this.ahead != null) {
+                this.ahead.cancel(true);
+                this.ahead = null;
+            }
+        }
+
+        /**
+         * Fetch the next page and start prefetching the one after it.
+         *
+         * @return The next page.
+         */
+        private List<MvnArtifact> advance() {
+            final List<MvnArtifact> loaded;
+            if (this.ahead == null) {
+                loaded = ArtifactPages.this.page(this.offset);
+            } else {
+                loaded = Pages.await(this.ahead);
+                this.ahead = null;
+            }
+            this.offset += ArtifactPages.this.rows;
+            this.last = loaded.size() < ArtifactPages.this.rows;
+            if (!this.last && ArtifactPages.this.prefetch) {
+                final int start = this.offset;
+                this.ahead = new FutureTask<>(
+                    () -> ArtifactPages.this.page(start)
+                );
+                Thread.startVirtualThread(this.ahead);
+            }
+            return loaded;
+        }
+
+        /**
+         * Wait for the page which is fetched in the background.
+         *
+         * @param page The page in progress.
+         * @return The page.
+         */
+        private static List<MvnArtifact> await(
+            final FutureTask<List<MvnArtifact>> page
+        ) {
+            try {
+                return page.get();
+            } catch (final InterruptedException exception) {
+                page.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new UncheckedMvnException(new MvnException(exception));
+            } catch (final ExecutionException exception) {
+                if (exception.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) exception.getCause();
+                }
+                if (exception.getCause() instanceof Error) {
+                    throw (Error) exception.getCause();
+                }
+                throw new IllegalStateException(exception.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * The non-blocking version of {@link MavenCentral}. It's built on
+ * {@link HttpClient}, so no thread is held while the request is in flight.
+ * The response is parsed on the executor of the HTTP client. By default it
+ * uses the HTTP client which is shared with {@link HttpClientTransport}.
+ *
+ * @since 2.0
+ */
+public final class AsyncMavenCentral implements AsyncMvnRepo {
+
+    /**
+     * The Maven repository base URL for fetching metadata.
+     */
+    private final String repo;
+
+    /**
+     * The Maven search API URL for artifact search.
+     */
+    private final String search;
+
+    /**
+     * The transport which we use to read the data from the repository.
+     */
+    private final HttpClientTransport transport;
+
+    /**
+     * Parametrised ctor.
+     *
+     * @param repository The Maven repo base URL for fetching metadata.
+     * @param searchApi The Maven search API URL.
+     * @param http The transport which we use to read the data.
+     */
+    public AsyncMavenCentral(
+        final String repository, final String searchApi,
+        final HttpClientTransport http
+    ) {
+        this.repo = repository;
+        this.search = searchApi;
+        this.transport = http;
+    }
+
+    /**
+     * Parametrised ctor.
+     *
+     * @param repository The Maven repo base URL for fetching metadata.
+     * @param searchApi The Maven search API URL.
+     * @param http HTTP client.
+     */
+    public AsyncMavenCentral(
+        final String repository, final String searchApi,
+        final HttpClient http
+    ) {
+        this(
+            repository, searchApi,
+            new HttpClientTransport(http, HttpClientTransport.READ_TIMEOUT)
+        );
+    }
+
+    /**
+     * Parametrised ctor.
+     *
+     * @param repository The Maven repo base URL for fetching metadata.
+     * @param searchApi The Maven search API URL.
+     */
+    public AsyncMavenCentral(
+        final String repository, final String searchApi
+    ) {
+        this(repository, searchApi, new HttpClientTransport());
+    }
+
+    /**
+     * Ctor.
+     */
+    public AsyncMavenCentral() {
+        this(
+            "https://repo1.maven.org/maven2",
+            "https://search.maven.org/solrsearch/select"
+        );
+    }
+
+    @Override
+    public CompletableFuture<List<MvnArtifact>> findArtifacts(
+        final String str
+    ) {
+        return this.findArtifacts(str, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public CompletableFuture<List<MvnArtifact>> findArtifacts(
+        final String str, final Integer start, final Integer rows
+    ) {
+        return this.fetch(MavenCentral.searchUrl(this.search, str, start, rows))
+            .thenApply(
+                body -> {
+                    try {
+                        return MavenCentral.artifacts(body);
+                    } catch (final IOException exception) {
+                        throw new CompletionException(
+                            new MvnException(exception)
+                        );
+                    }
+                }
+            );
+    }
+
+    @Override
+    public CompletableFuture<List<MvnArtifactVersion>> findVersions(
+        final MvnArtifact artifact
+    ) {
+        return this.findVersions(artifact, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public CompletableFuture<List<MvnArtifactVersion>> findVersions(
+        final MvnArtifact artifact, final Integer start, final Integer rows
+    ) {
+        return this.fetch(MavenCentral.metadataUrl(this.repo, artifact))
+            .thenApply(
+                body -> {
+                    try {
+                        return MavenCentral.versions(
+                            artifact, body, start, rows
+                        );
+                    } catch (final XMLStreamException exception) {
+                        throw new CompletionException(
+                            new MvnException(exception)
+                        );
+                    }
+                }
+            );
+    }
+
+    @Override
+    public CompletableFuture<List<MvnArtifactVersion>> findVersionsNewerThan(
+        final MvnArtifactVersion version
+    ) {
+        return this.index(version.artifact())
+            .thenApply(index -> index.require(version).newerThan(version));
+    }
+
+    @Override
+    public CompletableFuture<List<MvnArtifactVersion>> findVersionsOlderThan(
+        final MvnArtifactVersion version
+    ) {
+        return this.index(version.artifact())
+            .thenApply(index -> index.require(version).olderThan(version));
+    }
+
+    @Override
+    public CompletableFuture<List<MvnArtifactVersion>> findVersionsBetween(
+        final MvnArtifactVersion from, final MvnArtifactVersion to
+    ) {
+        return this.index(from.artifact())
+            .thenApply(
+                index -> index.require(from).require(to).between(from, to)
+            );
+    }
+
+    /**
+     * Load all the versions of the artifact into the sorted index.
+     *
+     * @param artifact The artifact.
+     * @return The future index of the versions.
+     */
+    private CompletableFuture<VersionIndex> index(final MvnArtifact artifact) {
+        return this.findVersions(artifact, 0, Integer.MAX_VALUE)
+            .thenApply(VersionIndex::new);
+    }
+
+    /**
+     * Read the resource from the repository.
+     *
+     * @param url The URL of the resource.
+     * @return The future body of the successful response.
+     */
+    private CompletableFuture<InputStream> fetch(final String url) {
+        final CompletableFuture<InputStream> result = new CompletableFuture<>();
+        final URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (final IllegalArgumentException exception) {
+            result.completeExceptionally(new MvnException(exception));
+            return result;
+        }
+        this.transport.getAsync(uri, Collections.emptyMap())
+            .whenComplete(
+                (response, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(
+                            new MvnException(AsyncMavenCentral.cause(error))
+                        );
+                    } else if (response.status() != MvnResponse.OK) {
+                        result.completeExceptionally(
+                            new MvnException(
+                                new IOException(
+                                    String.format(
+                                        "HTTP %d: %s",
+                                        response.status(), url
+                                    )
+                                )
+                            )
+                        );
+                    } else {
+                        result.complete(response.body());
+                    }
+                }
+            );
+        return result;
+    }
+
+    /**
+     * Unwrap the cause of the asynchronous failure.
+     *
+     * @param error The failure.
+     * @return The cause.
+     */
+    private static Throwable cause(final Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException
+            || cause instanceof UncheckedIOException)
+            && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
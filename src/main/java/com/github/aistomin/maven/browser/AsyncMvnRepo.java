@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The interface of classes which represent the Maven repository and don't
+ * block the calling thread. If the problem occurs while reading from the repo,
+ * the returned future completes exceptionally with {@link MvnException}.
+ *
+ * @since 2.0
+ */
+public interface AsyncMvnRepo {
+
+    /**
+     * Search for the artifacts. Returns first 20 found artifacts.
+     *
+     * @param str The search string. It may be a part of group or artifact name.
+     * @return The future list of the found artifacts.
+     */
+    CompletableFuture<List<MvnArtifact>> findArtifacts(String str);
+
+    /**
+     * Search for the artifacts.
+     *
+     * @param str The search string. It may be a part of group or artifact name.
+     * @param start The start index of the search.
+     * @param rows The max amount of results.
+     * @return The future list of the found artifacts.
+     */
+    CompletableFuture<List<MvnArtifact>> findArtifacts(
+        String str, Integer start, Integer rows
+    );
+
+    /**
+     * Search for the versions of the artifact. Returns first 20 found versions.
+     *
+     * @param artifact The artifact.
+     * @return The future list of the found versions of the artifact.
+     */
+    CompletableFuture<List<MvnArtifactVersion>> findVersions(
+        MvnArtifact artifact
+    );
+
+    /**
+     * Search for the versions of the artifact.
+     *
+     * @param artifact The artifact.
+     * @param start Indent of the search.
+     * @param rows The max amount of results.
+     * @return The future list of the found versions of the artifact.
+     */
+    CompletableFuture<List<MvnArtifactVersion>> findVersions(
+        MvnArtifact artifact, Integer start, Integer rows
+    );
+
+    /**
+     * Search for all the versions of the artifact which are newer than provided
+     * version.
+     *
+     * @param version The version.
+     * @return The future list of the newer versions.
+     */
+    CompletableFuture<List<MvnArtifactVersion>> findVersionsNewerThan(
+        MvnArtifactVersion version
+    );
+
+    /**
+     * Search for all the versions of the artifact which are older than provided
+     * version.
+     *
+     * @param version The version.
+     * @return The future list of the older versions.
+     */
+    CompletableFuture<List<MvnArtifactVersion>> findVersionsOlderThan(
+        MvnArtifactVersion version
+    );
+
+    /**
+     * Search for all the versions of the artifact which are newer than the
+     * first provided version, but not newer than the second one.
+     *
+     * @param from The version to start from (exclusive).
+     * @param to The version to end with (inclusive).
+     * @return The future list of the versions, newest first.
+     */
+    CompletableFuture<List<MvnArtifactVersion>> findVersionsBetween(
+        MvnArtifactVersion from, MvnArtifactVersion to
+    );
+}
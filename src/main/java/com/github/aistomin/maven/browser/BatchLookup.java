@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The lookup of the versions of many artifacts at once.
+ * The artifacts are looked up concurrently, but not more than the configured
+ * amount at the same time. The failure of one artifact doesn't affect the
+ * others: it's reported in {@link BatchVersions#failures()}.
+ *
+ * @since 2.0
+ */
+public final class BatchLookup {
+
+    /**
+     * Default max amount of the concurrent lookups.
+     */
+    public static final int PARALLELISM = 16;
+
+    /**
+     * The repository.
+     */
+    private final MvnRepo repo;
+
+    /**
+     * Max amount of the concurrent lookups.
+     */
+    private final int parallelism;
+
+    /**
+     * Ctor.
+     *
+     * @param repository The repository.
+     * @param limit Max amount of the concurrent lookups.
+     */
+    public BatchLookup(final MvnRepo repository, final int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException(
+                String.format("Parallelism must be positive: %d", limit)
+            );
+        }
+        this.repo = repository;
+        this.parallelism = limit;
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param repository The repository.
+     */
+    public BatchLookup(final MvnRepo repository) {
+        this(repository, PARALLELISM);
+    }
+
+    /**
+     * Search for the versions of the artifacts. Returns first 20 found
+     * versions of each artifact.
+     *
+     * @param artifacts The artifacts. The duplicates are looked up once.
+     * @return The found versions and the failures.
+     */
+    public BatchVersions findVersions(final Collection<MvnArtifact> artifacts) {
+        return this.findVersions(artifacts, 0, MavenCentral.MAX_ROWS);
+    }
+
+    /**
+     * Search for the versions of the artifacts.
+     *
+     * @param artifacts The artifacts. The duplicates are looked up once.
+     * @param start Indent of the search.
+     * @param rows The max amount of results per artifact.
+     * @return The found versions and the failures.
+     */
+    public BatchVersions findVersions(
+        final Collection<MvnArtifact> artifacts, final Integer start,
+        final Integer rows
+    ) {
+        final Collection<MvnArtifact> unique = new LinkedHashSet<>(artifacts);
+        final Map<MvnArtifact, List<MvnArtifactVersion>> found =
+            new ConcurrentHashMap<>();
+        final Map<MvnArtifact, MvnException> failed =
+            new ConcurrentHashMap<>();
+        final Semaphore permits = new Semaphore(this.parallelism);
+        try (ExecutorService threads =
+            Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final MvnArtifact artifact : unique) {
+                threads.execute(
+                    () -> {
+                        try {
+                            permits.acquire();
+                            try {
+                                found.put(
+                                    artifact,
+                                    this.repo.findVersions(
+                                        artifact, start, rows
+                                    )
+                                );
+                            } finally {
+                                permits.release();
+                            }
+                        } catch (final MvnException exception) {
+                            failed.put(artifact, exception);
+                        } catch (final InterruptedException exception) {
+                            Thread.currentThread().interrupt();
+                            failed.put(artifact, new MvnException(exception));
+                        } catch (final RuntimeException exception) {
+                            failed.put(artifact, new MvnException(exception));
+                        }
+                    }
+                );
+            }
+        }
+        final Map<MvnArtifact, List<MvnArtifactVersion>> versions =
+            new LinkedHashMap<>();
+        final Map<MvnArtifact, MvnException> failures = new LinkedHashMap<>();
+        for (final MvnArtifact artifact : unique) {
+            if (found.containsKey(artifact)) {
+                versions.put(artifact, found.get(artifact));
+            } else {
+                failures.put(artifact, failed.get(artifact));
+            }
+        }
+        return new BatchVersions(versions, failures);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of {@link BatchLookup}: the versions of the artifacts which were
+ * found and the failures of the artifacts which were not.
+ *
+ * @since 2.0
+ */
+public final class BatchVersions {
+
+    /**
+     * The found versions of the artifacts.
+     */
+    private final Map<MvnArtifact, List<MvnArtifactVersion>> found;
+
+    /**
+     * The failures of the artifacts.
+     */
+    private final Map<MvnArtifact, MvnException> failed;
+
+    /**
+     * Ctor.
+     *
+     * @param versions The found versions of the artifacts.
+     * @param failures The failures of the artifacts.
+     */
+    public BatchVersions(
+        final Map<MvnArtifact, List<MvnArtifactVersion>> versions,
+        final Map<MvnArtifact, MvnException> failures
+    ) {
+        this.found = Collections.unmodifiableMap(versions);
+        this.failed = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * The found versions of the artifacts in the order of the request.
+     *
+     * @return The versions per artifact.
+     */
+    public Map<MvnArtifact, List<MvnArtifactVersion>> versions() {
+        return this.found;
+    }
+
+    /**
+     * The failures of the artifacts which were not found in the order of the
+     * request.
+     *
+     * @return The failure per artifact.
+     */
+    public Map<MvnArtifact, MvnException> failures() {
+        return this.failed;
+    }
+}
@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The decorator of {@link MvnRepo} which keeps the results of the lookups in
+ * memory.
+ * Every entry lives for the configured TTL. When the maximum amount of entries
+ * or the approximate byte budget is exceeded, the least recently used entries
+ * are evicted. Concurrent misses on the same key share one fetch from the
+ * origin repository. The returned lists are immutable.
+ * All the versions of the artifact are cached in one {@link VersionIndex}, so
+ * the pages of the versions and the newer, older and between queries are
+ * answered from it without calling the origin repository again.
+ *
+ * @since 2.0
+ */
+public final class CachedMvnRepo implements MvnRepo {
+
+    /**
+     * Default TTL of the cache entry.
+     */
+    public static final Duration TTL = Duration.ofMinutes(10);
+
+    /**
+     * Default max amount of the cache entries.
+     */
+    public static final int MAX_ENTRIES = 1_000;
+
+    /**
+     * Default max amount of bytes which the cache entries may occupy.
+     */
+    public static final long MAX_BYTES = 16L * 1024 * 1024;
+
+    /**
+     * Approximate amount of bytes which one cached item occupies in addition
+     * to its characters.
+     */
+    private static final int ITEM_OVERHEAD = 64;
+
+    /**
+     * Initial capacity of the cache map.
+     */
+    private static final int CAPACITY = 16;
+
+    /**
+     * Load factor of the cache map.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The origin repository.
+     */
+    private final MvnRepo origin;
+
+    /**
+     * TTL of the cache entry in nanoseconds.
+     */
+    private final long ttl;
+
+    /**
+     * Max amount of the cache entries.
+     */
+    private final int entries;
+
+    /**
+     * Max amount of bytes which the cache entries may occupy.
+     */
+    private final long bytes;
+
+    /**
+     * The cache entries in the access order (the eldest goes first).
+     */
+    private final LinkedHashMap<Object, Entry> cache;
+
+    /**
+     * The fetches which are in progress at the moment.
+     */
+    private final SingleFlight<Object, Object> flights;
+
+    /**
+     * The amount of bytes which the cache entries occupy at the moment.
+     */
+    private long weight;
+
+    /**
+     * The amount of cache hits.
+     */
+    private final AtomicLong hit;
+
+    /**
+     * The amount of cache misses.
+     */
+    private final AtomicLong miss;
+
+    /**
+     * The amount of evicted entries.
+     */
+    private final AtomicLong evicted;
+
+    /**
+     * Ctor.
+     *
+     * @param repo The origin repository.
+     * @param expiration TTL of the cache entry.
+     * @param size Max amount of the cache entries.
+     * @param budget Max amount of bytes which the cache entries may occupy.
+     */
+    public CachedMvnRepo(
+        final MvnRepo repo, final Duration expiration, final int size,
+        final long budget
+    ) {
+        this.origin = repo;
+        this.ttl = expiration.toNanos();
+        this.entries = size;
+        this.bytes = budget;
+        this.cache = new LinkedHashMap<>(CAPACITY, LOAD_FACTOR, true);
+        this.flights = new SingleFlight<>();
+        this.hit = new AtomicLong();
+        this.miss = new AtomicLong();
+        this.evicted = new AtomicLong();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param repo The origin repository.
+     */
+    public CachedMvnRepo(final MvnRepo repo) {
+        this(repo, TTL, MAX_ENTRIES, MAX_BYTES);
+    }
+
+    @Override
+    public List<MvnArtifact> findArtifacts(
+        final String str
+    ) throws MvnException {
+        return this.findArtifacts(str, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public List<MvnArtifact> findArtifacts(
+        final String str, final Integer start, final Integer rows
+    ) throws MvnException {
+        return this.load(
+            List.of("artifacts", str, start, rows),
+            () -> List.copyOf(this.origin.findArtifacts(str, start, rows))
+        );
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersions(
+        final MvnArtifact artifact
+    ) throws MvnException {
+        return this.findVersions(artifact, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersions(
+        final MvnArtifact artifact, final Integer start, final Integer rows
+    ) throws MvnException {
+        final List<MvnArtifactVersion> all = this.index(artifact).versions();
+        if (start >= all.size()) {
+            return List.of();
+        }
+        return all.subList(
+            start, (int) Math.min((long) start + rows, all.size())
+        );
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsNewerThan(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.index(version.artifact()).require(version)
+            .newerThan(version);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsOlderThan(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.index(version.artifact()).require(version)
+            .olderThan(version);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsBetween(
+        final MvnArtifactVersion from, final MvnArtifactVersion to
+    ) throws MvnException {
+        return this.index(from.artifact()).require(from).require(to)
+            .between(from, to);
+    }
+
+    /**
+     * The amount of cache hits.
+     *
+     * @return The amount of hits.
+     */
+    public long hits() {
+        return this.hit.get();
+    }
+
+    /**
+     * The amount of cache misses.
+     *
+     * @return The amount of misses.
+     */
+    public long misses() {
+        return this.miss.get();
+    }
+
+    /**
+     * The amount of entries which were evicted because the cache exceeded its
+     * max amount of entries or its byte budget.
+     *
+     * @return The amount of evictions.
+     */
+    public long evictions() {
+        return this.evicted.get();
+    }
+
+    /**
+     * The amount of entries in the cache at the moment.
+     *
+     * @return The amount of entries.
+     */
+    public int size() {
+        synchronized (this.cache) {
+            return this.cache.size();
+        }
+    }
+
+    /**
+     * Remove all the entries from the cache.
+     */
+    public void clear() {
+        synchronized (this.cache) {
+            this.cache.clear();
+            this.weight = 0;
+        }
+    }
+
+    /**
+     * Load the index of all the versions of the artifact.
+     *
+     * @param artifact The artifact.
+     * @return The index of the versions.
+     * @throws MvnException If the problem occurred while reading from the repo.
+     */
+    private VersionIndex index(
+        final MvnArtifact artifact
+    ) throws MvnException {
+        return this.load(
+            List.of("versions", artifact),
+            () -> new VersionIndex(
+                this.origin.findVersions(artifact, 0, Integer.MAX_VALUE)
+            )
+        );
+    }
+
+    /**
+     * Load the value from the cache or fetch it from the origin repository.
+     *
+     * @param key The cache key.
+     * @param fetch The fetch from the origin repository.
+     * @param <T> The type of the value.
+     * @return The value.
+     * @throws MvnException If the problem occurred while reading from the repo.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T load(
+        final Object key, final Fetch<T> fetch
+    ) throws MvnException {
+        final T cached = (T) this.lookup(key);
+        if (cached != null) {
+            this.hit.incrementAndGet();
+            return cached;
+        }
+        this.miss.incrementAndGet();
+        return (T) this.flights.run(
+            key,
+            () -> {
+                final Object stored = this.lookup(key);
+                final Object loaded;
+                if (stored == null) {
+                    loaded = fetch.fetch();
+                    this.store(key, loaded);
+                } else {
+                    loaded = stored;
+                }
+                return loaded;
+            }
+        );
+    }
+
+    /**
+     * Find the non-expired cache entry.
+     *
+     * @param key The cache key.
+     * @return The cached value or null if there is no such entry.
+     */
+    private Object lookup(final Object key) {
+        synchronized (this.cache) {
+            final Entry entry = this.cache.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expires - System.nanoTime() <= 0) {
+                this.cache.remove(key);
+                this.weight -= entry.size;
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Put the value to the cache and evict the least recently used entries if
+     * the cache exceeds its limits.
+     *
+     * @param key The cache key.
+     * @param value The value.
+     */
+    private void store(final Object key, final Object value) {
+        final long size = CachedMvnRepo.weigh(value);
+        synchronized (this.cache) {
+            final Entry previous = this.cache.put(
+                key, new Entry(value, size, System.nanoTime() + this.ttl)
+            );
+            if (previous != null) {
+                this.weight -= previous.size;
+            }
+            this.weight += size;
+            final Iterator<Entry> iterator = this.cache.values().iterator();
+            while (iterator.hasNext()
+                && (this.cache.size() > this.entries
+                || this.weight > this.bytes)) {
+                this.weight -= iterator.next().size;
+                iterator.remove();
+                this.evicted.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Calculate the approximate amount of bytes which the value occupies.
+     * The index of the versions keeps them in two orders, so it counts twice.
+     *
+     * @param value The list or the index of the versions.
+     * @return The amount of bytes.
+     */
+    private static long weigh(final Object value) {
+        final List<?> items;
+        final long factor;
+        if (value instanceof VersionIndex) {
+            items = ((VersionIndex) value).versions();
+            factor = 2L;
+        } else {
+            items = (List<?>) value;
+            factor = 1L;
+        }
+        long size = ITEM_OVERHEAD;
+        for (final Object item : items) {
+            size += ITEM_OVERHEAD + 2L * String.valueOf(item).length();
+        }
+        return factor * size;
+    }
+
+    /**
+     * The fetch from the origin repository.
+     *
+     * @param <T> The type of the value.
+     * @since 2.0
+     */
+    @FunctionalInterface
+    private interface Fetch<T> {
+
+        /**
+         * Fetch the value.
+         *
+         * @return The immutable value.
+         * @throws MvnException If the problem occurred while reading from
+         *  the repo.
+         */
+        T fetch() throws MvnException;
+    }
+
+    /**
+     * The cache entry.
+     *
+     * @since 2.0
+     */
+    private static final class Entry {
+
+        /**
+         * The cached value.
+         */
+        private final Object value;
+
+        /**
+         * Approximate amount of bytes which the entry occupies.
+         */
+        private final long size;
+
+        /**
+         * The moment (see {@link System#nanoTime()}) when the entry expires.
+         */
+        private final long expires;
+
+        /**
+         * Ctor.
+         *
+         * @param cached The cached value.
+         * @param bytes Approximate amount of bytes which the entry occupies.
+         * @param expiration The moment when the entry expires.
+         */
+        Entry(final Object cached, final long bytes, final long expiration) {
+            this.value = cached;
+            this.size = bytes;
+            this.expires = expiration;
+        }
+    }
+}
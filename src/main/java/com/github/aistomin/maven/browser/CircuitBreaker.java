@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.time.Duration;
+
+/**
+ * The circuit breaker of one remote endpoint. After the given amount of
+ * failures in a row it opens and rejects the calls until the cooldown is
+ * over. Then it lets one trial call through: its success closes the breaker,
+ * and its failure opens it again for another cooldown. If the outcome of the
+ * trial call isn't recorded within the trial timeout, the next caller gets
+ * another trial call.
+ *
+ * @since 2.0
+ */
+public final class CircuitBreaker {
+
+    /**
+     * Default timeout of the trial call.
+     */
+    public static final Duration TRIAL = Duration.ofMinutes(1);
+
+    /**
+     * The amount of failures in a row which opens the breaker.
+     */
+    private final int threshold;
+
+    /**
+     * The cooldown of the open breaker in nanoseconds.
+     */
+    private final long cooldown;
+
+    /**
+     * The timeout of the trial call in nanoseconds.
+     */
+    private final long trial;
+
+    /**
+     * The current state.
+     */
+    private State current;
+
+    /**
+     * The amount of failures in a row.
+     */
+    private int failures;
+
+    /**
+     * The moment (see {@link System#nanoTime()}) when the cooldown of the
+     * open breaker or the timeout of the trial call is over.
+     */
+    private long until;
+
+    /**
+     * Ctor.
+     *
+     * @param limit The amount of failures in a row which opens the breaker.
+     * @param pause The cooldown of the open breaker.
+     */
+    public CircuitBreaker(final int limit, final Duration pause) {
+        this(limit, pause, CircuitBreaker.TRIAL);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param limit The amount of failures in a row which opens the breaker.
+     * @param pause The cooldown of the open breaker.
+     * @param timeout The timeout of the trial call.
+     */
+    public CircuitBreaker(
+        final int limit, final Duration pause, final Duration timeout
+    ) {
+        if (limit < 1) {
+            throw new IllegalArgumentException(
+                String.format("The threshold must be positive: %d", limit)
+            );
+        }
+        this.threshold = limit;
+        this.cooldown = pause.toNanos();
+        this.trial = timeout.toNanos();
+        this.current = State.CLOSED;
+    }
+
+    /**
+     * Check whether the call is allowed. When the cooldown of the open
+     * breaker or the timeout of the trial call is over, the first caller gets
+     * the trial call.
+     *
+     * @return True if the call is allowed.
+     */
+    public synchronized boolean allow() {
+        final boolean allowed;
+        final long now = System.nanoTime();
+        if (this.current == State.CLOSED) {
+            allowed = true;
+        } else if (now - this.until >= 0) {
+            this.current = State.HALF_OPEN;
+            this.until = now + this.trial;
+            allowed = true;
+        } else {
+            allowed = false;
+        }
+        return allowed;
+    }
+
+    /**
+     * Record the successful call.
+     */
+    public synchronized void success() {
+        this.failures = 0;
+        this.current = State.CLOSED;
+    }
+
+    /**
+     * Record the failed call.
+     */
+    public synchronized void failure() {
+        ++this.failures;
+        if (this.current == State.HALF_OPEN
+            || this.failures >= this.threshold) {
+            this.current = State.OPEN;
+            this.until = System.nanoTime() + this.cooldown;
+        }
+    }
+
+    /**
+     * The current state.
+     *
+     * @return The state.
+     */
+    public synchronized State state() {
+        return this.current;
+    }
+
+    /**
+     * The state of the breaker.
+     *
+     * @since 2.0
+     */
+    public enum State {
+
+        /**
+         * The calls are allowed.
+         */
+        CLOSED,
+
+        /**
+         * The calls are rejected until the cooldown is over.
+         */
+        OPEN,
+
+        /**
+         * The trial call is in progress; the other calls are rejected until
+         * its timeout is over.
+         */
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.List;
+
+/**
+ * The decorator of {@link MvnRepo} which coalesces the identical concurrent
+ * lookups. The callers which come while the same lookup is in progress don't
+ * call the origin repository, they wait for the lookup and share its parsed
+ * result. Nothing is kept after the lookup is over, use {@link CachedMvnRepo}
+ * if the results should be reused later. The returned lists are immutable.
+ *
+ * @since 2.0
+ */
+public final class CoalescingMvnRepo implements MvnRepo {
+
+    /**
+     * The origin repository.
+     */
+    private final MvnRepo origin;
+
+    /**
+     * The lookups which are in progress at the moment.
+     */
+    private final SingleFlight<List<Object>, List<?>> flights;
+
+    /**
+     * Ctor.
+     *
+     * @param repo The origin repository.
+     */
+    public CoalescingMvnRepo(final MvnRepo repo) {
+        this.origin = repo;
+        this.flights = new SingleFlight<>();
+    }
+
+    @Override
+    public List<MvnArtifact> findArtifacts(
+        final String str
+    ) throws MvnException {
+        return this.findArtifacts(str, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public List<MvnArtifact> findArtifacts(
+        final String str, final Integer start, final Integer rows
+    ) throws MvnException {
+        return this.run(
+            List.of("artifacts", str, start, rows),
+            () -> this.origin.findArtifacts(str, start, rows)
+        );
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersions(
+        final MvnArtifact artifact
+    ) throws MvnException {
+        return this.findVersions(artifact, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersions(
+        final MvnArtifact artifact, final Integer start, final Integer rows
+    ) throws MvnException {
+        return this.run(
+            List.of("versions", artifact, start, rows),
+            () -> this.origin.findVersions(artifact, start, rows)
+        );
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsNewerThan(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.run(
+            List.of("newer", version),
+            () -> this.origin.findVersionsNewerThan(version)
+        );
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsOlderThan(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.run(
+            List.of("older", version),
+            () -> this.origin.findVersionsOlderThan(version)
+        );
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsBetween(
+        final MvnArtifactVersion from, final MvnArtifactVersion to
+    ) throws MvnException {
+        return this.run(
+            List.of("between", from, to),
+            () -> this.origin.findVersionsBetween(from, to)
+        );
+    }
+
+    /**
+     * The amount of the lookups which were answered with the result of
+     * another lookup which was in progress.
+     *
+     * @return The amount of the lookups.
+     */
+    public long coalesced() {
+        return this.flights.shared();
+    }
+
+    /**
+     * Run the lookup or join the identical lookup which is in progress.
+     *
+     * @param key The key of the lookup.
+     * @param lookup The lookup in the origin repository.
+     * @param <T> The type of the list items.
+     * @return The immutable list of the items.
+     * @throws MvnException If the problem occurred while reading from the repo.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> run(
+        final List<Object> key, final SingleFlight.Call<List<T>> lookup
+    ) throws MvnException {
+        return (List<T>) this.flights.run(
+            key, () -> List.copyOf(lookup.call())
+        );
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The pool which interns the coordinates: the equal groups and artifacts
+ * share one instance, and so do their names and cached identifiers. The
+ * versions are not interned, because the equal versions may differ in the
+ * packaging and the timestamp, which {@link MavenArtifactVersion#equals}
+ * ignores; a version only refers to its interned artifact.
+ * The pool holds its instances weakly, so the coordinates which nobody uses
+ * anymore are garbage collected as usual. The pool is split into the
+ * independently locked segments, so the concurrent parsers rarely contend.
+ * {@link #SHARED} is used by the parsers of this library.
+ *
+ * @since 2.0
+ */
+public final class CoordinatePool {
+
+    /**
+     * The pool which is shared by the parsers of this library.
+     */
+    public static final CoordinatePool SHARED = new CoordinatePool();
+
+    /**
+     * The amount of the segments, the power of two.
+     */
+    private static final int SEGMENTS = 16;
+
+    /**
+     * The segments.
+     */
+    private final Segment[] segments;
+
+    /**
+     * Ctor.
+     */
+    public CoordinatePool() {
+        this.segments = new Segment[SEGMENTS];
+        for (int idx = 0; idx < SEGMENTS; ++idx) {
+            this.segments[idx] = new Segment();
+        }
+    }
+
+    /**
+     * The interned group.
+     *
+     * @param name The name of the group.
+     * @return The group.
+     */
+    public MvnGroup group(final String name) {
+        return this.intern(new MavenGroup(name));
+    }
+
+    /**
+     * The interned artifact of the interned group.
+     *
+     * @param group The name of the group.
+     * @param name The name of the artifact.
+     * @return The artifact.
+     */
+    public MvnArtifact artifact(final String group, final String name) {
+        return this.artifact(this.group(group), name);
+    }
+
+    /**
+     * The interned artifact.
+     *
+     * @param group The group.
+     * @param name The name of the artifact.
+     * @return The artifact.
+     */
+    public MvnArtifact artifact(final MvnGroup group, final String name) {
+        return this.intern(new MavenArtifact(group, name));
+    }
+
+    /**
+     * Intern the coordinate.
+     *
+     * @param value The coordinate.
+     * @param <T> The type of the coordinate.
+     * @return The pooled coordinate which equals the given one.
+     */
+    public <T> T intern(final T value) {
+        return this.segments[
+            CoordinatePool.spread(value.hashCode()) & (SEGMENTS - 1)
+        ].intern(value);
+    }
+
+    /**
+     * The amount of the pooled coordinates which are still alive.
+     *
+     * @return The amount of the coordinates.
+     */
+    public int size() {
+        int size = 0;
+        for (final Segment segment : this.segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Mix the high bits of the hash code into the low ones.
+     *
+     * @param hash The hash code.
+     * @return The mixed hash code.
+     */
+    private static int spread(final int hash) {
+        return hash ^ hash >>> (Integer.SIZE / 2);
+    }
+
+    /**
+     * One segment of the pool.
+     *
+     * @since 2.0
+     */
+    private static final class Segment {
+
+        /**
+         * The pooled coordinates. Both the key and the value refer to the
+         * same instance weakly.
+         */
+        private final Map<Object, WeakReference<Object>> pool;
+
+        /**
+         * Ctor.
+         */
+        Segment() {
+            this.pool = new WeakHashMap<>();
+        }
+
+        /**
+         * Intern the coordinate.
+         *
+         * @param value The coordinate.
+         * @param <T> The type of the coordinate.
+         * @return The pooled coordinate which equals the given one.
+         */
+        @SuppressWarnings("unchecked")
+        synchronized <T> T intern(final T value) {
+            final WeakReference<Object> ref = this.pool.get(value);
+            Object pooled = null;
+            if (ref != null) {
+                pooled = ref.get();
+            }
+            if (pooled == null) {
+                this.pool.put(value, new WeakReference<>(value));
+                pooled = value;
+            }
+            return (T) pooled;
+        }
+
+        /**
+         * The amount of the pooled coordinates.
+         *
+         * @return The amount of the coordinates.
+         */
+        synchronized int size() {
+            return this.pool.size();
+        }
+    }
+}
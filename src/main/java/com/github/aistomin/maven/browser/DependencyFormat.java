@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The formats of the dependency snippets, see {@link MvnDependency}.
+ * Every format is a template which is compiled once into the literal parts
+ * and the slots of the coordinates, so the rendering only appends them to the
+ * target without parsing the format string and without the intermediate
+ * strings. In the templates "{g}", "{a}" and "{v}" are the group, the
+ * artifact and the version and "\n" is the line separator of the platform.
+ *
+ * @since 2.0
+ */
+public enum DependencyFormat {
+
+    /**
+     * Apache Maven.
+     */
+    MAVEN(
+        String.join(
+            "\n", "<dependency>", "  <groupId>{g}</groupId>",
+            "  <artifactId>{a}</artifactId>", "  <version>{v}</version>",
+            "</dependency>"
+        )
+    ),
+
+    /**
+     * Apache Buildr.
+     */
+    BUILDR("'{g}:{a}:jar:{v}'"),
+
+    /**
+     * Apache Ivy.
+     */
+    IVY("<dependency org=\"{g}\" name=\"{a}\" rev=\"{v}\" />"),
+
+    /**
+     * Groovy Grape.
+     */
+    GROOVY_GRAPE(
+        "@Grapes(\n  @Grab(group='{g}', module='{a}', version='{v}')\n)"
+    ),
+
+    /**
+     * Gradle/Grails.
+     */
+    GRADLE("compile '{g}:{a}:{v}'"),
+
+    /**
+     * Scala SBT.
+     */
+    SCALA("libraryDependencies += \"{g}\" % \"{a}\" % \"{v}\""),
+
+    /**
+     * Leiningen.
+     */
+    LEININGEN("[{g}/{a} \"{v}\"]");
+
+    /**
+     * The slots of the coordinates in the templates.
+     */
+    private static final String SLOTS = "gav";
+
+    /**
+     * The literal parts of the template. There is one more part than slots.
+     */
+    private final String[] parts;
+
+    /**
+     * The slots between the literal parts: the positions in "gav".
+     */
+    private final int[] slots;
+
+    /**
+     * The length of the literal parts.
+     */
+    private final int length;
+
+    /**
+     * Ctor.
+     *
+     * @param template The template.
+     */
+    DependencyFormat(final String template) {
+        final List<String> literals = new ArrayList<>(SLOTS.length() + 1);
+        final List<Integer> found = new ArrayList<>(SLOTS.length());
+        final String text = template.replace("\n", System.lineSeparator());
+        int start = 0;
+        for (int pos = text.indexOf('{'); pos >= 0;
+            pos = text.indexOf('{', pos + 1)) {
+            final int slot = SLOTS.indexOf(text.charAt(pos + 1));
+            if (slot >= 0 && text.charAt(pos + 2) == '}') {
+                literals.add(text.substring(start, pos));
+                found.add(slot);
+                start = pos + "{g}".length();
+            }
+        }
+        literals.add(text.substring(start));
+        this.parts = literals.toArray(new String[0]);
+        this.slots = new int[found.size()];
+        int total = 0;
+        for (int idx = 0; idx < this.slots.length; ++idx) {
+            this.slots[idx] = found.get(idx);
+        }
+        for (final String part : this.parts) {
+            total += part.length();
+        }
+        this.length = total;
+    }
+
+    /**
+     * Render the snippet of the version into the target.
+     *
+     * @param version The version.
+     * @param target The target, e.g. {@link StringBuilder} or
+     *  {@link java.io.Writer}.
+     * @throws IOException If the target fails.
+     */
+    public void render(
+        final MvnArtifactVersion version, final Appendable target
+    ) throws IOException {
+        final MvnArtifact artifact = version.artifact();
+        this.render(
+            artifact.group().name(), artifact.name(), version.name(), target
+        );
+    }
+
+    /**
+     * Render the snippet of the version.
+     *
+     * @param version The version.
+     * @return The snippet.
+     */
+    public String render(final MvnArtifactVersion version) {
+        final MvnArtifact artifact = version.artifact();
+        final String group = artifact.group().name();
+        final String name = artifact.name();
+        final String ver = version.name();
+        final StringBuilder result = new StringBuilder(
+            this.length + group.length() + name.length() + ver.length()
+        );
+        try {
+            this.render(group, name, ver, result);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Render the snippet of the coordinates into the target.
+     *
+     * @param group The group.
+     * @param name The artifact.
+     * @param version The version.
+     * @param target The target.
+     * @throws IOException If the target fails.
+     */
+    void render(
+        final String group, final String name, final String version,
+        final Appendable target
+    ) throws IOException {
+        target.append(this.parts[0]);
+        for (int idx = 0; idx < this.slots.length; ++idx) {
+            final String value;
+            if (this.slots[idx] == 0) {
+                value = group;
+            } else if (this.slots[idx] == 1) {
+                value = name;
+            } else {
+                value = version;
+            }
+            target.append(value).append(this.parts[idx + 1]);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The transitive dependencies of the version, see {@link DependencyResolver}.
+ * Every artifact appears in the graph once, with the version which was
+ * selected by the mediation.
+ *
+ * @since 2.0
+ */
+public final class DependencyGraph {
+
+    /**
+     * The root version.
+     */
+    private final MvnArtifactVersion top;
+
+    /**
+     * The dependencies which were brought into the graph by every version.
+     */
+    private final Map<MvnArtifactVersion, List<MvnArtifactVersion>> edges;
+
+    /**
+     * The effective scopes of the dependencies.
+     */
+    private final Map<MvnArtifactVersion, String> scoped;
+
+    /**
+     * The dependencies which couldn't be resolved by their identifiers.
+     */
+    private final Map<String, MvnException> failed;
+
+    /**
+     * Ctor.
+     *
+     * @param root The root version.
+     * @param children The dependencies which were brought into the graph by
+     *  every version.
+     * @param scopes The effective scopes of the dependencies.
+     * @param failures The dependencies which couldn't be resolved by their
+     *  identifiers.
+     */
+    public DependencyGraph(
+        final MvnArtifactVersion root,
+        final Map<MvnArtifactVersion, List<MvnArtifactVersion>> children,
+        final Map<MvnArtifactVersion, String> scopes,
+        final Map<String, MvnException> failures
+    ) {
+        this.top = root;
+        this.edges = Collections.unmodifiableMap(children);
+        this.scoped = Collections.unmodifiableMap(scopes);
+        this.failed = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * The root version.
+     *
+     * @return The version.
+     */
+    public MvnArtifactVersion root() {
+        return this.top;
+    }
+
+    /**
+     * The dependencies which were brought into the graph by the version.
+     * The dependencies which were declared by the version, but lost the
+     * mediation to the nearer ones, are not included.
+     *
+     * @param version The version from the graph.
+     * @return The unmodifiable list of the dependencies.
+     */
+    public List<MvnArtifactVersion> children(
+        final MvnArtifactVersion version
+    ) {
+        return this.edges.getOrDefault(version, List.of());
+    }
+
+    /**
+     * The effective scope of the dependency: "compile" or "runtime". It's
+     * the scope of the occurrence which won the mediation, derived by the
+     * scope table of Maven.
+     *
+     * @param version The dependency from the graph.
+     * @return The scope or null if the version is not a dependency from the
+     *  graph.
+     */
+    public String scope(final MvnArtifactVersion version) {
+        return this.scoped.get(version);
+    }
+
+    /**
+     * All the transitive dependencies of the root, nearest first.
+     *
+     * @return The list of the versions.
+     */
+    public List<MvnArtifactVersion> versions() {
+        final List<MvnArtifactVersion> all = new ArrayList<>(0);
+        all.add(this.top);
+        for (int idx = 0; idx < all.size(); ++idx) {
+            all.addAll(this.children(all.get(idx)));
+        }
+        return all.subList(1, all.size());
+    }
+
+    /**
+     * The dependencies which couldn't be resolved: their POMs were not read
+     * or their versions are not declared.
+     *
+     * @return The unmodifiable map of the identifiers ("group:artifact" or
+     *  "group:artifact:version") to the errors.
+     */
+    public Map<String, MvnException> failures() {
+        return this.failed;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+
+/**
+ * The renderer of the dependency snippets of many versions at once, e.g. for
+ * generating the documentation or the BOMs. The snippets are appended one
+ * after another directly into the target, which may be a {@link StringBuilder}
+ * or a buffered {@link java.io.Writer} of the file, so no intermediate string
+ * is created per version. The name of the group is taken once per run of the
+ * versions of the same artifact.
+ *
+ * @since 2.0
+ */
+public final class DependencyRenderer {
+
+    /**
+     * The format of the snippets.
+     */
+    private final DependencyFormat format;
+
+    /**
+     * The separator which is appended after every snippet.
+     */
+    private final String separator;
+
+    /**
+     * Ctor.
+     *
+     * @param fmt The format of the snippets.
+     * @param sep The separator which is appended after every snippet.
+     */
+    public DependencyRenderer(final DependencyFormat fmt, final String sep) {
+        this.format = fmt;
+        this.separator = sep;
+    }
+
+    /**
+     * Ctor. The snippets are separated with the line separator of the
+     * platform.
+     *
+     * @param fmt The format of the snippets.
+     */
+    public DependencyRenderer(final DependencyFormat fmt) {
+        this(fmt, System.lineSeparator());
+    }
+
+    /**
+     * Render the snippets of the versions into the target.
+     *
+     * @param versions The versions.
+     * @param target The target.
+     * @return The amount of the rendered snippets.
+     * @throws IOException If the target fails.
+     */
+    public int render(
+        final Iterable<? extends MvnArtifactVersion> versions,
+        final Appendable target
+    ) throws IOException {
+        int count = 0;
+        MvnArtifact last = null;
+        String group = null;
+        String name = null;
+        for (final MvnArtifactVersion version : versions) {
+            final MvnArtifact artifact = version.artifact();
+            if (artifact != last) {
+                last = artifact;
+                group = artifact.group().name();
+                name = artifact.name();
+            }
+            this.format.render(group, name, version.name(), target);
+            target.append(this.separator);
+            ++count;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The resolver of the transitive dependencies of the versions.
+ * The effective models of the versions are built by {@link EffectiveModels},
+ * so the versions which are inherited from the parents or imported from the
+ * BOMs are resolved, and every POM is read once while the builder keeps it.
+ * The graph is walked breadth-first: all the versions
+ * of one level are read concurrently, but not more than the configured amount
+ * at the same time, and then their dependencies are mediated in the order of
+ * declaration. So the nearest version of the artifact wins and of the equally
+ * near ones the first declared wins, as in Maven.
+ * Only "compile" and "runtime" dependencies are followed, the optional ones
+ * only when they are declared by the root. The effective scope of a
+ * transitive dependency follows the scope table of Maven: a "compile"
+ * dependency which is reached through a "runtime" one becomes "runtime".
+ * The exclusions are applied to the whole subtree of the dependency which
+ * declares them. The managed dependencies of the root override the versions
+ * of the transitive ones. The version ranges are not supported: such
+ * dependencies are reported as the failures and are not followed.
+ *
+ * @since 2.0
+ */
+public final class DependencyResolver {
+
+    /**
+     * Default max amount of the concurrent reads.
+     */
+    public static final int PARALLELISM = 16;
+
+    /**
+     * The default scope.
+     */
+    private static final String COMPILE = "compile";
+
+    /**
+     * The "runtime" scope.
+     */
+    private static final String RUNTIME = "runtime";
+
+    /**
+     * The scopes which are followed.
+     */
+    private static final Set<String> SCOPES = Set.of(COMPILE, RUNTIME);
+
+    /**
+     * The builder of the effective models.
+     */
+    private final EffectiveModels models;
+
+    /**
+     * Max amount of the concurrent reads.
+     */
+    private final int parallelism;
+
+    /**
+     * Ctor.
+     *
+     * @param builder The builder of the effective models.
+     * @param limit Max amount of the concurrent reads.
+     */
+    public DependencyResolver(final EffectiveModels builder, final int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException(
+                String.format("Parallelism must be positive: %d", limit)
+            );
+        }
+        this.models = builder;
+        this.parallelism = limit;
+    }
+
+    /**
+     * Ctor. The builder of the effective models is not shared, because the
+     * transport is specific: pass a shared {@link EffectiveModels} to share
+     * the read POMs between the resolvers.
+     *
+     * @param repository The Maven repo base URL.
+     * @param http The transport which we use to read the POMs.
+     * @param limit Max amount of the concurrent reads.
+     */
+    public DependencyResolver(
+        final String repository, final MvnTransport http, final int limit
+    ) {
+        this(new EffectiveModels(repository, http), limit);
+    }
+
+    /**
+     * Ctor. The builder of the effective models is not shared, see
+     * {@link #DependencyResolver(String, MvnTransport, int)}.
+     *
+     * @param repository The Maven repo base URL.
+     * @param http The transport which we use to read the POMs.
+     */
+    public DependencyResolver(
+        final String repository, final MvnTransport http
+    ) {
+        this(repository, http, PARALLELISM);
+    }
+
+    /**
+     * Ctor. Uses the builder of the effective models which is shared in the
+     * process, see {@link EffectiveModels#shared(String)}.
+     *
+     * @param repository The Maven repo base URL.
+     */
+    public DependencyResolver(final String repository) {
+        this(EffectiveModels.shared(repository), PARALLELISM);
+    }
+
+    /**
+     * Ctor. Uses the builder of the effective models of Maven Central which
+     * is shared in the process.
+     */
+    public DependencyResolver() {
+        this(EffectiveModels.CENTRAL);
+    }
+
+    /**
+     * Resolve the transitive dependencies of the version. The failures of
+     * the separate dependencies don't stop the resolution, they are reported
+     * in {@link DependencyGraph#failures()}.
+     *
+     * @param root The version.
+     * @return The graph of the dependencies.
+     */
+    public DependencyGraph resolve(final MvnArtifactVersion root) {
+        final Map<String, MvnArtifactVersion> selected = new HashMap<>();
+        selected.put(root.artifact().identifier(), root);
+        final Map<MvnArtifactVersion, List<MvnArtifactVersion>> children =
+            new LinkedHashMap<>();
+        final Map<MvnArtifactVersion, String> scopes = new HashMap<>();
+        final Map<String, MvnException> failures = new LinkedHashMap<>();
+        Map<String, PomDependency> managed = Map.of();
+        List<Node> level = List.of(
+            new Node(root, DependencyResolver.COMPILE, Set.of())
+        );
+        while (!level.isEmpty()) {
+            final Map<MvnArtifactVersion, EffectiveModel> read =
+                this.read(level, failures);
+            final List<Node> next = new ArrayList<>(0);
+            for (final Node node : level) {
+                final EffectiveModel model = read.get(node.version);
+                if (model == null) {
+                    continue;
+                }
+                if (node.version == root) {
+                    managed = model.managed();
+                }
+                final List<MvnArtifactVersion> added = new ArrayList<>(0);
+                for (final PomDependency dep : model.dependencies()) {
+                    final Node child = DependencyResolver.child(
+                        node, dep, node.version == root, managed, failures
+                    );
+                    if (child != null
+                        && selected.putIfAbsent(
+                            child.version.artifact().identifier(),
+                            child.version
+                        ) == null) {
+                        added.add(child.version);
+                        scopes.put(child.version, child.scope);
+                        next.add(child);
+                    }
+                }
+                if (!added.isEmpty()) {
+                    children.put(
+                        node.version, Collections.unmodifiableList(added)
+                    );
+                }
+            }
+            level = next;
+        }
+        return new DependencyGraph(root, children, scopes, failures);
+    }
+
+    /**
+     * The amount of the POMs which were read from the repository.
+     *
+     * @return The amount of the POMs.
+     */
+    public long reads() {
+        return this.models.reads();
+    }
+
+    /**
+     * Build the models of the versions of one level concurrently.
+     *
+     * @param level The versions.
+     * @param failures Where to report the failures.
+     * @return The models which were built.
+     */
+    private Map<MvnArtifactVersion, EffectiveModel> read(
+        final List<Node> level, final Map<String, MvnException> failures
+    ) {
+        final Map<MvnArtifactVersion, EffectiveModel> found =
+            new ConcurrentHashMap<>();
+        final Map<String, MvnException> failed = new ConcurrentHashMap<>();
+        final Semaphore permits = new Semaphore(this.parallelism);
+        try (ExecutorService threads =
+            Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final Node node : level) {
+                threads.execute(
+                    () -> {
+                        final String key = node.version.identifier();
+                        try {
+                            permits.acquire();
+                            try {
+                                found.put(
+                                    node.version,
+                                    this.models.model(node.version)
+                                );
+                            } finally {
+                                permits.release();
+                            }
+                        } catch (final MvnException exception) {
+                            failed.put(key, exception);
+                        } catch (final InterruptedException exception) {
+                            Thread.currentThread().interrupt();
+                            failed.put(key, new MvnException(exception));
+                        } catch (final RuntimeException exception) {
+                            failed.put(key, new MvnException(exception));
+                        }
+                    }
+                );
+            }
+        }
+        for (final Node node : level) {
+            final MvnException error = failed.get(node.version.identifier());
+            if (error != null) {
+                failures.put(node.version.identifier(), error);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Create the node of the dependency if it's followed.
+     *
+     * @param node The node which declares the dependency.
+     * @param dep The interpolated dependency.
+     * @param root Is the node the root.
+     * @param managed The managed dependencies of the root.
+     * @param failures Where to report the unresolved versions.
+     * @return The node or null if the dependency is not followed.
+     */
+    private static Node child(
+        final Node node, final PomDependency dep, final boolean root,
+        final Map<String, PomDependency> managed,
+        final Map<String, MvnException> failures
+    ) {
+        final String scope = dep.scope();
+        final String group = dep.group();
+        final String name = dep.name();
+        if (scope != null && !SCOPES.contains(scope)
+            || dep.optional() && !root
+            || DependencyResolver.excluded(node.exclusions, group, name)) {
+            return null;
+        }
+        String version = dep.version();
+        if (!root && managed.containsKey(dep.key())) {
+            version = managed.get(dep.key()).version();
+        }
+        if (DependencyResolver.range(version)) {
+            failures.putIfAbsent(
+                String.format("%s:%s", group, name),
+                new MvnException(
+                    new IOException(
+                        String.format(
+                            "Version range of %s:%s is not supported in %s: %s",
+                            group, name, node.version.identifier(), version
+                        )
+                    )
+                )
+            );
+            return null;
+        }
+        if (!MavenPom.resolved(version)) {
+            failures.putIfAbsent(
+                String.format("%s:%s", group, name),
+                new MvnException(
+                    new IOException(
+                        String.format(
+                            "Version of %s:%s is not resolved in %s: %s",
+                            group, name, node.version.identifier(), version
+                        )
+                    )
+                )
+            );
+            return null;
+        }
+        final Set<String> exclusions = new LinkedHashSet<>(node.exclusions);
+        exclusions.addAll(dep.exclusions());
+        return new Node(
+            new MavenArtifactVersion(
+                CoordinatePool.SHARED.artifact(group, name), version,
+                DependencyResolver.packaging(dep.type()),
+                null
+            ),
+            DependencyResolver.scope(node.scope, scope),
+            exclusions
+        );
+    }
+
+    /**
+     * The effective scope of the transitive dependency by the scope table of
+     * Maven: "compile" and "runtime" dependencies of a "compile" one keep
+     * their scopes, and both become "runtime" under a "runtime" one.
+     *
+     * @param parent The effective scope of the declaring dependency.
+     * @param declared The declared scope or null.
+     * @return The effective scope.
+     */
+    static String scope(final String parent, final String declared) {
+        String result = DependencyResolver.COMPILE;
+        if (DependencyResolver.RUNTIME.equals(parent)
+            || DependencyResolver.RUNTIME.equals(declared)) {
+            result = DependencyResolver.RUNTIME;
+        }
+        return result;
+    }
+
+    /**
+     * Is the version a range, e.g. "[1.0,2.0)" or "(,1.0]".
+     *
+     * @param version The version or null.
+     * @return True if it's a range.
+     */
+    static boolean range(final String version) {
+        return version != null
+            && (version.startsWith("[") || version.startsWith("("));
+    }
+
+    /**
+     * Is the artifact excluded.
+     *
+     * @param exclusions The exclusions in "group:artifact" format.
+     * @param group The group.
+     * @param name The artifact.
+     * @return True if it's excluded.
+     */
+    private static boolean excluded(
+        final Set<String> exclusions, final String group, final String name
+    ) {
+        boolean excluded = false;
+        if (!exclusions.isEmpty()) {
+            excluded = exclusions.contains(group + ':' + name)
+                || exclusions.contains(group + ":*")
+                || exclusions.contains("*:" + name)
+                || exclusions.contains("*:*");
+        }
+        return excluded;
+    }
+
+    /**
+     * The packaging of the dependency type.
+     *
+     * @param type The type or null.
+     * @return The packaging, JAR if the type is unknown.
+     */
+    static MvnPackagingType packaging(final String type) {
+        MvnPackagingType result = MvnPackagingType.JAR;
+        for (final MvnPackagingType packaging : MvnPackagingType.values()) {
+            if (packaging.packaging().equals(type)) {
+                result = packaging;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The node of the graph.
+     *
+     * @since 2.0
+     */
+    private static final class Node {
+
+        /**
+         * The version.
+         */
+        private final MvnArtifactVersion version;
+
+        /**
+         * The effective scope.
+         */
+        private final String scope;
+
+        /**
+         * The exclusions which apply to the subtree.
+         */
+        private final Set<String> exclusions;
+
+        /**
+         * Ctor.
+         *
+         * @param ver The version.
+         * @param effective The effective scope.
+         * @param excluded The exclusions which apply to the subtree.
+         */
+        Node(
+            final MvnArtifactVersion ver, final String effective,
+            final Set<String> excluded
+        ) {
+            this.version = ver;
+            this.scope = effective;
+            this.exclusions = excluded;
+        }
+    }
+}
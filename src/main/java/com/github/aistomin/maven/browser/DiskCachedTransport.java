@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The decorator of {@link MvnTransport} which keeps the responses on disk and
+ * revalidates them with the conditional requests. Only the successful
+ * responses which have "ETag" or "Last-Modified" header are stored. When the
+ * server answers "304 Not Modified", the body is served from the disk. The
+ * cache file which can't be read is deleted and the resource is requested
+ * again without the validators.
+ *
+ * @since 2.0
+ */
+public final class DiskCachedTransport implements MvnTransport {
+
+    /**
+     * Header "ETag".
+     */
+    private static final String ETAG = "ETag";
+
+    /**
+     * Header "Last-Modified".
+     */
+    private static final String MODIFIED = "Last-Modified";
+
+    /**
+     * Header "If-None-Match".
+     */
+    private static final String NONE_MATCH = "If-None-Match";
+
+    /**
+     * Header "If-Modified-Since".
+     */
+    private static final String MODIFIED_SINCE = "If-Modified-Since";
+
+    /**
+     * The extension of the cache files.
+     */
+    private static final String EXTENSION = ".cache";
+
+    /**
+     * The origin transport.
+     */
+    private final MvnTransport origin;
+
+    /**
+     * The directory where we keep the cache files.
+     */
+    private final Path dir;
+
+    /**
+     * The amount of responses which were served from the disk after the
+     * successful revalidation.
+     */
+    private final AtomicLong revalidated;
+
+    /**
+     * Ctor.
+     *
+     * @param transport The origin transport.
+     * @param directory The directory where we keep the cache files.
+     */
+    public DiskCachedTransport(
+        final MvnTransport transport, final Path directory
+    ) {
+        this.origin = transport;
+        this.dir = directory;
+        this.revalidated = new AtomicLong();
+    }
+
+    @Override
+    public MvnResponse get(
+        final URI uri, final Map<String, String> headers
+    ) throws IOException {
+        final boolean conditional = headers.keySet().stream().anyMatch(
+            name -> NONE_MATCH.equalsIgnoreCase(name)
+                || MODIFIED_SINCE.equalsIgnoreCase(name)
+        );
+        if (conditional) {
+            return this.origin.get(uri, headers);
+        }
+        final Path file = this.dir.resolve(
+            DiskCachedTransport.key(uri) + EXTENSION
+        );
+        final Map<String, String> validators =
+            DiskCachedTransport.validators(file);
+        final Map<String, String> request = new HashMap<>(headers);
+        if (validators.containsKey(ETAG)) {
+            request.put(NONE_MATCH, validators.get(ETAG));
+        }
+        if (validators.containsKey(MODIFIED)) {
+            request.put(MODIFIED_SINCE, validators.get(MODIFIED));
+        }
+        final MvnResponse response = this.origin.get(uri, request);
+        MvnResponse result;
+        if (response.status() == MvnResponse.NOT_MODIFIED
+            && !validators.isEmpty()) {
+            response.close();
+            result = DiskCachedTransport.read(file, response.connect());
+            if (result == null) {
+                result = this.store(file, this.origin.get(uri, headers));
+            } else {
+                this.revalidated.incrementAndGet();
+            }
+        } else {
+            result = this.store(file, response);
+        }
+        return result;
+    }
+
+    /**
+     * The amount of responses which were served from the disk after the
+     * successful revalidation.
+     *
+     * @return The amount of revalidated responses.
+     */
+    public long revalidations() {
+        return this.revalidated.get();
+    }
+
+    /**
+     * Store the response in the cache file if it is successful and has the
+     * validators.
+     *
+     * @param file The cache file.
+     * @param response The response.
+     * @return The response which is read from the cache file or the original
+     *  one if it isn't stored.
+     * @throws IOException If writing or reading fails.
+     */
+    private MvnResponse store(
+        final Path file, final MvnResponse response
+    ) throws IOException {
+        final MvnResponse result;
+        if (response.status() == MvnResponse.OK
+            && (response.header(ETAG) != null
+            || response.header(MODIFIED) != null)) {
+            try (response) {
+                this.write(file, response);
+            }
+            result = DiskCachedTransport.read(file, response.connect());
+            if (result == null) {
+                throw new IOException(
+                    String.format("Can't read the cache file %s", file)
+                );
+            }
+        } else {
+            result = response;
+        }
+        return result;
+    }
+
+    /**
+     * Store the response in the cache file. The file is replaced atomically,
+     * so the concurrent readers see either the old or the new content.
+     *
+     * @param file The cache file.
+     * @param response The response.
+     * @throws IOException If writing fails.
+     */
+    private void write(
+        final Path file, final MvnResponse response
+    ) throws IOException {
+        Files.createDirectories(this.dir);
+        final Path temp = Files.createTempFile(this.dir, "mvn", ".tmp");
+        try {
+            try (
+                OutputStream out = Files.newOutputStream(temp);
+                DataOutputStream data = new DataOutputStream(out)
+            ) {
+                DiskCachedTransport.writeHeader(data, response.header(ETAG));
+                DiskCachedTransport.writeHeader(
+                    data, response.header(MODIFIED)
+                );
+                response.body().transferTo(data);
+            }
+            Files.move(
+                temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Read the validators of the cached response. The missing, truncated or
+     * corrupt cache file is a cache miss; such a file is deleted.
+     *
+     * @param file The cache file.
+     * @return The validators or an empty map if there is no cached response.
+     * @throws IOException If the corrupt file can't be deleted.
+     */
+    private static Map<String, String> validators(
+        final Path file
+    ) throws IOException {
+        final Map<String, String> result = new HashMap<>();
+        try (
+            InputStream input = Files.newInputStream(file);
+            DataInputStream data = new DataInputStream(input)
+        ) {
+            final String etag = data.readUTF();
+            final String modified = data.readUTF();
+            if (!etag.isEmpty()) {
+                result.put(ETAG, etag);
+            }
+            if (!modified.isEmpty()) {
+                result.put(MODIFIED, modified);
+            }
+        } catch (final NoSuchFileException exception) {
+            result.clear();
+        } catch (final IOException exception) {
+            result.clear();
+            Files.deleteIfExists(file);
+        }
+        return result;
+    }
+
+    /**
+     * Read the cached response. The missing, truncated or corrupt cache file
+     * is a cache miss; such a file is deleted.
+     *
+     * @param file The cache file.
+     * @param connect The time which was spent on establishing the connection
+     *  for the revalidation or null if it's unknown.
+     * @return The response or null if the cache file can't be read.
+     * @throws IOException If the corrupt file can't be deleted.
+     */
+    private static MvnResponse read(
+        final Path file, final Duration connect
+    ) throws IOException {
+        MvnResponse response = null;
+        DataInputStream data = null;
+        try {
+            data = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file))
+            );
+            final Map<String, List<String>> headers = new HashMap<>();
+            final String etag = data.readUTF();
+            final String modified = data.readUTF();
+            if (!etag.isEmpty()) {
+                headers.put(ETAG, List.of(etag));
+            }
+            if (!modified.isEmpty()) {
+                headers.put(MODIFIED, List.of(modified));
+            }
+            response = new MvnResponse(MvnResponse.OK, headers, data, connect);
+        } catch (final IOException exception) {
+            if (data != null) {
+                data.close();
+            }
+            Files.deleteIfExists(file);
+        }
+        return response;
+    }
+
+    /**
+     * Write the header value to the cache file.
+     *
+     * @param data The cache file stream.
+     * @param value The header value or null.
+     * @throws IOException If writing fails.
+     */
+    private static void writeHeader(
+        final DataOutputStream data, final String value
+    ) throws IOException {
+        if (value == null) {
+            data.writeUTF("");
+        } else {
+            data.writeUTF(value);
+        }
+    }
+
+    /**
+     * Calculate the name of the cache file for the URI.
+     *
+     * @param uri The URI.
+     * @return SHA-256 hash of the URI.
+     */
+    private static String key(final URI uri) {
+        try {
+            return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(
+                    uri.toString().getBytes(StandardCharsets.UTF_8)
+                )
+            );
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The effective model of the project: its POM merged with the POMs of its
+ * parents and with the imported BOMs, and interpolated. It's immutable, so
+ * one instance is shared by all the children of the parent and by all the
+ * importers of the BOM, see {@link EffectiveModels}.
+ * The properties, the managed dependencies and the dependencies are
+ * inherited from the parent and overridden by the child. The inherited values
+ * are interpolated in the context of the child, as in Maven, so the child may
+ * change the versions which the parent manages by overriding its properties.
+ * The imported BOMs don't override the managed dependencies which are
+ * declared in the project or in its parents, and the earlier BOMs win over the
+ * later ones.
+ *
+ * @since 2.0
+ */
+public final class EffectiveModel {
+
+    /**
+     * The scope of the imported BOMs.
+     */
+    private static final String IMPORT = "import";
+
+    /**
+     * The POM of the project.
+     */
+    private final MavenPom pom;
+
+    /**
+     * The inherited properties before the interpolation.
+     */
+    private final Map<String, String> raw;
+
+    /**
+     * The inherited managed dependencies before the interpolation by the
+     * keys.
+     */
+    private final Map<String, PomDependency> rawmanaged;
+
+    /**
+     * The inherited dependencies before the interpolation by the keys.
+     */
+    private final Map<String, PomDependency> rawdeps;
+
+    /**
+     * The coordinates: the group, the artifact, the version.
+     */
+    private final MvnArtifactVersion coordinates;
+
+    /**
+     * The interpolated properties.
+     */
+    private final Map<String, String> props;
+
+    /**
+     * The interpolated managed dependencies including the imported ones by
+     * the keys.
+     */
+    private final Map<String, PomDependency> mngd;
+
+    /**
+     * The interpolated dependencies with the managed versions and scopes.
+     */
+    private final List<PomDependency> deps;
+
+    /**
+     * Ctor.
+     *
+     * @param project The POM of the project.
+     * @param parent The model of the parent or null if there is no parent.
+     * @param boms The models of the BOMs which the project imports, see
+     *  {@link #imports()}.
+     */
+    public EffectiveModel(
+        final MavenPom project, final EffectiveModel parent,
+        final List<EffectiveModel> boms
+    ) {
+        this.pom = project;
+        this.raw = new LinkedHashMap<>();
+        this.rawmanaged = new LinkedHashMap<>();
+        this.rawdeps = new LinkedHashMap<>();
+        if (parent != null) {
+            this.raw.putAll(parent.raw);
+            this.rawmanaged.putAll(parent.rawmanaged);
+            this.rawdeps.putAll(parent.rawdeps);
+        }
+        this.raw.putAll(project.properties());
+        for (final PomDependency dep : project.managed()) {
+            this.rawmanaged.put(EffectiveModel.key(dep), dep);
+        }
+        for (final PomDependency dep : project.dependencies()) {
+            this.rawdeps.put(EffectiveModel.key(dep), dep);
+        }
+        this.coordinates = new MavenArtifactVersion(
+            CoordinatePool.SHARED.artifact(
+                this.interpolate(project.group()),
+                this.interpolate(project.name())
+            ),
+            this.interpolate(project.version()),
+            DependencyResolver.packaging(project.packaging()), null
+        );
+        final Map<String, String> interpolated = new LinkedHashMap<>();
+        for (final Map.Entry<String, String> prop : this.raw.entrySet()) {
+            interpolated.put(prop.getKey(), this.interpolate(prop.getValue()));
+        }
+        this.props = Collections.unmodifiableMap(interpolated);
+        final Map<String, PomDependency> managed = new LinkedHashMap<>();
+        for (final PomDependency dep : this.rawmanaged.values()) {
+            final PomDependency expanded = this.interpolate(dep);
+            if (!EffectiveModel.imported(expanded)) {
+                managed.put(expanded.key(), expanded);
+            }
+        }
+        for (final EffectiveModel bom : boms) {
+            for (final PomDependency dep : bom.mngd.values()) {
+                managed.putIfAbsent(dep.key(), dep);
+            }
+        }
+        this.mngd = Collections.unmodifiableMap(managed);
+        final List<PomDependency> list =
+            new ArrayList<>(this.rawdeps.size());
+        for (final PomDependency dep : this.rawdeps.values()) {
+            list.add(this.manage(this.interpolate(dep)));
+        }
+        this.deps = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * The coordinates of the project.
+     *
+     * @return The version of the project.
+     */
+    public MvnArtifactVersion version() {
+        return this.coordinates;
+    }
+
+    /**
+     * The interpolated properties including the inherited ones.
+     *
+     * @return The unmodifiable map of the properties.
+     */
+    public Map<String, String> properties() {
+        return this.props;
+    }
+
+    /**
+     * The interpolated managed dependencies including the inherited and the
+     * imported ones.
+     *
+     * @return The unmodifiable map of the keys to the dependencies, see
+     *  {@link PomDependency#key()}.
+     */
+    public Map<String, PomDependency> managed() {
+        return this.mngd;
+    }
+
+    /**
+     * The interpolated dependencies including the inherited ones. The
+     * versions, the scopes and the exclusions which are not declared are
+     * taken from the managed dependencies.
+     *
+     * @return The unmodifiable list of the dependencies.
+     */
+    public List<PomDependency> dependencies() {
+        return this.deps;
+    }
+
+    /**
+     * Expand the property expressions in the context of the project.
+     *
+     * @param value The value or null.
+     * @return The expanded value or null.
+     */
+    public String interpolate(final String value) {
+        return MavenPom.interpolate(value, this::property);
+    }
+
+    /**
+     * The BOMs which the project imports: the managed dependencies of the
+     * project and of its parents with the scope "import" and the type "pom".
+     * The models of the BOMs are passed to the constructor.
+     *
+     * @return The versions of the BOMs in the order of declaration.
+     */
+    public List<MvnArtifactVersion> imports() {
+        final List<MvnArtifactVersion> boms = new ArrayList<>(0);
+        for (final PomDependency dep : this.rawmanaged.values()) {
+            final PomDependency expanded = this.interpolate(dep);
+            if (EffectiveModel.imported(expanded)) {
+                boms.add(
+                    new MavenArtifactVersion(
+                        CoordinatePool.SHARED.artifact(
+                            expanded.group(), expanded.name()
+                        ),
+                        expanded.version(), MvnPackagingType.POM, null
+                    )
+                );
+            }
+        }
+        return boms;
+    }
+
+    /**
+     * The value of the property: the inherited properties and the
+     * coordinates of the project.
+     *
+     * @param name The name of the property.
+     * @return The value or null if there is no such property.
+     */
+    private String property(final String name) {
+        String value = this.raw.get(name);
+        if (value == null) {
+            value = this.pom.property(name);
+        }
+        return value;
+    }
+
+    /**
+     * Interpolate the dependency.
+     *
+     * @param dep The dependency.
+     * @return The interpolated dependency.
+     */
+    private PomDependency interpolate(final PomDependency dep) {
+        final List<String> exclusions =
+            new ArrayList<>(dep.exclusions().size());
+        for (final String exclusion : dep.exclusions()) {
+            exclusions.add(this.interpolate(exclusion));
+        }
+        return new PomDependency(
+            this.interpolate(dep.group()), this.interpolate(dep.name()),
+            this.interpolate(dep.version()), this.interpolate(dep.type()),
+            this.interpolate(dep.scope()), dep.optional(), exclusions
+        ).classified(this.interpolate(dep.classifier()));
+    }
+
+    /**
+     * Fill the version, the scope and the exclusions of the dependency from
+     * the managed dependency.
+     *
+     * @param dep The interpolated dependency.
+     * @return The dependency.
+     */
+    private PomDependency manage(final PomDependency dep) {
+        final PomDependency managed = this.mngd.get(dep.key());
+        PomDependency result = dep;
+        if (managed != null && (dep.version() == null || dep.scope() == null
+            || dep.exclusions().isEmpty())) {
+            result = new PomDependency(
+                dep.group(), dep.name(),
+                EffectiveModel.first(dep.version(), managed.version()),
+                EffectiveModel.first(dep.type(), managed.type()),
+                EffectiveModel.first(dep.scope(), managed.scope()),
+                dep.optional(),
+                EffectiveModel.first(dep.exclusions(), managed.exclusions())
+            ).classified(dep.classifier());
+        }
+        return result;
+    }
+
+    /**
+     * Is the managed dependency the imported BOM.
+     *
+     * @param dep The interpolated dependency.
+     * @return True if it's imported.
+     */
+    private static boolean imported(final PomDependency dep) {
+        return IMPORT.equals(dep.scope())
+            && MvnPackagingType.POM.packaging().equals(dep.type());
+    }
+
+    /**
+     * The key of the raw dependency. It's not interpolated, so the
+     * dependencies with the property expressions in the coordinates are
+     * overridden only by the same expressions.
+     *
+     * @param dep The dependency.
+     * @return The key.
+     */
+    private static String key(final PomDependency dep) {
+        return dep.key();
+    }
+
+    /**
+     * The declared value or the managed one.
+     *
+     * @param declared The declared value or null.
+     * @param managed The managed value.
+     * @param <T> The type of the value.
+     * @return The declared value if it's present.
+     */
+    private static <T> T first(final T declared, final T managed) {
+        final T result;
+        if (declared == null
+            || declared instanceof List && ((List<?>) declared).isEmpty()) {
+            result = managed;
+        } else {
+            result = declared;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * The builder of the effective models of the projects, see
+ * {@link EffectiveModel}.
+ * The POMs are read from the repository the same way as
+ * {@link MavenCentral} reads the metadata. Every POM is read and parsed once
+ * while it is kept, and the concurrent reads of the same POM share one
+ * request. The built models are kept too, so the parents and the BOMs which
+ * are shared by many projects are built once and all the children and the
+ * importers get the same instance. The failures are not kept.
+ * The builder keeps up to the configured amount of the POMs and of the
+ * models and evicts the least recently used ones; an evicted POM or model is
+ * read or built again when it's needed. One POM with its model occupies
+ * some kilobytes, so the default {@link #MAX_ENTRIES} costs some tens of MB
+ * at most.
+ * The builder is thread-safe: share one instance between all the resolutions
+ * in the process, e.g. between {@link DependencyResolver} instances.
+ * {@link #shared(String)} gives such an instance per repository.
+ *
+ * @since 2.0
+ */
+public final class EffectiveModels {
+
+    /**
+     * Max depth of the chain of the parents and the imported BOMs.
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * Default max amount of the kept POMs and of the kept models.
+     */
+    public static final int MAX_ENTRIES = 4_096;
+
+    /**
+     * Maven Central repository.
+     */
+    public static final String CENTRAL = "https://repo1.maven.org/maven2";
+
+    /**
+     * Initial capacity of the maps of the POMs and the models.
+     */
+    private static final int CAPACITY = 16;
+
+    /**
+     * Load factor of the maps of the POMs and the models.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The builders which are shared in the process by the repository URLs.
+     */
+    private static final ConcurrentMap<String, EffectiveModels> SHARED =
+        new ConcurrentHashMap<>();
+
+    /**
+     * The Maven repo base URL.
+     */
+    private final String repo;
+
+    /**
+     * The transport which we use to read the POMs.
+     */
+    private final MvnTransport transport;
+
+    /**
+     * Max amount of the kept POMs and of the kept models.
+     */
+    private final int entries;
+
+    /**
+     * The parsed POMs by the identifiers of the versions in the access order
+     * (the eldest goes first).
+     */
+    private final Map<String, MavenPom> poms;
+
+    /**
+     * The reads which are in progress at the moment.
+     */
+    private final SingleFlight<String, MavenPom> flights;
+
+    /**
+     * The built models by the identifiers of the versions in the access
+     * order (the eldest goes first).
+     */
+    private final Map<String, EffectiveModel> models;
+
+    /**
+     * The amount of the POMs which were read from the repository.
+     */
+    private final AtomicLong reads;
+
+    /**
+     * Ctor.
+     *
+     * @param repository The Maven repo base URL.
+     * @param http The transport which we use to read the POMs.
+     * @param max Max amount of the kept POMs and of the kept models.
+     */
+    public EffectiveModels(
+        final String repository, final MvnTransport http, final int max
+    ) {
+        if (max < 1) {
+            throw new IllegalArgumentException(
+                String.format("The max amount must be positive: %d", max)
+            );
+        }
+        this.repo = repository;
+        this.transport = http;
+        this.entries = max;
+        this.poms = new LinkedHashMap<>(CAPACITY, LOAD_FACTOR, true);
+        this.flights = new SingleFlight<>();
+        this.models = new LinkedHashMap<>(CAPACITY, LOAD_FACTOR, true);
+        this.reads = new AtomicLong();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param repository The Maven repo base URL.
+     * @param http The transport which we use to read the POMs.
+     */
+    public EffectiveModels(final String repository, final MvnTransport http) {
+        this(repository, http, MAX_ENTRIES);
+    }
+
+    /**
+     * Ctor.
+     */
+    public EffectiveModels() {
+        this(CENTRAL, new HttpClientTransport());
+    }
+
+    /**
+     * The builder which is shared by all the users of the repository in the
+     * process. It reads the POMs with the shared {@link HttpClientTransport}.
+     *
+     * @param repository The Maven repo base URL.
+     * @return The builder.
+     */
+    public static EffectiveModels shared(final String repository) {
+        return EffectiveModels.SHARED.computeIfAbsent(
+            repository,
+            url -> new EffectiveModels(url, new HttpClientTransport())
+        );
+    }
+
+    /**
+     * Build the effective model of the version or take the one which was
+     * built before.
+     *
+     * @param version The version.
+     * @return The model.
+     * @throws MvnException If the problem occurred while reading the POMs or
+     *  the parents or the BOMs refer to each other in a cycle.
+     */
+    public EffectiveModel model(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.model(version, new LinkedHashSet<>());
+    }
+
+    /**
+     * Read and parse the POM of the version or take the one which was read
+     * before.
+     *
+     * @param version The version.
+     * @return The POM.
+     * @throws MvnException If the problem occurred while reading the POM.
+     */
+    public MavenPom pom(final MvnArtifactVersion version) throws MvnException {
+        final String key = version.identifier();
+        final MavenPom cached = this.cached(this.poms, key);
+        if (cached != null) {
+            return cached;
+        }
+        return this.flights.run(
+            key,
+            () -> {
+                MavenPom pom = this.cached(this.poms, key);
+                if (pom == null) {
+                    pom = this.keep(this.poms, key, this.fetch(version));
+                }
+                return pom;
+            }
+        );
+    }
+
+    /**
+     * The amount of the POMs which were read from the repository.
+     *
+     * @return The amount of the POMs.
+     */
+    public long reads() {
+        return this.reads.get();
+    }
+
+    /**
+     * The amount of the models which were built and kept.
+     *
+     * @return The amount of the models.
+     */
+    public int size() {
+        synchronized (this.models) {
+            return this.models.size();
+        }
+    }
+
+    /**
+     * Build the effective model of the version or take the one which was
+     * built before.
+     *
+     * @param version The version.
+     * @param chain The identifiers of the models which are being built by
+     *  this call, the outermost first.
+     * @return The model.
+     * @throws MvnException If the problem occurred while reading the POMs or
+     *  the parents or the BOMs refer to each other in a cycle.
+     */
+    private EffectiveModel model(
+        final MvnArtifactVersion version, final Set<String> chain
+    ) throws MvnException {
+        final String key = version.identifier();
+        final EffectiveModel cached = this.cached(this.models, key);
+        if (cached != null) {
+            return cached;
+        }
+        if (chain.contains(key) || chain.size() >= MAX_DEPTH) {
+            throw new MvnException(
+                new IOException(
+                    String.format("Cycle of the parents or BOMs: %s", chain)
+                )
+            );
+        }
+        chain.add(key);
+        try {
+            final MavenPom pom = this.pom(version);
+            EffectiveModel parent = null;
+            if (pom.parent() != null) {
+                parent = this.model(
+                    EffectiveModels.version(pom.parent()), chain
+                );
+            }
+            EffectiveModel model = new EffectiveModel(pom, parent, List.of());
+            final List<MvnArtifactVersion> imports = model.imports();
+            if (!imports.isEmpty()) {
+                final List<EffectiveModel> boms =
+                    new ArrayList<>(imports.size());
+                for (final MvnArtifactVersion bom : imports) {
+                    if (!MavenPom.resolved(bom.name())) {
+                        throw new MvnException(
+                            new IOException(
+                                String.format("BOM is not resolved: %s", bom)
+                            )
+                        );
+                    }
+                    boms.add(this.model(bom, chain));
+                }
+                model = new EffectiveModel(pom, parent, boms);
+            }
+            return this.keep(this.models, key, model);
+        } finally {
+            chain.remove(key);
+        }
+    }
+
+    /**
+     * The kept value.
+     *
+     * @param map The POMs or the models.
+     * @param key The identifier of the version.
+     * @param <T> The type of the value.
+     * @return The value or null if it isn't kept.
+     */
+    private <T> T cached(final Map<String, T> map, final String key) {
+        synchronized (map) {
+            return map.get(key);
+        }
+    }
+
+    /**
+     * Keep the value unless another one was kept meanwhile, and evict the
+     * least recently used values if there are too many of them.
+     *
+     * @param map The POMs or the models.
+     * @param key The identifier of the version.
+     * @param value The value.
+     * @param <T> The type of the value.
+     * @return The kept value.
+     */
+    private <T> T keep(
+        final Map<String, T> map, final String key, final T value
+    ) {
+        synchronized (map) {
+            T kept = map.get(key);
+            if (kept == null) {
+                map.put(key, value);
+                kept = value;
+                final Iterator<T> iterator = map.values().iterator();
+                while (map.size() > this.entries && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+            return kept;
+        }
+    }
+
+    /**
+     * Read and parse the POM from the repository.
+     *
+     * @param version The version.
+     * @return The POM.
+     * @throws MvnException If the problem occurred while reading the POM.
+     */
+    private MavenPom fetch(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        final String url = MavenCentral.pomUrl(this.repo, version);
+        try (MvnResponse response = this.transport.get(
+            URI.create(url), Collections.emptyMap()
+        )) {
+            if (response.status() != MvnResponse.OK) {
+                throw new IOException(
+                    String.format("HTTP %d: %s", response.status(), url)
+                );
+            }
+            this.reads.incrementAndGet();
+            try (InputStream body = response.body()) {
+                return new MavenPom(body);
+            }
+        } catch (final IOException | XMLStreamException
+            | IllegalArgumentException exception) {
+            throw new MvnException(exception);
+        }
+    }
+
+    /**
+     * The version of the parent.
+     *
+     * @param parent The parent.
+     * @return The version.
+     * @throws MvnException If the coordinates of the parent are not declared.
+     */
+    private static MvnArtifactVersion version(
+        final PomDependency parent
+    ) throws MvnException {
+        if (!MavenPom.resolved(parent.group())
+            || !MavenPom.resolved(parent.name())
+            || !MavenPom.resolved(parent.version())) {
+            throw new MvnException(
+                new IOException(
+                    String.format("Parent is not resolved: %s", parent)
+                )
+            );
+        }
+        return new MavenArtifactVersion(
+            CoordinatePool.SHARED.artifact(parent.group(), parent.name()),
+            parent.version(), MvnPackagingType.POM, null
+        );
+    }
+}
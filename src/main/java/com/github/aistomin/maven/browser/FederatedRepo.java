@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link MvnRepo} which queries several repositories in parallel, for example
+ * Maven Central and its mirrors.
+ * In {@link Mode#MERGE} mode the results of all the repositories which
+ * answered within the timeout are merged: the artifacts keep the order of
+ * the repositories, and the versions are deduplicated and sorted newest
+ * first by {@link MvnArtifactVersion#key()}. In {@link Mode#FIRST} mode the
+ * versions come from the repository which answered first. The artifacts are
+ * always merged.
+ * The repositories which fail or don't answer in time are skipped; the
+ * lookup fails only when none of them answered.
+ *
+ * @since 2.0
+ */
+public final class FederatedRepo implements MvnRepo {
+
+    /**
+     * Default timeout of one repository.
+     */
+    public static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The repositories.
+     */
+    private final List<MvnRepo> repos;
+
+    /**
+     * The timeout of one repository in nanoseconds.
+     */
+    private final long timeout;
+
+    /**
+     * How the versions are combined.
+     */
+    private final Mode mode;
+
+    /**
+     * The amount of the repositories which didn't answer in time.
+     */
+    private final AtomicLong late;
+
+    /**
+     * Ctor.
+     *
+     * @param repositories The repositories.
+     * @param wait The timeout of one repository.
+     * @param combine How the versions are combined.
+     */
+    public FederatedRepo(
+        final List<MvnRepo> repositories, final Duration wait,
+        final Mode combine
+    ) {
+        if (repositories.isEmpty()) {
+            throw new IllegalArgumentException("No repositories to federate");
+        }
+        this.repos = List.copyOf(repositories);
+        this.timeout = wait.toNanos();
+        this.mode = combine;
+        this.late = new AtomicLong();
+    }
+
+    /**
+     * Ctor. Merges the versions of all the repositories.
+     *
+     * @param repositories The repositories.
+     */
+    public FederatedRepo(final MvnRepo... repositories) {
+        this(List.of(repositories), TIMEOUT, Mode.MERGE);
+    }
+
+    @Override
+    public List<MvnArtifact> findArtifacts(
+        final String str
+    ) throws MvnException {
+        return this.findArtifacts(str, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public List<MvnArtifact> findArtifacts(
+        final String str, final Integer start, final Integer rows
+    ) throws MvnException {
+        final int top = (int) Math.min((long) start + rows, Integer.MAX_VALUE);
+        final Set<MvnArtifact> merged = new LinkedHashSet<>();
+        for (final List<MvnArtifact> found
+            : this.all(repo -> repo.findArtifacts(str, 0, top))) {
+            merged.addAll(found);
+        }
+        return FederatedRepo.page(List.copyOf(merged), start, rows);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersions(
+        final MvnArtifact artifact
+    ) throws MvnException {
+        return this.findVersions(artifact, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersions(
+        final MvnArtifact artifact, final Integer start, final Integer rows
+    ) throws MvnException {
+        final int top = (int) Math.min((long) start + rows, Integer.MAX_VALUE);
+        return FederatedRepo.page(
+            this.index(artifact, top).sorted(), start, rows
+        );
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsNewerThan(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.index(version.artifact(), Integer.MAX_VALUE)
+            .require(version).newerThan(version);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsOlderThan(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.index(version.artifact(), Integer.MAX_VALUE)
+            .require(version).olderThan(version);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsBetween(
+        final MvnArtifactVersion from, final MvnArtifactVersion to
+    ) throws MvnException {
+        return this.index(from.artifact(), Integer.MAX_VALUE)
+            .require(from).require(to).between(from, to);
+    }
+
+    /**
+     * The amount of the repositories which didn't answer in time so far.
+     *
+     * @return The amount of the late repositories.
+     */
+    public long timeouts() {
+        return this.late.get();
+    }
+
+    /**
+     * Find the newest versions of the artifact in the repositories and
+     * combine them into the index.
+     *
+     * @param artifact The artifact.
+     * @param top The amount of the newest versions to read from every
+     *  repository.
+     * @return The index of the versions.
+     * @throws MvnException If none of the repositories answered.
+     */
+    private VersionIndex index(
+        final MvnArtifact artifact, final int top
+    ) throws MvnException {
+        final Query<List<MvnArtifactVersion>> query =
+            repo -> repo.findVersions(artifact, 0, top);
+        final Set<MvnArtifactVersion> versions = new LinkedHashSet<>();
+        if (this.mode == Mode.FIRST) {
+            versions.addAll(this.first(query));
+        } else {
+            for (final List<MvnArtifactVersion> found : this.all(query)) {
+                versions.addAll(found);
+            }
+        }
+        return new VersionIndex(new ArrayList<>(versions));
+    }
+
+    /**
+     * Query all the repositories in parallel.
+     *
+     * @param query The query.
+     * @param <T> The type of the result.
+     * @return The results of the repositories which answered in time, in
+     *  the order of the repositories.
+     * @throws MvnException If none of the repositories answered.
+     */
+    private <T> List<T> all(final Query<T> query) throws MvnException {
+        final List<CompletableFuture<T>> futures = this.send(query);
+        final long deadline = System.nanoTime() + this.timeout;
+        final List<T> results = new ArrayList<>(futures.size());
+        MvnException error = null;
+        for (final CompletableFuture<T> future : futures) {
+            try {
+                results.add(
+                    future.get(
+                        Math.max(0, deadline - System.nanoTime()),
+                        TimeUnit.NANOSECONDS
+                    )
+                );
+            } catch (final TimeoutException exception) {
+                this.late.incrementAndGet();
+                error = FederatedRepo.suppress(error, this.timeout());
+            } catch (final ExecutionException exception) {
+                error = FederatedRepo.suppress(
+                    error, FederatedRepo.unwrap(exception)
+                );
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new MvnException(exception);
+            }
+        }
+        if (results.isEmpty()) {
+            throw error;
+        }
+        return results;
+    }
+
+    /**
+     * Query all the repositories in parallel and take the first successful
+     * result.
+     *
+     * @param query The query.
+     * @param <T> The type of the result.
+     * @return The first result.
+     * @throws MvnException If none of the repositories answered.
+     */
+    private <T> T first(final Query<T> query) throws MvnException {
+        final List<CompletableFuture<T>> futures = this.send(query);
+        final CompletableFuture<T> winner = new CompletableFuture<>();
+        final AtomicInteger failed = new AtomicInteger();
+        for (final CompletableFuture<T> future : futures) {
+            future.whenComplete(
+                (result, error) -> {
+                    if (error == null) {
+                        winner.complete(result);
+                    } else if (failed.incrementAndGet() == futures.size()) {
+                        winner.completeExceptionally(error);
+                    }
+                }
+            );
+        }
+        try {
+            return winner.get(this.timeout, TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException exception) {
+            this.late.addAndGet(futures.size() - failed.get());
+            throw this.timeout();
+        } catch (final ExecutionException exception) {
+            throw FederatedRepo.unwrap(exception);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new MvnException(exception);
+        }
+    }
+
+    /**
+     * Start the query of every repository on its own virtual thread.
+     *
+     * @param query The query.
+     * @param <T> The type of the result.
+     * @return The future results in the order of the repositories.
+     */
+    private <T> List<CompletableFuture<T>> send(final Query<T> query) {
+        final List<CompletableFuture<T>> futures =
+            new ArrayList<>(this.repos.size());
+        for (final MvnRepo repo : this.repos) {
+            final CompletableFuture<T> future = new CompletableFuture<>();
+            Thread.startVirtualThread(
+                () -> {
+                    try {
+                        future.complete(query.query(repo));
+                    } catch (final MvnException | RuntimeException exception) {
+                        future.completeExceptionally(exception);
+                    }
+                }
+            );
+            futures.add(future);
+        }
+        return futures;
+    }
+
+    /**
+     * The error of the repository which didn't answer in time.
+     *
+     * @return The error.
+     */
+    private MvnException timeout() {
+        return new MvnException(
+            new IOException(
+                String.format(
+                    "The repository didn't answer in %s",
+                    Duration.ofNanos(this.timeout)
+                )
+            )
+        );
+    }
+
+    /**
+     * Keep the first error and suppress the next ones.
+     *
+     * @param first The first error or null.
+     * @param next The next error.
+     * @return The first error.
+     */
+    private static MvnException suppress(
+        final MvnException first, final MvnException next
+    ) {
+        final MvnException result;
+        if (first == null) {
+            result = next;
+        } else {
+            first.addSuppressed(next);
+            result = first;
+        }
+        return result;
+    }
+
+    /**
+     * Unwrap the error of the repository.
+     *
+     * @param exception The error of the future.
+     * @return The error of the repository.
+     */
+    private static MvnException unwrap(final ExecutionException exception) {
+        final Throwable cause = exception.getCause();
+        final MvnException error;
+        if (cause instanceof MvnException) {
+            error = (MvnException) cause;
+        } else {
+            error = new MvnException(cause);
+        }
+        return error;
+    }
+
+    /**
+     * The page of the list.
+     *
+     * @param all The list.
+     * @param start The index of the first item.
+     * @param rows Max amount of the items.
+     * @param <T> The type of the items.
+     * @return The page.
+     */
+    private static <T> List<T> page(
+        final List<T> all, final int start, final int rows
+    ) {
+        final List<T> page;
+        if (start >= all.size()) {
+            page = List.of();
+        } else {
+            page = all.subList(
+                start, (int) Math.min((long) start + rows, all.size())
+            );
+        }
+        return page;
+    }
+
+    /**
+     * How the versions of the repositories are combined.
+     *
+     * @since 2.0
+     */
+    public enum Mode {
+
+        /**
+         * The versions of all the repositories which answered in time are
+         * merged.
+         */
+        MERGE,
+
+        /**
+         * The versions come from the repository which answered first.
+         */
+        FIRST
+    }
+
+    /**
+     * The query of one repository.
+     *
+     * @param <T> The type of the result.
+     * @since 2.0
+     */
+    @FunctionalInterface
+    private interface Query<T> {
+
+        /**
+         * Query the repository.
+         *
+         * @param repo The repository.
+         * @return The result.
+         * @throws MvnException If the query failed.
+         */
+        T query(MvnRepo repo) throws MvnException;
+    }
+}
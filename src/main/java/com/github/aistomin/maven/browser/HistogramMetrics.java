@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics which are kept in memory: one {@link LatencyHistogram} per
+ * operation and phase, and the counters of the bytes, the results and the
+ * errors per operation. {@link #scrape()} renders them in the Prometheus text
+ * format.
+ *
+ * @since 2.0
+ */
+public final class HistogramMetrics implements MvnMetrics {
+
+    /**
+     * The histograms of the phases per operation, indexed by
+     * {@link MvnPhase#ordinal()}.
+     */
+    private final ConcurrentMap<String, LatencyHistogram[]> timings;
+
+    /**
+     * The amount of the bytes per operation.
+     */
+    private final ConcurrentMap<String, LongAdder> transferred;
+
+    /**
+     * The amount of the results per operation.
+     */
+    private final ConcurrentMap<String, LongAdder> found;
+
+    /**
+     * The amount of the errors per operation and error type.
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>>
+        failed;
+
+    /**
+     * Ctor.
+     */
+    public HistogramMetrics() {
+        this.timings = new ConcurrentHashMap<>();
+        this.transferred = new ConcurrentHashMap<>();
+        this.found = new ConcurrentHashMap<>();
+        this.failed = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void timing(
+        final String operation, final MvnPhase phase, final long nanos
+    ) {
+        this.histogram(operation, phase).record(nanos);
+    }
+
+    @Override
+    public void bytes(final String operation, final long amount) {
+        this.transferred.computeIfAbsent(operation, key -> new LongAdder())
+            .add(amount);
+    }
+
+    @Override
+    public void results(final String operation, final int amount) {
+        this.found.computeIfAbsent(operation, key -> new LongAdder())
+            .add(amount);
+    }
+
+    @Override
+    public void error(final String operation, final Throwable error) {
+        this.failed.computeIfAbsent(
+            operation, key -> new ConcurrentHashMap<>()
+        ).computeIfAbsent(
+            error.getClass().getName(), key -> new LongAdder()
+        ).increment();
+    }
+
+    /**
+     * The histogram of the phase of the operation.
+     *
+     * @param operation The operation.
+     * @param phase The phase.
+     * @return The histogram.
+     */
+    public LatencyHistogram histogram(
+        final String operation, final MvnPhase phase
+    ) {
+        return this.timings.computeIfAbsent(
+            operation, HistogramMetrics::histograms
+        )[phase.ordinal()];
+    }
+
+    /**
+     * The amount of the bytes which the operation has read.
+     *
+     * @param operation The operation.
+     * @return The amount of the bytes.
+     */
+    public long bytesRead(final String operation) {
+        return HistogramMetrics.sum(this.transferred.get(operation));
+    }
+
+    /**
+     * The amount of the results which the operation has returned.
+     *
+     * @param operation The operation.
+     * @return The amount of the results.
+     */
+    public long resultCount(final String operation) {
+        return HistogramMetrics.sum(this.found.get(operation));
+    }
+
+    /**
+     * The amount of the errors of the operation.
+     *
+     * @param operation The operation.
+     * @param type The class of the error.
+     * @return The amount of the errors.
+     */
+    public long errorCount(
+        final String operation, final Class<? extends Throwable> type
+    ) {
+        final Map<String, LongAdder> errors = this.failed.get(operation);
+        long result = 0L;
+        if (errors != null) {
+            result = HistogramMetrics.sum(errors.get(type.getName()));
+        }
+        return result;
+    }
+
+    /**
+     * Render the metrics in the Prometheus text format.
+     *
+     * @return The metrics.
+     */
+    public String scrape() {
+        final StringBuilder out = new StringBuilder(0);
+        out.append("# TYPE mvn_phase_nanoseconds histogram\n");
+        for (final Map.Entry<String, LatencyHistogram[]> entry
+            : new TreeMap<>(this.timings).entrySet()) {
+            for (final MvnPhase phase : MvnPhase.values()) {
+                HistogramMetrics.render(
+                    out, entry.getKey(), phase,
+                    entry.getValue()[phase.ordinal()]
+                );
+            }
+        }
+        out.append("# TYPE mvn_bytes_total counter\n");
+        new TreeMap<>(this.transferred).forEach(
+            (operation, value) -> out.append("mvn_bytes_total{operation=\"")
+                .append(operation).append("\"} ").append(value.sum())
+                .append('\n')
+        );
+        out.append("# TYPE mvn_results_total counter\n");
+        new TreeMap<>(this.found).forEach(
+            (operation, value) -> out.append("mvn_results_total{operation=\"")
+                .append(operation).append("\"} ").append(value.sum())
+                .append('\n')
+        );
+        out.append("# TYPE mvn_errors_total counter\n");
+        new TreeMap<>(this.failed).forEach(
+            (operation, errors) -> new TreeMap<>(errors).forEach(
+                (type, value) -> out.append("mvn_errors_total{operation=\"")
+                    .append(operation).append("\",error=\"").append(type)
+                    .append("\"} ").append(value.sum()).append('\n')
+            )
+        );
+        return out.toString();
+    }
+
+    /**
+     * Render one histogram in the Prometheus text format. The empty
+     * histograms are skipped, the others always have all the buckets. The
+     * bound "le" of Prometheus is inclusive, so the bucket of the durations
+     * below {@link LatencyHistogram#bound(int)} is rendered with the bound
+     * minus one nanosecond.
+     *
+     * @param out The output.
+     * @param operation The operation.
+     * @param phase The phase.
+     * @param histogram The histogram.
+     */
+    private static void render(
+        final StringBuilder out, final String operation, final MvnPhase phase,
+        final LatencyHistogram histogram
+    ) {
+        final long count = histogram.count();
+        if (count > 0) {
+            final String labels = String.format(
+                "operation=\"%s\",phase=\"%s\"",
+                operation, phase.name().toLowerCase(Locale.ROOT)
+            );
+            long cumulative = 0L;
+            for (int idx = 0; idx < LatencyHistogram.BUCKETS - 1; ++idx) {
+                cumulative += histogram.bucketCount(idx);
+                out.append("mvn_phase_nanoseconds_bucket{").append(labels)
+                    .append(",le=\"").append(LatencyHistogram.bound(idx) - 1)
+                    .append("\"} ").append(cumulative).append('\n');
+            }
+            out.append("mvn_phase_nanoseconds_bucket{").append(labels)
+                .append(",le=\"+Inf\"} ").append(count).append('\n')
+                .append("mvn_phase_nanoseconds_sum{").append(labels)
+                .append("} ").append(histogram.sum()).append('\n')
+                .append("mvn_phase_nanoseconds_count{").append(labels)
+                .append("} ").append(count).append('\n');
+        }
+    }
+
+    /**
+     * Create the histograms for all the phases.
+     *
+     * @param operation The operation.
+     * @return The histograms indexed by {@link MvnPhase#ordinal()}.
+     */
+    private static LatencyHistogram[] histograms(final String operation) {
+        final LatencyHistogram[] result =
+            new LatencyHistogram[MvnPhase.values().length];
+        for (int idx = 0; idx < result.length; ++idx) {
+            result[idx] = new LatencyHistogram();
+        }
+        return result;
+    }
+
+    /**
+     * The value of the counter.
+     *
+     * @param counter The counter or null.
+     * @return The value or 0 if there is no counter.
+     */
+    private static long sum(final LongAdder counter) {
+        long result = 0L;
+        if (counter != null) {
+            result = counter.sum();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The transport which uses {@link HttpClient}. The client keeps the
+ * connections alive and reuses them, negotiates HTTP/2 when the server
+ * supports it and asks the server to compress the responses with gzip.
+ * The default ctor uses one client which is shared by all the instances, so
+ * TLS handshakes are not repeated for every request.
+ * The read timeout limits the wait for the response headers and then every
+ * read of the body: the read which doesn't receive any data in time fails
+ * with {@link SocketTimeoutException} and aborts the response. The body of
+ * {@link #getAsync(URI, Map)} is received by the client, so only the headers
+ * are limited there.
+ *
+ * @since 2.0
+ */
+public final class HttpClientTransport implements MvnTransport {
+
+    /**
+     * Default connect timeout.
+     */
+    public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Default read timeout.
+     */
+    public static final Duration READ_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Header "Accept-Encoding".
+     */
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+    /**
+     * Encoding "gzip".
+     */
+    private static final String GZIP = "gzip";
+
+    /**
+     * HTTP client.
+     */
+    private final HttpClient client;
+
+    /**
+     * The max time between sending the request and receiving the response
+     * headers, and the max time of one read of the body.
+     */
+    private final Duration timeout;
+
+    /**
+     * Ctor.
+     *
+     * @param http HTTP client.
+     * @param read The max time between sending the request and receiving the
+     *  response headers, and the max time of one read of the body.
+     */
+    public HttpClientTransport(final HttpClient http, final Duration read) {
+        this.client = http;
+        this.timeout = read;
+    }
+
+    /**
+     * Ctor. Creates the new HTTP client.
+     *
+     * @param connect Connect timeout.
+     * @param read The max time between sending the request and receiving the
+     *  response headers, and the max time of one read of the body.
+     */
+    public HttpClientTransport(final Duration connect, final Duration read) {
+        this(HttpClientTransport.client(connect), read);
+    }
+
+    /**
+     * Ctor. Uses the shared HTTP client.
+     */
+    public HttpClientTransport() {
+        this(Shared.CLIENT, READ_TIMEOUT);
+    }
+
+    @Override
+    public MvnResponse get(
+        final URI uri, final Map<String, String> headers
+    ) throws IOException {
+        try {
+            final HttpResponse<InputStream> response = this.client.send(
+                this.request(uri, headers),
+                HttpResponse.BodyHandlers.ofInputStream()
+            );
+            return HttpClientTransport.response(
+                response.statusCode(), response.headers(),
+                new Deadline(response.body(), this.timeout)
+            );
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException error = new InterruptedIOException(
+                String.format("Interrupted: %s", uri)
+            );
+            error.initCause(exception);
+            throw error;
+        }
+    }
+
+    /**
+     * Execute HTTP GET request without blocking the calling thread. The body
+     * is fully received before the returned future completes.
+     *
+     * @param uri The URI of the resource.
+     * @param headers The request headers.
+     * @return The future response.
+     */
+    public CompletableFuture<MvnResponse> getAsync(
+        final URI uri, final Map<String, String> headers
+    ) {
+        return this.client.sendAsync(
+            this.request(uri, headers),
+            HttpResponse.BodyHandlers.ofByteArray()
+        ).thenApply(
+            response -> {
+                try {
+                    return HttpClientTransport.response(
+                        response.statusCode(), response.headers(),
+                        new ByteArrayInputStream(response.body())
+                    );
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            }
+        );
+    }
+
+    /**
+     * Build the request.
+     *
+     * @param uri The URI of the resource.
+     * @param headers The request headers.
+     * @return The request.
+     */
+    private HttpRequest request(
+        final URI uri, final Map<String, String> headers
+    ) {
+        final HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+            .timeout(this.timeout)
+            .GET();
+        if (headers.keySet().stream()
+            .noneMatch(ACCEPT_ENCODING::equalsIgnoreCase)) {
+            request.header(ACCEPT_ENCODING, GZIP);
+        }
+        headers.forEach(request::header);
+        return request.build();
+    }
+
+    /**
+     * Build the response and decompress the body if it's compressed.
+     *
+     * @param status HTTP status code.
+     * @param headers The response headers.
+     * @param body The response body.
+     * @return The response.
+     * @throws IOException If the body can't be decompressed.
+     */
+    private static MvnResponse response(
+        final int status, final HttpHeaders headers, final InputStream body
+    ) throws IOException {
+        final InputStream stream;
+        if (status != MvnResponse.NOT_MODIFIED
+            && headers.firstValue("Content-Encoding")
+                .filter(GZIP::equalsIgnoreCase).isPresent()) {
+            stream = new GZIPInputStream(body);
+        } else {
+            stream = body;
+        }
+        return new MvnResponse(status, headers.map(), stream);
+    }
+
+    /**
+     * Create the timer of the reads. Its daemon thread doesn't keep the JVM
+     * alive, and the cancelled alarms are removed at once.
+     *
+     * @return The timer.
+     */
+    private static ScheduledExecutorService timer() {
+        final ScheduledThreadPoolExecutor timer =
+            new ScheduledThreadPoolExecutor(
+                1,
+                Thread.ofPlatform().daemon().name("mvn-read-timeout").factory()
+            );
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Create the new HTTP client.
+     *
+     * @param connect Connect timeout.
+     * @return The client.
+     */
+    private static HttpClient client(final Duration connect) {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(connect)
+            .build();
+    }
+
+    /**
+     * The response body whose every read fails if it doesn't receive any data
+     * within the timeout. The timer interrupts the reading thread, which
+     * wakes up the body of {@link HttpClient}; the interrupt is cleared then,
+     * the body is closed and {@link SocketTimeoutException} is thrown.
+     *
+     * @since 2.0
+     */
+    private static final class Deadline extends FilterInputStream {
+
+        /**
+         * The max time of one read in nanoseconds.
+         */
+        private final long timeout;
+
+        /**
+         * The number of the last read.
+         */
+        private long reads;
+
+        /**
+         * The number of the read in progress or zero.
+         */
+        private long active;
+
+        /**
+         * True if the read in progress timed out.
+         */
+        private boolean expired;
+
+        /**
+         * Ctor.
+         *
+         * @param body The response body.
+         * @param read The max time of one read.
+         */
+        Deadline(final InputStream body, final Duration read) {
+            super(body);
+            this.timeout = read.toNanos();
+        }
+
+        @Override
+        public int read() throws IOException {
+            return (int) this.timed(super::read);
+        }
+
+        @Override
+        public int read(
+            final byte[] buffer, final int offset, final int length
+        ) throws IOException {
+            return (int) this.timed(() -> super.read(buffer, offset, length));
+        }
+
+        @Override
+        public long skip(final long amount) throws IOException {
+            return this.timed(() -> super.skip(amount));
+        }
+
+        /**
+         * Run the read and fail it if it takes too long.
+         *
+         * @param read The read.
+         * @return The result of the read.
+         * @throws IOException If the read failed or timed out.
+         */
+        private long timed(final Read read) throws IOException {
+            final Thread reader = Thread.currentThread();
+            final long ticket;
+            synchronized (this) {
+                ++this.reads;
+                ticket = this.reads;
+                this.active = ticket;
+            }
+            final ScheduledFuture<?> alarm = Timer.TIMER.schedule(
+                () -> this.expire(ticket, reader),
+                this.timeout, TimeUnit.NANOSECONDS
+            );
+            long result = -1L;
+            IOException error = null;
+            try {
+                result = read.run();
+            } catch (final IOException exception) {
+                error = exception;
+            }
+            alarm.cancel(false);
+            final boolean late;
+            synchronized (this) {
+                this.active = 0L;
+                late = this.expired;
+                if (late) {
+                    Thread.interrupted();
+                }
+            }
+            if (late) {
+                this.close();
+                throw new SocketTimeoutException(
+                    String.format(
+                        "No data received within %s",
+                        Duration.ofNanos(this.timeout)
+                    )
+                );
+            }
+            if (error != null) {
+                throw error;
+            }
+            return result;
+        }
+
+        /**
+         * Interrupt the read if it is still in progress.
+         *
+         * @param ticket The number of the read.
+         * @param reader The reading thread.
+         */
+        private synchronized void expire(
+            final long ticket, final Thread reader
+        ) {
+            if (this.active == ticket) {
+                this.expired = true;
+                reader.interrupt();
+            }
+        }
+    }
+
+    /**
+     * One read of the body.
+     *
+     * @since 2.0
+     */
+    @FunctionalInterface
+    private interface Read {
+
+        /**
+         * Read.
+         *
+         * @return The result of the read.
+         * @throws IOException If the read failed.
+         */
+        long run() throws IOException;
+    }
+
+    /**
+     * The holder of the timer of the reads. The timer is created when it's
+     * used for the first time.
+     *
+     * @since 2.0
+     */
+    private static final class Timer {
+
+        /**
+         * The timer of the reads.
+         */
+        private static final ScheduledExecutorService TIMER =
+            HttpClientTransport.timer();
+
+        /**
+         * Utility class.
+         */
+        private Timer() {
+        }
+    }
+
+    /**
+     * The holder of the shared HTTP client. The client is created when it's
+     * used for the first time.
+     *
+     * @since 2.0
+     */
+    private static final class Shared {
+
+        /**
+         * The shared HTTP client.
+         */
+        private static final HttpClient CLIENT =
+            HttpClientTransport.client(CONNECT_TIMEOUT);
+
+        /**
+         * Utility class.
+         */
+        private Shared() {
+        }
+    }
+}
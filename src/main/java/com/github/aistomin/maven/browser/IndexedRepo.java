@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link MvnRepo} which finds the artifacts in the local
+ * {@link ArtifactIndex} instead of the remote search API. The versions of the
+ * artifacts are not indexed, so their lookups are delegated to the origin
+ * repository.
+ *
+ * @since 2.0
+ */
+public final class IndexedRepo implements MvnRepo {
+
+    /**
+     * Initial capacity of the page of the found artifacts.
+     */
+    private static final int CAPACITY = 16;
+
+    /**
+     * The index of the artifacts.
+     */
+    private final ArtifactIndex index;
+
+    /**
+     * How the query matches the coordinates.
+     */
+    private final ArtifactIndex.Match match;
+
+    /**
+     * The repository which finds the versions.
+     */
+    private final MvnRepo origin;
+
+    /**
+     * Ctor.
+     *
+     * @param artifacts The index of the artifacts.
+     * @param mode How the query matches the coordinates.
+     * @param repo The repository which finds the versions.
+     */
+    public IndexedRepo(
+        final ArtifactIndex artifacts, final ArtifactIndex.Match mode,
+        final MvnRepo repo
+    ) {
+        this.index = artifacts;
+        this.match = mode;
+        this.origin = repo;
+    }
+
+    /**
+     * Ctor. The query matches the tokens of the coordinates.
+     *
+     * @param artifacts The index of the artifacts.
+     * @param repo The repository which finds the versions.
+     */
+    public IndexedRepo(final ArtifactIndex artifacts, final MvnRepo repo) {
+        this(artifacts, ArtifactIndex.Match.TOKEN, repo);
+    }
+
+    /**
+     * Ctor. The versions are found in Maven Central.
+     *
+     * @param artifacts The index of the artifacts.
+     */
+    public IndexedRepo(final ArtifactIndex artifacts) {
+        this(artifacts, new MavenCentral());
+    }
+
+    @Override
+    public List<MvnArtifact> findArtifacts(
+        final String str
+    ) throws MvnException {
+        return this.findArtifacts(str, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public List<MvnArtifact> findArtifacts(
+        final String str, final Integer start, final Integer rows
+    ) throws MvnException {
+        final Page page = new Page(start, rows);
+        if (rows > 0) {
+            this.index.search(str, this.match, page);
+        }
+        return Collections.unmodifiableList(page.found);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersions(
+        final MvnArtifact artifact
+    ) throws MvnException {
+        return this.origin.findVersions(artifact);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersions(
+        final MvnArtifact artifact, final Integer start, final Integer rows
+    ) throws MvnException {
+        return this.origin.findVersions(artifact, start, rows);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsNewerThan(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.origin.findVersionsNewerThan(version);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsOlderThan(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.origin.findVersionsOlderThan(version);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsBetween(
+        final MvnArtifactVersion from, final MvnArtifactVersion to
+    ) throws MvnException {
+        return this.origin.findVersionsBetween(from, to);
+    }
+
+    /**
+     * The visitor which skips the hits before the page and collects the
+     * artifacts of the page.
+     *
+     * @since 2.0
+     */
+    private static final class Page implements ArtifactIndex.Visitor {
+
+        /**
+         * The amount of the hits to skip.
+         */
+        private int skip;
+
+        /**
+         * The amount of the rows of the page.
+         */
+        private final int rows;
+
+        /**
+         * The found artifacts.
+         */
+        private final List<MvnArtifact> found;
+
+        /**
+         * Ctor.
+         *
+         * @param start The amount of the hits to skip.
+         * @param size The amount of the rows of the page.
+         */
+        Page(final int start, final int size) {
+            this.skip = start;
+            this.rows = size;
+            this.found = new ArrayList<>(Math.min(size, CAPACITY));
+        }
+
+        @Override
+        public boolean visit(final CharSequence coordinate) {
+            if (this.skip > 0) {
+                --this.skip;
+            } else {
+                final String str = coordinate.toString();
+                final int colon = str.indexOf(':');
+                this.found.add(
+                    CoordinatePool.SHARED.artifact(
+                        str.substring(0, colon), str.substring(colon + 1)
+                    )
+                );
+            }
+            return this.found.size() < this.rows;
+        }
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * The minimal pull tokenizer of JSON which reads the characters directly from
+ * the stream and doesn't build any tree. The caller walks the document with
+ * {@link #beginObject()}, {@link #nextName()}, {@link #nextString()},
+ * {@link #skipValue()} and so on. The tokenizer is lenient about the commas
+ * between the values.
+ *
+ * @since 2.0
+ */
+final class JsonTokenizer {
+
+    /**
+     * The size of the character buffer.
+     */
+    private static final int BUFFER = 8192;
+
+    /**
+     * The radix of the unicode escapes.
+     */
+    private static final int HEX = 16;
+
+    /**
+     * The amount of the digits in the unicode escape.
+     */
+    private static final int ESCAPE_DIGITS = 4;
+
+    /**
+     * The source of the characters.
+     */
+    private final Reader source;
+
+    /**
+     * The character buffer.
+     */
+    private final char[] buffer;
+
+    /**
+     * The builder of the strings which is reused between the tokens.
+     */
+    private final StringBuilder text;
+
+    /**
+     * The position of the next character in the buffer.
+     */
+    private int pos;
+
+    /**
+     * The amount of the characters in the buffer.
+     */
+    private int limit;
+
+    /**
+     * The amount of the characters which were consumed before the buffer.
+     */
+    private long consumed;
+
+    /**
+     * Ctor.
+     *
+     * @param reader The source of the characters.
+     */
+    JsonTokenizer(final Reader reader) {
+        this.source = reader;
+        this.buffer = new char[BUFFER];
+        this.text = new StringBuilder();
+    }
+
+    /**
+     * Consume the start of the object.
+     *
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    void beginObject() throws IOException {
+        this.expect('{');
+    }
+
+    /**
+     * Consume the end of the object.
+     *
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    void endObject() throws IOException {
+        this.skipCommas();
+        this.expect('}');
+    }
+
+    /**
+     * Consume the start of the array.
+     *
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    void beginArray() throws IOException {
+        this.expect('[');
+    }
+
+    /**
+     * Consume the end of the array.
+     *
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    void endArray() throws IOException {
+        this.skipCommas();
+        this.expect(']');
+    }
+
+    /**
+     * Check whether the current object or array has more elements.
+     *
+     * @return True if there is the next element.
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    boolean hasNext() throws IOException {
+        final int next = this.skipCommas();
+        return next != '}' && next != ']';
+    }
+
+    /**
+     * Read the name of the next property of the object.
+     *
+     * @return The name.
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    String nextName() throws IOException {
+        this.skipCommas();
+        this.expect('"');
+        final String name = this.string();
+        this.expect(':');
+        return name;
+    }
+
+    /**
+     * Read the next scalar value. The strings are unescaped, the numbers and
+     * the booleans are returned as they are written.
+     *
+     * @return The value or null if it's JSON null.
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    String nextString() throws IOException {
+        final int next = this.skipCommas();
+        final String value;
+        if (next == '"') {
+            ++this.pos;
+            value = this.string();
+        } else if (next == '{' || next == '[' || next < 0) {
+            throw this.malformed("scalar value");
+        } else {
+            final String literal = this.literal();
+            if ("null".equals(literal)) {
+                value = null;
+            } else {
+                value = literal;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Skip the next value together with all its nested values.
+     *
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            final int next = this.skipCommas();
+            if (next == '{' || next == '[') {
+                ++this.pos;
+                ++depth;
+            } else if (next == '}' || next == ']') {
+                ++this.pos;
+                --depth;
+            } else if (next == '"') {
+                ++this.pos;
+                this.string();
+                if (depth > 0 && this.skipWhitespace() == ':') {
+                    ++this.pos;
+                }
+            } else if (next < 0) {
+                throw this.malformed("value");
+            } else {
+                this.literal();
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Read the rest of the string after the opening quote.
+     *
+     * @return The unescaped string.
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    private String string() throws IOException {
+        this.text.setLength(0);
+        while (true) {
+            final int start = this.pos;
+            while (this.pos < this.limit) {
+                final char chr = this.buffer[this.pos];
+                if (chr == '"' || chr == '\\') {
+                    break;
+                }
+                ++this.pos;
+            }
+            this.text.append(this.buffer, start, this.pos - start);
+            if (this.pos == this.limit) {
+                if (!this.fill()) {
+                    throw this.malformed("end of string");
+                }
+                continue;
+            }
+            final char chr = this.buffer[this.pos];
+            ++this.pos;
+            if (chr == '"') {
+                break;
+            }
+            this.text.append(this.escape());
+        }
+        return this.text.toString();
+    }
+
+    /**
+     * Read the escaped character after the backslash.
+     *
+     * @return The character.
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    private char escape() throws IOException {
+        final int chr = this.read();
+        final char result;
+        switch (chr) {
+            case 'b':
+                result = '\b';
+                break;
+            case 'f':
+                result = '\f';
+                break;
+            case 'n':
+                result = '\n';
+                break;
+            case 'r':
+                result = '\r';
+                break;
+            case 't':
+                result = '\t';
+                break;
+            case 'u':
+                int code = 0;
+                for (int idx = 0; idx < ESCAPE_DIGITS; ++idx) {
+                    final int digit = Character.digit(this.read(), HEX);
+                    if (digit < 0) {
+                        throw this.malformed("hex digit");
+                    }
+                    code = code * HEX + digit;
+                }
+                result = (char) code;
+                break;
+            case '"':
+            case '\\':
+            case '/':
+                result = (char) chr;
+                break;
+            default:
+                throw this.malformed("escape sequence");
+        }
+        return result;
+    }
+
+    /**
+     * Read the unquoted literal: number, boolean or null.
+     *
+     * @return The literal.
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    private String literal() throws IOException {
+        this.text.setLength(0);
+        while (this.pos < this.limit || this.fill()) {
+            final char chr = this.buffer[this.pos];
+            if (chr == ',' || chr == '}' || chr == ']' || chr == ':'
+                || Character.isWhitespace(chr)) {
+                break;
+            }
+            this.text.append(chr);
+            ++this.pos;
+        }
+        if (this.text.length() == 0) {
+            throw this.malformed("literal");
+        }
+        return this.text.toString();
+    }
+
+    /**
+     * Consume the expected character after the whitespace.
+     *
+     * @param expected The expected character.
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    private void expect(final char expected) throws IOException {
+        if (this.skipWhitespace() != expected) {
+            throw this.malformed(String.format("'%c'", expected));
+        }
+        ++this.pos;
+    }
+
+    /**
+     * Skip the whitespace and the commas.
+     *
+     * @return The next character (not consumed) or -1 at the end of stream.
+     * @throws IOException If reading fails.
+     */
+    private int skipCommas() throws IOException {
+        int next = this.skipWhitespace();
+        while (next == ',') {
+            ++this.pos;
+            next = this.skipWhitespace();
+        }
+        return next;
+    }
+
+    /**
+     * Skip the whitespace.
+     *
+     * @return The next character (not consumed) or -1 at the end of stream.
+     * @throws IOException If reading fails.
+     */
+    private int skipWhitespace() throws IOException {
+        while (this.pos < this.limit || this.fill()) {
+            final char chr = this.buffer[this.pos];
+            if (!Character.isWhitespace(chr)) {
+                return chr;
+            }
+            ++this.pos;
+        }
+        return -1;
+    }
+
+    /**
+     * Consume the next character.
+     *
+     * @return The character.
+     * @throws IOException If reading fails or the stream has ended.
+     */
+    private int read() throws IOException {
+        if (this.pos == this.limit && !this.fill()) {
+            throw this.malformed("character");
+        }
+        final char chr = this.buffer[this.pos];
+        ++this.pos;
+        return chr;
+    }
+
+    /**
+     * Read the next portion of the characters into the buffer.
+     *
+     * @return False if the stream has ended.
+     * @throws IOException If reading fails.
+     */
+    private boolean fill() throws IOException {
+        this.consumed += this.limit;
+        this.pos = 0;
+        this.limit = 0;
+        int read = 0;
+        while (read == 0) {
+            read = this.source.read(this.buffer);
+        }
+        if (read > 0) {
+            this.limit = read;
+        }
+        return read > 0;
+    }
+
+    /**
+     * Create the exception about malformed JSON.
+     *
+     * @param expected What was expected.
+     * @return The exception.
+     */
+    private IOException malformed(final String expected) {
+        return new IOException(
+            String.format(
+                "Malformed JSON: expected %s at offset %d",
+                expected, this.consumed + this.pos
+            )
+        );
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The lock-free histogram of the durations with the power-of-two buckets.
+ * The bucket N holds the durations which are less than 2^N nanoseconds, so
+ * the percentiles are precise up to the factor of two.
+ *
+ * @since 2.0
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The amount of the buckets: one per bit of the duration.
+     */
+    public static final int BUCKETS = Long.SIZE;
+
+    /**
+     * The percentile of all the durations.
+     */
+    private static final double HUNDRED = 100.0;
+
+    /**
+     * The amount of the durations in every bucket.
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * The total amount of the durations.
+     */
+    private final LongAdder total;
+
+    /**
+     * The sum of the durations.
+     */
+    private final LongAdder summary;
+
+    /**
+     * The longest duration.
+     */
+    private final AtomicLong longest;
+
+    /**
+     * Ctor.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.total = new LongAdder();
+        this.summary = new LongAdder();
+        this.longest = new AtomicLong();
+    }
+
+    /**
+     * Record the duration.
+     *
+     * @param nanos The duration in nanoseconds. The negative durations are
+     *  counted as zero.
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0L, nanos);
+        this.counts.incrementAndGet(LatencyHistogram.bucket(value));
+        this.total.increment();
+        this.summary.add(value);
+        this.longest.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * The amount of the recorded durations.
+     *
+     * @return The amount.
+     */
+    public long count() {
+        return this.total.sum();
+    }
+
+    /**
+     * The sum of the recorded durations.
+     *
+     * @return The sum in nanoseconds.
+     */
+    public long sum() {
+        return this.summary.sum();
+    }
+
+    /**
+     * The longest recorded duration.
+     *
+     * @return The duration in nanoseconds.
+     */
+    public long max() {
+        return this.longest.get();
+    }
+
+    /**
+     * The amount of the durations in the bucket.
+     *
+     * @param bucket The bucket, see {@link #bound(int)}.
+     * @return The amount.
+     */
+    public long bucketCount(final int bucket) {
+        return this.counts.get(bucket);
+    }
+
+    /**
+     * The upper bound of the duration which is estimated for the percentile.
+     *
+     * @param percentile The percentile from 0 to 100.
+     * @return The duration in nanoseconds or 0 if nothing was recorded.
+     */
+    public long percentile(final double percentile) {
+        long result = 0L;
+        long seen = 0L;
+        final long all = this.count();
+        final double rank = all * percentile / HUNDRED;
+        for (int idx = 0; idx < BUCKETS && all > 0; ++idx) {
+            seen += this.counts.get(idx);
+            if (seen > 0 && seen >= rank) {
+                result = Math.min(LatencyHistogram.bound(idx), this.max());
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The upper bound (exclusive) of the durations in the bucket.
+     *
+     * @param bucket The bucket.
+     * @return The bound in nanoseconds.
+     */
+    public static long bound(final int bucket) {
+        final long result;
+        if (bucket >= BUCKETS - 1) {
+            result = Long.MAX_VALUE;
+        } else {
+            result = 1L << bucket;
+        }
+        return result;
+    }
+
+    /**
+     * The bucket of the duration.
+     *
+     * @param nanos The non-negative duration in nanoseconds.
+     * @return The bucket.
+     */
+    private static int bucket(final long nanos) {
+        return Math.min(
+            BUCKETS - 1, BUCKETS - Long.numberOfLeadingZeros(nanos)
+        );
+    }
+}
@@ -0,0 +1,467 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * {@link MvnRepo} which reads the local Maven repository, for example
+ * {@code ~/.m2/repository} or the mirrored directory tree of the remote
+ * repository. It doesn't need the network.
+ * The directory of the artifact is {@code group/path/artifact}. The versions
+ * of the artifact are read from its {@code maven-metadata*.xml} files and
+ * from its version directories which contain {@code artifact-*.pom}.
+ * The tree is walked once on the first lookup (the symbolic links are
+ * followed, but their loops are skipped), its metadata files are parsed
+ * concurrently, and the result is kept in memory as the sorted list of the
+ * artifacts and one {@link VersionIndex} per artifact, so the lookups don't
+ * touch the file system. {@link #refresh()} drops the
+ * index, and the next lookup scans the tree again.
+ *
+ * @since 2.0
+ */
+public final class LocalRepo implements MvnRepo {
+
+    /**
+     * The prefix of the metadata files of the artifact.
+     */
+    private static final String METADATA = "maven-metadata";
+
+    /**
+     * Max amount of the metadata files which are parsed concurrently.
+     */
+    private static final int PARALLELISM = 16;
+
+    /**
+     * The root directory of the repository.
+     */
+    private final Path root;
+
+    /**
+     * The index of the repository or null if it was not built yet.
+     */
+    private volatile Index index;
+
+    /**
+     * Ctor.
+     *
+     * @param dir The root directory of the repository.
+     */
+    public LocalRepo(final Path dir) {
+        this.root = dir;
+    }
+
+    /**
+     * Ctor. Reads the default local repository {@code ~/.m2/repository}.
+     */
+    public LocalRepo() {
+        this(
+            Paths.get(System.getProperty("user.home"), ".m2", "repository")
+        );
+    }
+
+    @Override
+    public List<MvnArtifact> findArtifacts(
+        final String str
+    ) throws MvnException {
+        return this.findArtifacts(str, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public List<MvnArtifact> findArtifacts(
+        final String str, final Integer start, final Integer rows
+    ) throws MvnException {
+        return this.load().artifacts.stream()
+            .filter(artifact -> artifact.identifier().contains(str))
+            .skip(start)
+            .limit(rows)
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersions(
+        final MvnArtifact artifact
+    ) throws MvnException {
+        return this.findVersions(artifact, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersions(
+        final MvnArtifact artifact, final Integer start, final Integer rows
+    ) throws MvnException {
+        final List<MvnArtifactVersion> all = this.versions(artifact).sorted();
+        if (start >= all.size()) {
+            return List.of();
+        }
+        return all.subList(
+            start, (int) Math.min((long) start + rows, all.size())
+        );
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsNewerThan(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.versions(version.artifact()).require(version)
+            .newerThan(version);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsOlderThan(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.versions(version.artifact()).require(version)
+            .olderThan(version);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsBetween(
+        final MvnArtifactVersion from, final MvnArtifactVersion to
+    ) throws MvnException {
+        return this.versions(from.artifact()).require(from).require(to)
+            .between(from, to);
+    }
+
+    /**
+     * The amount of the artifacts in the repository. Builds the index if it
+     * was not built yet.
+     *
+     * @return The amount of the artifacts.
+     * @throws MvnException If the problem occurred while scanning the tree.
+     */
+    public int size() throws MvnException {
+        return this.load().artifacts.size();
+    }
+
+    /**
+     * Drop the index, so the next lookup scans the tree again.
+     */
+    public void refresh() {
+        this.index = null;
+    }
+
+    /**
+     * The index of the versions of the artifact.
+     *
+     * @param artifact The artifact.
+     * @return The index, empty if there is no such artifact.
+     * @throws MvnException If the problem occurred while scanning the tree.
+     */
+    private VersionIndex versions(
+        final MvnArtifact artifact
+    ) throws MvnException {
+        return this.load().versions.getOrDefault(
+            artifact, new VersionIndex(List.of())
+        );
+    }
+
+    /**
+     * Load the index of the repository and build it if it was not built yet.
+     *
+     * @return The index.
+     * @throws MvnException If the problem occurred while scanning the tree.
+     */
+    private Index load() throws MvnException {
+        Index result = this.index;
+        if (result == null) {
+            synchronized (this) {
+                result = this.index;
+                if (result == null) {
+                    result = this.scan();
+                    this.index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Scan the tree of the repository: walk it once and then parse the found
+     * metadata files concurrently.
+     *
+     * @return The index.
+     * @throws MvnException If the problem occurred while scanning the tree.
+     */
+    private Index scan() throws MvnException {
+        final Map<MvnArtifact, Set<String>> found = new ConcurrentHashMap<>();
+        final Map<Path, MvnArtifact> metadata = new HashMap<>();
+        try {
+            if (Files.isDirectory(this.root)) {
+                Files.walkFileTree(
+                    this.root, EnumSet.of(FileVisitOption.FOLLOW_LINKS),
+                    Integer.MAX_VALUE, new Walker(found, metadata)
+                );
+            }
+        } catch (final IOException exception) {
+            throw new MvnException(exception);
+        }
+        LocalRepo.parse(metadata, found);
+        return new Index(found);
+    }
+
+    /**
+     * Register the versions which the file points to. The metadata file lists
+     * the versions of the artifact of its directory, and
+     * {@code artifact/version/artifact-*.pom} points to the version of its
+     * grandparent directory.
+     *
+     * @param file The file.
+     * @param found The names of the versions of the found artifacts.
+     * @param metadata The found metadata files and their artifacts.
+     */
+    private void file(
+        final Path file, final Map<MvnArtifact, Set<String>> found,
+        final Map<Path, MvnArtifact> metadata
+    ) {
+        final String name = file.getFileName().toString();
+        final Path dir = file.getParent();
+        if (name.startsWith(LocalRepo.METADATA) && name.endsWith(".xml")) {
+            final MvnArtifact artifact = this.artifact(dir);
+            if (artifact != null) {
+                metadata.put(file, artifact);
+            }
+        } else if (name.endsWith(".pom")) {
+            final Path parent = dir.getParent();
+            final MvnArtifact artifact = this.artifact(parent);
+            if (artifact != null
+                && name.startsWith(String.format("%s-", artifact.name()))) {
+                LocalRepo.add(found, artifact)
+                    .add(dir.getFileName().toString());
+            }
+        }
+    }
+
+    /**
+     * The artifact which the directory represents.
+     *
+     * @param dir The directory {@code group/path/artifact}.
+     * @return The artifact or null if the directory is too close to the root.
+     */
+    private MvnArtifact artifact(final Path dir) {
+        final Path path = this.root.relativize(dir);
+        final int count = path.getNameCount();
+        if (dir.equals(this.root) || count < 2) {
+            return null;
+        }
+        final StringBuilder group = new StringBuilder();
+        for (int idx = 0; idx < count - 1; ++idx) {
+            if (idx > 0) {
+                group.append('.');
+            }
+            group.append(path.getName(idx));
+        }
+        return CoordinatePool.SHARED.artifact(
+            group.toString(), path.getName(count - 1).toString()
+        );
+    }
+
+    /**
+     * Parse the metadata files concurrently, but not more than
+     * {@link #PARALLELISM} at the same time, and register their versions.
+     *
+     * @param metadata The metadata files and their artifacts.
+     * @param found The names of the versions of the found artifacts.
+     * @throws MvnException If the parsing was interrupted.
+     */
+    private static void parse(
+        final Map<Path, MvnArtifact> metadata,
+        final Map<MvnArtifact, Set<String>> found
+    ) throws MvnException {
+        final Semaphore permits = new Semaphore(LocalRepo.PARALLELISM);
+        try (ExecutorService threads =
+            Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final Map.Entry<Path, MvnArtifact> entry
+                : metadata.entrySet()) {
+                threads.execute(
+                    () -> {
+                        try {
+                            permits.acquire();
+                            try {
+                                final List<String> names =
+                                    LocalRepo.metadata(entry.getKey());
+                                if (!names.isEmpty()) {
+                                    LocalRepo.add(found, entry.getValue())
+                                        .addAll(names);
+                                }
+                            } finally {
+                                permits.release();
+                            }
+                        } catch (final InterruptedException exception) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                );
+            }
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new MvnException(
+                new InterruptedIOException("Interrupted while scanning")
+            );
+        }
+    }
+
+    /**
+     * Read the names of the versions from the metadata file. The broken file
+     * is ignored: the version directories still list the versions.
+     *
+     * @param file The metadata file.
+     * @return The names of the versions.
+     */
+    private static List<String> metadata(final Path file) {
+        List<String> names;
+        try (InputStream input = Files.newInputStream(file)) {
+            names = new MavenMetadata(input).versions();
+        } catch (final IOException | XMLStreamException exception) {
+            names = List.of();
+        }
+        return names;
+    }
+
+    /**
+     * The names of the versions of the artifact.
+     *
+     * @param found The names of the versions of the found artifacts.
+     * @param artifact The artifact.
+     * @return The modifiable concurrent set of the names.
+     */
+    private static Set<String> add(
+        final Map<MvnArtifact, Set<String>> found, final MvnArtifact artifact
+    ) {
+        return found.computeIfAbsent(
+            artifact, key -> ConcurrentHashMap.newKeySet()
+        );
+    }
+
+    /**
+     * The visitor of the tree which registers the files. The symbolic links
+     * are followed, but the loops which they make are skipped.
+     *
+     * @since 2.0
+     */
+    private final class Walker extends SimpleFileVisitor<Path> {
+
+        /**
+         * The names of the versions of the found artifacts.
+         */
+        private final Map<MvnArtifact, Set<String>> found;
+
+        /**
+         * The found metadata files and their artifacts.
+         */
+        private final Map<Path, MvnArtifact> metadata;
+
+        /**
+         * Ctor.
+         *
+         * @param versions The names of the versions of the found artifacts.
+         * @param files The found metadata files and their artifacts.
+         */
+        Walker(
+            final Map<MvnArtifact, Set<String>> versions,
+            final Map<Path, MvnArtifact> files
+        ) {
+            super();
+            this.found = versions;
+            this.metadata = files;
+        }
+
+        @Override
+        public FileVisitResult visitFile(
+            final Path file, final BasicFileAttributes attrs
+        ) {
+            LocalRepo.this.file(file, this.found, this.metadata);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(
+            final Path file, final IOException exception
+        ) throws IOException {
+            if (!(exception instanceof FileSystemLoopException)) {
+                throw exception;
+            }
+            return FileVisitResult.CONTINUE;
+        }
+    }
+
+    /**
+     * The in-memory index of the repository.
+     *
+     * @since 2.0
+     */
+    private static final class Index {
+
+        /**
+         * The artifacts sorted by their identifiers.
+         */
+        private final List<MvnArtifact> artifacts;
+
+        /**
+         * The versions of the artifacts.
+         */
+        private final Map<MvnArtifact, VersionIndex> versions;
+
+        /**
+         * Ctor.
+         *
+         * @param found The names of the versions of the found artifacts.
+         */
+        Index(final Map<MvnArtifact, Set<String>> found) {
+            final List<MvnArtifact> sorted = new ArrayList<>(found.keySet());
+            sorted.sort(Comparator.comparing(MvnArtifact::identifier));
+            this.artifacts = List.copyOf(sorted);
+            final Map<MvnArtifact, VersionIndex> all =
+                new HashMap<>(found.size() * 2);
+            for (final Map.Entry<MvnArtifact, Set<String>> entry
+                : found.entrySet()) {
+                final List<MvnArtifactVersion> list =
+                    new ArrayList<>(entry.getValue().size());
+                for (final String name : entry.getValue()) {
+                    list.add(
+                        new MavenArtifactVersion(
+                            entry.getKey(), name, MvnPackagingType.JAR, null
+                        )
+                    );
+                }
+                all.put(entry.getKey(), new VersionIndex(list));
+            }
+            this.versions = all;
+        }
+    }
+}
@@ -39,6 +39,12 @@ public final class MavenArtifact implements MvnArtifact {
      */
     private final MvnGroup grp;
 
+    /**
+     * The identifier. It's calculated when it's requested for the first
+     * time.
+     */
+    private String ident;
+
     /**
      * Ctor.
      *
@@ -56,7 +62,10 @@ public final class MavenArtifact implements MvnArtifact {
      * @param json JSON object.
      */
     public MavenArtifact(final JSONObject json) {
-        this(new MavenGroup(json), (String) json.get("a"));
+        this(
+            CoordinatePool.SHARED.group((String) json.get("g")),
+            (String) json.get("a")
+        );
     }
 
     @Override
@@ -71,7 +80,12 @@ public final class MavenArtifact implements MvnArtifact {
 
     @Override
     public String identifier() {
-        return String.format("%s:%s", this.group().name(), this.name());
+        String result = this.ident;
+        if (result == null) {
+            result = this.grp.name() + ':' + this.artifact;
+            this.ident = result;
+        }
+        return result;
     }
 
     @Override
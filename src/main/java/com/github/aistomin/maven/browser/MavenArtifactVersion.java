@@ -50,6 +50,18 @@ public final class MavenArtifactVersion implements MvnArtifactVersion {
      */
     private final MvnPackagingType type;
 
+    /**
+     * The parsed version. It's calculated when it's requested for the first
+     * time.
+     */
+    private MvnVersionKey parsed;
+
+    /**
+     * The identifier. It's calculated when it's requested for the first
+     * time.
+     */
+    private String ident;
+
     /**
      * Ctor.
      *
@@ -75,7 +87,7 @@ public final class MavenArtifactVersion implements MvnArtifactVersion {
      */
     public MavenArtifactVersion(final JSONObject json) {
         this(
-            new MavenArtifact(json),
+            CoordinatePool.SHARED.intern(new MavenArtifact(json)),
             (String) json.get("v"),
             Arrays.stream(MvnPackagingType.values())
                 .filter(
@@ -102,9 +114,12 @@ public final class MavenArtifactVersion implements MvnArtifactVersion {
 
     @Override
     public String identifier() {
-        return String.format(
-            "%s:%s", this.artifact().identifier(), this.name()
-        );
+        String result = this.ident;
+        if (result == null) {
+            result = this.art.identifier() + ':' + this.ver;
+            this.ident = result;
+        }
+        return result;
     }
 
     @Override
@@ -117,6 +132,16 @@ public final class MavenArtifactVersion implements MvnArtifactVersion {
         return this.type;
     }
 
+    @Override
+    public MvnVersionKey key() {
+        MvnVersionKey result = this.parsed;
+        if (result == null) {
+            result = new MvnVersionKey(this.ver);
+            this.parsed = result;
+        }
+        return result;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         return this == obj
@@ -17,23 +17,12 @@ package com.github.aistomin.maven.browser;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.module.ModuleDescriptor.Version;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.function.BiPredicate;
-import java.util.stream.Collectors;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import org.apache.commons.io.IOUtils;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
-import org.w3c.dom.Document;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
+import java.util.function.Function;
+import javax.xml.stream.XMLStreamException;
 
 /**
  * The class which works with Maven Central repository.
@@ -41,6 +30,10 @@ import org.xml.sax.SAXException;
  * fetching artifact metadata (stable).
  * Uses <a href="https://search.maven.org/">search.maven.org</a> for artifact
  * search functionality.
+ * By default the data is read with {@link HttpClientTransport} which shares
+ * one pooled HTTP client between all the instances.
+ * Every operation reports its timings, the amount of read bytes and results,
+ * and the errors to {@link MvnMetrics}. Nothing is recorded by default.
  *
  * @since 0.1
  */
@@ -66,27 +59,78 @@ public final class MavenCentral implements MvnRepo {
      */
     private final String search;
 
+    /**
+     * The transport which we use to read the data from the repository.
+     */
+    private final MvnTransport transport;
+
+    /**
+     * The receiver of the metrics of the operations.
+     */
+    private final MvnMetrics metrics;
+
     /**
      * Parametrised ctor.
      *
      * @param repository The Maven repo base URL for fetching metadata.
      * @param searchApi The Maven search API URL.
+     * @param http The transport which we use to read the data.
+     * @param meter The receiver of the metrics of the operations.
      */
-    public MavenCentral(final String repository, final String searchApi) {
+    public MavenCentral(
+        final String repository, final String searchApi,
+        final MvnTransport http, final MvnMetrics meter
+    ) {
         this.repo = repository;
         this.search = searchApi;
+        this.transport = http;
+        this.metrics = meter;
+    }
+
+    /**
+     * Parametrised ctor.
+     *
+     * @param repository The Maven repo base URL for fetching metadata.
+     * @param searchApi The Maven search API URL.
+     * @param http The transport which we use to read the data.
+     */
+    public MavenCentral(
+        final String repository, final String searchApi,
+        final MvnTransport http
+    ) {
+        this(repository, searchApi, http, new NoMetrics());
+    }
+
+    /**
+     * Parametrised ctor.
+     *
+     * @param repository The Maven repo base URL for fetching metadata.
+     * @param searchApi The Maven search API URL.
+     */
+    public MavenCentral(final String repository, final String searchApi) {
+        this(repository, searchApi, new HttpClientTransport());
     }
 
     /**
      * Ctor.
+     *
+     * @param http The transport which we use to read the data.
      */
-    public MavenCentral() {
+    public MavenCentral(final MvnTransport http) {
         this(
             "https://repo1.maven.org/maven2",
-            "https://search.maven.org/solrsearch/select"
+            "https://search.maven.org/solrsearch/select",
+            http
         );
     }
 
+    /**
+     * Ctor.
+     */
+    public MavenCentral() {
+        this(new HttpClientTransport());
+    }
+
     @Override
     public List<MvnArtifact> findArtifacts(
         final String str
@@ -98,23 +142,14 @@ public final class MavenCentral implements MvnRepo {
     public List<MvnArtifact> findArtifacts(
         final String str, final Integer start, final Integer rows
     ) throws MvnException {
-        try {
-            final String result = IOUtils.toString(
-                URI.create(
-                    String.format(
-                        "%s?q=%s&start=%d&rows=%d&wt=json",
-                        this.search, str, start, rows
-                    )
-                ),
-                ENCODING
-            );
-            return parseJsonResponse(result)
-                .stream()
-                .map(MavenArtifact::new)
-                .collect(Collectors.toList());
-        } catch (final ParseException | IOException exception) {
-            throw new MvnException(exception);
-        }
+        final String operation = "findArtifacts";
+        final List<MvnArtifact> found = this.read(
+            operation,
+            MavenCentral.searchUrl(this.search, str, start, rows),
+            MavenCentral::artifacts
+        );
+        this.metrics.results(operation, found.size());
+        return found;
     }
 
     @Override
@@ -128,41 +163,27 @@ public final class MavenCentral implements MvnRepo {
     public List<MvnArtifactVersion> findVersions(
         final MvnArtifact artifact, final Integer start, final Integer rows
     ) throws MvnException {
-        try {
-            final String url = String.format(
-                "%s/%s/%s/maven-metadata.xml",
-                this.repo,
-                artifact.group().name().replace('.', '/'),
-                artifact.name()
-            );
-            final List<String> allVersions = parseMetadataXml(
-                URI.create(url).toURL().openStream()
-            );
-            final int endIndex = Math.min(start + rows, allVersions.size());
-            final List<String> pagedVersions =
-                start < allVersions.size()
-                    ? allVersions.subList(start, endIndex)
-                    : new ArrayList<>();
-            return pagedVersions.stream()
-                .map(
-                    ver -> new MavenArtifactVersion(
-                        artifact, ver, MvnPackagingType.JAR, null
-                    )
-                )
-                .collect(Collectors.toList());
-        } catch (final IOException | ParserConfigurationException
-            | SAXException exception) {
-            throw new MvnException(exception);
-        }
+        final String operation = "findVersions";
+        final List<String> names = this.read(
+            operation,
+            MavenCentral.metadataUrl(this.repo, artifact),
+            body -> MavenCentral.names(body, start, rows)
+        );
+        final long begin = System.nanoTime();
+        final List<MvnArtifactVersion> found =
+            MavenCentral.versions(artifact, names);
+        this.metrics.timing(operation, MvnPhase.MAP, System.nanoTime() - begin);
+        this.metrics.results(operation, found.size());
+        return found;
     }
 
     @Override
     public List<MvnArtifactVersion> findVersionsNewerThan(
         final MvnArtifactVersion version
     ) throws MvnException {
-        return this.findArtifactVersionsWithFilter(
-            version,
-            MavenCentral::isFirstVersionBiggerThanSecondVersion
+        return this.filter(
+            "findVersionsNewerThan", version.artifact(),
+            index -> index.require(version).newerThan(version)
         );
     }
 
@@ -170,104 +191,265 @@ public final class MavenCentral implements MvnRepo {
     public List<MvnArtifactVersion> findVersionsOlderThan(
         final MvnArtifactVersion version
     ) throws MvnException {
-        return this.findArtifactVersionsWithFilter(
-            version,
-            (ver, current) ->
-                isFirstVersionBiggerThanSecondVersion(current, ver)
+        return this.filter(
+            "findVersionsOlderThan", version.artifact(),
+            index -> index.require(version).olderThan(version)
+        );
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsBetween(
+        final MvnArtifactVersion from, final MvnArtifactVersion to
+    ) throws MvnException {
+        return this.filter(
+            "findVersionsBetween", from.artifact(),
+            index -> index.require(from).require(to).between(from, to)
         );
     }
 
     /**
-     * Find all the versions of the artifact with a filter.
+     * Load all the versions of the artifact into the sorted index and filter
+     * them.
      *
-     * @param current Current version.
-     * @param predicate The filter.
-     * @return The list of the found versions.
+     * @param operation The name of the operation for the metrics.
+     * @param artifact The artifact.
+     * @param query The filter of the index.
+     * @return The filtered versions.
      * @throws MvnException If the problem occurred while reading from the repo.
      */
-    private List<MvnArtifactVersion> findArtifactVersionsWithFilter(
-        final MvnArtifactVersion current,
-        final BiPredicate<MvnArtifactVersion, MvnArtifactVersion> predicate
+    private List<MvnArtifactVersion> filter(
+        final String operation, final MvnArtifact artifact,
+        final Function<VersionIndex, List<MvnArtifactVersion>> query
     ) throws MvnException {
-        final List<MvnArtifactVersion> versions =
-            this.findVersions(current.artifact(), 0, Integer.MAX_VALUE);
-        final MvnArtifactVersion loaded = versions
-            .stream()
-            .filter(ver -> ver.name().equals(current.name()))
-            .findFirst()
-            .orElse(null);
-        if (loaded == null) {
-            throw new IllegalStateException(
-                String.format(
-                    "%s %s was not found in Maven Central.",
-                    current.artifact().name(),
-                    current.name()
-                )
+        final List<String> names = this.read(
+            operation,
+            MavenCentral.metadataUrl(this.repo, artifact),
+            body -> MavenCentral.names(body, 0, Integer.MAX_VALUE)
+        );
+        final long begin = System.nanoTime();
+        final List<MvnArtifactVersion> found;
+        try {
+            found = query.apply(
+                new VersionIndex(MavenCentral.versions(artifact, names))
+            );
+        } catch (final IllegalStateException exception) {
+            this.metrics.error(operation, exception);
+            throw exception;
+        }
+        this.metrics.timing(operation, MvnPhase.MAP, System.nanoTime() - begin);
+        this.metrics.results(operation, found.size());
+        return found;
+    }
+
+    /**
+     * Read the resource from the repository and parse it. The timings of the
+     * request, the amount of the read bytes and the errors are recorded.
+     *
+     * @param operation The name of the operation for the metrics.
+     * @param url The URL of the resource.
+     * @param parser The parser of the response body.
+     * @param <T> The type of the parsed body.
+     * @return The parsed body.
+     * @throws MvnException If the problem occurred while reading from the repo.
+     */
+    private <T> T read(
+        final String operation, final String url, final Parser<T> parser
+    ) throws MvnException {
+        final long start = System.nanoTime();
+        try (MvnResponse response = this.fetch(url)) {
+            final long headers = System.nanoTime();
+            if (response.connect() != null) {
+                this.metrics.timing(
+                    operation, MvnPhase.CONNECT, response.connect().toNanos()
+                );
+            }
+            this.metrics.timing(
+                operation, MvnPhase.FIRST_BYTE, headers - start
+            );
+            final MeteredStream body = new MeteredStream(response.body());
+            final T parsed = parser.parse(body);
+            final long total = System.nanoTime() - headers;
+            this.metrics.timing(operation, MvnPhase.BODY, body.nanos());
+            this.metrics.timing(
+                operation, MvnPhase.PARSE, total - body.nanos()
+            );
+            this.metrics.bytes(operation, body.bytes());
+            return parsed;
+        } catch (final IOException | XMLStreamException exception) {
+            this.metrics.error(operation, exception);
+            throw new MvnException(exception);
+        }
+    }
+
+    /**
+     * Read the resource from the repository.
+     *
+     * @param url The URL of the resource.
+     * @return The successful response.
+     * @throws IOException If reading fails or the response is not successful.
+     */
+    private MvnResponse fetch(final String url) throws IOException {
+        final MvnResponse response =
+            this.transport.get(URI.create(url), Collections.emptyMap());
+        if (response.status() != MvnResponse.OK) {
+            response.close();
+            throw new IOException(
+                String.format("HTTP %d: %s", response.status(), url)
             );
         }
-        return versions
-            .stream()
-            .filter(ver -> predicate.test(ver, loaded))
-            .collect(Collectors.toList());
+        return response;
+    }
+
+    /**
+     * Build the URL of the search API query.
+     *
+     * @param search The Maven search API URL.
+     * @param str The search string.
+     * @param start The start index of the search.
+     * @param rows The max amount of results.
+     * @return The URL.
+     */
+    static String searchUrl(
+        final String search, final String str, final Integer start,
+        final Integer rows
+    ) {
+        return String.format(
+            "%s?q=%s&start=%d&rows=%d&wt=json", search, str, start, rows
+        );
     }
 
     /**
-     * Get the list of artifacts/versions from the Maven search API response.
+     * Build the URL of maven-metadata.xml of the artifact.
      *
-     * @param response Maven search API JSON response.
-     * @return The list of JSON objects.
-     * @throws ParseException If parsing wasn't successful.
+     * @param repo The Maven repo base URL.
+     * @param artifact The artifact.
+     * @return The URL.
      */
-    @SuppressWarnings("unchecked")
-    private static List<JSONObject> parseJsonResponse(
-        final String response
-    ) throws ParseException {
-        return new ArrayList<JSONObject>(
-            (JSONArray) (
-                (JSONObject) ((JSONObject) new JSONParser().parse(response))
-                    .get("response")
-            ).get("docs")
+    static String metadataUrl(final String repo, final MvnArtifact artifact) {
+        return String.format(
+            "%s/%s/%s/maven-metadata.xml",
+            repo,
+            artifact.group().name().replace('.', '/'),
+            artifact.name()
         );
     }
 
     /**
-     * Parse maven-metadata.xml to extract a versions list.
-     * Returns versions in descending order (newest first).
+     * Build the URL of the POM of the version.
      *
-     * @param input The input stream of maven-metadata.xml.
-     * @return The list of version strings, newest first.
-     * @throws ParserConfigurationException If XML parser config fails.
-     * @throws SAXException If XML parsing fails.
-     * @throws IOException If reading fails.
+     * @param repo The Maven repo base URL.
+     * @param version The version.
+     * @return The URL.
      */
-    private static List<String> parseMetadataXml(
-        final InputStream input
-    ) throws ParserConfigurationException, SAXException, IOException {
-        final Document doc = DocumentBuilderFactory.newInstance()
-            .newDocumentBuilder()
-            .parse(input);
-        final NodeList versionNodes = doc.getElementsByTagName("version");
-        final List<String> versions = new ArrayList<>(versionNodes.getLength());
-        for (int i = 0; i < versionNodes.getLength(); i++) {
-            versions.add(versionNodes.item(i).getTextContent());
+    static String pomUrl(final String repo, final MvnArtifactVersion version) {
+        final MvnArtifact artifact = version.artifact();
+        return String.format(
+            "%s/%s/%s/%s/%s-%s.pom",
+            repo,
+            artifact.group().name().replace('.', '/'),
+            artifact.name(),
+            version.name(),
+            artifact.name(),
+            version.name()
+        );
+    }
+
+    /**
+     * Read the artifacts from the Maven search API response.
+     *
+     * @param body The response body.
+     * @return The list of the artifacts.
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    static List<MvnArtifact> artifacts(
+        final InputStream body
+    ) throws IOException {
+        final List<MvnArtifact> artifacts = new ArrayList<>(MAX_ROWS);
+        new SearchResponse(body).artifacts(artifacts::add);
+        return artifacts;
+    }
+
+    /**
+     * Read the page of the versions from maven-metadata.xml.
+     *
+     * @param artifact The artifact.
+     * @param body The content of maven-metadata.xml.
+     * @param start Indent of the search.
+     * @param rows The max amount of results.
+     * @return The list of the versions, newest first.
+     * @throws XMLStreamException If XML parsing fails.
+     */
+    static List<MvnArtifactVersion> versions(
+        final MvnArtifact artifact, final InputStream body,
+        final Integer start, final Integer rows
+    ) throws XMLStreamException {
+        return MavenCentral.versions(
+            artifact, MavenCentral.names(body, start, rows)
+        );
+    }
+
+    /**
+     * Read the page of the version names from maven-metadata.xml.
+     *
+     * @param body The content of maven-metadata.xml.
+     * @param start Indent of the search.
+     * @param rows The max amount of results.
+     * @return The list of the version names, newest first.
+     * @throws XMLStreamException If XML parsing fails.
+     */
+    static List<String> names(
+        final InputStream body, final Integer start, final Integer rows
+    ) throws XMLStreamException {
+        final List<String> all = new MavenMetadata(
+            body, (int) Math.min((long) start + rows, Integer.MAX_VALUE)
+        ).versions();
+        final List<String> page;
+        if (start < all.size()) {
+            page = all.subList(start, all.size());
+        } else {
+            page = List.of();
         }
-        Collections.reverse(versions);
-        return versions;
+        return page;
     }
 
     /**
-     * Check if one version is bigger than another.
+     * Create the versions of the artifact.
      *
-     * @param first Version A.
-     * @param second Version B.
-     * @return True - version A is bigger than version B. False - version A is
-     *  smaller or equal to version B.
+     * @param artifact The artifact.
+     * @param names The names of the versions.
+     * @return The list of the versions.
      */
-    private static Boolean isFirstVersionBiggerThanSecondVersion(
-        final MvnArtifactVersion first,
-        final MvnArtifactVersion second
+    static List<MvnArtifactVersion> versions(
+        final MvnArtifact artifact, final List<String> names
     ) {
-        return Version.parse(first.name())
-            .compareTo(Version.parse(second.name())) > 0;
+        final List<MvnArtifactVersion> result = new ArrayList<>(names.size());
+        for (final String name : names) {
+            result.add(
+                new MavenArtifactVersion(
+                    artifact, name, MvnPackagingType.JAR, null
+                )
+            );
+        }
+        return result;
+    }
+
+    /**
+     * The parser of the response body.
+     *
+     * @param <T> The type of the parsed body.
+     * @since 2.0
+     */
+    @FunctionalInterface
+    private interface Parser<T> {
+
+        /**
+         * Parse the response body.
+         *
+         * @param body The response body.
+         * @return The parsed body.
+         * @throws IOException If reading fails.
+         * @throws XMLStreamException If XML parsing fails.
+         */
+        T parse(InputStream body) throws IOException, XMLStreamException;
     }
 }
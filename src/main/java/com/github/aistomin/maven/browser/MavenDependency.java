@@ -17,6 +17,8 @@ package com.github.aistomin.maven.browser;
 
 /**
  * Simple implementation of the Maven artifact version's dependency entity.
+ * The snippets are rendered with the precompiled templates of
+ * {@link DependencyFormat}.
  *
  * @since 1.0
  */
@@ -38,76 +40,36 @@ public final class MavenDependency implements MvnDependency {
 
     @Override
     public String forMaven() {
-        final MvnArtifact artifact = this.ver.artifact();
-        return String.format(
-            "<dependency>%n%s%n%s%n%s%n</dependency>",
-            String.format("  <groupId>%s</groupId>", artifact.group().name()),
-            String.format("  <artifactId>%s</artifactId>", artifact.name()),
-            String.format("  <version>%s</version>", this.ver.name())
-        );
+        return DependencyFormat.MAVEN.render(this.ver);
     }
 
     @Override
     public String forBuildr() {
-        final MvnArtifact artifact = this.ver.artifact();
-        return String.format(
-            "'%s:%s:jar:%s'",
-            artifact.group().name(),
-            artifact.name(),
-            this.ver.name()
-        );
+        return DependencyFormat.BUILDR.render(this.ver);
     }
 
     @Override
     public String forIvy() {
-        final MvnArtifact artifact = this.ver.artifact();
-        return String.format(
-            "<dependency org=\"%s\" name=\"%s\" rev=\"%s\" />",
-            artifact.group().name(),
-            artifact.name(),
-            this.ver.name()
-        );
+        return DependencyFormat.IVY.render(this.ver);
     }
 
     @Override
     public String forGroovyGrape() {
-        final MvnArtifact artifact = this.ver.artifact();
-        return String.format(
-            "@Grapes(%n  @Grab(group='%s', module='%s', version='%s')%n)",
-            artifact.group().name(),
-            artifact.name(),
-            this.ver.name()
-        );
+        return DependencyFormat.GROOVY_GRAPE.render(this.ver);
     }
 
     @Override
     public String forGradle() {
-        final MvnArtifact artifact = this.ver.artifact();
-        return String.format(
-            "compile '%s:%s:%s'",
-            artifact.group().name(),
-            artifact.name(),
-            this.ver.name()
-        );
+        return DependencyFormat.GRADLE.render(this.ver);
     }
 
     @Override
     public String forScala() {
-        final MvnArtifact artifact = this.ver.artifact();
-        return String.format(
-            "libraryDependencies += \"%s\" %% \"%s\" %% \"%s\"",
-            artifact.group().name(),
-            artifact.name(),
-            this.ver.name()
-        );
+        return DependencyFormat.SCALA.render(this.ver);
     }
 
     @Override
     public String forLeiningen() {
-        final MvnArtifact artifact = this.ver.artifact();
-        return String.format(
-            "[%s/%s \"%s\"]", artifact.group().name(), artifact.name(),
-            this.ver.name()
-        );
+        return DependencyFormat.LEININGEN.render(this.ver);
     }
 }
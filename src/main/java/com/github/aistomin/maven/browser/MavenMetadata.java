@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The content of maven-metadata.xml file.
+ * The file is read with the streaming parser: only the "versioning" element
+ * is processed and the rest of the document is skipped. When only the newest
+ * versions are needed, the older ones are not retained.
+ *
+ * @since 2.0
+ */
+public final class MavenMetadata {
+
+    /**
+     * The factory of the XML readers. It's configured once and then only
+     * used for creating the readers, which is thread-safe.
+     */
+    static final XMLInputFactory FACTORY = MavenMetadata.factory();
+
+    /**
+     * The depth of "versioning" element in the document.
+     */
+    private static final int VERSIONING = 2;
+
+    /**
+     * The depth of the children of "versioning" element in the document.
+     */
+    private static final int VERSIONING_CHILD = 3;
+
+    /**
+     * The versions, newest first.
+     */
+    private final List<String> vers;
+
+    /**
+     * The "lastUpdated" timestamp of the metadata.
+     */
+    private final String updated;
+
+    /**
+     * Ctor.
+     *
+     * @param versions The versions, newest first.
+     * @param timestamp The "lastUpdated" timestamp of the metadata.
+     */
+    public MavenMetadata(final List<String> versions, final String timestamp) {
+        this.vers = Collections.unmodifiableList(versions);
+        this.updated = timestamp;
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param input The input stream of maven-metadata.xml.
+     * @param newest The max amount of the newest versions to keep.
+     * @throws XMLStreamException If XML parsing fails.
+     */
+    public MavenMetadata(
+        final InputStream input, final int newest
+    ) throws XMLStreamException {
+        this(new Reading(input, newest));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param input The input stream of maven-metadata.xml.
+     * @throws XMLStreamException If XML parsing fails.
+     */
+    public MavenMetadata(final InputStream input) throws XMLStreamException {
+        this(input, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param reading The result of reading the file.
+     */
+    private MavenMetadata(final Reading reading) {
+        this(reading.versions(), reading.timestamp());
+    }
+
+    /**
+     * The versions in the order opposite to the order of publishing, so the
+     * newest version goes first.
+     *
+     * @return The unmodifiable list of the versions.
+     */
+    public List<String> versions() {
+        return this.vers;
+    }
+
+    /**
+     * The "lastUpdated" timestamp of the metadata in "yyyyMMddHHmmss" format.
+     *
+     * @return The timestamp or null if the file doesn't contain it.
+     */
+    public String lastUpdated() {
+        return this.updated;
+    }
+
+    /**
+     * Create and configure the factory of the XML readers.
+     *
+     * @return The factory.
+     */
+    private static XMLInputFactory factory() {
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(
+            XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false
+        );
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * The streaming reading of maven-metadata.xml.
+     *
+     * @since 2.0
+     */
+    private static final class Reading {
+
+        /**
+         * The newest versions in the order of publishing.
+         */
+        private final ArrayDeque<String> found;
+
+        /**
+         * The "lastUpdated" timestamp.
+         */
+        private String updated;
+
+        /**
+         * Ctor.
+         *
+         * @param input The input stream of maven-metadata.xml.
+         * @param newest The max amount of the newest versions to keep.
+         * @throws XMLStreamException If XML parsing fails.
+         */
+        Reading(
+            final InputStream input, final int newest
+        ) throws XMLStreamException {
+            this.found = new ArrayDeque<>();
+            final XMLStreamReader xml = FACTORY.createXMLStreamReader(input);
+            try {
+                this.read(xml, newest);
+            } finally {
+                xml.close();
+            }
+        }
+
+        /**
+         * The versions, newest first.
+         *
+         * @return The list of the versions.
+         */
+        List<String> versions() {
+            final List<String> result = new ArrayList<>(this.found.size());
+            final Iterator<String> iterator = this.found.descendingIterator();
+            while (iterator.hasNext()) {
+                result.add(iterator.next());
+            }
+            return result;
+        }
+
+        /**
+         * The "lastUpdated" timestamp.
+         *
+         * @return The timestamp or null.
+         */
+        String timestamp() {
+            return this.updated;
+        }
+
+        /**
+         * Read the "versioning" element and stop right after it.
+         *
+         * @param xml The XML reader.
+         * @param newest The max amount of the newest versions to keep.
+         * @throws XMLStreamException If XML parsing fails.
+         */
+        private void read(
+            final XMLStreamReader xml, final int newest
+        ) throws XMLStreamException {
+            int depth = 0;
+            boolean versioning = false;
+            boolean versions = false;
+            while (xml.hasNext()) {
+                final int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    ++depth;
+                    final String name = xml.getLocalName();
+                    if (depth == VERSIONING && "versioning".equals(name)) {
+                        versioning = true;
+                    } else if (versioning && depth == VERSIONING_CHILD
+                        && "versions".equals(name)) {
+                        versions = true;
+                    } else if (versions && "version".equals(name)) {
+                        this.add(xml.getElementText().trim(), newest);
+                        --depth;
+                    } else if (versioning && depth == VERSIONING_CHILD
+                        && "lastUpdated".equals(name)) {
+                        this.updated = xml.getElementText().trim();
+                        --depth;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    --depth;
+                    if (versions && depth == VERSIONING) {
+                        versions = false;
+                    } else if (versioning && depth < VERSIONING) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Remember the version and forget the oldest one if there are too
+         * many of them.
+         *
+         * @param version The version.
+         * @param newest The max amount of the newest versions to keep.
+         */
+        private void add(final String version, final int newest) {
+            if (newest > 0) {
+                if (this.found.size() == newest) {
+                    this.found.removeFirst();
+                }
+                this.found.addLast(version);
+            }
+        }
+    }
+}
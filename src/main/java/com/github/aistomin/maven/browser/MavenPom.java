@@ -0,0 +1,536 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The content of pom.xml file.
+ * The file is read with the streaming parser. Only the coordinates, the
+ * parent, the properties, the dependencies, the managed dependencies and the
+ * coordinates of the build plugins are kept, the rest of the document (the
+ * plugin configurations, the profiles, the reporting) is skipped. The values
+ * are kept as they are written, see {@link #interpolate(String)} for
+ * expanding the property expressions.
+ *
+ * @since 2.0
+ */
+public final class MavenPom {
+
+    /**
+     * The max depth of the nested property expressions.
+     */
+    private static final int MAX_NESTING = 16;
+
+    /**
+     * The path of the project dependencies.
+     */
+    private static final String DEPENDENCY =
+        "project/dependencies/dependency";
+
+    /**
+     * The path of the managed dependencies.
+     */
+    private static final String MANAGED =
+        "project/dependencyManagement/dependencies/dependency";
+
+    /**
+     * The path of the parent.
+     */
+    private static final String PARENT = "project/parent";
+
+    /**
+     * The path of the build plugins.
+     */
+    private static final String PLUGIN = "project/build/plugins/plugin";
+
+    /**
+     * The path of the managed build plugins.
+     */
+    private static final String MANAGED_PLUGIN =
+        "project/build/pluginManagement/plugins/plugin";
+
+    /**
+     * The default group of the plugins.
+     */
+    private static final String PLUGINS_GROUP = "org.apache.maven.plugins";
+
+    /**
+     * The coordinates of the project: the group, the artifact, the version
+     * and the packaging. The group and the version are inherited from the
+     * parent if they are not declared.
+     */
+    private final Map<String, String> coordinates;
+
+    /**
+     * The parent or null.
+     */
+    private final PomDependency prnt;
+
+    /**
+     * The properties in the order of declaration.
+     */
+    private final Map<String, String> props;
+
+    /**
+     * The dependencies.
+     */
+    private final List<PomDependency> deps;
+
+    /**
+     * The managed dependencies.
+     */
+    private final List<PomDependency> mngd;
+
+    /**
+     * The build plugins and the managed build plugins.
+     */
+    private final List<PomDependency> plgns;
+
+    /**
+     * Ctor.
+     *
+     * @param input The input stream of pom.xml.
+     * @throws XMLStreamException If XML parsing fails.
+     */
+    public MavenPom(final InputStream input) throws XMLStreamException {
+        final Reading reading = new Reading(input);
+        this.prnt = reading.parent;
+        this.props = Collections.unmodifiableMap(reading.properties);
+        this.deps = Collections.unmodifiableList(reading.dependencies);
+        this.mngd = Collections.unmodifiableList(reading.managed);
+        this.plgns = Collections.unmodifiableList(reading.plugins);
+        this.coordinates = new LinkedHashMap<>(reading.project);
+        if (this.prnt != null) {
+            this.coordinates.putIfAbsent("groupId", this.prnt.group());
+            this.coordinates.putIfAbsent("version", this.prnt.version());
+        }
+        this.coordinates.putIfAbsent(
+            "packaging", MvnPackagingType.JAR.packaging()
+        );
+    }
+
+    /**
+     * The group.
+     *
+     * @return The group or null if it's not declared.
+     */
+    public String group() {
+        return this.coordinates.get("groupId");
+    }
+
+    /**
+     * The artifact.
+     *
+     * @return The artifact or null if it's not declared.
+     */
+    public String name() {
+        return this.coordinates.get("artifactId");
+    }
+
+    /**
+     * The version.
+     *
+     * @return The version or null if it's not declared.
+     */
+    public String version() {
+        return this.coordinates.get("version");
+    }
+
+    /**
+     * The packaging.
+     *
+     * @return The packaging, "jar" by default.
+     */
+    public String packaging() {
+        return this.coordinates.get("packaging");
+    }
+
+    /**
+     * The parent. Its type is "pom".
+     *
+     * @return The parent or null if the project has no parent.
+     */
+    public PomDependency parent() {
+        return this.prnt;
+    }
+
+    /**
+     * The properties.
+     *
+     * @return The unmodifiable map of the properties.
+     */
+    public Map<String, String> properties() {
+        return this.props;
+    }
+
+    /**
+     * The dependencies.
+     *
+     * @return The unmodifiable list of the dependencies.
+     */
+    public List<PomDependency> dependencies() {
+        return this.deps;
+    }
+
+    /**
+     * The managed dependencies.
+     *
+     * @return The unmodifiable list of the managed dependencies.
+     */
+    public List<PomDependency> managed() {
+        return this.mngd;
+    }
+
+    /**
+     * The build plugins and the managed build plugins in the order of
+     * declaration. Their type is "maven-plugin", the group is
+     * "org.apache.maven.plugins" if it's not declared.
+     *
+     * @return The unmodifiable list of the plugins.
+     */
+    public List<PomDependency> plugins() {
+        return this.plgns;
+    }
+
+    /**
+     * Expand the property expressions with the properties and the
+     * coordinates of this project. The expressions which can't be expanded
+     * are left as they are.
+     *
+     * @param value The value or null.
+     * @return The expanded value or null.
+     */
+    public String interpolate(final String value) {
+        return MavenPom.interpolate(value, this::property);
+    }
+
+    /**
+     * The value of the property of this project: "project.*", "pom.*" and
+     * the declared properties.
+     *
+     * @param name The name of the property.
+     * @return The value or null if there is no such property.
+     */
+    String property(final String name) {
+        String value = this.props.get(name);
+        if (value == null) {
+            final String key;
+            if (name.startsWith("project.")) {
+                key = name.substring("project.".length());
+            } else if (name.startsWith("pom.")) {
+                key = name.substring("pom.".length());
+            } else {
+                key = name;
+            }
+            if ("parent.version".equals(key) && this.prnt != null) {
+                value = this.prnt.version();
+            } else if ("parent.groupId".equals(key) && this.prnt != null) {
+                value = this.prnt.group();
+            } else if (!key.equals(name) || "version".equals(key)) {
+                value = this.coordinates.get(key);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Expand the property expressions. The nested expressions are expanded
+     * too, but not deeper than 16 levels, so the cycles don't hang.
+     *
+     * @param value The value or null.
+     * @param lookup The values of the properties, it returns null for
+     *  the unknown properties.
+     * @return The expanded value or null.
+     */
+    static String interpolate(
+        final String value, final Function<String, String> lookup
+    ) {
+        String result = value;
+        for (int level = 0; result != null && result.contains("${")
+            && level < MAX_NESTING; ++level) {
+            final String expanded = MavenPom.expand(result, lookup);
+            if (expanded.equals(result)) {
+                break;
+            }
+            result = expanded;
+        }
+        return result;
+    }
+
+    /**
+     * Is the value free of the property expressions.
+     *
+     * @param value The value or null.
+     * @return True if it's not null and has no expressions.
+     */
+    static boolean resolved(final String value) {
+        return value != null && !value.isEmpty() && !value.contains("${");
+    }
+
+    /**
+     * Expand one level of the property expressions.
+     *
+     * @param value The value.
+     * @param lookup The values of the properties.
+     * @return The expanded value.
+     */
+    private static String expand(
+        final String value, final Function<String, String> lookup
+    ) {
+        final StringBuilder result = new StringBuilder(value.length());
+        int pos = 0;
+        while (pos < value.length()) {
+            final int start = value.indexOf("${", pos);
+            final int end;
+            if (start < 0) {
+                end = -1;
+            } else {
+                end = value.indexOf('}', start);
+            }
+            if (end < 0) {
+                result.append(value, pos, value.length());
+                break;
+            }
+            result.append(value, pos, start);
+            final String found = lookup.apply(value.substring(start + 2, end));
+            if (found == null) {
+                result.append(value, start, end + 1);
+            } else {
+                result.append(found);
+            }
+            pos = end + 1;
+        }
+        return result.toString();
+    }
+
+    /**
+     * The streaming reading of pom.xml.
+     *
+     * @since 2.0
+     */
+    private static final class Reading {
+
+        /**
+         * The coordinates of the project.
+         */
+        private final Map<String, String> project;
+
+        /**
+         * The properties.
+         */
+        private final Map<String, String> properties;
+
+        /**
+         * The dependencies.
+         */
+        private final List<PomDependency> dependencies;
+
+        /**
+         * The managed dependencies.
+         */
+        private final List<PomDependency> managed;
+
+        /**
+         * The plugins.
+         */
+        private final List<PomDependency> plugins;
+
+        /**
+         * The parent.
+         */
+        private PomDependency parent;
+
+        /**
+         * Ctor.
+         *
+         * @param input The input stream of pom.xml.
+         * @throws XMLStreamException If XML parsing fails.
+         */
+        Reading(final InputStream input) throws XMLStreamException {
+            this.project = new LinkedHashMap<>();
+            this.properties = new LinkedHashMap<>();
+            this.dependencies = new ArrayList<>(0);
+            this.managed = new ArrayList<>(0);
+            this.plugins = new ArrayList<>(0);
+            final XMLStreamReader xml =
+                MavenMetadata.FACTORY.createXMLStreamReader(input);
+            try {
+                this.read(xml);
+            } finally {
+                xml.close();
+            }
+        }
+
+        /**
+         * Read the document.
+         *
+         * @param xml The XML reader.
+         * @throws XMLStreamException If XML parsing fails.
+         */
+        private void read(final XMLStreamReader xml) throws XMLStreamException {
+            final Deque<Integer> lengths = new ArrayDeque<>();
+            final StringBuilder path = new StringBuilder();
+            String owner = null;
+            Map<String, String> fields = null;
+            List<String> exclusions = null;
+            Map<String, String> exclusion = null;
+            while (xml.hasNext()) {
+                final int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    final String name = xml.getLocalName();
+                    final String outer = path.toString();
+                    lengths.push(path.length());
+                    if (path.length() > 0) {
+                        path.append('/');
+                    }
+                    path.append(name);
+                    final String current = path.toString();
+                    if (owner == null && Reading.owner(current)) {
+                        owner = current;
+                        fields = new LinkedHashMap<>();
+                        exclusions = new ArrayList<>(0);
+                    } else if (owner != null
+                        && outer.equals(owner + "/exclusions")) {
+                        exclusion = new LinkedHashMap<>();
+                    } else if (exclusion != null
+                        || owner != null && owner.equals(outer)
+                        && Reading.field(name)) {
+                        final String text = xml.getElementText().trim();
+                        if (exclusion == null) {
+                            fields.put(name, text);
+                        } else {
+                            exclusion.put(name, text);
+                        }
+                        path.setLength(lengths.pop());
+                    } else if ("project/properties".equals(outer)) {
+                        this.properties.put(name, xml.getElementText().trim());
+                        path.setLength(lengths.pop());
+                    } else if ("project".equals(outer)
+                        && Reading.coordinate(name)) {
+                        this.project.put(name, xml.getElementText().trim());
+                        path.setLength(lengths.pop());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    final String current = path.toString();
+                    if (exclusion != null) {
+                        exclusions.add(
+                            String.format(
+                                "%s:%s",
+                                exclusion.getOrDefault("groupId", "*"),
+                                exclusion.getOrDefault("artifactId", "*")
+                            )
+                        );
+                        exclusion = null;
+                    } else if (current.equals(owner)) {
+                        this.add(owner, fields, exclusions);
+                        owner = null;
+                    }
+                    path.setLength(lengths.pop());
+                }
+            }
+        }
+
+        /**
+         * Add the dependency, the parent or the plugin.
+         *
+         * @param owner The path of the element.
+         * @param fields The values of the children of the element.
+         * @param exclusions The exclusions.
+         */
+        private void add(
+            final String owner, final Map<String, String> fields,
+            final List<String> exclusions
+        ) {
+            if (DEPENDENCY.equals(owner)) {
+                this.dependencies.add(Reading.dependency(fields, exclusions));
+            } else if (MANAGED.equals(owner)) {
+                this.managed.add(Reading.dependency(fields, exclusions));
+            } else if (PARENT.equals(owner)) {
+                fields.put("type", MvnPackagingType.POM.packaging());
+                this.parent = Reading.dependency(fields, exclusions);
+            } else {
+                fields.putIfAbsent("groupId", PLUGINS_GROUP);
+                fields.put("type", MvnPackagingType.MAVEN_PLUGIN.packaging());
+                this.plugins.add(Reading.dependency(fields, exclusions));
+            }
+        }
+
+        /**
+         * Is the element the dependency, the parent or the plugin.
+         *
+         * @param path The path of the element.
+         * @return True if it is.
+         */
+        private static boolean owner(final String path) {
+            return DEPENDENCY.equals(path) || MANAGED.equals(path)
+                || PARENT.equals(path) || PLUGIN.equals(path)
+                || MANAGED_PLUGIN.equals(path);
+        }
+
+        /**
+         * Is the child of the dependency, the parent or the plugin kept.
+         *
+         * @param name The name of the element.
+         * @return True if it's kept.
+         */
+        private static boolean field(final String name) {
+            return Reading.coordinate(name) || "type".equals(name)
+                || "classifier".equals(name) || "scope".equals(name)
+                || "optional".equals(name);
+        }
+
+        /**
+         * Create the dependency.
+         *
+         * @param fields The values of the children of "dependency" element.
+         * @param exclusions The exclusions.
+         * @return The dependency.
+         */
+        private static PomDependency dependency(
+            final Map<String, String> fields, final List<String> exclusions
+        ) {
+            return new PomDependency(
+                fields.get("groupId"), fields.get("artifactId"),
+                fields.get("version"), fields.get("type"),
+                fields.get("scope"), "true".equals(fields.get("optional")),
+                exclusions
+            ).classified(fields.get("classifier"));
+        }
+
+        /**
+         * Is the child of "project" element one of the coordinates.
+         *
+         * @param name The name of the element.
+         * @return True if it's a coordinate.
+         */
+        private static boolean coordinate(final String name) {
+            return "groupId".equals(name) || "artifactId".equals(name)
+                || "version".equals(name) || "packaging".equals(name);
+        }
+    }
+}
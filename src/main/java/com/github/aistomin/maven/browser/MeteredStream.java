@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The stream which counts the bytes which were read and the time which was
+ * spent waiting inside the reads. It lets us separate the time of the body
+ * download from the time of the streaming parsing which reads it.
+ *
+ * @since 2.0
+ */
+final class MeteredStream extends FilterInputStream {
+
+    /**
+     * The amount of the bytes which were read.
+     */
+    private long count;
+
+    /**
+     * The time which was spent inside the reads in nanoseconds.
+     */
+    private long waiting;
+
+    /**
+     * Ctor.
+     *
+     * @param origin The origin stream.
+     */
+    MeteredStream(final InputStream origin) {
+        super(origin);
+    }
+
+    @Override
+    public int read() throws IOException {
+        final long start = System.nanoTime();
+        final int result = super.read();
+        this.waiting += System.nanoTime() - start;
+        if (result >= 0) {
+            ++this.count;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(
+        final byte[] buffer, final int offset, final int length
+    ) throws IOException {
+        final long start = System.nanoTime();
+        final int result = super.read(buffer, offset, length);
+        this.waiting += System.nanoTime() - start;
+        if (result > 0) {
+            this.count += result;
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(final long amount) throws IOException {
+        final long start = System.nanoTime();
+        final long result = super.skip(amount);
+        this.waiting += System.nanoTime() - start;
+        this.count += result;
+        return result;
+    }
+
+    /**
+     * The amount of the bytes which were read.
+     *
+     * @return The amount of the bytes.
+     */
+    long bytes() {
+        return this.count;
+    }
+
+    /**
+     * The time which was spent inside the reads.
+     *
+     * @return The time in nanoseconds.
+     */
+    long nanos() {
+        return this.waiting;
+    }
+}
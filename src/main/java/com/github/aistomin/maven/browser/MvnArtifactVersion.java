@@ -64,4 +64,14 @@ public interface MvnArtifactVersion {
      * @return Packaging type.
      */
     MvnPackagingType packaging();
+
+    /**
+     * The parsed version which can be compared with the versions of the same
+     * artifact.
+     *
+     * @return The version key.
+     */
+    default MvnVersionKey key() {
+        return new MvnVersionKey(this.name());
+    }
 }
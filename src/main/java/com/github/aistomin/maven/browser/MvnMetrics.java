@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+/**
+ * The receiver of the metrics of the repository operations. The operation is
+ * named after the method of {@link MvnRepo}, for example "findVersions".
+ * The implementations must be thread-safe and fast, because they are called
+ * on the hot path of every operation.
+ *
+ * @since 2.0
+ */
+public interface MvnMetrics {
+
+    /**
+     * Record the duration of the phase of the operation.
+     *
+     * @param operation The operation.
+     * @param phase The phase.
+     * @param nanos The duration in nanoseconds.
+     */
+    void timing(String operation, MvnPhase phase, long nanos);
+
+    /**
+     * Record the amount of the bytes which were read from the repository.
+     *
+     * @param operation The operation.
+     * @param amount The amount of the bytes.
+     */
+    void bytes(String operation, long amount);
+
+    /**
+     * Record the amount of the results of the operation.
+     *
+     * @param operation The operation.
+     * @param amount The amount of the results.
+     */
+    void results(String operation, int amount);
+
+    /**
+     * Record the failure of the operation.
+     *
+     * @param operation The operation.
+     * @param error The error.
+     */
+    void error(String operation, Throwable error);
+}
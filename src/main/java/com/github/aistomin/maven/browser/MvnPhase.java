@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+/**
+ * The phases of the repository operation which are timed by
+ * {@link MvnMetrics}.
+ *
+ * @since 2.0
+ */
+public enum MvnPhase {
+
+    /**
+     * Establishing the connection: DNS lookup, TCP and TLS handshakes. It's
+     * reported only by the transports which can observe it separately.
+     */
+    CONNECT,
+
+    /**
+     * From sending the request till receiving the response headers.
+     */
+    FIRST_BYTE,
+
+    /**
+     * Waiting for the response body while it's read.
+     */
+    BODY,
+
+    /**
+     * Parsing of the response body, excluding the time of waiting for it.
+     */
+    PARSE,
+
+    /**
+     * Turning the parsed data into the results: creating, sorting and
+     * filtering the versions.
+     */
+    MAP
+}
@@ -93,4 +93,19 @@ public interface MvnRepo {
     List<MvnArtifactVersion> findVersionsOlderThan(
         MvnArtifactVersion version
     ) throws MvnException;
+
+    /**
+     * Search for all the versions of the artifact which are newer than the
+     * first provided version, but not newer than the second one. It's useful
+     * to find all the releases between the current version of the dependency
+     * and the version which we want to upgrade to.
+     *
+     * @param from The version to start from (exclusive).
+     * @param to The version to end with (inclusive).
+     * @return The list of the versions, newest first.
+     * @throws MvnException If the problem occurred while reading from the repo.
+     */
+    List<MvnArtifactVersion> findVersionsBetween(
+        MvnArtifactVersion from, MvnArtifactVersion to
+    ) throws MvnException;
 }
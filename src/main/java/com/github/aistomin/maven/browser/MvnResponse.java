@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The response of the remote Maven repository.
+ *
+ * @since 2.0
+ */
+public final class MvnResponse implements Closeable {
+
+    /**
+     * HTTP status "OK".
+     */
+    public static final int OK = 200;
+
+    /**
+     * HTTP status "Not Modified".
+     */
+    public static final int NOT_MODIFIED = 304;
+
+    /**
+     * HTTP status code.
+     */
+    private final int code;
+
+    /**
+     * The response headers. The names are case-insensitive.
+     */
+    private final Map<String, List<String>> hdrs;
+
+    /**
+     * The response body.
+     */
+    private final InputStream stream;
+
+    /**
+     * The time which was spent on establishing the connection or null if the
+     * transport can't observe it.
+     */
+    private final Duration connecting;
+
+    /**
+     * Ctor.
+     *
+     * @param status HTTP status code.
+     * @param headers The response headers.
+     * @param body The response body.
+     */
+    public MvnResponse(
+        final int status, final Map<String, List<String>> headers,
+        final InputStream body
+    ) {
+        this(status, headers, body, null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param status HTTP status code.
+     * @param headers The response headers.
+     * @param body The response body.
+     * @param connect The time which was spent on establishing the connection
+     *  or null if it's unknown.
+     */
+    public MvnResponse(
+        final int status, final Map<String, List<String>> headers,
+        final InputStream body, final Duration connect
+    ) {
+        this.code = status;
+        this.hdrs = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.forEach(
+            (name, values) -> {
+                if (name != null) {
+                    this.hdrs.put(name, values);
+                }
+            }
+        );
+        this.stream = body;
+        this.connecting = connect;
+    }
+
+    /**
+     * HTTP status code.
+     *
+     * @return The status code.
+     */
+    public int status() {
+        return this.code;
+    }
+
+    /**
+     * The first value of the response header.
+     *
+     * @param name The name of the header.
+     * @return The value or null if there is no such header.
+     */
+    public String header(final String name) {
+        final List<String> values = this.hdrs.get(name);
+        final String value;
+        if (values == null || values.isEmpty()) {
+            value = null;
+        } else {
+            value = values.get(0);
+        }
+        return value;
+    }
+
+    /**
+     * The response headers.
+     *
+     * @return The headers.
+     */
+    public Map<String, List<String>> headers() {
+        return this.hdrs;
+    }
+
+    /**
+     * The response body.
+     *
+     * @return The body stream.
+     */
+    public InputStream body() {
+        return this.stream;
+    }
+
+    /**
+     * The time which was spent on establishing the connection.
+     *
+     * @return The duration or null if the transport can't observe it.
+     */
+    public Duration connect() {
+        return this.connecting;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.stream.close();
+    }
+}
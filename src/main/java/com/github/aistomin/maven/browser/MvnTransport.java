@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * The interface of classes which transfer the data from the remote Maven
+ * repository.
+ *
+ * @since 2.0
+ */
+public interface MvnTransport {
+
+    /**
+     * Execute HTTP GET request.
+     *
+     * @param uri The URI of the resource.
+     * @param headers The request headers.
+     * @return The response. The caller is responsible for closing it.
+     * @throws IOException If the problem occurred while reading the resource.
+     */
+    MvnResponse get(URI uri, Map<String, String> headers) throws IOException;
+}
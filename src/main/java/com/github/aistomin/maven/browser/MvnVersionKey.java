@@ -0,0 +1,472 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The parsed version which can be compared with the other versions. The
+ * ordering follows the rules of Maven's "ComparableVersion": the numeric
+ * parts are compared as numbers, the well-known qualifiers are ordered as
+ * "alpha" &lt; "beta" &lt; "milestone" &lt; "rc" = "cr" &lt; "snapshot"
+ * &lt; "" = "ga" = "final" = "release" &lt; "sp", the unknown qualifiers go
+ * after them in the lexical order.
+ * The version is parsed once, in the ctor. The comparison doesn't allocate
+ * the memory.
+ *
+ * @since 2.0
+ */
+public final class MvnVersionKey implements Comparable<MvnVersionKey> {
+
+    /**
+     * The version as it was provided.
+     */
+    private final String ver;
+
+    /**
+     * The parsed items of the version.
+     */
+    private final ListItem items;
+
+    /**
+     * The canonical representation of the version.
+     */
+    private final String canonical;
+
+    /**
+     * Ctor.
+     *
+     * @param version The version.
+     */
+    public MvnVersionKey(final String version) {
+        this.ver = version;
+        this.items = MvnVersionKey.parse(version);
+        this.canonical = this.items.toString();
+    }
+
+    /**
+     * The version as it was provided.
+     *
+     * @return The version.
+     */
+    public String version() {
+        return this.ver;
+    }
+
+    @Override
+    public int compareTo(final MvnVersionKey other) {
+        return this.items.compareTo(other.items);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj
+            || obj != null
+            && getClass() == obj.getClass()
+            && this.canonical.equals(((MvnVersionKey) obj).canonical);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.canonical.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.ver;
+    }
+
+    /**
+     * Parse the version into the items.
+     *
+     * @param version The version.
+     * @return The root item.
+     */
+    private static ListItem parse(final String version) {
+        final String str = version.toLowerCase(Locale.ENGLISH);
+        final ListItem root = new ListItem();
+        ListItem list = root;
+        final Deque<ListItem> stack = new ArrayDeque<>();
+        stack.push(list);
+        boolean digit = false;
+        int start = 0;
+        for (int idx = 0; idx < str.length(); ++idx) {
+            final char chr = str.charAt(idx);
+            if (chr == '.' || chr == '-') {
+                if (idx == start) {
+                    list.add(IntItem.ZERO);
+                } else {
+                    list.add(
+                        MvnVersionKey.item(digit, str.substring(start, idx))
+                    );
+                }
+                start = idx + 1;
+                if (chr == '-') {
+                    final ListItem sub = new ListItem();
+                    list.add(sub);
+                    list = sub;
+                    stack.push(list);
+                }
+            } else if (Character.isDigit(chr)) {
+                if (!digit && idx > start) {
+                    list.add(new StringItem(str.substring(start, idx), true));
+                    start = idx;
+                    final ListItem sub = new ListItem();
+                    list.add(sub);
+                    list = sub;
+                    stack.push(list);
+                }
+                digit = true;
+            } else {
+                if (digit && idx > start) {
+                    list.add(
+                        MvnVersionKey.item(true, str.substring(start, idx))
+                    );
+                    start = idx;
+                    final ListItem sub = new ListItem();
+                    list.add(sub);
+                    list = sub;
+                    stack.push(list);
+                }
+                digit = false;
+            }
+        }
+        if (str.length() > start) {
+            list.add(MvnVersionKey.item(digit, str.substring(start)));
+        }
+        while (!stack.isEmpty()) {
+            stack.pop().normalize();
+        }
+        return root;
+    }
+
+    /**
+     * Create the item from the part of the version.
+     *
+     * @param digit Whether the part consists of digits.
+     * @param part The part of the version.
+     * @return The item.
+     */
+    private static Item item(final boolean digit, final String part) {
+        final Item item;
+        if (digit) {
+            item = new IntItem(part);
+        } else {
+            item = new StringItem(part, false);
+        }
+        return item;
+    }
+
+    /**
+     * The item of the version.
+     *
+     * @since 2.0
+     */
+    private abstract static class Item {
+
+        /**
+         * Compare the item with another one.
+         *
+         * @param other Another item or null if there is no item to compare
+         *  with.
+         * @return Negative, zero or positive number.
+         */
+        abstract int compareTo(Item other);
+
+        /**
+         * Whether the item is equivalent to the absent one.
+         *
+         * @return True if the item is equivalent to the absent one.
+         */
+        abstract boolean isNull();
+    }
+
+    /**
+     * The numeric item of the version. The number may be arbitrary long, so
+     * it's kept as the digits without the leading zeros.
+     *
+     * @since 2.0
+     */
+    private static final class IntItem extends Item {
+
+        /**
+         * Zero.
+         */
+        private static final IntItem ZERO = new IntItem("0");
+
+        /**
+         * The digits of the number without the leading zeros.
+         */
+        private final String digits;
+
+        /**
+         * Ctor.
+         *
+         * @param str The digits of the number.
+         */
+        IntItem(final String str) {
+            int start = 0;
+            while (start < str.length() - 1 && str.charAt(start) == '0') {
+                ++start;
+            }
+            this.digits = str.substring(start);
+        }
+
+        @Override
+        int compareTo(final Item other) {
+            final int result;
+            if (other == null) {
+                if (this.isNull()) {
+                    result = 0;
+                } else {
+                    result = 1;
+                }
+            } else if (other instanceof IntItem) {
+                final String that = ((IntItem) other).digits;
+                if (this.digits.length() == that.length()) {
+                    result = this.digits.compareTo(that);
+                } else {
+                    result = Integer.compare(
+                        this.digits.length(), that.length()
+                    );
+                }
+            } else {
+                result = 1;
+            }
+            return result;
+        }
+
+        @Override
+        boolean isNull() {
+            return "0".equals(this.digits);
+        }
+
+        @Override
+        public String toString() {
+            return this.digits;
+        }
+    }
+
+    /**
+     * The qualifier of the version.
+     *
+     * @since 2.0
+     */
+    private static final class StringItem extends Item {
+
+        /**
+         * The well-known qualifiers in their order.
+         */
+        private static final List<String> QUALIFIERS = List.of(
+            "alpha", "beta", "milestone", "rc", "snapshot", "", "sp"
+        );
+
+        /**
+         * The rank of the release version.
+         */
+        private static final int RELEASE = QUALIFIERS.indexOf("");
+
+        /**
+         * The qualifier.
+         */
+        private final String value;
+
+        /**
+         * The rank of the qualifier: the index of the well-known one or the
+         * amount of the well-known qualifiers for the unknown one.
+         */
+        private final int rank;
+
+        /**
+         * Ctor.
+         *
+         * @param str The qualifier.
+         * @param followed Whether the qualifier is followed by the digit.
+         */
+        StringItem(final String str, final boolean followed) {
+            String qualifier = str;
+            if (followed && qualifier.length() == 1) {
+                switch (qualifier.charAt(0)) {
+                    case 'a':
+                        qualifier = "alpha";
+                        break;
+                    case 'b':
+                        qualifier = "beta";
+                        break;
+                    case 'm':
+                        qualifier = "milestone";
+                        break;
+                    default:
+                        break;
+                }
+            }
+            switch (qualifier) {
+                case "ga":
+                case "final":
+                case "release":
+                    qualifier = "";
+                    break;
+                case "cr":
+                    qualifier = "rc";
+                    break;
+                default:
+                    break;
+            }
+            this.value = qualifier;
+            final int index = QUALIFIERS.indexOf(qualifier);
+            if (index < 0) {
+                this.rank = QUALIFIERS.size();
+            } else {
+                this.rank = index;
+            }
+        }
+
+        @Override
+        int compareTo(final Item other) {
+            final int result;
+            if (other == null) {
+                result = Integer.compare(this.rank, RELEASE);
+            } else if (other instanceof StringItem) {
+                final StringItem that = (StringItem) other;
+                if (this.rank == that.rank && this.rank == QUALIFIERS.size()) {
+                    result = this.value.compareTo(that.value);
+                } else {
+                    result = Integer.compare(this.rank, that.rank);
+                }
+            } else {
+                result = -1;
+            }
+            return result;
+        }
+
+        @Override
+        boolean isNull() {
+            return this.rank == RELEASE;
+        }
+
+        @Override
+        public String toString() {
+            return this.value;
+        }
+    }
+
+    /**
+     * The list of the items which is separated from the previous items with
+     * the dash or the transition between digits and letters.
+     *
+     * @since 2.0
+     */
+    private static final class ListItem extends Item {
+
+        /**
+         * The items.
+         */
+        private final List<Item> list = new ArrayList<>(2);
+
+        /**
+         * Add the item.
+         *
+         * @param item The item.
+         */
+        void add(final Item item) {
+            this.list.add(item);
+        }
+
+        /**
+         * Remove the trailing items which are equivalent to the absent ones.
+         */
+        void normalize() {
+            for (int idx = this.list.size() - 1; idx >= 0; --idx) {
+                final Item last = this.list.get(idx);
+                if (last.isNull()) {
+                    this.list.remove(idx);
+                } else if (!(last instanceof ListItem)) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        int compareTo(final Item other) {
+            int result = 0;
+            if (other == null) {
+                for (int idx = 0; idx < this.list.size() && result == 0;
+                    ++idx) {
+                    result = this.list.get(idx).compareTo(null);
+                }
+            } else if (other instanceof ListItem) {
+                final List<Item> that = ((ListItem) other).list;
+                final int size = Math.max(this.list.size(), that.size());
+                for (int idx = 0; idx < size && result == 0; ++idx) {
+                    final Item left = ListItem.at(this.list, idx);
+                    final Item right = ListItem.at(that, idx);
+                    if (left == null) {
+                        result = -right.compareTo(null);
+                    } else {
+                        result = left.compareTo(right);
+                    }
+                }
+            } else if (other instanceof IntItem) {
+                result = -1;
+            } else {
+                result = 1;
+            }
+            return result;
+        }
+
+        @Override
+        boolean isNull() {
+            return this.list.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder str = new StringBuilder();
+            for (final Item item : this.list) {
+                if (str.length() > 0) {
+                    if (item instanceof ListItem) {
+                        str.append('-');
+                    } else {
+                        str.append('.');
+                    }
+                }
+                str.append(item);
+            }
+            return str.toString();
+        }
+
+        /**
+         * The item at the position or null if there is no such item.
+         *
+         * @param items The items.
+         * @param idx The position.
+         * @return The item or null.
+         */
+        private static Item at(final List<Item> items, final int idx) {
+            final Item item;
+            if (idx < items.size()) {
+                item = items.get(idx);
+            } else {
+                item = null;
+            }
+            return item;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+/**
+ * The metrics which are ignored. It's the default {@link MvnMetrics}.
+ *
+ * @since 2.0
+ */
+public final class NoMetrics implements MvnMetrics {
+
+    @Override
+    public void timing(
+        final String operation, final MvnPhase phase, final long nanos
+    ) {
+        // Nothing to record.
+    }
+
+    @Override
+    public void bytes(final String operation, final long amount) {
+        // Nothing to record.
+    }
+
+    @Override
+    public void results(final String operation, final int amount) {
+        // Nothing to record.
+    }
+
+    @Override
+    public void error(final String operation, final Throwable error) {
+        // Nothing to record.
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.List;
+
+/**
+ * The dependency as it's declared in pom.xml: either in "dependencies" or in
+ * "dependencyManagement" element. The values are kept as they are written,
+ * so they may contain the property expressions like "${project.version}" or
+ * be null if the element is absent.
+ *
+ * @since 2.0
+ */
+public final class PomDependency {
+
+    /**
+     * The group.
+     */
+    private final String grp;
+
+    /**
+     * The artifact.
+     */
+    private final String artifact;
+
+    /**
+     * The version.
+     */
+    private final String ver;
+
+    /**
+     * The type.
+     */
+    private final String kind;
+
+    /**
+     * The classifier.
+     */
+    private final String qualifier;
+
+    /**
+     * The scope.
+     */
+    private final String scp;
+
+    /**
+     * Is the dependency optional.
+     */
+    private final boolean opt;
+
+    /**
+     * The excluded artifacts in "group:artifact" format.
+     */
+    private final List<String> excluded;
+
+    /**
+     * Ctor.
+     *
+     * @param group The group.
+     * @param name The artifact.
+     * @param version The version.
+     * @param type The type.
+     * @param scope The scope.
+     * @param optional Is the dependency optional.
+     * @param exclusions The excluded artifacts in "group:artifact" format,
+     *  "*" matches any group or artifact.
+     */
+    public PomDependency(
+        final String group, final String name, final String version,
+        final String type, final String scope, final boolean optional,
+        final List<String> exclusions
+    ) {
+        this.grp = group;
+        this.artifact = name;
+        this.ver = version;
+        this.kind = type;
+        this.qualifier = null;
+        this.scp = scope;
+        this.opt = optional;
+        this.excluded = List.copyOf(exclusions);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param origin The dependency.
+     * @param classifier The classifier of the dependency.
+     */
+    private PomDependency(final PomDependency origin, final String classifier) {
+        this.grp = origin.grp;
+        this.artifact = origin.artifact;
+        this.ver = origin.ver;
+        this.kind = origin.kind;
+        this.qualifier = classifier;
+        this.scp = origin.scp;
+        this.opt = origin.opt;
+        this.excluded = origin.excluded;
+    }
+
+    /**
+     * The same dependency with the classifier.
+     *
+     * @param classifier The classifier or null.
+     * @return The dependency.
+     */
+    public PomDependency classified(final String classifier) {
+        return new PomDependency(this, classifier);
+    }
+
+    /**
+     * The group.
+     *
+     * @return The group or null.
+     */
+    public String group() {
+        return this.grp;
+    }
+
+    /**
+     * The artifact.
+     *
+     * @return The artifact or null.
+     */
+    public String name() {
+        return this.artifact;
+    }
+
+    /**
+     * The version.
+     *
+     * @return The version or null if it's not declared.
+     */
+    public String version() {
+        return this.ver;
+    }
+
+    /**
+     * The type.
+     *
+     * @return The type or null if it's not declared ("jar" by default).
+     */
+    public String type() {
+        return this.kind;
+    }
+
+    /**
+     * The classifier, e.g. "tests" or "linux-x86_64".
+     *
+     * @return The classifier or null if it's not declared.
+     */
+    public String classifier() {
+        return this.qualifier;
+    }
+
+    /**
+     * The scope.
+     *
+     * @return The scope or null if it's not declared ("compile" by default).
+     */
+    public String scope() {
+        return this.scp;
+    }
+
+    /**
+     * Is the dependency optional.
+     *
+     * @return True if it's optional.
+     */
+    public boolean optional() {
+        return this.opt;
+    }
+
+    /**
+     * The excluded artifacts.
+     *
+     * @return The unmodifiable list of "group:artifact" strings.
+     */
+    public List<String> exclusions() {
+        return this.excluded;
+    }
+
+    /**
+     * The versionless key of the dependency, as the management key of Maven:
+     * the dependencies which differ only by the type or the classifier have
+     * the different keys.
+     *
+     * @return The "group:artifact:type" or "group:artifact:type:classifier"
+     *  string, the type is "jar" if it's not declared.
+     */
+    public String key() {
+        String type = this.kind;
+        if (type == null) {
+            type = MvnPackagingType.JAR.packaging();
+        }
+        String key = String.format("%s:%s:%s", this.grp, this.artifact, type);
+        if (this.qualifier != null) {
+            key = String.format("%s:%s", key, this.qualifier);
+        }
+        return key;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s:%s:%s", this.grp, this.artifact, this.ver);
+    }
+}
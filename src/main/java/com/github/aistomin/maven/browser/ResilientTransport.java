@@ -0,0 +1,537 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The decorator of {@link MvnTransport} which makes the GET requests
+ * resilient.
+ * <ul>
+ *     <li>The network errors and the server errors (5xx) are retried with the
+ *     exponential backoff and the full jitter: the attempt N waits randomly
+ *     up to {@code backoff * 2^(N-1)}, but not longer than
+ *     {@link #MAX_BACKOFF}. The last response is returned as is.</li>
+ *     <li>When the response doesn't come within the hedge delay, the
+ *     duplicate request is sent and the first response wins; the other one
+ *     is closed. The hedge delay is the 95th percentile of the latencies of
+ *     the successful responses once there are enough of them, and the
+ *     initial hedge delay before.</li>
+ *     <li>Every host has its {@link CircuitBreaker}: after the given amount
+ *     of failed attempts in a row the requests to the host fail fast until
+ *     the cooldown is over. Every attempt records its outcome in the
+ *     breaker, including the unchecked exceptions of the origin; only the
+ *     interrupt of the current thread stops the retries.</li>
+ * </ul>
+ *
+ * @since 2.0
+ */
+public final class ResilientTransport implements MvnTransport {
+
+    /**
+     * Max backoff between the attempts.
+     */
+    public static final Duration MAX_BACKOFF = Duration.ofSeconds(10);
+
+    /**
+     * The amount of the latencies which are needed to trust their 95th
+     * percentile.
+     */
+    public static final int SAMPLES = 20;
+
+    /**
+     * The percentile of the latencies which is the hedge delay.
+     */
+    private static final double PERCENTILE = 95;
+
+    /**
+     * The first HTTP status of the server errors.
+     */
+    private static final int SERVER_ERROR = 500;
+
+    /**
+     * Default amount of the attempts.
+     */
+    private static final int ATTEMPTS = 3;
+
+    /**
+     * Default backoff of the first retry in milliseconds.
+     */
+    private static final long BACKOFF = 200;
+
+    /**
+     * Default amount of the failures in a row which opens the breaker.
+     */
+    private static final int FAILURES = 5;
+
+    /**
+     * Default cooldown of the open breaker in seconds.
+     */
+    private static final long COOLDOWN = 30;
+
+    /**
+     * The origin transport.
+     */
+    private final MvnTransport origin;
+
+    /**
+     * Max amount of the attempts of the request.
+     */
+    private final int attempts;
+
+    /**
+     * The backoff of the first retry in nanoseconds.
+     */
+    private final long backoff;
+
+    /**
+     * The initial hedge delay or null if the requests are not hedged.
+     */
+    private final Duration hedge;
+
+    /**
+     * The amount of the failures in a row which opens the breaker.
+     */
+    private final int threshold;
+
+    /**
+     * The cooldown of the open breaker.
+     */
+    private final Duration cooldown;
+
+    /**
+     * The circuit breakers of the hosts.
+     */
+    private final Map<String, CircuitBreaker> breakers;
+
+    /**
+     * The latencies of the successful responses.
+     */
+    private final LatencyHistogram latencies;
+
+    /**
+     * The amount of the retries.
+     */
+    private final AtomicLong retried;
+
+    /**
+     * The amount of the hedged requests.
+     */
+    private final AtomicLong hedged;
+
+    /**
+     * Ctor.
+     *
+     * @param transport The origin transport.
+     * @param tries Max amount of the attempts of the request.
+     * @param first The backoff of the first retry.
+     * @param delay The initial hedge delay or null to not hedge the
+     *  requests.
+     * @param failures The amount of the failed attempts in a row which
+     *  opens the circuit breaker of the host.
+     * @param pause The cooldown of the open circuit breaker.
+     */
+    public ResilientTransport(
+        final MvnTransport transport, final int tries, final Duration first,
+        final Duration delay, final int failures, final Duration pause
+    ) {
+        if (tries < 1) {
+            throw new IllegalArgumentException(
+                String.format("The attempts must be positive: %d", tries)
+            );
+        }
+        this.origin = transport;
+        this.attempts = tries;
+        this.backoff = first.toNanos();
+        this.hedge = delay;
+        this.threshold = failures;
+        this.cooldown = pause;
+        this.breakers = new ConcurrentHashMap<>();
+        this.latencies = new LatencyHistogram();
+        this.retried = new AtomicLong();
+        this.hedged = new AtomicLong();
+    }
+
+    /**
+     * Ctor. Makes 3 attempts starting from the 200 ms backoff, hedges the
+     * requests after 1 second until the latencies are known and opens the
+     * breaker for 30 seconds after 5 failures in a row.
+     *
+     * @param transport The origin transport.
+     */
+    public ResilientTransport(final MvnTransport transport) {
+        this(
+            transport, ATTEMPTS, Duration.ofMillis(BACKOFF),
+            Duration.ofSeconds(1), FAILURES, Duration.ofSeconds(COOLDOWN)
+        );
+    }
+
+    @Override
+    public MvnResponse get(
+        final URI uri, final Map<String, String> headers
+    ) throws IOException {
+        final CircuitBreaker breaker = this.breaker(uri);
+        MvnResponse response = null;
+        for (int attempt = 1; response == null; ++attempt) {
+            if (!breaker.allow()) {
+                throw new IOException(
+                    String.format("The circuit breaker is open: %s", uri)
+                );
+            }
+            final boolean last = attempt >= this.attempts;
+            try {
+                final MvnResponse received = this.hedged(uri, headers);
+                if (received.status() >= SERVER_ERROR) {
+                    breaker.failure();
+                    if (last) {
+                        response = received;
+                    } else {
+                        received.close();
+                    }
+                } else {
+                    breaker.success();
+                    response = received;
+                }
+            } catch (final IOException exception) {
+                breaker.failure();
+                if (last || Thread.currentThread().isInterrupted()) {
+                    throw exception;
+                }
+            } catch (final RuntimeException exception) {
+                breaker.failure();
+                throw exception;
+            }
+            if (response == null) {
+                this.retried.incrementAndGet();
+                this.sleep(attempt);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * The current hedge delay.
+     *
+     * @return The delay or null if the requests are not hedged.
+     */
+    public Duration hedgeDelay() {
+        Duration delay = this.hedge;
+        if (delay != null && this.latencies.count() >= SAMPLES) {
+            delay = Duration.ofNanos(this.latencies.percentile(PERCENTILE));
+        }
+        return delay;
+    }
+
+    /**
+     * The amount of the retries so far.
+     *
+     * @return The amount of the retries.
+     */
+    public long retries() {
+        return this.retried.get();
+    }
+
+    /**
+     * The amount of the hedged requests so far.
+     *
+     * @return The amount of the hedged requests.
+     */
+    public long hedges() {
+        return this.hedged.get();
+    }
+
+    /**
+     * The circuit breaker of the host of the request.
+     *
+     * @param uri The URI of the request.
+     * @return The circuit breaker.
+     */
+    public CircuitBreaker breaker(final URI uri) {
+        return this.breakers.computeIfAbsent(
+            Objects.toString(uri.getHost(), ""),
+            host -> new CircuitBreaker(this.threshold, this.cooldown)
+        );
+    }
+
+    /**
+     * Send the request and hedge it if the response doesn't come in time.
+     *
+     * @param uri The URI of the request.
+     * @param headers The request headers.
+     * @return The first response.
+     * @throws IOException If both requests failed.
+     */
+    private MvnResponse hedged(
+        final URI uri, final Map<String, String> headers
+    ) throws IOException {
+        final Duration delay = this.hedgeDelay();
+        if (delay == null) {
+            return this.call(uri, headers);
+        }
+        final CompletableFuture<MvnResponse> primary = this.send(uri, headers);
+        boolean raced = false;
+        MvnResponse response;
+        try {
+            try {
+                response = primary.get(delay.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (final TimeoutException timeout) {
+                this.hedged.incrementAndGet();
+                raced = true;
+                response = ResilientTransport.first(
+                    primary, this.send(uri, headers)
+                );
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            if (!raced) {
+                primary.thenAccept(ResilientTransport::discard);
+            }
+            final InterruptedIOException error = new InterruptedIOException(
+                String.format("Interrupted while reading %s", uri)
+            );
+            error.initCause(exception);
+            throw error;
+        } catch (final ExecutionException exception) {
+            throw ResilientTransport.unwrap(exception);
+        }
+        return response;
+    }
+
+    /**
+     * Send the request in the background.
+     *
+     * @param uri The URI of the request.
+     * @param headers The request headers.
+     * @return The future response.
+     */
+    private CompletableFuture<MvnResponse> send(
+        final URI uri, final Map<String, String> headers
+    ) {
+        final CompletableFuture<MvnResponse> future = new CompletableFuture<>();
+        Thread.startVirtualThread(
+            () -> {
+                try {
+                    final MvnResponse response = this.call(uri, headers);
+                    if (!future.complete(response)) {
+                        ResilientTransport.discard(response);
+                    }
+                } catch (final IOException exception) {
+                    future.completeExceptionally(
+                        new UncheckedIOException(exception)
+                    );
+                } catch (final RuntimeException exception) {
+                    future.completeExceptionally(exception);
+                }
+            }
+        );
+        return future;
+    }
+
+    /**
+     * Send the request and record its latency if it is successful.
+     *
+     * @param uri The URI of the request.
+     * @param headers The request headers.
+     * @return The response.
+     * @throws IOException If the request failed.
+     */
+    private MvnResponse call(
+        final URI uri, final Map<String, String> headers
+    ) throws IOException {
+        final long start = System.nanoTime();
+        final MvnResponse response = this.origin.get(uri, headers);
+        if (response.status() < SERVER_ERROR) {
+            this.latencies.record(System.nanoTime() - start);
+        }
+        return response;
+    }
+
+    /**
+     * Wait until the retry.
+     *
+     * @param attempt The number of the failed attempt.
+     * @throws InterruptedIOException If the waiting was interrupted.
+     */
+    private void sleep(final int attempt) throws InterruptedIOException {
+        final long max = Math.min(
+            this.backoff << Math.min(attempt - 1, Integer.SIZE),
+            MAX_BACKOFF.toNanos()
+        );
+        try {
+            TimeUnit.NANOSECONDS.sleep(
+                (long) (ThreadLocalRandom.current().nextDouble() * max)
+            );
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException error = new InterruptedIOException(
+                "Interrupted while waiting for the retry"
+            );
+            error.initCause(exception);
+            throw error;
+        }
+    }
+
+    /**
+     * Wait for the first successful response of the two requests and close
+     * the other one when it comes. A response with the status below 500
+     * wins; a server error is returned only when the other request failed
+     * too. If the waiting is interrupted, both responses are closed when
+     * they come.
+     *
+     * @param primary The primary request.
+     * @param secondary The hedged request.
+     * @return The first successful response.
+     * @throws InterruptedException If the waiting was interrupted.
+     * @throws ExecutionException If both requests failed.
+     */
+    private static MvnResponse first(
+        final CompletableFuture<MvnResponse> primary,
+        final CompletableFuture<MvnResponse> secondary
+    ) throws InterruptedException, ExecutionException {
+        final List<CompletableFuture<MvnResponse>> requests =
+            List.of(primary, secondary);
+        final Race race = new Race(requests.size());
+        for (final CompletableFuture<MvnResponse> request : requests) {
+            request.whenComplete(race::done);
+        }
+        try {
+            return race.winner.get();
+        } catch (final InterruptedException exception) {
+            race.winner.completeExceptionally(exception);
+            race.winner.thenAccept(ResilientTransport::discard);
+            throw exception;
+        }
+    }
+
+    /**
+     * Unwrap the error of the request.
+     *
+     * @param exception The error of the future.
+     * @return The error of the request.
+     */
+    private static IOException unwrap(final ExecutionException exception) {
+        Throwable cause = exception.getCause();
+        if (cause instanceof UncheckedIOException) {
+            cause = cause.getCause();
+        }
+        final IOException error;
+        if (cause instanceof IOException) {
+            error = (IOException) cause;
+        } else {
+            error = new IOException(cause);
+        }
+        return error;
+    }
+
+    /**
+     * Close the response which nobody needs.
+     *
+     * @param response The response.
+     */
+    private static void discard(final MvnResponse response) {
+        try {
+            response.close();
+        } catch (final IOException ignored) {
+            // Nobody reads this response anymore.
+        }
+    }
+
+    /**
+     * The race of the hedged requests. The responses which lose the race,
+     * including the ones which come after the winner was abandoned, are
+     * closed.
+     *
+     * @since 2.0
+     */
+    private static final class Race {
+
+        /**
+         * The winning response.
+         */
+        private final CompletableFuture<MvnResponse> winner;
+
+        /**
+         * The amount of the requests which are not completed yet.
+         */
+        private int pending;
+
+        /**
+         * The first server error or null.
+         */
+        private MvnResponse failing;
+
+        /**
+         * The last failure of the requests or null.
+         */
+        private Throwable error;
+
+        /**
+         * Ctor.
+         *
+         * @param requests The amount of the requests.
+         */
+        Race(final int requests) {
+            this.winner = new CompletableFuture<>();
+            this.pending = requests;
+        }
+
+        /**
+         * Take the completed request into account.
+         *
+         * @param response The response or null if the request failed.
+         * @param failure The failure or null if the response came.
+         */
+        synchronized void done(
+            final MvnResponse response, final Throwable failure
+        ) {
+            --this.pending;
+            if (failure != null) {
+                this.error = failure;
+            } else if (response.status() < SERVER_ERROR) {
+                if (!this.winner.complete(response)) {
+                    ResilientTransport.discard(response);
+                }
+            } else if (this.failing == null) {
+                this.failing = response;
+            } else {
+                ResilientTransport.discard(response);
+            }
+            if (this.pending == 0) {
+                if (this.failing != null) {
+                    if (!this.winner.complete(this.failing)) {
+                        ResilientTransport.discard(this.failing);
+                    }
+                } else if (!this.winner.isDone()) {
+                    this.winner.completeExceptionally(this.error);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * The response of the Maven search API which is parsed while it's read from
+ * the stream. The documents are emitted to the consumer one by one as soon as
+ * they are parsed, no intermediate JSON tree or copy of the body is built.
+ * The response can be read only once.
+ *
+ * @since 2.0
+ */
+public final class SearchResponse {
+
+    /**
+     * The body of the response.
+     */
+    private final InputStream body;
+
+    /**
+     * Ctor.
+     *
+     * @param stream The body of the response.
+     */
+    public SearchResponse(final InputStream stream) {
+        this.body = stream;
+    }
+
+    /**
+     * Read the found artifacts.
+     *
+     * @param consumer The consumer of the artifacts.
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    public void artifacts(
+        final Consumer<? super MvnArtifact> consumer
+    ) throws IOException {
+        this.docs(doc -> consumer.accept(doc.artifact()), false);
+    }
+
+    /**
+     * Read the found versions of the artifacts.
+     *
+     * @param consumer The consumer of the versions.
+     * @throws IOException If reading fails or JSON is malformed.
+     */
+    public void versions(
+        final Consumer<? super MvnArtifactVersion> consumer
+    ) throws IOException {
+        this.docs(
+            doc -> consumer.accept(
+                new MavenArtifactVersion(
+                    doc.artifact(), doc.version, doc.packaging(), doc.timestamp
+                )
+            ),
+            true
+        );
+    }
+
+    /**
+     * Walk through the documents of the response.
+     *
+     * @param consumer The consumer of the documents.
+     * @param versioned Is the version required in every document.
+     * @throws IOException If reading fails, JSON is malformed or a document
+     *  misses a required field.
+     */
+    private void docs(
+        final Consumer<Doc> consumer, final boolean versioned
+    ) throws IOException {
+        final JsonTokenizer json = new JsonTokenizer(
+            new InputStreamReader(this.body, StandardCharsets.UTF_8)
+        );
+        json.beginObject();
+        while (json.hasNext()) {
+            if ("response".equals(json.nextName())) {
+                json.beginObject();
+                while (json.hasNext()) {
+                    if ("docs".equals(json.nextName())) {
+                        SearchResponse.docs(json, consumer, versioned);
+                    } else {
+                        json.skipValue();
+                    }
+                }
+                json.endObject();
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    /**
+     * Read the array of the documents.
+     *
+     * @param json The tokenizer.
+     * @param consumer The consumer of the documents.
+     * @param versioned Is the version required in every document.
+     * @throws IOException If reading fails, JSON is malformed or a document
+     *  misses a required field.
+     */
+    private static void docs(
+        final JsonTokenizer json, final Consumer<Doc> consumer,
+        final boolean versioned
+    ) throws IOException {
+        final Doc doc = new Doc();
+        json.beginArray();
+        while (json.hasNext()) {
+            doc.clear();
+            json.beginObject();
+            while (json.hasNext()) {
+                final String name = json.nextName();
+                switch (name) {
+                    case "g":
+                        doc.group = json.nextString();
+                        break;
+                    case "a":
+                        doc.name = json.nextString();
+                        break;
+                    case "v":
+                        doc.version = json.nextString();
+                        break;
+                    case "p":
+                        doc.type = json.nextString();
+                        break;
+                    case "timestamp":
+                        doc.timestamp = SearchResponse.number(
+                            json.nextString()
+                        );
+                        break;
+                    default:
+                        json.skipValue();
+                        break;
+                }
+            }
+            json.endObject();
+            doc.validate(versioned);
+            consumer.accept(doc);
+        }
+        json.endArray();
+    }
+
+    /**
+     * Parse the number.
+     *
+     * @param value The number as it's written in JSON.
+     * @return The number or null if the value is null.
+     * @throws IOException If the value is not a number.
+     */
+    private static Long number(final String value) throws IOException {
+        try {
+            final Long result;
+            if (value == null) {
+                result = null;
+            } else {
+                result = Long.valueOf(value);
+            }
+            return result;
+        } catch (final NumberFormatException exception) {
+            throw new IOException(exception);
+        }
+    }
+
+    /**
+     * The fields of one document which we are interested in. The instance is
+     * reused for all the documents of the response.
+     *
+     * @since 2.0
+     */
+    private static final class Doc {
+
+        /**
+         * The group name.
+         */
+        private String group;
+
+        /**
+         * The artifact name.
+         */
+        private String name;
+
+        /**
+         * The version name.
+         */
+        private String version;
+
+        /**
+         * The packaging.
+         */
+        private String type;
+
+        /**
+         * The timestamp of the release.
+         */
+        private Long timestamp;
+
+        /**
+         * Forget the fields of the previous document.
+         */
+        void clear() {
+            this.group = null;
+            this.name = null;
+            this.version = null;
+            this.type = null;
+            this.timestamp = null;
+        }
+
+        /**
+         * Check that the document has the required fields.
+         *
+         * @param versioned Is the version required.
+         * @throws IOException If a required field is missing.
+         */
+        void validate(final boolean versioned) throws IOException {
+            if (this.group == null || this.name == null
+                || versioned && this.version == null) {
+                throw new IOException(
+                    String.format(
+                        "Document misses a required field: g=%s, a=%s, v=%s",
+                        this.group, this.name, this.version
+                    )
+                );
+            }
+        }
+
+        /**
+         * The artifact of the document.
+         *
+         * @return The artifact.
+         */
+        MvnArtifact artifact() {
+            return CoordinatePool.SHARED.artifact(this.group, this.name);
+        }
+
+        /**
+         * The packaging of the document. JAR is the default one.
+         *
+         * @return The packaging.
+         */
+        MvnPackagingType packaging() {
+            MvnPackagingType result = MvnPackagingType.JAR;
+            for (final MvnPackagingType item : MvnPackagingType.values()) {
+                if (item.packaging().equals(this.type)) {
+                    result = item;
+                    break;
+                }
+            }
+            return result;
+        }
+    }
+}
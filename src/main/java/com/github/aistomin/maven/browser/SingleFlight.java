@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The coalescing of the identical concurrent calls. The first caller with the
+ * key runs the call, the callers which come with the same key while it's in
+ * progress wait for it and get the same result or the same exception. The
+ * result is forgotten as soon as the call is over, so nothing is cached.
+ *
+ * @param <K> The type of the key.
+ * @param <V> The type of the result.
+ * @since 2.0
+ */
+public final class SingleFlight<K, V> {
+
+    /**
+     * The calls which are in progress at the moment.
+     */
+    private final ConcurrentMap<K, CompletableFuture<V>> flights;
+
+    /**
+     * The amount of the callers which got the result of another call.
+     */
+    private final AtomicLong joined;
+
+    /**
+     * Ctor.
+     */
+    public SingleFlight() {
+        this.flights = new ConcurrentHashMap<>();
+        this.joined = new AtomicLong();
+    }
+
+    /**
+     * Run the call or join the identical call which is in progress.
+     *
+     * @param key The key of the call.
+     * @param call The call.
+     * @return The result of the call.
+     * @throws MvnException If the call failed or the waiting was interrupted.
+     */
+    public V run(final K key, final Call<V> call) throws MvnException {
+        final CompletableFuture<V> mine = new CompletableFuture<>();
+        final CompletableFuture<V> flight = this.flights.putIfAbsent(key, mine);
+        if (flight != null) {
+            this.joined.incrementAndGet();
+            return SingleFlight.await(flight);
+        }
+        try {
+            final V result = call.call();
+            mine.complete(result);
+            return result;
+        } catch (final MvnException | RuntimeException | Error exception) {
+            mine.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            this.flights.remove(key, mine);
+        }
+    }
+
+    /**
+     * The amount of the calls which are in progress at the moment.
+     *
+     * @return The amount of the calls.
+     */
+    public int inFlight() {
+        return this.flights.size();
+    }
+
+    /**
+     * The amount of the callers which got the result of the call of another
+     * caller instead of running their own.
+     *
+     * @return The amount of the callers.
+     */
+    public long shared() {
+        return this.joined.get();
+    }
+
+    /**
+     * Wait for the call which was started by another caller.
+     *
+     * @param flight The call in progress.
+     * @param <V> The type of the result.
+     * @return The result.
+     * @throws MvnException If the call failed or the waiting was interrupted.
+     */
+    private static <V> V await(
+        final CompletableFuture<V> flight
+    ) throws MvnException {
+        try {
+            return flight.get();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new MvnException(exception);
+        } catch (final ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+            if (cause instanceof MvnException) {
+                throw (MvnException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MvnException(cause);
+        }
+    }
+
+    /**
+     * The call which may be coalesced.
+     *
+     * @param <V> The type of the result.
+     * @since 2.0
+     */
+    @FunctionalInterface
+    public interface Call<V> {
+
+        /**
+         * Run the call.
+         *
+         * @return The result.
+         * @throws MvnException If the call failed.
+         */
+        V call() throws MvnException;
+    }
+}
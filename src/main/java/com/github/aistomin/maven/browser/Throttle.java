@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The limiter of the requests to one endpoint of the remote repository.
+ * The token bucket limits the rate of the requests and allows short bursts.
+ * The concurrency limit is adaptive (AIMD): every successful request raises it
+ * by one per limit's worth of requests, and every overload signal (429, 503
+ * or the network error) halves it. {@link #pause(Duration)} stops all the
+ * requests for a while, which is how "Retry-After" is honored.
+ *
+ * @since 2.0
+ */
+public final class Throttle {
+
+    /**
+     * Default max time to wait for the request to be allowed.
+     */
+    public static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    /**
+     * The factor by which the concurrency limit is decreased on overload.
+     */
+    private static final double DECREASE = 0.5;
+
+    /**
+     * Nanoseconds in one second.
+     */
+    private static final double NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The rate of the requests per second.
+     */
+    private final double rate;
+
+    /**
+     * The capacity of the token bucket.
+     */
+    private final int burst;
+
+    /**
+     * Min concurrency limit.
+     */
+    private final int min;
+
+    /**
+     * Max concurrency limit.
+     */
+    private final int max;
+
+    /**
+     * The lock which guards the state.
+     */
+    private final ReentrantLock lock;
+
+    /**
+     * The condition which is signalled when the state changes.
+     */
+    private final Condition changed;
+
+    /**
+     * The tokens in the bucket.
+     */
+    private double tokens;
+
+    /**
+     * The moment (see {@link System#nanoTime()}) of the last refill.
+     */
+    private long refilled;
+
+    /**
+     * The current concurrency limit.
+     */
+    private double limit;
+
+    /**
+     * The amount of the requests in flight.
+     */
+    private int flying;
+
+    /**
+     * The moment (see {@link System#nanoTime()}) when the pause is over.
+     */
+    private long paused;
+
+    /**
+     * The amount of the overload signals.
+     */
+    private long overloads;
+
+    /**
+     * Ctor.
+     *
+     * @param perSecond The rate of the requests per second.
+     * @param capacity The capacity of the token bucket.
+     * @param lowest Min concurrency limit. The limit starts from it.
+     * @param highest Max concurrency limit.
+     */
+    public Throttle(
+        final double perSecond, final int capacity, final int lowest,
+        final int highest
+    ) {
+        if (perSecond <= 0 || capacity < 1 || lowest < 1
+            || highest < lowest) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Invalid throttle: rate %s, burst %d, limits %d..%d",
+                    perSecond, capacity, lowest, highest
+                )
+            );
+        }
+        this.rate = perSecond;
+        this.burst = capacity;
+        this.min = lowest;
+        this.max = highest;
+        this.lock = new ReentrantLock();
+        this.changed = this.lock.newCondition();
+        this.tokens = capacity;
+        this.refilled = System.nanoTime();
+        this.limit = lowest;
+        this.paused = this.refilled;
+    }
+
+    /**
+     * Wait until the request is allowed, but not longer than
+     * {@link #TIMEOUT}.
+     *
+     * @throws IOException If the waiting timed out or was interrupted.
+     */
+    public void acquire() throws IOException {
+        this.acquire(Throttle.TIMEOUT);
+    }
+
+    /**
+     * Wait until the request is allowed: the throttle is not paused, the
+     * concurrency limit is not reached and the bucket has a token.
+     *
+     * @param timeout Max time to wait.
+     * @throws IOException If the waiting timed out or was interrupted.
+     */
+    public void acquire(final Duration timeout) throws IOException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        this.lock.lock();
+        try {
+            while (true) {
+                final long now = System.nanoTime();
+                this.refill(now);
+                final long wait;
+                if (this.paused - now > 0) {
+                    wait = this.paused - now;
+                } else if (this.flying >= (int) this.limit) {
+                    wait = Long.MAX_VALUE;
+                } else if (this.tokens < 1) {
+                    wait = (long) Math.ceil(
+                        (1 - this.tokens) / this.rate * NANOS
+                    );
+                } else {
+                    this.tokens -= 1;
+                    ++this.flying;
+                    break;
+                }
+                if (deadline - now <= 0) {
+                    throw new IOException(
+                        String.format(
+                            "Timed out after %s waiting for the throttle",
+                            timeout
+                        )
+                    );
+                }
+                this.changed.awaitNanos(Math.min(wait, deadline - now));
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException error = new InterruptedIOException(
+                "Interrupted while waiting for the throttle"
+            );
+            error.initCause(exception);
+            throw error;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Finish the request and adapt the concurrency limit.
+     *
+     * @param overloaded True if the request signalled the overload.
+     */
+    public void release(final boolean overloaded) {
+        this.lock.lock();
+        try {
+            --this.flying;
+            if (overloaded) {
+                ++this.overloads;
+                this.limit = Math.max(this.min, this.limit * DECREASE);
+            } else {
+                this.limit = Math.min(this.max, this.limit + 1 / this.limit);
+            }
+            this.changed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Stop all the requests for a while.
+     *
+     * @param delay How long to wait.
+     */
+    public void pause(final Duration delay) {
+        this.lock.lock();
+        try {
+            final long until = System.nanoTime() + delay.toNanos();
+            if (until - this.paused > 0) {
+                this.paused = until;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * The rate of the requests per second.
+     *
+     * @return The rate.
+     */
+    public double rate() {
+        return this.rate;
+    }
+
+    /**
+     * The current concurrency limit.
+     *
+     * @return The limit.
+     */
+    public int limit() {
+        this.lock.lock();
+        try {
+            return (int) this.limit;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * The amount of the requests in flight.
+     *
+     * @return The amount of the requests.
+     */
+    public int inFlight() {
+        this.lock.lock();
+        try {
+            return this.flying;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * The amount of the overload signals so far.
+     *
+     * @return The amount of the signals.
+     */
+    public long overloads() {
+        this.lock.lock();
+        try {
+            return this.overloads;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Add the tokens which were earned since the last refill.
+     *
+     * @param now The current moment.
+     */
+    private void refill(final long now) {
+        this.tokens = Math.min(
+            this.burst, this.tokens + (now - this.refilled) / NANOS * this.rate
+        );
+        this.refilled = now;
+    }
+}
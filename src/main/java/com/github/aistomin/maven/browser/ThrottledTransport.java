@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The decorator of {@link MvnTransport} which limits the requests with the
+ * {@link Throttle} of the endpoint. The endpoint is the longest configured
+ * URL prefix of the request; the other requests share the fallback throttle.
+ * The request holds its concurrency slot until its response is closed.
+ * "429 Too Many Requests" and "503 Service Unavailable" decrease the
+ * concurrency limit and pause the endpoint for "Retry-After" (one second if
+ * the header is absent); the request is repeated after the pause unless the
+ * attempts are exhausted, and then the response is returned as is. When the
+ * server asks to wait longer than {@link #MAX_WAIT}, the endpoint isn't
+ * paused and the response is returned to the caller at once. The request
+ * waits for the throttle up to {@link Throttle#TIMEOUT} and fails then.
+ *
+ * @since 2.0
+ */
+public final class ThrottledTransport implements MvnTransport {
+
+    /**
+     * Max amount of the attempts of the throttled request.
+     */
+    public static final int ATTEMPTS = 3;
+
+    /**
+     * Max "Retry-After" which is waited out.
+     */
+    public static final Duration MAX_WAIT = Duration.ofSeconds(30);
+
+    /**
+     * The pause when the server doesn't send "Retry-After".
+     */
+    private static final Duration PAUSE = Duration.ofSeconds(1);
+
+    /**
+     * Default rate of the requests per second to the repository.
+     */
+    private static final int REPO_RATE = 20;
+
+    /**
+     * Default max concurrency limit of the repository.
+     */
+    private static final int REPO_LIMIT = 32;
+
+    /**
+     * Default rate of the requests per second to the search API.
+     */
+    private static final int SEARCH_RATE = 5;
+
+    /**
+     * Default max concurrency limit of the search API.
+     */
+    private static final int SEARCH_LIMIT = 8;
+
+    /**
+     * Default rate of the requests per second to the other endpoints.
+     */
+    private static final int OTHER_RATE = 10;
+
+    /**
+     * Default max concurrency limit of the other endpoints.
+     */
+    private static final int OTHER_LIMIT = 16;
+
+    /**
+     * Default min concurrency limit.
+     */
+    private static final int MIN_LIMIT = 4;
+
+    /**
+     * HTTP status "Too Many Requests".
+     */
+    private static final int TOO_MANY = 429;
+
+    /**
+     * HTTP status "Service Unavailable".
+     */
+    private static final int UNAVAILABLE = 503;
+
+    /**
+     * The origin transport.
+     */
+    private final MvnTransport origin;
+
+    /**
+     * The throttles of the endpoints, the longest URL prefix first.
+     */
+    private final Map<String, Throttle> endpoints;
+
+    /**
+     * The throttle of the other requests.
+     */
+    private final Throttle fallback;
+
+    /**
+     * Ctor.
+     *
+     * @param transport The origin transport.
+     * @param limits The throttles of the endpoints by their URL prefixes.
+     * @param other The throttle of the other requests.
+     */
+    public ThrottledTransport(
+        final MvnTransport transport, final Map<String, Throttle> limits,
+        final Throttle other
+    ) {
+        this.origin = transport;
+        final List<String> prefixes = new ArrayList<>(limits.keySet());
+        prefixes.sort(Comparator.comparing(String::length).reversed());
+        this.endpoints = new LinkedHashMap<>(limits.size() * 2);
+        for (final String prefix : prefixes) {
+            this.endpoints.put(prefix, limits.get(prefix));
+        }
+        this.fallback = other;
+    }
+
+    /**
+     * Ctor. Throttles the requests to Maven Central: the repository allows
+     * 20 requests per second and up to 32 concurrent ones, the search API
+     * allows 5 requests per second and up to 8 concurrent ones.
+     *
+     * @param transport The origin transport.
+     */
+    public ThrottledTransport(final MvnTransport transport) {
+        this(
+            transport,
+            Map.of(
+                "https://repo1.maven.org/",
+                new Throttle(REPO_RATE, REPO_RATE, MIN_LIMIT, REPO_LIMIT),
+                "https://search.maven.org/",
+                new Throttle(SEARCH_RATE, SEARCH_RATE, 2, SEARCH_LIMIT)
+            ),
+            new Throttle(OTHER_RATE, OTHER_RATE, MIN_LIMIT, OTHER_LIMIT)
+        );
+    }
+
+    @Override
+    public MvnResponse get(
+        final URI uri, final Map<String, String> headers
+    ) throws IOException {
+        final Throttle throttle = this.throttle(uri);
+        MvnResponse response = null;
+        for (int attempt = 1; response == null; ++attempt) {
+            throttle.acquire();
+            final MvnResponse received;
+            try {
+                received = this.origin.get(uri, headers);
+            } catch (final IOException | RuntimeException exception) {
+                throttle.release(true);
+                throw exception;
+            }
+            final boolean overloaded = received.status() == TOO_MANY
+                || received.status() == UNAVAILABLE;
+            if (overloaded) {
+                final Duration wait = ThrottledTransport.retryAfter(received);
+                if (wait.compareTo(MAX_WAIT) <= 0) {
+                    throttle.pause(wait);
+                    if (attempt < ATTEMPTS) {
+                        throttle.release(true);
+                        received.close();
+                        continue;
+                    }
+                }
+            }
+            response = new MvnResponse(
+                received.status(), received.headers(),
+                new Releasing(received.body(), throttle, overloaded),
+                received.connect()
+            );
+        }
+        return response;
+    }
+
+    /**
+     * The throttle of the request.
+     *
+     * @param uri The URI of the request.
+     * @return The throttle of its endpoint or the fallback one.
+     */
+    public Throttle throttle(final URI uri) {
+        final String url = uri.toString();
+        Throttle found = this.fallback;
+        for (final Map.Entry<String, Throttle> entry
+            : this.endpoints.entrySet()) {
+            if (url.startsWith(entry.getKey())) {
+                found = entry.getValue();
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Render the current limits of the throttles in the Prometheus text
+     * format. The fallback throttle is the endpoint "*".
+     *
+     * @return The metrics.
+     */
+    public String scrape() {
+        final Map<String, Throttle> all = new LinkedHashMap<>(this.endpoints);
+        all.put("*", this.fallback);
+        final StringBuilder out = new StringBuilder(0);
+        out.append("# TYPE mvn_throttle_rate gauge\n");
+        all.forEach(
+            (endpoint, throttle) -> ThrottledTransport.line(
+                out, "mvn_throttle_rate", endpoint, throttle.rate()
+            )
+        );
+        out.append("# TYPE mvn_throttle_limit gauge\n");
+        all.forEach(
+            (endpoint, throttle) -> ThrottledTransport.line(
+                out, "mvn_throttle_limit", endpoint, throttle.limit()
+            )
+        );
+        out.append("# TYPE mvn_throttle_in_flight gauge\n");
+        all.forEach(
+            (endpoint, throttle) -> ThrottledTransport.line(
+                out, "mvn_throttle_in_flight", endpoint, throttle.inFlight()
+            )
+        );
+        out.append("# TYPE mvn_throttle_overloads_total counter\n");
+        all.forEach(
+            (endpoint, throttle) -> ThrottledTransport.line(
+                out, "mvn_throttle_overloads_total", endpoint,
+                throttle.overloads()
+            )
+        );
+        return out.toString();
+    }
+
+    /**
+     * Render one sample of the metric.
+     *
+     * @param out Where to render.
+     * @param name The name of the metric.
+     * @param endpoint The endpoint.
+     * @param value The value.
+     */
+    private static void line(
+        final StringBuilder out, final String name, final String endpoint,
+        final Number value
+    ) {
+        out.append(name).append("{endpoint=\"").append(endpoint)
+            .append("\"} ").append(value).append('\n');
+    }
+
+    /**
+     * How long the server asks to wait: "Retry-After" in seconds or as the
+     * HTTP date.
+     *
+     * @param response The response.
+     * @return The delay, one second if the header is absent or malformed.
+     */
+    static Duration retryAfter(final MvnResponse response) {
+        final String header = response.header("Retry-After");
+        Duration delay = PAUSE;
+        if (header != null) {
+            final String value = header.trim();
+            try {
+                delay = Duration.ofSeconds(Long.parseLong(value));
+            } catch (final NumberFormatException number) {
+                try {
+                    delay = Duration.between(
+                        ZonedDateTime.now(),
+                        ZonedDateTime.parse(
+                            value, DateTimeFormatter.RFC_1123_DATE_TIME
+                        )
+                    );
+                } catch (final DateTimeParseException date) {
+                    delay = PAUSE;
+                }
+            }
+            if (delay.isNegative()) {
+                delay = Duration.ZERO;
+            }
+        }
+        return delay;
+    }
+
+    /**
+     * The response body which releases the throttle when it is closed.
+     *
+     * @since 2.0
+     */
+    private static final class Releasing extends FilterInputStream {
+
+        /**
+         * The throttle.
+         */
+        private final Throttle throttle;
+
+        /**
+         * True if the request signalled the overload.
+         */
+        private final boolean overloaded;
+
+        /**
+         * True if the throttle was released.
+         */
+        private final AtomicBoolean released;
+
+        /**
+         * Ctor.
+         *
+         * @param body The response body.
+         * @param limiter The throttle.
+         * @param overload True if the request signalled the overload.
+         */
+        Releasing(
+            final InputStream body, final Throttle limiter,
+            final boolean overload
+        ) {
+            super(body);
+            this.throttle = limiter;
+            this.overloaded = overload;
+            this.released = new AtomicBoolean();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (this.released.compareAndSet(false, true)) {
+                    this.throttle.release(this.overloaded);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+/**
+ * Wraps {@link MvnException} where the checked exception can not be thrown,
+ * for example from {@link java.util.Iterator} or
+ * {@link java.util.stream.Stream}.
+ *
+ * @since 2.0
+ */
+public final class UncheckedMvnException extends RuntimeException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Ctor.
+     *
+     * @param cause The wrapped exception.
+     */
+    public UncheckedMvnException(final MvnException cause) {
+        super(cause);
+    }
+
+    @Override
+    public MvnException getCause() {
+        return (MvnException) super.getCause();
+    }
+}
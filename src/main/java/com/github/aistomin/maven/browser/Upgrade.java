@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.List;
+
+/**
+ * The available upgrade of the coordinate which is declared in pom.xml, see
+ * {@link UpgradeCheck}.
+ *
+ * @since 2.0
+ */
+public final class Upgrade {
+
+    /**
+     * The declared version.
+     */
+    private final MvnArtifactVersion declared;
+
+    /**
+     * The newer versions, newest first.
+     */
+    private final List<MvnArtifactVersion> newer;
+
+    /**
+     * Ctor.
+     *
+     * @param current The declared version.
+     * @param versions The newer versions, newest first. Must not be empty.
+     */
+    public Upgrade(
+        final MvnArtifactVersion current,
+        final List<MvnArtifactVersion> versions
+    ) {
+        this.declared = current;
+        this.newer = List.copyOf(versions);
+    }
+
+    /**
+     * The declared version.
+     *
+     * @return The version.
+     */
+    public MvnArtifactVersion current() {
+        return this.declared;
+    }
+
+    /**
+     * The versions which are newer than the declared one.
+     *
+     * @return The unmodifiable list of the versions, newest first.
+     */
+    public List<MvnArtifactVersion> versions() {
+        return this.newer;
+    }
+
+    /**
+     * The newest version.
+     *
+     * @return The version.
+     */
+    public MvnArtifactVersion latest() {
+        return this.newer.get(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s -> %s", this.declared.identifier(), this.latest().name()
+        );
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * The check of the available upgrades of all the coordinates which are
+ * declared in pom.xml: the dependencies, the managed dependencies and the
+ * build plugins.
+ * The file is read with the streaming parser and the versions are expanded
+ * with the properties which are declared in it. The duplicate coordinates
+ * are checked once and all the artifacts are looked up concurrently with
+ * {@link BatchLookup}, so the check takes about as long as the slowest
+ * lookup rather than the sum of them.
+ *
+ * @since 2.0
+ */
+public final class UpgradeCheck {
+
+    /**
+     * Default max amount of the concurrent lookups. It's high enough to look
+     * up all the artifacts of the usual multi-module POM in one round trip.
+     */
+    public static final int PARALLELISM = 64;
+
+    /**
+     * The repository.
+     */
+    private final MvnRepo repo;
+
+    /**
+     * Max amount of the concurrent lookups.
+     */
+    private final int parallelism;
+
+    /**
+     * Ctor.
+     *
+     * @param repository The repository.
+     * @param limit Max amount of the concurrent lookups.
+     */
+    public UpgradeCheck(final MvnRepo repository, final int limit) {
+        this.repo = repository;
+        this.parallelism = limit;
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param repository The repository.
+     */
+    public UpgradeCheck(final MvnRepo repository) {
+        this(repository, PARALLELISM);
+    }
+
+    /**
+     * Ctor.
+     */
+    public UpgradeCheck() {
+        this(new MavenCentral());
+    }
+
+    /**
+     * Check the upgrades of the coordinates which are declared in the file.
+     *
+     * @param pom The path of pom.xml.
+     * @return The report.
+     * @throws MvnException If the file can't be read or parsed.
+     */
+    public UpgradeReport report(final Path pom) throws MvnException {
+        try (InputStream input = Files.newInputStream(pom)) {
+            return this.report(input);
+        } catch (final IOException exception) {
+            throw new MvnException(exception);
+        }
+    }
+
+    /**
+     * Check the upgrades of the coordinates which are declared in the
+     * stream.
+     *
+     * @param pom The input stream of pom.xml.
+     * @return The report.
+     * @throws MvnException If the stream can't be parsed.
+     */
+    public UpgradeReport report(final InputStream pom) throws MvnException {
+        final MavenPom parsed;
+        try {
+            parsed = new MavenPom(pom);
+        } catch (final XMLStreamException exception) {
+            throw new MvnException(exception);
+        }
+        final List<PomDependency> declared = new ArrayList<>(
+            parsed.dependencies().size() + parsed.managed().size()
+                + parsed.plugins().size()
+        );
+        declared.addAll(parsed.dependencies());
+        declared.addAll(parsed.managed());
+        declared.addAll(parsed.plugins());
+        final Map<String, MvnArtifactVersion> unique = new LinkedHashMap<>();
+        final List<PomDependency> unresolved = new ArrayList<>(0);
+        for (final PomDependency dep : declared) {
+            final String group = parsed.interpolate(dep.group());
+            final String name = parsed.interpolate(dep.name());
+            final String version = parsed.interpolate(dep.version());
+            if (MavenPom.resolved(group) && MavenPom.resolved(name)
+                && MavenPom.resolved(version)) {
+                unique.computeIfAbsent(
+                    String.join(":", group, name, version),
+                    key -> new MavenArtifactVersion(
+                        CoordinatePool.SHARED.artifact(group, name), version,
+                        DependencyResolver.packaging(dep.type()), null
+                    )
+                );
+            } else {
+                unresolved.add(dep);
+            }
+        }
+        final List<MvnArtifact> artifacts = new ArrayList<>(unique.size());
+        for (final MvnArtifactVersion version : unique.values()) {
+            artifacts.add(version.artifact());
+        }
+        final BatchVersions batch = new BatchLookup(
+            this.repo, this.parallelism
+        ).findVersions(artifacts, 0, Integer.MAX_VALUE);
+        final Map<MvnArtifact, VersionIndex> indexes = new HashMap<>();
+        final List<Upgrade> upgrades = new ArrayList<>(0);
+        for (final MvnArtifactVersion version : unique.values()) {
+            final List<MvnArtifactVersion> all =
+                batch.versions().get(version.artifact());
+            if (all == null) {
+                continue;
+            }
+            final List<MvnArtifactVersion> newer = indexes.computeIfAbsent(
+                version.artifact(), artifact -> new VersionIndex(all)
+            ).newerThan(version);
+            if (!newer.isEmpty()) {
+                upgrades.add(new Upgrade(version, newer));
+            }
+        }
+        return new UpgradeReport(upgrades, batch.failures(), unresolved);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of {@link UpgradeCheck}: the available upgrades of the
+ * coordinates which are declared in pom.xml, the failures of the artifacts
+ * which were not looked up and the coordinates which were not checked
+ * because their versions are not declared in the file.
+ *
+ * @since 2.0
+ */
+public final class UpgradeReport {
+
+    /**
+     * The available upgrades.
+     */
+    private final List<Upgrade> found;
+
+    /**
+     * The failures of the artifacts.
+     */
+    private final Map<MvnArtifact, MvnException> failed;
+
+    /**
+     * The coordinates with the unresolved versions.
+     */
+    private final List<PomDependency> skipped;
+
+    /**
+     * Ctor.
+     *
+     * @param upgrades The available upgrades.
+     * @param failures The failures of the artifacts.
+     * @param unresolved The coordinates with the unresolved versions.
+     */
+    public UpgradeReport(
+        final List<Upgrade> upgrades,
+        final Map<MvnArtifact, MvnException> failures,
+        final List<PomDependency> unresolved
+    ) {
+        this.found = Collections.unmodifiableList(upgrades);
+        this.failed = Collections.unmodifiableMap(failures);
+        this.skipped = Collections.unmodifiableList(unresolved);
+    }
+
+    /**
+     * The available upgrades in the order of declaration. The coordinates
+     * which are up to date are not included.
+     *
+     * @return The upgrades.
+     */
+    public List<Upgrade> upgrades() {
+        return this.found;
+    }
+
+    /**
+     * The failures of the artifacts which were not looked up.
+     *
+     * @return The failure per artifact.
+     */
+    public Map<MvnArtifact, MvnException> failures() {
+        return this.failed;
+    }
+
+    /**
+     * The coordinates which were not checked because their versions are not
+     * declared in the file or refer to the properties which are not declared
+     * in it, e.g. they are managed by the parent.
+     *
+     * @return The coordinates.
+     */
+    public List<PomDependency> unresolved() {
+        return this.skipped;
+    }
+}
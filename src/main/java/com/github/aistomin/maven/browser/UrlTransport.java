@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The transport which uses {@link URLConnection} to read the resources.
+ *
+ * @since 2.0
+ */
+public final class UrlTransport implements MvnTransport {
+
+    /**
+     * The lowest HTTP status code which means an error.
+     */
+    private static final int ERROR = 400;
+
+    @Override
+    public MvnResponse get(
+        final URI uri, final Map<String, String> headers
+    ) throws IOException {
+        final URLConnection connection = uri.toURL().openConnection();
+        headers.forEach(connection::setRequestProperty);
+        final long start = System.nanoTime();
+        connection.connect();
+        final Duration connect = Duration.ofNanos(System.nanoTime() - start);
+        final MvnResponse response;
+        if (connection instanceof HttpURLConnection) {
+            final HttpURLConnection http = (HttpURLConnection) connection;
+            final int status = http.getResponseCode();
+            InputStream body;
+            if (status < UrlTransport.ERROR) {
+                body = http.getInputStream();
+            } else {
+                body = http.getErrorStream();
+            }
+            if (body == null) {
+                body = new ByteArrayInputStream(new byte[0]);
+            }
+            response = new MvnResponse(
+                status, http.getHeaderFields(), body, connect
+            );
+        } else {
+            response = new MvnResponse(
+                MvnResponse.OK, connection.getHeaderFields(),
+                connection.getInputStream(), connect
+            );
+        }
+        return response;
+    }
+}
@@ -0,0 +1,553 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * The enrichment of the versions with their real packaging and release
+ * timestamp, e.g. of the versions which are returned by
+ * {@link MavenCentral#findVersions(MvnArtifact)} with JAR packaging and
+ * without the timestamp.
+ * The versions of many artifacts are looked up in one query to the "gav" core
+ * of the search API which returns only the needed fields. All the versions
+ * which the query returns are cached by their coordinates, so the later
+ * enrichments of the same artifacts don't call the API. The query reads the
+ * pages until it finds all the requested versions, but not more than
+ * {@link #PAGES} pages. The versions which the successful query doesn't
+ * return are read from their POMs: the packaging is taken from the POM and
+ * the timestamp from its "Last-Modified" header. The versions of the failed
+ * queries are not read from the POMs; they are counted as failures.
+ * The queries run concurrently, but not more than the configured amount at
+ * the same time. The versions which were not found anywhere are returned as
+ * they are and are not cached.
+ * The cache keeps up to the configured amount of the versions and evicts the
+ * least recently used ones; one cached version occupies about 200 bytes, so
+ * the default {@link #MAX_ENTRIES} costs about 20 MB.
+ *
+ * @since 2.0
+ */
+public final class VersionEnricher {
+
+    /**
+     * Default max amount of the artifacts in one query.
+     */
+    public static final int BATCH = 20;
+
+    /**
+     * Default max amount of the concurrent requests.
+     */
+    public static final int PARALLELISM = 8;
+
+    /**
+     * Default max amount of the cached versions.
+     */
+    public static final int MAX_ENTRIES = 100_000;
+
+    /**
+     * Max amount of the pages which one query reads.
+     */
+    public static final int PAGES = 50;
+
+    /**
+     * The amount of the versions in one page of the query.
+     */
+    private static final int ROWS = 200;
+
+    /**
+     * The fields which are returned by the search API.
+     */
+    private static final String FIELDS = "g,a,v,p,timestamp";
+
+    /**
+     * Initial capacity of the cache map.
+     */
+    private static final int CAPACITY = 16;
+
+    /**
+     * Load factor of the cache map.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The Maven repo base URL.
+     */
+    private final String repo;
+
+    /**
+     * The Maven search API URL.
+     */
+    private final String search;
+
+    /**
+     * The transport which we use to read the data.
+     */
+    private final MvnTransport transport;
+
+    /**
+     * Max amount of the artifacts in one query.
+     */
+    private final int batch;
+
+    /**
+     * Max amount of the concurrent requests.
+     */
+    private final int parallelism;
+
+    /**
+     * Max amount of the cached versions.
+     */
+    private final int entries;
+
+    /**
+     * The enriched versions by their identifiers in the access order (the
+     * eldest goes first).
+     */
+    private final Map<String, MvnArtifactVersion> cache;
+
+    /**
+     * The amount of the requests.
+     */
+    private final AtomicLong count;
+
+    /**
+     * The amount of the versions which failed.
+     */
+    private final AtomicLong failed;
+
+    /**
+     * Ctor.
+     *
+     * @param repository The Maven repo base URL.
+     * @param searchApi The Maven search API URL.
+     * @param http The transport which we use to read the data.
+     * @param size Max amount of the artifacts in one query.
+     * @param limit Max amount of the concurrent requests.
+     * @param max Max amount of the cached versions.
+     */
+    public VersionEnricher(
+        final String repository, final String searchApi,
+        final MvnTransport http, final int size, final int limit,
+        final int max
+    ) {
+        if (size < 1 || limit < 1 || max < 1) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Batch, parallelism and cache must be positive: %d, %d, %d",
+                    size, limit, max
+                )
+            );
+        }
+        this.repo = repository;
+        this.search = searchApi;
+        this.transport = http;
+        this.batch = size;
+        this.parallelism = limit;
+        this.entries = max;
+        this.cache = new LinkedHashMap<>(CAPACITY, LOAD_FACTOR, true);
+        this.count = new AtomicLong();
+        this.failed = new AtomicLong();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param repository The Maven repo base URL.
+     * @param searchApi The Maven search API URL.
+     * @param http The transport which we use to read the data.
+     * @param size Max amount of the artifacts in one query.
+     * @param limit Max amount of the concurrent requests.
+     */
+    public VersionEnricher(
+        final String repository, final String searchApi,
+        final MvnTransport http, final int size, final int limit
+    ) {
+        this(repository, searchApi, http, size, limit, MAX_ENTRIES);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param repository The Maven repo base URL.
+     * @param searchApi The Maven search API URL.
+     * @param http The transport which we use to read the data.
+     */
+    public VersionEnricher(
+        final String repository, final String searchApi,
+        final MvnTransport http
+    ) {
+        this(repository, searchApi, http, BATCH, PARALLELISM);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param http The transport which we use to read the data.
+     */
+    public VersionEnricher(final MvnTransport http) {
+        this(
+            "https://repo1.maven.org/maven2",
+            "https://search.maven.org/solrsearch/select",
+            http
+        );
+    }
+
+    /**
+     * Ctor.
+     */
+    public VersionEnricher() {
+        this(new HttpClientTransport());
+    }
+
+    /**
+     * Fill the packaging and the release timestamp of the versions.
+     *
+     * @param versions The versions.
+     * @return The enriched versions in the same order.
+     */
+    public List<MvnArtifactVersion> enrich(
+        final List<? extends MvnArtifactVersion> versions
+    ) {
+        final Map<String, MvnArtifactVersion> found = new HashMap<>();
+        final Map<MvnArtifact, List<MvnArtifactVersion>> missing =
+            new LinkedHashMap<>();
+        for (final MvnArtifactVersion version : versions) {
+            final MvnArtifactVersion cached = this.cached(version.identifier());
+            if (cached == null) {
+                missing.computeIfAbsent(
+                    version.artifact(), artifact -> new ArrayList<>(1)
+                ).add(version);
+            } else {
+                found.put(version.identifier(), cached);
+            }
+        }
+        if (!missing.isEmpty()) {
+            found.putAll(this.lookup(missing));
+        }
+        final List<MvnArtifactVersion> result =
+            new ArrayList<>(versions.size());
+        for (final MvnArtifactVersion version : versions) {
+            result.add(found.getOrDefault(version.identifier(), version));
+        }
+        return result;
+    }
+
+    /**
+     * The amount of the cached versions.
+     *
+     * @return The amount of the versions.
+     */
+    public int size() {
+        synchronized (this.cache) {
+            return this.cache.size();
+        }
+    }
+
+    /**
+     * The amount of the requests to the search API and to the repository.
+     *
+     * @return The amount of the requests.
+     */
+    public long requests() {
+        return this.count.get();
+    }
+
+    /**
+     * The amount of the versions which failed: their query or their POM
+     * request failed. Such versions are returned as they are.
+     *
+     * @return The amount of the failures.
+     */
+    public long failures() {
+        return this.failed.get();
+    }
+
+    /**
+     * Look up the versions in the search API and then the versions which the
+     * successful queries didn't return in the repository.
+     *
+     * @param missing The versions which are not cached by their artifacts.
+     * @return The found versions by their identifiers.
+     */
+    private Map<String, MvnArtifactVersion> lookup(
+        final Map<MvnArtifact, List<MvnArtifactVersion>> missing
+    ) {
+        final Map<String, MvnArtifactVersion> found =
+            new ConcurrentHashMap<>();
+        final Set<MvnArtifact> queried = ConcurrentHashMap.newKeySet();
+        final List<MvnArtifact> artifacts = new ArrayList<>(missing.keySet());
+        final List<Task> queries = new ArrayList<>(0);
+        for (int from = 0; from < artifacts.size(); from += this.batch) {
+            final List<MvnArtifact> chunk = artifacts.subList(
+                from, Math.min(from + this.batch, artifacts.size())
+            );
+            queries.add(
+                () -> {
+                    this.query(chunk, missing, found);
+                    queried.addAll(chunk);
+                }
+            );
+        }
+        this.run(queries);
+        final List<Task> poms = new ArrayList<>(0);
+        for (final Map.Entry<MvnArtifact, List<MvnArtifactVersion>> entry
+            : missing.entrySet()) {
+            if (!queried.contains(entry.getKey())) {
+                this.failed.addAndGet(entry.getValue().size());
+                continue;
+            }
+            for (final MvnArtifactVersion version : entry.getValue()) {
+                if (!found.containsKey(version.identifier())) {
+                    poms.add(() -> this.pom(version, found));
+                }
+            }
+        }
+        this.failed.addAndGet(this.run(poms));
+        return found;
+    }
+
+    /**
+     * Query the versions of the artifacts from the search API page by page
+     * and cache them. The paging stops when all the requested versions are
+     * found or after {@link #PAGES} pages.
+     *
+     * @param artifacts The artifacts.
+     * @param missing The requested versions by their artifacts.
+     * @param found The found requested versions by their identifiers.
+     * @throws IOException If reading fails.
+     */
+    private void query(
+        final List<MvnArtifact> artifacts,
+        final Map<MvnArtifact, List<MvnArtifactVersion>> missing,
+        final Map<String, MvnArtifactVersion> found
+    ) throws IOException {
+        final List<String> clauses = new ArrayList<>(artifacts.size());
+        final Set<String> wanted = new HashSet<>();
+        for (final MvnArtifact artifact : artifacts) {
+            clauses.add(
+                String.format(
+                    "(g:\"%s\" AND a:\"%s\")",
+                    artifact.group().name(), artifact.name()
+                )
+            );
+            for (final MvnArtifactVersion version : missing.get(artifact)) {
+                wanted.add(version.identifier());
+            }
+        }
+        final String query = URLEncoder.encode(
+            String.join(" OR ", clauses), StandardCharsets.UTF_8
+        );
+        int start = 0;
+        int received = ROWS;
+        for (int pages = 0; received == ROWS && pages < PAGES
+            && !wanted.isEmpty(); ++pages) {
+            final String url = String.format(
+                "%s?q=%s&core=gav&fl=%s&start=%d&rows=%d&wt=json",
+                this.search, query, FIELDS, start, ROWS
+            );
+            final int[] page = new int[1];
+            try (MvnResponse response = this.fetch(url)) {
+                new SearchResponse(response.body()).versions(
+                    version -> {
+                        this.remember(version);
+                        if (wanted.remove(version.identifier())) {
+                            found.put(version.identifier(), version);
+                        }
+                        ++page[0];
+                    }
+                );
+            }
+            received = page[0];
+            start += received;
+        }
+    }
+
+    /**
+     * Read the packaging and the timestamp of the version from its POM and
+     * cache the version.
+     *
+     * @param version The version.
+     * @param found The found requested versions by their identifiers.
+     * @throws IOException If reading fails.
+     * @throws XMLStreamException If XML parsing fails.
+     */
+    private void pom(
+        final MvnArtifactVersion version,
+        final Map<String, MvnArtifactVersion> found
+    ) throws IOException, XMLStreamException {
+        try (
+            MvnResponse response = this.fetch(
+                MavenCentral.pomUrl(this.repo, version)
+            );
+            InputStream body = response.body()
+        ) {
+            final MavenPom pom = new MavenPom(body);
+            final MvnArtifactVersion enriched = new MavenArtifactVersion(
+                version.artifact(), version.name(),
+                DependencyResolver.packaging(pom.packaging()),
+                VersionEnricher.timestamp(response.header("Last-Modified"))
+            );
+            this.remember(enriched);
+            found.put(version.identifier(), enriched);
+        }
+    }
+
+    /**
+     * The cached version.
+     *
+     * @param identifier The identifier of the version.
+     * @return The version or null if it isn't cached.
+     */
+    private MvnArtifactVersion cached(final String identifier) {
+        synchronized (this.cache) {
+            return this.cache.get(identifier);
+        }
+    }
+
+    /**
+     * Cache the version and evict the least recently used versions if the
+     * cache is full.
+     *
+     * @param version The version.
+     */
+    private void remember(final MvnArtifactVersion version) {
+        synchronized (this.cache) {
+            this.cache.put(version.identifier(), version);
+            final Iterator<MvnArtifactVersion> iterator =
+                this.cache.values().iterator();
+            while (this.cache.size() > this.entries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Read the resource.
+     *
+     * @param url The URL of the resource.
+     * @return The successful response.
+     * @throws IOException If reading fails or the response is not successful.
+     */
+    private MvnResponse fetch(final String url) throws IOException {
+        this.count.incrementAndGet();
+        final MvnResponse response =
+            this.transport.get(URI.create(url), Collections.emptyMap());
+        if (response.status() != MvnResponse.OK) {
+            response.close();
+            throw new IOException(
+                String.format("HTTP %d: %s", response.status(), url)
+            );
+        }
+        return response;
+    }
+
+    /**
+     * Run the tasks concurrently, but not more than the configured amount at
+     * the same time, and wait for them.
+     *
+     * @param tasks The tasks.
+     * @return The amount of the failed tasks.
+     */
+    private long run(final List<Task> tasks) {
+        final AtomicLong failures = new AtomicLong();
+        final Semaphore permits = new Semaphore(this.parallelism);
+        try (ExecutorService threads =
+            Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final Task task : tasks) {
+                threads.execute(
+                    () -> {
+                        try {
+                            permits.acquire();
+                            try {
+                                task.run();
+                            } finally {
+                                permits.release();
+                            }
+                        } catch (final InterruptedException exception) {
+                            Thread.currentThread().interrupt();
+                            failures.incrementAndGet();
+                        } catch (final IOException | XMLStreamException
+                            | IllegalArgumentException exception) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                );
+            }
+        }
+        return failures.get();
+    }
+
+    /**
+     * Parse the HTTP date as the amount of milliseconds since the epoch, as
+     * the search API returns the timestamps.
+     *
+     * @param date The HTTP date or null.
+     * @return The timestamp or null if the date is absent or malformed.
+     */
+    private static Long timestamp(final String date) {
+        Long result = null;
+        if (date != null) {
+            try {
+                result = ZonedDateTime.parse(
+                    date.trim(), DateTimeFormatter.RFC_1123_DATE_TIME
+                ).toInstant().toEpochMilli();
+            } catch (final DateTimeParseException exception) {
+                result = null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The request which may fail.
+     *
+     * @since 2.0
+     */
+    @FunctionalInterface
+    private interface Task {
+
+        /**
+         * Run the request.
+         *
+         * @throws IOException If reading fails.
+         * @throws XMLStreamException If XML parsing fails.
+         */
+        void run() throws IOException, XMLStreamException;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The index of the versions of one artifact which are sorted by
+ * {@link MvnArtifactVersion#key()}, newest first. The range queries are
+ * answered with the binary search and return the views of the index, so they
+ * neither scan nor copy the versions.
+ *
+ * @since 2.0
+ */
+public final class VersionIndex {
+
+    /**
+     * The versions in the order in which the repository returned them.
+     */
+    private final List<MvnArtifactVersion> original;
+
+    /**
+     * The versions sorted newest first.
+     */
+    private final List<MvnArtifactVersion> sorted;
+
+    /**
+     * Ctor.
+     *
+     * @param versions The versions of the artifact.
+     */
+    public VersionIndex(final List<MvnArtifactVersion> versions) {
+        this.original = List.copyOf(versions);
+        final List<MvnArtifactVersion> order = new ArrayList<>(this.original);
+        order.sort(
+            Comparator.comparing(MvnArtifactVersion::key).reversed()
+        );
+        this.sorted = List.copyOf(order);
+    }
+
+    /**
+     * The versions in the order in which the repository returned them.
+     *
+     * @return The unmodifiable list of the versions.
+     */
+    public List<MvnArtifactVersion> versions() {
+        return this.original;
+    }
+
+    /**
+     * The versions sorted newest first.
+     *
+     * @return The unmodifiable list of the versions.
+     */
+    public List<MvnArtifactVersion> sorted() {
+        return this.sorted;
+    }
+
+    /**
+     * Check whether the index contains the version with the same name.
+     *
+     * @param version The version.
+     * @return True if there is such version.
+     */
+    public boolean contains(final MvnArtifactVersion version) {
+        boolean found = false;
+        final int end = this.older(version.key());
+        for (int idx = this.notNewer(version.key()); idx < end; ++idx) {
+            if (this.sorted.get(idx).name().equals(version.name())) {
+                found = true;
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Make sure that the index contains the version with the same name.
+     *
+     * @param version The version.
+     * @return This index.
+     * @throws IllegalStateException If there is no such version.
+     */
+    public VersionIndex require(final MvnArtifactVersion version) {
+        if (!this.contains(version)) {
+            throw new IllegalStateException(
+                String.format(
+                    "%s %s was not found in the repository.",
+                    version.artifact().name(),
+                    version.name()
+                )
+            );
+        }
+        return this;
+    }
+
+    /**
+     * The versions which are newer than provided one.
+     *
+     * @param version The version.
+     * @return The unmodifiable view of the versions, newest first.
+     */
+    public List<MvnArtifactVersion> newerThan(
+        final MvnArtifactVersion version
+    ) {
+        return this.sorted.subList(0, this.notNewer(version.key()));
+    }
+
+    /**
+     * The versions which are older than provided one.
+     *
+     * @param version The version.
+     * @return The unmodifiable view of the versions, newest first.
+     */
+    public List<MvnArtifactVersion> olderThan(
+        final MvnArtifactVersion version
+    ) {
+        return this.sorted.subList(
+            this.older(version.key()), this.sorted.size()
+        );
+    }
+
+    /**
+     * The versions which are newer than the first version, but not newer than
+     * the second one.
+     *
+     * @param from The version to start from (exclusive).
+     * @param to The version to end with (inclusive).
+     * @return The unmodifiable view of the versions, newest first.
+     */
+    public List<MvnArtifactVersion> between(
+        final MvnArtifactVersion from, final MvnArtifactVersion to
+    ) {
+        final int start = this.notNewer(to.key());
+        return this.sorted.subList(
+            start, Math.max(start, this.notNewer(from.key()))
+        );
+    }
+
+    /**
+     * The newest versions.
+     *
+     * @param amount The max amount of the versions.
+     * @return The unmodifiable view of the versions, newest first.
+     */
+    public List<MvnArtifactVersion> latest(final int amount) {
+        return this.sorted.subList(
+            0, Math.max(0, Math.min(amount, this.sorted.size()))
+        );
+    }
+
+    /**
+     * Find the position of the first version which is not newer than the key.
+     *
+     * @param key The version key.
+     * @return The position.
+     */
+    private int notNewer(final MvnVersionKey key) {
+        int low = 0;
+        int high = this.sorted.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (this.sorted.get(mid).key().compareTo(key) > 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the position of the first version which is older than the key.
+     *
+     * @param key The version key.
+     * @return The position.
+     */
+    private int older(final MvnVersionKey key) {
+        int low = 0;
+        int high = this.sorted.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (this.sorted.get(mid).key().compareTo(key) >= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
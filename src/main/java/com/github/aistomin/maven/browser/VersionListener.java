@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.List;
+
+/**
+ * The listener of {@link VersionWatcher} which is notified about the newly
+ * released versions of the watched artifacts.
+ *
+ * @since 2.0
+ */
+public interface VersionListener {
+
+    /**
+     * The new versions of the artifact appeared in the repository.
+     *
+     * @param versions The new versions of one artifact, newest first.
+     */
+    void released(List<MvnArtifactVersion> versions);
+
+    /**
+     * The poll of the artifact failed. Does nothing by default.
+     *
+     * @param artifact The artifact.
+     * @param error The error.
+     */
+    default void failed(final MvnArtifact artifact, final MvnException error) {
+        // Nothing to do by default.
+    }
+}
@@ -0,0 +1,583 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * The watcher which polls maven-metadata.xml of the watched artifacts and
+ * notifies the {@link VersionListener}s about the newly released versions.
+ * The first successful poll of the artifact only remembers its versions.
+ * Every next poll is the conditional request with the validators of the
+ * previous response, so the unchanged metadata costs "304 Not Modified".
+ * When the metadata is downloaded but its "lastUpdated" didn't change, the
+ * versions are not compared at all.
+ * After {@link #start()} every artifact is polled on its own schedule: the
+ * interval is randomly stretched or shrunk by the jitter, so the polls don't
+ * come in bursts. The network errors, "429 Too Many Requests" and the server
+ * errors back off the whole host exponentially; its artifacts are not polled
+ * until the backoff is over.
+ * Every listener is notified on its own: the exception of one listener is
+ * passed to the uncaught exception handler of the polling thread and the
+ * other listeners are still notified.
+ *
+ * @since 2.0
+ */
+public final class VersionWatcher implements Closeable {
+
+    /**
+     * Default interval between the polls of the artifact.
+     */
+    public static final Duration INTERVAL = Duration.ofMinutes(10);
+
+    /**
+     * Default jitter of the interval: the share by which the interval may be
+     * randomly stretched or shrunk.
+     */
+    public static final double JITTER = 0.2;
+
+    /**
+     * The backoff of the host after its first error. It doubles with every
+     * next error.
+     */
+    public static final Duration BACKOFF = Duration.ofSeconds(30);
+
+    /**
+     * Max backoff of the host.
+     */
+    public static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    /**
+     * The amount of the threads which poll the artifacts.
+     */
+    private static final int THREADS = 4;
+
+    /**
+     * HTTP status "Too Many Requests".
+     */
+    private static final int TOO_MANY = 429;
+
+    /**
+     * The first HTTP status of the server errors.
+     */
+    private static final int SERVER_ERROR = 500;
+
+    /**
+     * Header "ETag".
+     */
+    private static final String ETAG = "ETag";
+
+    /**
+     * Header "Last-Modified".
+     */
+    private static final String MODIFIED = "Last-Modified";
+
+    /**
+     * The Maven repo base URL.
+     */
+    private final String repo;
+
+    /**
+     * The transport which reads the metadata.
+     */
+    private final MvnTransport transport;
+
+    /**
+     * The interval between the polls of the artifact in nanoseconds.
+     */
+    private final long interval;
+
+    /**
+     * The jitter of the interval.
+     */
+    private final double jitter;
+
+    /**
+     * The watched artifacts.
+     */
+    private final Map<MvnArtifact, Watch> watches;
+
+    /**
+     * The listeners.
+     */
+    private final List<VersionListener> listeners;
+
+    /**
+     * The backoffs of the hosts.
+     */
+    private final Map<String, Backoff> hosts;
+
+    /**
+     * The scheduler of the polls or null if the watcher is not started.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Ctor.
+     *
+     * @param repository The Maven repo base URL.
+     * @param http The transport which reads the metadata.
+     * @param period The interval between the polls of the artifact.
+     * @param spread The jitter of the interval, from 0 inclusive to 1
+     *  exclusive.
+     */
+    public VersionWatcher(
+        final String repository, final MvnTransport http,
+        final Duration period, final double spread
+    ) {
+        if (spread < 0 || spread >= 1) {
+            throw new IllegalArgumentException(
+                String.format("The jitter must be in [0, 1): %s", spread)
+            );
+        }
+        this.repo = repository;
+        this.transport = http;
+        this.interval = period.toNanos();
+        this.jitter = spread;
+        this.watches = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.hosts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Ctor. Watches Maven Central.
+     *
+     * @param http The transport which reads the metadata.
+     * @param period The interval between the polls of the artifact.
+     */
+    public VersionWatcher(final MvnTransport http, final Duration period) {
+        this("https://repo1.maven.org/maven2", http, period, JITTER);
+    }
+
+    /**
+     * Ctor. Watches Maven Central.
+     */
+    public VersionWatcher() {
+        this(new HttpClientTransport(), INTERVAL);
+    }
+
+    /**
+     * Start watching the artifact.
+     *
+     * @param artifact The artifact.
+     * @return This watcher.
+     */
+    public VersionWatcher watch(final MvnArtifact artifact) {
+        final Watch watch = new Watch(artifact);
+        if (this.watches.putIfAbsent(artifact, watch) == null) {
+            synchronized (this) {
+                if (this.scheduler != null) {
+                    this.schedule(
+                        watch,
+                        (long) (ThreadLocalRandom.current().nextDouble()
+                            * this.interval)
+                    );
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Stop watching the artifact.
+     *
+     * @param artifact The artifact.
+     */
+    public void unwatch(final MvnArtifact artifact) {
+        this.watches.remove(artifact);
+    }
+
+    /**
+     * Add the listener.
+     *
+     * @param listener The listener.
+     * @return This watcher.
+     */
+    public VersionWatcher listen(final VersionListener listener) {
+        this.listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Start polling the watched artifacts in the background. The first polls
+     * are spread randomly over one interval.
+     */
+    public synchronized void start() {
+        if (this.scheduler == null) {
+            this.scheduler = Executors.newScheduledThreadPool(
+                THREADS,
+                Thread.ofPlatform().daemon().name("version-watcher-", 0)
+                    .factory()
+            );
+            for (final Watch watch : this.watches.values()) {
+                this.schedule(
+                    watch,
+                    (long) (ThreadLocalRandom.current().nextDouble()
+                        * this.interval)
+                );
+            }
+        }
+    }
+
+    /**
+     * Poll all the watched artifacts now, except the ones whose host is
+     * backing off.
+     *
+     * @return The amount of the new versions.
+     */
+    public int poll() {
+        int found = 0;
+        for (final Watch watch : this.watches.values()) {
+            found += this.check(watch);
+        }
+        return found;
+    }
+
+    /**
+     * Stop polling the artifacts in the background.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Schedule the poll of the artifact.
+     *
+     * @param watch The watched artifact.
+     * @param delay The delay in nanoseconds.
+     */
+    private synchronized void schedule(final Watch watch, final long delay) {
+        if (this.scheduler != null) {
+            this.scheduler.schedule(
+                () -> this.run(watch), delay, TimeUnit.NANOSECONDS
+            );
+        }
+    }
+
+    /**
+     * Poll the artifact in the background and schedule its next poll unless
+     * it is not watched anymore.
+     *
+     * @param watch The watched artifact.
+     */
+    private void run(final Watch watch) {
+        if (this.watches.get(watch.artifact) == watch) {
+            try {
+                this.check(watch);
+            } finally {
+                final double factor = 1 + this.jitter
+                    * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+                this.schedule(
+                    watch,
+                    Math.max(
+                        (long) (this.interval * factor),
+                        this.backoff(watch).remaining()
+                    )
+                );
+            }
+        }
+    }
+
+    /**
+     * Poll the artifact unless its host is backing off and notify the
+     * listeners.
+     *
+     * @param watch The watched artifact.
+     * @return The amount of the new versions.
+     */
+    private int check(final Watch watch) {
+        final Backoff backoff = this.backoff(watch);
+        int found = 0;
+        if (backoff.remaining() == 0) {
+            try {
+                final List<MvnArtifactVersion> fresh = this.fetch(watch);
+                backoff.reset();
+                if (!fresh.isEmpty()) {
+                    this.announce(listener -> listener.released(fresh));
+                }
+                found = fresh.size();
+            } catch (final IOException | XMLStreamException exception) {
+                if (!(exception instanceof HttpStatusException)
+                    || ((HttpStatusException) exception).retryable()) {
+                    backoff.fail();
+                }
+                final MvnException error = new MvnException(exception);
+                this.announce(
+                    listener -> listener.failed(watch.artifact, error)
+                );
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Notify every listener. The exception of the listener is passed to the
+     * uncaught exception handler of the current thread, so it doesn't stop
+     * the other listeners and isn't lost in the scheduled task.
+     *
+     * @param event The notification of one listener.
+     */
+    private void announce(final Consumer<VersionListener> event) {
+        for (final VersionListener listener : this.listeners) {
+            try {
+                event.accept(listener);
+            } catch (final RuntimeException exception) {
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler()
+                    .uncaughtException(thread, exception);
+            }
+        }
+    }
+
+    /**
+     * Read the metadata of the artifact with the conditional request and find
+     * the new versions.
+     *
+     * @param watch The watched artifact.
+     * @return The new versions, newest first.
+     * @throws IOException If the metadata can't be read.
+     * @throws XMLStreamException If the metadata is malformed.
+     */
+    private List<MvnArtifactVersion> fetch(
+        final Watch watch
+    ) throws IOException, XMLStreamException {
+        final String url = MavenCentral.metadataUrl(this.repo, watch.artifact);
+        synchronized (watch) {
+            final Map<String, String> headers = new HashMap<>(2);
+            if (watch.etag != null) {
+                headers.put("If-None-Match", watch.etag);
+            }
+            if (watch.modified != null) {
+                headers.put("If-Modified-Since", watch.modified);
+            }
+            try (MvnResponse response = this.transport.get(
+                URI.create(url), headers
+            )) {
+                final List<MvnArtifactVersion> fresh;
+                if (response.status() == MvnResponse.NOT_MODIFIED) {
+                    fresh = List.of();
+                } else if (response.status() == MvnResponse.OK) {
+                    final MavenMetadata metadata =
+                        new MavenMetadata(response.body());
+                    watch.etag = response.header(ETAG);
+                    watch.modified = response.header(MODIFIED);
+                    fresh = watch.update(metadata);
+                } else {
+                    throw new HttpStatusException(response.status(), url);
+                }
+                return fresh;
+            }
+        }
+    }
+
+    /**
+     * The backoff of the host which serves the metadata of the artifact.
+     *
+     * @param watch The watched artifact.
+     * @return The backoff.
+     */
+    private Backoff backoff(final Watch watch) {
+        final String url = MavenCentral.metadataUrl(this.repo, watch.artifact);
+        return this.hosts.computeIfAbsent(
+            Objects.toString(URI.create(url).getHost(), this.repo),
+            key -> new Backoff()
+        );
+    }
+
+    /**
+     * The watched artifact.
+     *
+     * @since 2.0
+     */
+    private static final class Watch {
+
+        /**
+         * The artifact.
+         */
+        private final MvnArtifact artifact;
+
+        /**
+         * The names of the known versions or null before the first poll.
+         */
+        private Set<String> known;
+
+        /**
+         * "lastUpdated" of the last read metadata.
+         */
+        private String updated;
+
+        /**
+         * "ETag" of the last response.
+         */
+        private String etag;
+
+        /**
+         * "Last-Modified" of the last response.
+         */
+        private String modified;
+
+        /**
+         * Ctor.
+         *
+         * @param watched The artifact.
+         */
+        Watch(final MvnArtifact watched) {
+            this.artifact = watched;
+        }
+
+        /**
+         * Remember the versions of the metadata and find the new ones.
+         *
+         * @param metadata The metadata.
+         * @return The new versions, newest first.
+         */
+        List<MvnArtifactVersion> update(final MavenMetadata metadata) {
+            final List<MvnArtifactVersion> fresh;
+            if (this.known == null) {
+                this.known = new HashSet<>(metadata.versions());
+                fresh = List.of();
+            } else if (metadata.lastUpdated() != null
+                && metadata.lastUpdated().equals(this.updated)) {
+                fresh = List.of();
+            } else {
+                final List<String> names = new ArrayList<>(0);
+                for (final String name : metadata.versions()) {
+                    if (this.known.add(name)) {
+                        names.add(name);
+                    }
+                }
+                fresh = new VersionIndex(
+                    MavenCentral.versions(this.artifact, names)
+                ).sorted();
+            }
+            this.updated = metadata.lastUpdated();
+            return fresh;
+        }
+    }
+
+    /**
+     * The exponential backoff of the host.
+     *
+     * @since 2.0
+     */
+    private static final class Backoff {
+
+        /**
+         * Max shift of the first backoff.
+         */
+        private static final int MAX_SHIFT = 20;
+
+        /**
+         * The amount of the errors in a row.
+         */
+        private int errors;
+
+        /**
+         * The moment (see {@link System#nanoTime()}) when the backoff is over.
+         */
+        private long until;
+
+        /**
+         * The nanoseconds until the backoff is over.
+         *
+         * @return The nanoseconds or zero if the host is not backing off.
+         */
+        synchronized long remaining() {
+            return Math.max(0, this.until - System.nanoTime());
+        }
+
+        /**
+         * Back off after the error.
+         */
+        synchronized void fail() {
+            final long delay = Math.min(
+                BACKOFF.toNanos() << Math.min(this.errors, MAX_SHIFT),
+                MAX_BACKOFF.toNanos()
+            );
+            ++this.errors;
+            this.until = System.nanoTime() + delay;
+        }
+
+        /**
+         * Stop backing off after the success.
+         */
+        synchronized void reset() {
+            this.errors = 0;
+            this.until = 0;
+        }
+    }
+
+    /**
+     * The unsuccessful HTTP status of the response.
+     *
+     * @since 2.0
+     */
+    private static final class HttpStatusException extends IOException {
+
+        /**
+         * Serialization marker.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The HTTP status.
+         */
+        private final int status;
+
+        /**
+         * Ctor.
+         *
+         * @param code The HTTP status.
+         * @param url The URL of the resource.
+         */
+        HttpStatusException(final int code, final String url) {
+            super(String.format("HTTP %d: %s", code, url));
+            this.status = code;
+        }
+
+        /**
+         * Check whether the host should back off: the server is overloaded
+         * or broken.
+         *
+         * @return True if it should.
+         */
+        boolean retryable() {
+            return this.status == TOO_MANY || this.status >= SERVER_ERROR;
+        }
+    }
+}
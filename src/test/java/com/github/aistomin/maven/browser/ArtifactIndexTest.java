@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The tests for {@link ArtifactIndex} and {@link ArtifactIndexWriter}.
+ *
+ * @since 2.0
+ */
+final class ArtifactIndexTest {
+
+    /**
+     * The amount of the coordinates in the dump.
+     */
+    private static final int COUNT = 5;
+
+    /**
+     * The dump of the coordinates which we use for tests.
+     */
+    private static final String DUMP = String.join(
+        "\n",
+        "# groupId:artifactId[:version]",
+        "org.apache.commons:commons-lang3:3.12.0",
+        "org.apache.commons:commons-text",
+        "",
+        "com.github.aistomin:maven-browser",
+        "io.Jenkins:jenkins-core",
+        "org.apache.commons:commons-lang3:3.11"
+    );
+
+    /**
+     * Check that we find the coordinates by the prefix, the substring and the
+     * token in the case-insensitive order whatever the amount of shards is.
+     *
+     * @param dir The directory of the indexes.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testSearch(@TempDir final Path dir) throws Exception {
+        for (int size = 1; size <= ArtifactIndexTest.COUNT; ++size) {
+            final ArtifactIndex index = ArtifactIndexTest.index(
+                dir.resolve(String.valueOf(size)), size
+            );
+            Assertions.assertEquals(ArtifactIndexTest.COUNT, index.size());
+            Assertions.assertEquals(
+                (ArtifactIndexTest.COUNT + size - 1) / size, index.shards()
+            );
+            ArtifactIndexTest.check(index);
+        }
+    }
+
+    /**
+     * Check that the visitor stops the search.
+     *
+     * @param dir The directory of the index.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testStop(@TempDir final Path dir) throws Exception {
+        final ArtifactIndex index = ArtifactIndexTest.index(dir, 2);
+        final List<String> found = new ArrayList<>(1);
+        index.search(
+            "", ArtifactIndex.Match.SUBSTRING,
+            coordinate -> {
+                found.add(coordinate.toString());
+                return false;
+            }
+        );
+        Assertions.assertEquals(
+            List.of("com.github.aistomin:jenkins-sdk"), found
+        );
+    }
+
+    /**
+     * Check that the index is rewritten with the new generation of the
+     * shards while the opened index keeps working, and the broken shards and
+     * dumps are reported.
+     *
+     * @param dir The directory of the index.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testRewriteAndErrors(@TempDir final Path dir) throws Exception {
+        final Path idx = dir.resolve("index");
+        final ArtifactIndex before = ArtifactIndexTest.index(dir, 1);
+        final ArtifactIndex small = new ArtifactIndexWriter()
+            .add(
+                new MavenArtifact(new MavenGroup("org.example"), "lib")
+            )
+            .write(idx);
+        Assertions.assertEquals(1, small.size());
+        Assertions.assertEquals(1, small.shards());
+        Assertions.assertEquals(
+            List.of("org.example:lib"),
+            ArtifactIndexTest.search(small, "LIB", ArtifactIndex.Match.TOKEN)
+        );
+        ArtifactIndexTest.check(before);
+        Assertions.assertEquals(ArtifactIndexTest.COUNT, before.size());
+        try (Stream<Path> files = Files.list(idx)) {
+            Assertions.assertEquals(2, files.count());
+        }
+        final Path dump = dir.resolve("broken.txt");
+        Files.writeString(dump, "org.example:lib\norg.example\n");
+        final IOException malformed = Assertions.assertThrows(
+            IOException.class, () -> new ArtifactIndexWriter().dump(dump)
+        );
+        Assertions.assertTrue(malformed.getMessage().contains(":2:"));
+        Files.writeString(
+            ArtifactIndex.generation(idx).resolve("shard-99999.idx"), "garbage"
+        );
+        Assertions.assertThrows(
+            IOException.class, () -> new ArtifactIndex(idx)
+        );
+        Assertions.assertThrows(
+            IllegalArgumentException.class, () -> new ArtifactIndexWriter(0)
+        );
+    }
+
+    /**
+     * Check the searches of the index.
+     *
+     * @param index The index.
+     */
+    private static void check(final ArtifactIndex index) {
+        Assertions.assertEquals(
+            List.of(
+                "org.apache.commons:commons-lang3",
+                "org.apache.commons:commons-text"
+            ),
+            ArtifactIndexTest.search(
+                index, "org.apache", ArtifactIndex.Match.PREFIX
+            )
+        );
+        Assertions.assertEquals(
+            List.of("io.Jenkins:jenkins-core"),
+            ArtifactIndexTest.search(
+                index, "IO.jenkins", ArtifactIndex.Match.PREFIX
+            )
+        );
+        Assertions.assertEquals(
+            ArtifactIndexTest.COUNT,
+            ArtifactIndexTest.search(index, "", ArtifactIndex.Match.PREFIX)
+                .size()
+        );
+        Assertions.assertTrue(
+            ArtifactIndexTest.search(index, "zz", ArtifactIndex.Match.PREFIX)
+                .isEmpty()
+        );
+        final List<String> jenkins = List.of(
+            "com.github.aistomin:jenkins-sdk", "io.Jenkins:jenkins-core"
+        );
+        Assertions.assertEquals(
+            jenkins,
+            ArtifactIndexTest.search(
+                index, "jenkins", ArtifactIndex.Match.SUBSTRING
+            )
+        );
+        Assertions.assertEquals(
+            jenkins,
+            ArtifactIndexTest.search(
+                index, "jenkins", ArtifactIndex.Match.TOKEN
+            )
+        );
+        Assertions.assertEquals(
+            List.of("org.apache.commons:commons-lang3"),
+            ArtifactIndexTest.search(
+                index, "ons-l", ArtifactIndex.Match.SUBSTRING
+            )
+        );
+        Assertions.assertTrue(
+            ArtifactIndexTest.search(
+                index, "enkins", ArtifactIndex.Match.TOKEN
+            ).isEmpty()
+        );
+        Assertions.assertEquals(
+            List.of("com.github.aistomin:maven-browser"),
+            ArtifactIndexTest.search(
+                index, "browser", ArtifactIndex.Match.TOKEN
+            )
+        );
+    }
+
+    /**
+     * Write the index of the coordinates from the dump and one search result.
+     *
+     * @param dir The directory of the index.
+     * @param size Max amount of the coordinates in one shard.
+     * @return The index.
+     * @throws Exception If something went wrong.
+     */
+    private static ArtifactIndex index(
+        final Path dir, final int size
+    ) throws Exception {
+        final Path dump = Files.createDirectories(dir)
+            .resolve("coordinates.txt");
+        Files.writeString(dump, ArtifactIndexTest.DUMP);
+        final ArtifactIndexWriter writer = new ArtifactIndexWriter(size)
+            .dump(dump)
+            .add(
+                List.of(
+                    new MavenArtifact(
+                        new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+                    )
+                )
+            );
+        Assertions.assertEquals(ArtifactIndexTest.COUNT, writer.size());
+        return writer.write(dir.resolve("index"));
+    }
+
+    /**
+     * Search the index.
+     *
+     * @param index The index.
+     * @param query The query.
+     * @param match How the query matches the coordinates.
+     * @return The found coordinates.
+     */
+    private static List<String> search(
+        final ArtifactIndex index, final String query,
+        final ArtifactIndex.Match match
+    ) {
+        final List<String> found = new ArrayList<>(ArtifactIndexTest.COUNT);
+        index.search(
+            query, match,
+            coordinate -> {
+                found.add(coordinate.toString());
+                return true;
+            }
+        );
+        return found;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link ArtifactPages}.
+ *
+ * @since 2.0
+ */
+final class ArtifactPagesTest {
+
+    /**
+     * Three.
+     */
+    private static final int THREE = 3;
+
+    /**
+     * The amount of the artifacts in the repository.
+     */
+    private static final int ARTIFACTS = 7;
+
+    /**
+     * Check that we read all the pages in the right order and stop after the
+     * short or the empty page.
+     */
+    @Test
+    void testAllPages() {
+        final FakeMvnRepo origin = ArtifactPagesTest.repo();
+        final List<MvnArtifact> all = new ArtifactPages(
+            origin, "org.pages", ArtifactPagesTest.THREE, false
+        ).stream().collect(Collectors.toList());
+        Assertions.assertEquals(ArtifactPagesTest.ARTIFACTS, all.size());
+        Assertions.assertEquals("a0", all.get(0).name());
+        Assertions.assertEquals(
+            "a6", all.get(ArtifactPagesTest.ARTIFACTS - 1).name()
+        );
+        Assertions.assertEquals(ArtifactPagesTest.THREE, origin.calls());
+        final FakeMvnRepo exact = ArtifactPagesTest.repo();
+        Assertions.assertEquals(
+            ArtifactPagesTest.ARTIFACTS,
+            new ArtifactPages(
+                exact, "org.pages", ArtifactPagesTest.ARTIFACTS, false
+            ).stream().count()
+        );
+        Assertions.assertEquals(2, exact.calls());
+    }
+
+    /**
+     * Check that we don't fetch the pages which the consumer doesn't need.
+     */
+    @Test
+    void testShortCircuit() {
+        final FakeMvnRepo origin = ArtifactPagesTest.repo();
+        final ArtifactPages pages = new ArtifactPages(
+            origin, "org.pages", ArtifactPagesTest.THREE, false
+        );
+        final Optional<MvnArtifact> first = pages.stream().findFirst();
+        Assertions.assertEquals("a0", first.orElseThrow().name());
+        Assertions.assertEquals(1, origin.calls());
+        Assertions.assertEquals(
+            List.of("a0", "a1", "a2", "a3"),
+            pages.stream()
+                .limit(ArtifactPagesTest.THREE + 1)
+                .map(MvnArtifact::name)
+                .collect(Collectors.toList())
+        );
+        Assertions.assertEquals(ArtifactPagesTest.THREE, origin.calls());
+    }
+
+    /**
+     * Check that the prefetching returns the same artifacts.
+     */
+    @Test
+    void testPrefetch() {
+        final FakeMvnRepo origin = ArtifactPagesTest.repo();
+        final ArtifactPages pages = new ArtifactPages(
+            origin, "org.pages", ArtifactPagesTest.THREE, true
+        );
+        try (Stream<MvnArtifact> stream = pages.stream()) {
+            Assertions.assertEquals(
+                ArtifactPagesTest.ARTIFACTS, stream.count()
+            );
+        }
+        Assertions.assertEquals(ArtifactPagesTest.THREE, origin.calls());
+        final Iterator<MvnArtifact> iterator = new ArtifactPages(
+            origin, "nothing", ArtifactPagesTest.THREE, true
+        ).iterator();
+        Assertions.assertFalse(iterator.hasNext());
+        Assertions.assertThrows(NoSuchElementException.class, iterator::next);
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new ArtifactPages(origin, "org.pages", 0, false)
+        );
+    }
+
+    /**
+     * Check that closing the stream interrupts the prefetch of the next page.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testClosePrefetch() throws Exception {
+        final FakeMvnRepo origin = ArtifactPagesTest.repo(
+            new FakeMvnRepo(new CountDownLatch(1), 1)
+        );
+        try (Stream<MvnArtifact> stream = new ArtifactPages(
+            origin, "org.pages", ArtifactPagesTest.THREE, true
+        ).stream()) {
+            Assertions.assertEquals(
+                "a0", stream.iterator().next().name()
+            );
+            final long deadline = System.nanoTime()
+                + TimeUnit.SECONDS.toNanos(ArtifactPagesTest.THREE);
+            while (origin.calls() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(1L);
+            }
+        }
+        final long deadline = System.nanoTime()
+            + TimeUnit.SECONDS.toNanos(ArtifactPagesTest.THREE);
+        while (origin.interrupted() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1L);
+        }
+        Assertions.assertEquals(2, origin.calls());
+        Assertions.assertEquals(1, origin.interrupted());
+    }
+
+    /**
+     * Check that the problems of the repository are thrown to the consumer.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testErrors() throws Exception {
+        final byte[] search = StubServer.resource("search.json");
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    if (exchange.getRequestURI().getQuery()
+                        .contains("start=0&")) {
+                        StubServer.send(exchange, MvnResponse.OK, search);
+                    } else {
+                        StubServer.send(exchange, 500, new byte[0]);
+                    }
+                }
+            )
+        ) {
+            final Iterator<MvnArtifact> iterator = new ArtifactPages(
+                new MavenCentral(server.url(), server.url()),
+                "aistomin", ArtifactPagesTest.THREE, true
+            ).iterator();
+            for (int idx = 0; idx < ArtifactPagesTest.THREE; ++idx) {
+                Assertions.assertNotNull(iterator.next());
+            }
+            final UncheckedMvnException error = Assertions.assertThrows(
+                UncheckedMvnException.class, iterator::hasNext
+            );
+            Assertions.assertNotNull(error.getCause().getCause());
+        }
+    }
+
+    /**
+     * Create the repository with the artifacts a0..a6.
+     *
+     * @return The repository.
+     */
+    private static FakeMvnRepo repo() {
+        return ArtifactPagesTest.repo(new FakeMvnRepo());
+    }
+
+    /**
+     * Fill the repository with the artifacts a0..a6.
+     *
+     * @param repo The empty repository.
+     * @return The repository.
+     */
+    private static FakeMvnRepo repo(final FakeMvnRepo repo) {
+        for (int idx = 0; idx < ArtifactPagesTest.ARTIFACTS; ++idx) {
+            repo.with(
+                new MavenArtifact(
+                    new MavenGroup("org.pages"), String.format("a%d", idx)
+                ),
+                "1.0"
+            );
+        }
+        return repo;
+    }
+}
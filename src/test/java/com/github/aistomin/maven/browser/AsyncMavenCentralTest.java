@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link AsyncMavenCentral}.
+ *
+ * @since 2.0
+ */
+final class AsyncMavenCentralTest {
+
+    /**
+     * Three.
+     */
+    private static final int THREE = 3;
+
+    /**
+     * The amount of concurrent lookups.
+     */
+    private static final int LOOKUPS = 50;
+
+    /**
+     * The artifact which we use for tests.
+     */
+    private final MvnArtifact mine = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+    );
+
+    /**
+     * Check that we find the artifacts and the versions asynchronously.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testFind() throws Exception {
+        try (StubServer server = AsyncMavenCentralTest.server()) {
+            final AsyncMvnRepo repo = new AsyncMavenCentral(
+                server.url(), String.format("%s/search", server.url())
+            );
+            final List<MvnArtifact> artifacts =
+                repo.findArtifacts("aistomin").join();
+            Assertions.assertEquals(
+                AsyncMavenCentralTest.THREE, artifacts.size()
+            );
+            Assertions.assertEquals(this.mine, artifacts.get(0));
+            final List<MvnArtifactVersion> versions =
+                repo.findVersions(this.mine).join();
+            Assertions.assertEquals(
+                List.of("0.2.1", "0.2", "0.1", "0.0.2", "0.0.1"),
+                versions.stream()
+                    .map(MvnArtifactVersion::name)
+                    .collect(Collectors.toList())
+            );
+            Assertions.assertEquals(
+                List.of("0.2", "0.1"),
+                repo.findVersions(this.mine, 1, 2).join().stream()
+                    .map(MvnArtifactVersion::name)
+                    .collect(Collectors.toList())
+            );
+            final MvnArtifactVersion middle = versions.get(2);
+            Assertions.assertEquals(
+                versions.subList(0, 2),
+                repo.findVersionsNewerThan(middle).join()
+            );
+            Assertions.assertEquals(
+                versions.subList(AsyncMavenCentralTest.THREE, versions.size()),
+                repo.findVersionsOlderThan(middle).join()
+            );
+        }
+    }
+
+    /**
+     * Check that we can compose many lookups without waiting for each of
+     * them.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testCompose() throws Exception {
+        try (StubServer server = AsyncMavenCentralTest.server()) {
+            final AsyncMvnRepo repo = new AsyncMavenCentral(
+                server.url(), server.url()
+            );
+            final List<CompletableFuture<List<MvnArtifactVersion>>> all =
+                IntStream.range(0, AsyncMavenCentralTest.LOOKUPS)
+                    .mapToObj(idx -> repo.findVersions(this.mine))
+                    .collect(Collectors.toList());
+            CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0]))
+                .join();
+            for (final CompletableFuture<List<MvnArtifactVersion>> one : all) {
+                Assertions.assertEquals("0.2.1", one.join().get(0).name());
+            }
+            Assertions.assertEquals(
+                AsyncMavenCentralTest.LOOKUPS, server.requests()
+            );
+        }
+    }
+
+    /**
+     * Check that the futures complete with {@link MvnException} if something
+     * went wrong.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testExceptions() throws Exception {
+        try (
+            StubServer server = new StubServer(
+                exchange -> StubServer.send(exchange, 404, new byte[0])
+            )
+        ) {
+            final AsyncMvnRepo repo = new AsyncMavenCentral(
+                server.url(), server.url()
+            );
+            AsyncMavenCentralTest.assertFails(
+                repo.findVersions(this.mine), MvnException.class
+            );
+            AsyncMavenCentralTest.assertFails(
+                repo.findArtifacts("aistomin"), MvnException.class
+            );
+        }
+        final String invalid = "http://not.existing.mvn/";
+        final AsyncMvnRepo repo = new AsyncMavenCentral(invalid, invalid);
+        AsyncMavenCentralTest.assertFails(
+            repo.findVersions(this.mine), MvnException.class
+        );
+        AsyncMavenCentralTest.assertFails(
+            repo.findArtifacts("with space"), MvnException.class
+        );
+        try (StubServer server = AsyncMavenCentralTest.server()) {
+            AsyncMavenCentralTest.assertFails(
+                new AsyncMavenCentral(server.url(), server.url())
+                    .findVersionsNewerThan(
+                        new MavenArtifactVersion(
+                            this.mine, "not-existing", MvnPackagingType.JAR,
+                            null
+                        )
+                    ),
+                IllegalStateException.class
+            );
+        }
+    }
+
+    /**
+     * Check that the future fails with the expected exception.
+     *
+     * @param future The future.
+     * @param type The expected type of the exception.
+     */
+    private static void assertFails(
+        final CompletableFuture<?> future,
+        final Class<? extends Throwable> type
+    ) {
+        final CompletionException error = Assertions.assertThrows(
+            CompletionException.class, future::join
+        );
+        Assertions.assertEquals(type, error.getCause().getClass());
+    }
+
+    /**
+     * Start the stub of the repository.
+     *
+     * @return The stub server.
+     * @throws Exception If the server can't be started.
+     */
+    private static StubServer server() throws Exception {
+        final byte[] metadata = StubServer.resource("maven-metadata.xml");
+        final byte[] search = StubServer.resource("search.json");
+        return new StubServer(
+            exchange -> {
+                if (exchange.getRequestURI().getPath().startsWith("/search")) {
+                    StubServer.send(exchange, MvnResponse.OK, search);
+                } else {
+                    StubServer.send(exchange, MvnResponse.OK, metadata);
+                }
+            }
+        );
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link BatchLookup}.
+ *
+ * @since 2.0
+ */
+final class BatchLookupTest {
+
+    /**
+     * Three.
+     */
+    private static final int THREE = 3;
+
+    /**
+     * The artifact which we use for tests.
+     */
+    private final MvnArtifact mine = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+    );
+
+    /**
+     * Another artifact which we use for tests.
+     */
+    private final MvnArtifact other = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "maven-browser"
+    );
+
+    /**
+     * The artifact which doesn't exist.
+     */
+    private final MvnArtifact missing = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "missing"
+    );
+
+    /**
+     * Check that we find the versions of all the artifacts and isolate the
+     * failures.
+     */
+    @Test
+    void testFindVersions() {
+        final FakeMvnRepo repo = new FakeMvnRepo()
+            .with(this.mine, "0.2.1", "0.2", "0.1")
+            .with(this.other, "5.0", "4.0");
+        final BatchVersions result = new BatchLookup(repo).findVersions(
+            List.of(this.missing, this.mine, this.other, this.mine)
+        );
+        Assertions.assertEquals(
+            List.of(this.mine, this.other),
+            List.copyOf(result.versions().keySet())
+        );
+        Assertions.assertEquals(
+            "0.2.1", result.versions().get(this.mine).get(0).name()
+        );
+        Assertions.assertEquals(
+            2, result.versions().get(this.other).size()
+        );
+        Assertions.assertEquals(
+            List.of(this.missing), List.copyOf(result.failures().keySet())
+        );
+        Assertions.assertNotNull(result.failures().get(this.missing));
+        Assertions.assertEquals(BatchLookupTest.THREE, repo.calls());
+        Assertions.assertEquals(
+            List.of("0.2"),
+            new BatchLookup(repo).findVersions(List.of(this.mine), 1, 1)
+                .versions().get(this.mine).stream()
+                .map(MvnArtifactVersion::name)
+                .toList()
+        );
+    }
+
+    /**
+     * Check that we don't run more lookups at the same time than allowed.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testParallelism() throws Exception {
+        final CountDownLatch gate = new CountDownLatch(1);
+        final FakeMvnRepo repo = new FakeMvnRepo(gate)
+            .with(this.mine, "0.2.1")
+            .with(this.other, "5.0")
+            .with(this.missing, "1.0");
+        final CompletableFuture<BatchVersions> result =
+            CompletableFuture.supplyAsync(
+                () -> new BatchLookup(repo, 2).findVersions(
+                    List.of(this.mine, this.other, this.missing)
+                )
+            );
+        while (repo.calls() < 2) {
+            Thread.onSpinWait();
+        }
+        TimeUnit.MILLISECONDS.sleep(100L);
+        Assertions.assertEquals(2, repo.calls());
+        gate.countDown();
+        Assertions.assertEquals(
+            BatchLookupTest.THREE,
+            result.get(1L, TimeUnit.MINUTES).versions().size()
+        );
+        Assertions.assertThrows(
+            IllegalArgumentException.class, () -> new BatchLookup(repo, 0)
+        );
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link CachedMvnRepo}.
+ *
+ * @since 2.0
+ */
+final class CachedMvnRepoTest {
+
+    /**
+     * Three.
+     */
+    private static final int THREE = 3;
+
+    /**
+     * The amount of concurrent callers.
+     */
+    private static final int CALLERS = 8;
+
+    /**
+     * The artifact which we use for tests.
+     */
+    private final MvnArtifact mine = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+    );
+
+    /**
+     * Another artifact which we use for tests.
+     */
+    private final MvnArtifact other = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "maven-browser"
+    );
+
+    /**
+     * Check that we serve the repeated lookups from the cache and page the
+     * cached versions correctly.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testHitsAndMisses() throws Exception {
+        final FakeMvnRepo origin = new FakeMvnRepo()
+            .with(this.mine, "0.2.1", "0.2", "0.1", "0.0.2", "0.0.1");
+        final CachedMvnRepo repo = new CachedMvnRepo(origin);
+        Assertions.assertEquals(
+            origin.findVersions(this.mine), repo.findVersions(this.mine)
+        );
+        final List<MvnArtifactVersion> page = repo.findVersions(
+            this.mine, 1, 2
+        );
+        Assertions.assertEquals(2, page.size());
+        Assertions.assertEquals("0.2", page.get(0).name());
+        Assertions.assertEquals("0.1", page.get(1).name());
+        Assertions.assertTrue(repo.findVersions(this.mine, 10, 2).isEmpty());
+        Assertions.assertEquals(
+            1, repo.findArtifacts("jenkins").size()
+        );
+        Assertions.assertEquals(
+            1, repo.findArtifacts("jenkins").size()
+        );
+        Assertions.assertEquals(2, repo.misses());
+        Assertions.assertEquals(CachedMvnRepoTest.THREE, repo.hits());
+        Assertions.assertEquals(CachedMvnRepoTest.THREE, origin.calls());
+        Assertions.assertThrows(
+            UnsupportedOperationException.class,
+            () -> repo.findVersions(this.mine).clear()
+        );
+    }
+
+    /**
+     * Check that the newer, older and between queries are answered from the
+     * cached index of the versions.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testRangeQueries() throws Exception {
+        final FakeMvnRepo origin = new FakeMvnRepo()
+            .with(this.mine, "0.2.1", "0.2", "0.1", "0.0.2", "0.0.1");
+        final CachedMvnRepo repo = new CachedMvnRepo(origin);
+        final List<MvnArtifactVersion> all = repo.findVersions(this.mine);
+        Assertions.assertEquals(
+            origin.findVersionsNewerThan(all.get(2)),
+            repo.findVersionsNewerThan(all.get(2))
+        );
+        Assertions.assertEquals(
+            origin.findVersionsOlderThan(all.get(2)),
+            repo.findVersionsOlderThan(all.get(2))
+        );
+        Assertions.assertEquals(
+            all.subList(1, CachedMvnRepoTest.THREE),
+            repo.findVersionsBetween(
+                all.get(CachedMvnRepoTest.THREE), all.get(1)
+            )
+        );
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> repo.findVersionsNewerThan(
+                new MavenArtifactVersion(
+                    this.mine, "1.0", MvnPackagingType.JAR, null
+                )
+            )
+        );
+        Assertions.assertEquals(CachedMvnRepoTest.THREE, origin.calls());
+        Assertions.assertEquals(1, repo.misses());
+    }
+
+    /**
+     * Check that we fetch the value again when the entry is expired.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testExpiration() throws Exception {
+        final FakeMvnRepo origin = new FakeMvnRepo()
+            .with(this.mine, "0.2.1", "0.2");
+        final CachedMvnRepo repo = new CachedMvnRepo(
+            origin, Duration.ZERO, CachedMvnRepo.MAX_ENTRIES,
+            CachedMvnRepo.MAX_BYTES
+        );
+        repo.findVersions(this.mine);
+        repo.findVersions(this.mine);
+        Assertions.assertEquals(2, origin.calls());
+        Assertions.assertEquals(0, repo.hits());
+        Assertions.assertEquals(0, repo.evictions());
+    }
+
+    /**
+     * Check that we evict the least recently used entries when the cache is
+     * full.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testEviction() throws Exception {
+        final FakeMvnRepo origin = new FakeMvnRepo()
+            .with(this.mine, "0.2.1", "0.2")
+            .with(this.other, "1.0");
+        final CachedMvnRepo repo = new CachedMvnRepo(
+            origin, CachedMvnRepo.TTL, 1, CachedMvnRepo.MAX_BYTES
+        );
+        repo.findVersions(this.mine);
+        repo.findVersions(this.other);
+        Assertions.assertEquals(1, repo.size());
+        Assertions.assertEquals(1, repo.evictions());
+        repo.findVersions(this.other);
+        Assertions.assertEquals(1, repo.hits());
+        repo.findVersions(this.mine);
+        Assertions.assertEquals(CachedMvnRepoTest.THREE, origin.calls());
+        final CachedMvnRepo tiny = new CachedMvnRepo(
+            origin, CachedMvnRepo.TTL, CachedMvnRepo.MAX_ENTRIES, 1
+        );
+        tiny.findVersions(this.mine);
+        Assertions.assertEquals(0, tiny.size());
+        Assertions.assertEquals(1, tiny.evictions());
+        repo.clear();
+        Assertions.assertEquals(0, repo.size());
+    }
+
+    /**
+     * Check that the concurrent misses on the same key share one fetch.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testConcurrentMisses() throws Exception {
+        final CountDownLatch gate = new CountDownLatch(1);
+        final FakeMvnRepo origin = new FakeMvnRepo(gate)
+            .with(this.mine, "0.2.1", "0.2");
+        final CachedMvnRepo repo = new CachedMvnRepo(origin);
+        final ExecutorService threads =
+            Executors.newFixedThreadPool(CachedMvnRepoTest.CALLERS);
+        final List<Future<List<MvnArtifactVersion>>> results =
+            new ArrayList<>(CachedMvnRepoTest.CALLERS);
+        for (int idx = 0; idx < CachedMvnRepoTest.CALLERS; ++idx) {
+            results.add(threads.submit(() -> repo.findVersions(this.mine)));
+        }
+        while (repo.misses() < CachedMvnRepoTest.CALLERS) {
+            Thread.onSpinWait();
+        }
+        gate.countDown();
+        for (final Future<List<MvnArtifactVersion>> result : results) {
+            Assertions.assertEquals(2, result.get().size());
+        }
+        threads.shutdown();
+        Assertions.assertTrue(threads.awaitTermination(1, TimeUnit.MINUTES));
+        Assertions.assertEquals(1, origin.calls());
+    }
+
+    /**
+     * Check that the errors of the origin repository are not cached.
+     */
+    @Test
+    void testErrors() {
+        final FakeMvnRepo origin = new FakeMvnRepo();
+        final CachedMvnRepo repo = new CachedMvnRepo(origin);
+        Assertions.assertThrows(
+            MvnException.class, () -> repo.findVersions(this.mine)
+        );
+        Assertions.assertThrows(
+            MvnException.class, () -> repo.findVersions(this.mine)
+        );
+        Assertions.assertEquals(2, origin.calls());
+        Assertions.assertEquals(0, repo.size());
+    }
+}
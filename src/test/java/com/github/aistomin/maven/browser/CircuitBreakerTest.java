@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link CircuitBreaker}.
+ *
+ * @since 2.0
+ */
+final class CircuitBreakerTest {
+
+    /**
+     * Check that the breaker opens after the failures in a row, lets one
+     * trial call through after the cooldown and closes after its success.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testStates() throws Exception {
+        final CircuitBreaker breaker = new CircuitBreaker(2, Duration.ZERO);
+        Assertions.assertTrue(breaker.allow());
+        breaker.failure();
+        breaker.success();
+        breaker.failure();
+        Assertions.assertEquals(
+            CircuitBreaker.State.CLOSED, breaker.state()
+        );
+        breaker.failure();
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        Assertions.assertTrue(breaker.allow());
+        Assertions.assertEquals(
+            CircuitBreaker.State.HALF_OPEN, breaker.state()
+        );
+        Assertions.assertFalse(breaker.allow());
+        breaker.failure();
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        Assertions.assertTrue(breaker.allow());
+        breaker.success();
+        Assertions.assertEquals(
+            CircuitBreaker.State.CLOSED, breaker.state()
+        );
+    }
+
+    /**
+     * Check that the trial call whose outcome isn't recorded within the
+     * trial timeout doesn't keep the breaker half-open forever.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testTrialTimeout() throws Exception {
+        final Duration timeout = Duration.ofMillis(50);
+        final CircuitBreaker breaker = new CircuitBreaker(
+            1, Duration.ZERO, timeout
+        );
+        breaker.failure();
+        Assertions.assertTrue(breaker.allow());
+        Assertions.assertFalse(breaker.allow());
+        TimeUnit.MILLISECONDS.sleep(timeout.toMillis() * 2);
+        Assertions.assertTrue(breaker.allow());
+        Assertions.assertEquals(
+            CircuitBreaker.State.HALF_OPEN, breaker.state()
+        );
+        Assertions.assertFalse(breaker.allow());
+        breaker.success();
+        Assertions.assertEquals(
+            CircuitBreaker.State.CLOSED, breaker.state()
+        );
+    }
+
+    /**
+     * Check that the open breaker rejects the calls until the cooldown is
+     * over.
+     */
+    @Test
+    void testCooldown() {
+        final CircuitBreaker breaker = new CircuitBreaker(
+            1, Duration.ofMinutes(1)
+        );
+        breaker.failure();
+        Assertions.assertFalse(breaker.allow());
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new CircuitBreaker(0, Duration.ZERO)
+        );
+    }
+}
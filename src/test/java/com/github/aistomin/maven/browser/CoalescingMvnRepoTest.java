@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link CoalescingMvnRepo}.
+ *
+ * @since 2.0
+ */
+final class CoalescingMvnRepoTest {
+
+    /**
+     * The amount of concurrent callers.
+     */
+    private static final int CALLERS = 10;
+
+    /**
+     * The artifact which we use for tests.
+     */
+    private final MvnArtifact mine = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+    );
+
+    /**
+     * Check that the concurrent identical lookups share one call of the
+     * origin repository.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testCoalescing() throws Exception {
+        final CountDownLatch gate = new CountDownLatch(1);
+        final FakeMvnRepo origin = new FakeMvnRepo(gate)
+            .with(this.mine, "0.2.1", "0.2", "0.1");
+        final CoalescingMvnRepo repo = new CoalescingMvnRepo(origin);
+        final ExecutorService threads =
+            Executors.newFixedThreadPool(CoalescingMvnRepoTest.CALLERS);
+        final List<Future<List<MvnArtifactVersion>>> results =
+            new ArrayList<>(CoalescingMvnRepoTest.CALLERS);
+        for (int idx = 0; idx < CoalescingMvnRepoTest.CALLERS; ++idx) {
+            results.add(threads.submit(() -> repo.findVersions(this.mine)));
+        }
+        while (repo.coalesced() < CoalescingMvnRepoTest.CALLERS - 1) {
+            Thread.onSpinWait();
+        }
+        gate.countDown();
+        final List<MvnArtifactVersion> first = results.get(0).get();
+        for (final Future<List<MvnArtifactVersion>> result : results) {
+            Assertions.assertSame(first, result.get());
+        }
+        threads.shutdown();
+        Assertions.assertTrue(threads.awaitTermination(1, TimeUnit.MINUTES));
+        Assertions.assertEquals(1, origin.calls());
+        Assertions.assertThrows(
+            UnsupportedOperationException.class, first::clear
+        );
+    }
+
+    /**
+     * Check that the sequential lookups are not cached and the different
+     * lookups are not coalesced.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testNoCaching() throws Exception {
+        final FakeMvnRepo origin = new FakeMvnRepo()
+            .with(this.mine, "0.2.1", "0.2", "0.1");
+        final CoalescingMvnRepo repo = new CoalescingMvnRepo(origin);
+        final List<MvnArtifactVersion> all = repo.findVersions(this.mine);
+        Assertions.assertEquals(all, repo.findVersions(this.mine));
+        Assertions.assertEquals(1, repo.findVersions(this.mine, 1, 1).size());
+        Assertions.assertEquals(
+            2, repo.findVersionsOlderThan(all.get(0)).size()
+        );
+        Assertions.assertEquals(
+            2, repo.findVersionsNewerThan(all.get(2)).size()
+        );
+        Assertions.assertEquals(
+            1, repo.findVersionsBetween(all.get(2), all.get(1)).size()
+        );
+        Assertions.assertEquals(1, repo.findArtifacts("jenkins").size());
+        Assertions.assertEquals(0, repo.coalesced());
+        Assertions.assertThrows(
+            MvnException.class,
+            () -> repo.findVersions(
+                new MavenArtifact(new MavenGroup("org"), "missing")
+            )
+        );
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link CoordinatePool}.
+ *
+ * @since 2.0
+ */
+final class CoordinatePoolTest {
+
+    /**
+     * The amount of concurrent callers.
+     */
+    private static final int CALLERS = 8;
+
+    /**
+     * Check that the equal coordinates share one instance.
+     */
+    @Test
+    void testIntern() {
+        final CoordinatePool pool = new CoordinatePool();
+        final MvnArtifact first = pool.artifact(
+            "com.github.aistomin", "maven-browser"
+        );
+        final MvnArtifact second = pool.artifact(
+            new String("com.github.aistomin"), new String("maven-browser")
+        );
+        Assertions.assertSame(first, second);
+        Assertions.assertSame(first.group(), second.group());
+        Assertions.assertSame(
+            first.group(), pool.group("com.github.aistomin")
+        );
+        Assertions.assertNotSame(
+            first, pool.artifact("com.github.aistomin", "jenkins-sdk")
+        );
+        Assertions.assertSame(
+            first.group(),
+            pool.artifact("com.github.aistomin", "jenkins-sdk").group()
+        );
+        final MvnArtifactVersion version = new MavenArtifactVersion(
+            first, "0.2.1", MvnPackagingType.JAR, null
+        );
+        Assertions.assertSame(version, pool.intern(version));
+        Assertions.assertSame(
+            version,
+            pool.intern(
+                new MavenArtifactVersion(
+                    first, "0.2.1", MvnPackagingType.JAR, null
+                )
+            )
+        );
+        Assertions.assertEquals(2 + 2, pool.size());
+    }
+
+    /**
+     * Check that the parsed search results use the shared pool.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testParsedArtifacts() throws Exception {
+        final JSONObject json = (JSONObject) new JSONParser().parse(
+            "{\"g\":\"com.github.aistomin\",\"a\":\"maven-browser\"}"
+        );
+        Assertions.assertSame(
+            new MavenArtifact(json).group(),
+            CoordinatePool.SHARED.group("com.github.aistomin")
+        );
+    }
+
+    /**
+     * Check that the identifiers are calculated once.
+     */
+    @Test
+    void testIdentifiers() {
+        final MvnArtifact artifact = new MavenArtifact(
+            new MavenGroup("com.github.aistomin"), "maven-browser"
+        );
+        Assertions.assertEquals(
+            "com.github.aistomin:maven-browser", artifact.identifier()
+        );
+        Assertions.assertSame(artifact.identifier(), artifact.identifier());
+        final MvnArtifactVersion version = new MavenArtifactVersion(
+            artifact, "0.2.1", MvnPackagingType.JAR, null
+        );
+        Assertions.assertEquals(
+            "com.github.aistomin:maven-browser:0.2.1", version.identifier()
+        );
+        Assertions.assertSame(version.identifier(), version.identifier());
+    }
+
+    /**
+     * Check that the concurrent callers get the same instance.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testConcurrency() throws Exception {
+        final CoordinatePool pool = new CoordinatePool();
+        final ExecutorService threads =
+            Executors.newFixedThreadPool(CoordinatePoolTest.CALLERS);
+        final List<Future<MvnArtifact>> results =
+            new ArrayList<>(CoordinatePoolTest.CALLERS);
+        for (int idx = 0; idx < CoordinatePoolTest.CALLERS; ++idx) {
+            results.add(
+                threads.submit(
+                    () -> pool.artifact("org.junit", "junit-bom")
+                )
+            );
+        }
+        final MvnArtifact expected = results.get(0).get();
+        for (final Future<MvnArtifact> result : results) {
+            Assertions.assertSame(expected, result.get());
+        }
+        threads.shutdown();
+        Assertions.assertTrue(threads.awaitTermination(1, TimeUnit.MINUTES));
+        Assertions.assertEquals(2, pool.size());
+    }
+}
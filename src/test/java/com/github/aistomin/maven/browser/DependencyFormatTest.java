@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.StringWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link DependencyFormat}.
+ *
+ * @since 2.0
+ */
+final class DependencyFormatTest {
+
+    /**
+     * The version which we use for tests.
+     */
+    private final MvnArtifactVersion version = new MavenArtifactVersion(
+        new MavenArtifact(
+            new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+        ),
+        "0.2.1", MvnPackagingType.JAR, null
+    );
+
+    /**
+     * Check that the templates render the same snippets as the formatting.
+     */
+    @Test
+    void testRender() {
+        Assertions.assertEquals(
+            String.format(
+                "<dependency>%n%s%n%s%n%s%n</dependency>",
+                "  <groupId>com.github.aistomin</groupId>",
+                "  <artifactId>jenkins-sdk</artifactId>",
+                "  <version>0.2.1</version>"
+            ),
+            DependencyFormat.MAVEN.render(this.version)
+        );
+        Assertions.assertEquals(
+            "'com.github.aistomin:jenkins-sdk:jar:0.2.1'",
+            DependencyFormat.BUILDR.render(this.version)
+        );
+        Assertions.assertEquals(
+            "<dependency org=\"com.github.aistomin\" name=\"jenkins-sdk\""
+                + " rev=\"0.2.1\" />",
+            DependencyFormat.IVY.render(this.version)
+        );
+        Assertions.assertEquals(
+            String.format(
+                "@Grapes(%n  @Grab(group='com.github.aistomin',"
+                    + " module='jenkins-sdk', version='0.2.1')%n)"
+            ),
+            DependencyFormat.GROOVY_GRAPE.render(this.version)
+        );
+        Assertions.assertEquals(
+            "compile 'com.github.aistomin:jenkins-sdk:0.2.1'",
+            DependencyFormat.GRADLE.render(this.version)
+        );
+        Assertions.assertEquals(
+            "libraryDependencies += \"com.github.aistomin\" % \"jenkins-sdk\""
+                + " % \"0.2.1\"",
+            DependencyFormat.SCALA.render(this.version)
+        );
+        Assertions.assertEquals(
+            "[com.github.aistomin/jenkins-sdk \"0.2.1\"]",
+            DependencyFormat.LEININGEN.render(this.version)
+        );
+    }
+
+    /**
+     * Check that the snippets are appended to the target and the dependency
+     * renders the same snippets.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testAppend() throws Exception {
+        final MvnDependency dependency = new MavenDependency(this.version);
+        final StringWriter writer = new StringWriter();
+        writer.append('>');
+        DependencyFormat.GRADLE.render(this.version, writer);
+        DependencyFormat.LEININGEN.render(this.version, writer);
+        Assertions.assertEquals(
+            ">" + dependency.forGradle() + dependency.forLeiningen(),
+            writer.toString()
+        );
+        Assertions.assertEquals(
+            DependencyFormat.MAVEN.render(this.version), dependency.forMaven()
+        );
+        Assertions.assertEquals(
+            DependencyFormat.SCALA.render(this.version), dependency.forScala()
+        );
+    }
+}
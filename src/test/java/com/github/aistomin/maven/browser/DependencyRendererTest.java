@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link DependencyRenderer}.
+ *
+ * @since 2.0
+ */
+final class DependencyRendererTest {
+
+    /**
+     * Check that the snippets of all the versions are appended with the
+     * separators.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testRender() throws Exception {
+        final MvnArtifact first = new MavenArtifact(
+            new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+        );
+        final MvnArtifact second = new MavenArtifact(
+            new MavenGroup("com.github.aistomin"), "maven-browser"
+        );
+        final StringBuilder out = new StringBuilder();
+        Assertions.assertEquals(
+            2 + 1,
+            new DependencyRenderer(DependencyFormat.GRADLE, ";").render(
+                List.of(
+                    new MavenArtifactVersion(
+                        first, "0.2.1", MvnPackagingType.JAR, null
+                    ),
+                    new MavenArtifactVersion(
+                        first, "0.2", MvnPackagingType.JAR, null
+                    ),
+                    new MavenArtifactVersion(
+                        second, "5.0", MvnPackagingType.JAR, null
+                    )
+                ),
+                out
+            )
+        );
+        Assertions.assertEquals(
+            String.join(
+                "",
+                "compile 'com.github.aistomin:jenkins-sdk:0.2.1';",
+                "compile 'com.github.aistomin:jenkins-sdk:0.2';",
+                "compile 'com.github.aistomin:maven-browser:5.0';"
+            ),
+            out.toString()
+        );
+        final StringBuilder empty = new StringBuilder();
+        Assertions.assertEquals(
+            0,
+            new DependencyRenderer(DependencyFormat.MAVEN).render(
+                List.of(), empty
+            )
+        );
+        Assertions.assertEquals(0, empty.length());
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link DependencyResolver}.
+ *
+ * @since 2.0
+ */
+final class DependencyResolverTest {
+
+    /**
+     * The amount of the dependencies of the wide graph.
+     */
+    private static final int WIDTH = 12;
+
+    /**
+     * The time which the stub server spends on one request in the wide
+     * graph test.
+     */
+    private static final long DELAY = 20L;
+
+    /**
+     * Check that the graph is mediated as in Maven: the nearest version wins,
+     * the test, the provided and the transitive optional dependencies are
+     * skipped and the exclusions apply to the subtree.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testResolve() throws Exception {
+        final FakePoms poms = new FakePoms()
+            .with(
+                "com.example:app:1.0",
+                String.join(
+                    "",
+                    "<properties><b.version>2.0</b.version></properties>",
+                    FakePoms.dependencies(
+                        FakePoms.dependency(
+                            "com.example:lib-a:1.0",
+                            "<exclusions><exclusion><groupId>com.example"
+                                + "</groupId><artifactId>excluded"
+                                + "</artifactId></exclusion></exclusions>"
+                        ),
+                        FakePoms.dependency(
+                            "com.example:lib-b:${b.version}", ""
+                        ),
+                        FakePoms.dependency(
+                            "junit:junit:4.13", "<scope>test</scope>"
+                        ),
+                        FakePoms.dependency(
+                            "com.example:opt:1.0", "<optional>true</optional>"
+                        )
+                    )
+                )
+            )
+            .with(
+                "com.example:lib-a:1.0",
+                FakePoms.dependencies(
+                    FakePoms.dependency("com.example:common:1.0", ""),
+                    FakePoms.dependency("com.example:excluded:1.0", ""),
+                    FakePoms.dependency(
+                        "com.example:opt2:1.0", "<optional>true</optional>"
+                    ),
+                    FakePoms.dependency(
+                        "com.example:api:1.0", "<scope>provided</scope>"
+                    )
+                )
+            )
+            .with(
+                "com.example:lib-b:2.0",
+                String.join(
+                    "",
+                    "<dependencyManagement>",
+                    FakePoms.dependencies(
+                        FakePoms.dependency("com.example:managed:3.0", "")
+                    ),
+                    "</dependencyManagement>",
+                    FakePoms.dependencies(
+                        FakePoms.dependency("com.example:common:2.0", ""),
+                        FakePoms.dependency("com.example:missing:1.0", ""),
+                        FakePoms.dependency("com.example:managed", ""),
+                        FakePoms.dependency(
+                            "com.example:unknown:${unknown.version}", ""
+                        )
+                    )
+                )
+            )
+            .with("com.example:opt:1.0", "")
+            .with("com.example:common:1.0", "")
+            .with("com.example:managed:3.0", "");
+        try (StubServer server = new StubServer(poms)) {
+            final DependencyResolver resolver =
+                new DependencyResolver(server.url(), new UrlTransport());
+            final MvnArtifactVersion root = DependencyResolverTest.version(
+                "com.example:app:1.0"
+            );
+            final DependencyGraph graph = resolver.resolve(root);
+            Assertions.assertSame(root, graph.root());
+            Assertions.assertEquals(
+                List.of(
+                    "com.example:lib-a:1.0", "com.example:lib-b:2.0",
+                    "com.example:opt:1.0", "com.example:common:1.0",
+                    "com.example:missing:1.0", "com.example:managed:3.0"
+                ),
+                DependencyResolverTest.identifiers(graph.versions())
+            );
+            Assertions.assertEquals(
+                List.of("com.example:common:1.0"),
+                DependencyResolverTest.identifiers(
+                    graph.children(
+                        DependencyResolverTest.version("com.example:lib-a:1.0")
+                    )
+                )
+            );
+            Assertions.assertEquals(
+                List.of("com.example:unknown", "com.example:missing:1.0"),
+                new ArrayList<>(graph.failures().keySet())
+            );
+            final int requests = server.requests();
+            Assertions.assertEquals(requests - 1, resolver.reads());
+            resolver.resolve(root);
+            Assertions.assertEquals(requests - 1, resolver.reads());
+            Assertions.assertEquals(requests + 1, server.requests());
+        }
+    }
+
+    /**
+     * Check that the versions which are managed by the parent are resolved
+     * and the managed dependencies of the root override the transitive
+     * versions.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testManagedVersions() throws Exception {
+        final FakePoms poms = new FakePoms()
+            .with(
+                "com.example:parent:1",
+                String.join(
+                    "",
+                    "<dependencyManagement>",
+                    FakePoms.dependencies(
+                        FakePoms.dependency("com.example:lib:2.0", ""),
+                        FakePoms.dependency("com.example:util:1.5", "")
+                    ),
+                    "</dependencyManagement>"
+                )
+            )
+            .with(
+                "com.example:app:1.0",
+                "<parent><groupId>com.example</groupId><artifactId>parent"
+                    + "</artifactId><version>1</version></parent>"
+                    + FakePoms.dependencies(
+                        FakePoms.dependency("com.example:lib", "")
+                    )
+            )
+            .with(
+                "com.example:lib:2.0",
+                FakePoms.dependencies(
+                    FakePoms.dependency("com.example:util:1.0", "")
+                )
+            )
+            .with("com.example:util:1.5", "");
+        try (StubServer server = new StubServer(poms)) {
+            final DependencyGraph graph = new DependencyResolver(
+                server.url(), new UrlTransport()
+            ).resolve(DependencyResolverTest.version("com.example:app:1.0"));
+            Assertions.assertEquals(
+                List.of("com.example:lib:2.0", "com.example:util:1.5"),
+                DependencyResolverTest.identifiers(graph.versions())
+            );
+            Assertions.assertTrue(graph.failures().isEmpty());
+        }
+    }
+
+    /**
+     * Check that the effective scopes follow the scope table of Maven and
+     * the version ranges are reported as unsupported.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testScopes() throws Exception {
+        final FakePoms poms = new FakePoms()
+            .with(
+                "com.example:app:1.0",
+                FakePoms.dependencies(
+                    FakePoms.dependency(
+                        "com.example:lib-a:1.0", "<scope>runtime</scope>"
+                    ),
+                    FakePoms.dependency("com.example:lib-b:1.0", "")
+                )
+            )
+            .with(
+                "com.example:lib-a:1.0",
+                FakePoms.dependencies(
+                    FakePoms.dependency("com.example:common:1.0", "")
+                )
+            )
+            .with(
+                "com.example:lib-b:1.0",
+                FakePoms.dependencies(
+                    FakePoms.dependency(
+                        "com.example:driver:1.0", "<scope>runtime</scope>"
+                    ),
+                    FakePoms.dependency("com.example:api:1.0", ""),
+                    FakePoms.dependency("com.example:ranged:[1.0,2.0)", "")
+                )
+            )
+            .with("com.example:common:1.0", "")
+            .with("com.example:driver:1.0", "")
+            .with("com.example:api:1.0", "");
+        try (StubServer server = new StubServer(poms)) {
+            final DependencyGraph graph = new DependencyResolver(
+                server.url(), new UrlTransport()
+            ).resolve(DependencyResolverTest.version("com.example:app:1.0"));
+            final Map<String, String> scopes = new LinkedHashMap<>();
+            for (final MvnArtifactVersion version : graph.versions()) {
+                scopes.put(version.identifier(), graph.scope(version));
+            }
+            Assertions.assertEquals(
+                Map.of(
+                    "com.example:lib-a:1.0", "runtime",
+                    "com.example:lib-b:1.0", "compile",
+                    "com.example:common:1.0", "runtime",
+                    "com.example:driver:1.0", "runtime",
+                    "com.example:api:1.0", "compile"
+                ),
+                scopes
+            );
+            Assertions.assertEquals(
+                List.of("com.example:ranged"),
+                new ArrayList<>(graph.failures().keySet())
+            );
+            Assertions.assertTrue(
+                graph.failures().get("com.example:ranged").getMessage()
+                    .contains("not supported")
+            );
+            Assertions.assertNull(graph.scope(graph.root()));
+        }
+    }
+
+    /**
+     * Check that the siblings are read concurrently, but not more than the
+     * configured amount at the same time.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testWideGraph() throws Exception {
+        final FakePoms poms = new FakePoms();
+        final List<String> deps = new ArrayList<>(0);
+        for (int idx = 0; idx < DependencyResolverTest.WIDTH; ++idx) {
+            final String coordinates =
+                String.format("com.example:lib%d:1.0", idx);
+            poms.with(coordinates, "");
+            deps.add(FakePoms.dependency(coordinates, ""));
+        }
+        poms.with(
+            "com.example:app:1.0",
+            FakePoms.dependencies(deps.toArray(new String[0]))
+        );
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    max.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(DependencyResolverTest.DELAY);
+                        poms.handle(exchange);
+                    } catch (final InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        active.decrementAndGet();
+                    }
+                }
+            )
+        ) {
+            final DependencyGraph graph = new DependencyResolver(
+                server.url(), new UrlTransport(), 2 + 2
+            ).resolve(DependencyResolverTest.version("com.example:app:1.0"));
+            Assertions.assertEquals(
+                DependencyResolverTest.WIDTH, graph.versions().size()
+            );
+            Assertions.assertTrue(graph.failures().isEmpty());
+            Assertions.assertTrue(max.get() > 1);
+            Assertions.assertTrue(max.get() <= 2 + 2);
+        }
+    }
+
+    /**
+     * Create the version.
+     *
+     * @param coordinates The "group:artifact:version".
+     * @return The version.
+     */
+    private static MvnArtifactVersion version(final String coordinates) {
+        final String[] parts = coordinates.split(":");
+        return new MavenArtifactVersion(
+            CoordinatePool.SHARED.artifact(parts[0], parts[1]), parts[2],
+            MvnPackagingType.JAR, null
+        );
+    }
+
+    /**
+     * The identifiers of the versions.
+     *
+     * @param versions The versions.
+     * @return The identifiers.
+     */
+    private static List<String> identifiers(
+        final List<MvnArtifactVersion> versions
+    ) {
+        final List<String> result = new ArrayList<>(versions.size());
+        for (final MvnArtifactVersion version : versions) {
+            result.add(version.identifier());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The tests for {@link DiskCachedTransport}.
+ *
+ * @since 2.0
+ */
+final class DiskCachedTransportTest {
+
+    /**
+     * Three.
+     */
+    private static final int THREE = 3;
+
+    /**
+     * The ETag of the served metadata.
+     */
+    private static final String ETAG = "\"v1\"";
+
+    /**
+     * The Last-Modified of the served metadata.
+     */
+    private static final String MODIFIED = "Thu, 02 Mar 2017 18:33:02 GMT";
+
+    /**
+     * The artifact which we use for tests.
+     */
+    private final MvnArtifact mine = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+    );
+
+    /**
+     * Check that the metadata is downloaded only once and revalidated by
+     * ETag afterwards, even after the restart.
+     *
+     * @param dir Temporary cache directory.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testRevalidateByEtag(@TempDir final Path dir) throws Exception {
+        final byte[] metadata = StubServer.resource("maven-metadata.xml");
+        final AtomicInteger full = new AtomicInteger();
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    exchange.getResponseHeaders().add("ETag", ETAG);
+                    if (ETAG.equals(
+                        exchange.getRequestHeaders().getFirst("If-None-Match")
+                    )) {
+                        StubServer.send(
+                            exchange, MvnResponse.NOT_MODIFIED, new byte[0]
+                        );
+                    } else {
+                        full.incrementAndGet();
+                        StubServer.send(exchange, MvnResponse.OK, metadata);
+                    }
+                }
+            )
+        ) {
+            final DiskCachedTransport transport =
+                new DiskCachedTransport(new UrlTransport(), dir);
+            final MvnRepo repo = new MavenCentral(
+                server.url(), server.url(), transport
+            );
+            final List<MvnArtifactVersion> first = repo.findVersions(this.mine);
+            Assertions.assertEquals(first, repo.findVersions(this.mine));
+            Assertions.assertEquals(
+                first,
+                new MavenCentral(
+                    server.url(), server.url(),
+                    new DiskCachedTransport(new UrlTransport(), dir)
+                ).findVersions(this.mine)
+            );
+            Assertions.assertEquals("0.2.1", first.get(0).name());
+            Assertions.assertEquals(1, full.get());
+            Assertions.assertEquals(
+                DiskCachedTransportTest.THREE, server.requests()
+            );
+            Assertions.assertEquals(1, transport.revalidations());
+        }
+    }
+
+    /**
+     * Check that the response is revalidated by Last-Modified and replaced
+     * when the server sends the new content.
+     *
+     * @param dir Temporary cache directory.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testRevalidateByLastModified(
+        @TempDir final Path dir
+    ) throws Exception {
+        final AtomicInteger full = new AtomicInteger();
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    exchange.getResponseHeaders().add(
+                        "Last-Modified", MODIFIED
+                    );
+                    if (MODIFIED.equals(
+                        exchange.getRequestHeaders()
+                            .getFirst("If-Modified-Since")
+                    ) && full.get() == 1) {
+                        StubServer.send(
+                            exchange, MvnResponse.NOT_MODIFIED, new byte[0]
+                        );
+                    } else {
+                        StubServer.send(
+                            exchange, MvnResponse.OK,
+                            String.valueOf(full.incrementAndGet())
+                                .getBytes(StandardCharsets.UTF_8)
+                        );
+                    }
+                }
+            )
+        ) {
+            final MvnTransport transport =
+                new DiskCachedTransport(new UrlTransport(), dir);
+            final URI uri = URI.create(server.url());
+            Assertions.assertEquals("1", DiskCachedTransportTest.body(
+                transport.get(uri, Collections.emptyMap())
+            ));
+            Assertions.assertEquals("1", DiskCachedTransportTest.body(
+                transport.get(uri, Collections.emptyMap())
+            ));
+            full.incrementAndGet();
+            Assertions.assertEquals("3", DiskCachedTransportTest.body(
+                transport.get(uri, Collections.emptyMap())
+            ));
+            try (
+                MvnResponse response = transport.get(
+                    uri, Map.of("If-Modified-Since", MODIFIED)
+                )
+            ) {
+                Assertions.assertEquals(MvnResponse.OK, response.status());
+            }
+            Assertions.assertEquals(1, Files.list(dir).count());
+        }
+    }
+
+    /**
+     * Check that we don't store the responses without validators and the
+     * error responses.
+     *
+     * @param dir Temporary cache directory.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testSkipUncacheable(@TempDir final Path dir) throws Exception {
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    if (exchange.getRequestURI().getPath().contains("/404/")) {
+                        exchange.getResponseHeaders().add("ETag", ETAG);
+                        StubServer.send(exchange, 404, new byte[0]);
+                    } else {
+                        StubServer.send(
+                            exchange, MvnResponse.OK,
+                            "plain".getBytes(StandardCharsets.UTF_8)
+                        );
+                    }
+                }
+            )
+        ) {
+            final MvnTransport transport =
+                new DiskCachedTransport(new UrlTransport(), dir);
+            Assertions.assertEquals("plain", DiskCachedTransportTest.body(
+                transport.get(URI.create(server.url()), Collections.emptyMap())
+            ));
+            Assertions.assertThrows(
+                MvnException.class,
+                () -> new MavenCentral(
+                    String.format("%s/404", server.url()), server.url(),
+                    transport
+                ).findVersions(this.mine)
+            );
+            Assertions.assertEquals(0, Files.list(dir).count());
+        }
+    }
+
+    /**
+     * Check that the truncated cache file is a cache miss: it is replaced
+     * with the response of the unconditional request, both when the
+     * validators can't be read and when the body can't be served after
+     * "304 Not Modified".
+     *
+     * @param dir Temporary cache directory.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testTruncated(@TempDir final Path dir) throws Exception {
+        final AtomicInteger full = new AtomicInteger();
+        final MvnTransport transport = new DiskCachedTransport(
+            (uri, headers) -> {
+                final MvnResponse response;
+                if (headers.containsKey("If-None-Match")) {
+                    DiskCachedTransportTest.truncate(dir);
+                    response = new MvnResponse(
+                        MvnResponse.NOT_MODIFIED, Collections.emptyMap(),
+                        new ByteArrayInputStream(new byte[0])
+                    );
+                } else {
+                    full.incrementAndGet();
+                    response = new MvnResponse(
+                        MvnResponse.OK, Map.of("ETag", List.of(ETAG)),
+                        new ByteArrayInputStream(
+                            "full".getBytes(StandardCharsets.UTF_8)
+                        )
+                    );
+                }
+                return response;
+            },
+            dir
+        );
+        final URI uri = URI.create("http://localhost/x");
+        Assertions.assertEquals("full", DiskCachedTransportTest.body(
+            transport.get(uri, Collections.emptyMap())
+        ));
+        DiskCachedTransportTest.truncate(dir);
+        Assertions.assertEquals("full", DiskCachedTransportTest.body(
+            transport.get(uri, Collections.emptyMap())
+        ));
+        Assertions.assertEquals(2, full.get());
+        Assertions.assertEquals("full", DiskCachedTransportTest.body(
+            transport.get(uri, Collections.emptyMap())
+        ));
+        Assertions.assertEquals(2 + 1, full.get());
+        Assertions.assertEquals(1, Files.list(dir).count());
+    }
+
+    /**
+     * Truncate the cache files to their first two bytes.
+     *
+     * @param dir The cache directory.
+     * @throws IOException If something went wrong.
+     */
+    private static void truncate(final Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (final Path file : files.toList()) {
+                Files.write(
+                    file, Arrays.copyOf(Files.readAllBytes(file), 2)
+                );
+            }
+        }
+    }
+
+    /**
+     * Read the response body as a string.
+     *
+     * @param response The response.
+     * @return The body.
+     * @throws IOException If reading fails.
+     */
+    private static String body(final MvnResponse response) throws IOException {
+        try (response) {
+            return new String(
+                response.body().readAllBytes(), StandardCharsets.UTF_8
+            );
+        }
+    }
+}
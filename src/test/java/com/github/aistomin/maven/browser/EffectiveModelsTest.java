@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link EffectiveModels}.
+ *
+ * @since 2.0
+ */
+final class EffectiveModelsTest {
+
+    /**
+     * The amount of the children which share the parent.
+     */
+    private static final int CHILDREN = 8;
+
+    /**
+     * The parent of the projects.
+     */
+    private static final String PARENT = String.join(
+        "",
+        "<packaging>pom</packaging>",
+        "<properties><lib.version>1.0</lib.version></properties>",
+        "<dependencyManagement>",
+        FakePoms.dependencies(
+            FakePoms.dependency("org.example:lib:${lib.version}", ""),
+            FakePoms.dependency(
+                "org.example:bom:1", "<type>pom</type><scope>import</scope>"
+            )
+        ),
+        "</dependencyManagement>",
+        FakePoms.dependencies(FakePoms.dependency("org.example:log:1.0", ""))
+    );
+
+    /**
+     * The imported BOM.
+     */
+    private static final String BOM = String.join(
+        "",
+        "<packaging>pom</packaging>",
+        "<properties><x.version>5.0</x.version></properties>",
+        "<dependencyManagement>",
+        FakePoms.dependencies(
+            FakePoms.dependency("org.example:x:${x.version}", ""),
+            FakePoms.dependency("org.example:lib:9.9", "")
+        ),
+        "</dependencyManagement>"
+    );
+
+    /**
+     * Check that the parents and the BOMs are merged and interpolated in the
+     * context of the child.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testModel() throws Exception {
+        final FakePoms poms = new FakePoms()
+            .with("org.example:parent:1", EffectiveModelsTest.PARENT)
+            .with("org.example:bom:1", EffectiveModelsTest.BOM)
+            .with(
+                "org.example:first:3.0",
+                String.join(
+                    "",
+                    EffectiveModelsTest.parent(),
+                    "<properties><lib.version>2.0</lib.version></properties>",
+                    FakePoms.dependencies(
+                        FakePoms.dependency("org.example:lib", ""),
+                        FakePoms.dependency("org.example:x", ""),
+                        FakePoms.dependency(
+                            "org.example:self:${project.version}",
+                            "<scope>test</scope>"
+                        )
+                    )
+                )
+            )
+            .with(
+                "org.example:second:4.0",
+                EffectiveModelsTest.parent()
+                    + FakePoms.dependencies(
+                        FakePoms.dependency("org.example:lib", "")
+                    )
+            );
+        try (StubServer server = new StubServer(poms)) {
+            final EffectiveModels models =
+                new EffectiveModels(server.url(), new UrlTransport());
+            final EffectiveModel first = models.model(
+                EffectiveModelsTest.version("org.example:first:3.0")
+            );
+            Assertions.assertEquals(
+                List.of(
+                    "org.example:log:1.0", "org.example:lib:2.0",
+                    "org.example:x:5.0", "org.example:self:3.0"
+                ),
+                EffectiveModelsTest.strings(first.dependencies())
+            );
+            Assertions.assertEquals(
+                "test", first.dependencies().get(2 + 1).scope()
+            );
+            Assertions.assertEquals(
+                "2.0", first.properties().get("lib.version")
+            );
+            Assertions.assertEquals(
+                "org.example:first:3.0", first.version().identifier()
+            );
+            final EffectiveModel second = models.model(
+                EffectiveModelsTest.version("org.example:second:4.0")
+            );
+            Assertions.assertEquals(
+                List.of("org.example:log:1.0", "org.example:lib:1.0"),
+                EffectiveModelsTest.strings(second.dependencies())
+            );
+            Assertions.assertEquals(
+                "9.9",
+                models.model(EffectiveModelsTest.version("org.example:bom:1"))
+                    .managed().get("org.example:lib:jar").version()
+            );
+            Assertions.assertSame(
+                models.model(
+                    EffectiveModelsTest.version("org.example:parent:1")
+                ),
+                models.model(
+                    EffectiveModelsTest.version("org.example:parent:1")
+                )
+            );
+            Assertions.assertEquals(2 + 2, server.requests());
+            Assertions.assertEquals(2 + 2, models.reads());
+            Assertions.assertEquals(2 + 2, models.size());
+        }
+    }
+
+    /**
+     * Check that the parent which is shared by the children which are built
+     * concurrently is read once.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testSharedParent() throws Exception {
+        final FakePoms poms = new FakePoms()
+            .with("org.example:parent:1", EffectiveModelsTest.PARENT)
+            .with("org.example:bom:1", EffectiveModelsTest.BOM);
+        for (int idx = 0; idx < EffectiveModelsTest.CHILDREN; ++idx) {
+            poms.with(
+                String.format("org.example:child%d:1", idx),
+                EffectiveModelsTest.parent()
+            );
+        }
+        try (
+            StubServer server = new StubServer(poms);
+            ExecutorService threads =
+                Executors.newVirtualThreadPerTaskExecutor()
+        ) {
+            final EffectiveModels models =
+                new EffectiveModels(server.url(), new UrlTransport());
+            final List<Future<EffectiveModel>> built = new ArrayList<>(0);
+            for (int idx = 0; idx < EffectiveModelsTest.CHILDREN; ++idx) {
+                final MvnArtifactVersion child = EffectiveModelsTest.version(
+                    String.format("org.example:child%d:1", idx)
+                );
+                built.add(threads.submit(() -> models.model(child)));
+            }
+            for (final Future<EffectiveModel> model : built) {
+                Assertions.assertEquals(
+                    "org.example:x:5.0",
+                    model.get().managed().get("org.example:x:jar").toString()
+                );
+            }
+            Assertions.assertEquals(
+                EffectiveModelsTest.CHILDREN + 2, server.requests()
+            );
+        }
+    }
+
+    /**
+     * Check that the dependencies and the managed dependencies which differ
+     * only by the classifier or the type are all kept.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testClassifiers() throws Exception {
+        final FakePoms poms = new FakePoms().with(
+            "org.example:app:1",
+            String.join(
+                "",
+                "<dependencyManagement>",
+                FakePoms.dependencies(
+                    FakePoms.dependency("org.example:util:1.0", ""),
+                    FakePoms.dependency(
+                        "org.example:util:2.0", "<type>test-jar</type>"
+                    )
+                ),
+                "</dependencyManagement>",
+                FakePoms.dependencies(
+                    FakePoms.dependency(
+                        "io.netty:netty-transport-native-epoll:4.1",
+                        "<classifier>linux-x86_64</classifier>"
+                    ),
+                    FakePoms.dependency(
+                        "io.netty:netty-transport-native-epoll:4.1",
+                        "<classifier>linux-aarch_64</classifier>"
+                    ),
+                    FakePoms.dependency(
+                        "org.example:util", "<type>test-jar</type>"
+                    )
+                )
+            )
+        );
+        try (StubServer server = new StubServer(poms)) {
+            final EffectiveModel model = new EffectiveModels(
+                server.url(), new UrlTransport()
+            ).model(EffectiveModelsTest.version("org.example:app:1"));
+            final List<PomDependency> deps = model.dependencies();
+            Assertions.assertEquals(2 + 1, deps.size());
+            Assertions.assertEquals("linux-x86_64", deps.get(0).classifier());
+            Assertions.assertEquals("linux-aarch_64", deps.get(1).classifier());
+            Assertions.assertEquals(
+                "io.netty:netty-transport-native-epoll:jar:linux-aarch_64",
+                deps.get(1).key()
+            );
+            Assertions.assertEquals("2.0", deps.get(2).version());
+            Assertions.assertEquals(
+                "1.0", model.managed().get("org.example:util:jar").version()
+            );
+            Assertions.assertEquals(
+                "2.0",
+                model.managed().get("org.example:util:test-jar").version()
+            );
+        }
+    }
+
+    /**
+     * Check that the cycles of the parents are reported.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testCycle() throws Exception {
+        final FakePoms poms = new FakePoms()
+            .with(
+                "org.example:parent:1",
+                "<parent><groupId>org.example</groupId><artifactId>other"
+                    + "</artifactId><version>1</version></parent>"
+            )
+            .with("org.example:other:1", EffectiveModelsTest.parent());
+        try (StubServer server = new StubServer(poms)) {
+            final EffectiveModels models =
+                new EffectiveModels(server.url(), new UrlTransport());
+            Assertions.assertThrows(
+                MvnException.class,
+                () -> models.model(
+                    EffectiveModelsTest.version("org.example:other:1")
+                )
+            );
+            Assertions.assertEquals(0, models.size());
+        }
+    }
+
+    /**
+     * Check that the builder keeps not more than the configured amount of
+     * the models and reads the evicted POMs again.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testBounded() throws Exception {
+        final FakePoms poms = new FakePoms()
+            .with("org.example:parent:1", EffectiveModelsTest.PARENT)
+            .with("org.example:bom:1", EffectiveModelsTest.BOM)
+            .with("org.example:child:1", EffectiveModelsTest.parent());
+        try (StubServer server = new StubServer(poms)) {
+            final EffectiveModels models =
+                new EffectiveModels(server.url(), new UrlTransport(), 1);
+            final MvnArtifactVersion child =
+                EffectiveModelsTest.version("org.example:child:1");
+            models.model(child);
+            Assertions.assertEquals(1, models.size());
+            final int requests = server.requests();
+            models.model(child);
+            Assertions.assertEquals(requests, server.requests());
+            models.model(EffectiveModelsTest.version("org.example:bom:1"));
+            Assertions.assertEquals(1, models.size());
+            models.model(child);
+            Assertions.assertTrue(server.requests() > requests);
+        }
+    }
+
+    /**
+     * Check that one builder is shared per repository.
+     */
+    @Test
+    void testShared() {
+        Assertions.assertSame(
+            EffectiveModels.shared(EffectiveModels.CENTRAL),
+            EffectiveModels.shared(EffectiveModels.CENTRAL)
+        );
+        Assertions.assertNotSame(
+            EffectiveModels.shared(EffectiveModels.CENTRAL),
+            EffectiveModels.shared("https://repo.example.org/maven2")
+        );
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new EffectiveModels(
+                EffectiveModels.CENTRAL, new UrlTransport(), 0
+            )
+        );
+    }
+
+    /**
+     * The "parent" element which refers to "org.example:parent:1".
+     *
+     * @return The element.
+     */
+    private static String parent() {
+        return "<parent><groupId>org.example</groupId><artifactId>parent"
+            + "</artifactId><version>1</version></parent>";
+    }
+
+    /**
+     * Create the version.
+     *
+     * @param coordinates The "group:artifact:version".
+     * @return The version.
+     */
+    private static MvnArtifactVersion version(final String coordinates) {
+        final String[] parts = coordinates.split(":");
+        return new MavenArtifactVersion(
+            CoordinatePool.SHARED.artifact(parts[0], parts[1]), parts[2],
+            MvnPackagingType.POM, null
+        );
+    }
+
+    /**
+     * The dependencies as strings.
+     *
+     * @param deps The dependencies.
+     * @return The "group:artifact:version" strings.
+     */
+    private static List<String> strings(final List<PomDependency> deps) {
+        final List<String> result = new ArrayList<>(deps.size());
+        for (final PomDependency dep : deps) {
+            result.add(dep.toString());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory {@link MvnRepo} which we use in the tests instead of the real
+ * remote repository. It counts the calls and may hold them until the gate is
+ * opened, except for the first free ones.
+ *
+ * @since 2.0
+ */
+final class FakeMvnRepo implements MvnRepo {
+
+    /**
+     * The versions of the artifacts, newest first.
+     */
+    private final Map<MvnArtifact, List<String>> versions;
+
+    /**
+     * The amount of the calls to the repository.
+     */
+    private final AtomicInteger count;
+
+    /**
+     * The gate which holds the calls until it is opened.
+     */
+    private final CountDownLatch gate;
+
+    /**
+     * The amount of the first calls which are not held by the gate.
+     */
+    private final int free;
+
+    /**
+     * The amount of the calls which were interrupted at the gate.
+     */
+    private final AtomicInteger interrupts;
+
+    /**
+     * Ctor.
+     *
+     * @param latch The gate which holds the calls until it is opened.
+     * @param passed The amount of the first calls which are not held by the
+     *  gate.
+     */
+    FakeMvnRepo(final CountDownLatch latch, final int passed) {
+        this.versions = new ConcurrentHashMap<>();
+        this.count = new AtomicInteger();
+        this.gate = latch;
+        this.free = passed;
+        this.interrupts = new AtomicInteger();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param latch The gate which holds the calls until it is opened.
+     */
+    FakeMvnRepo(final CountDownLatch latch) {
+        this(latch, 0);
+    }
+
+    /**
+     * Ctor.
+     */
+    FakeMvnRepo() {
+        this(new CountDownLatch(0));
+    }
+
+    /**
+     * Register the artifact in the repository.
+     *
+     * @param artifact The artifact.
+     * @param names The names of the versions, newest first.
+     * @return This repository.
+     */
+    FakeMvnRepo with(final MvnArtifact artifact, final String... names) {
+        this.versions.put(artifact, List.of(names));
+        return this;
+    }
+
+    /**
+     * The amount of the calls to the repository.
+     *
+     * @return The amount of the calls.
+     */
+    int calls() {
+        return this.count.get();
+    }
+
+    /**
+     * The amount of the calls which were interrupted at the gate.
+     *
+     * @return The amount of the calls.
+     */
+    int interrupted() {
+        return this.interrupts.get();
+    }
+
+    @Override
+    public List<MvnArtifact> findArtifacts(
+        final String str
+    ) throws MvnException {
+        return this.findArtifacts(str, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public List<MvnArtifact> findArtifacts(
+        final String str, final Integer start, final Integer rows
+    ) throws MvnException {
+        this.enter();
+        return this.versions.keySet()
+            .stream()
+            .filter(artifact -> artifact.identifier().contains(str))
+            .sorted((first, second) -> first.identifier().compareTo(
+                second.identifier()
+            ))
+            .skip(start)
+            .limit(rows)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersions(
+        final MvnArtifact artifact
+    ) throws MvnException {
+        return this.findVersions(artifact, 0, MavenCentral.MAX_ROWS);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersions(
+        final MvnArtifact artifact, final Integer start, final Integer rows
+    ) throws MvnException {
+        this.enter();
+        final List<String> names = this.versions.get(artifact);
+        if (names == null) {
+            throw new MvnException(
+                new IOException(String.format("%s not found", artifact))
+            );
+        }
+        return names.stream()
+            .skip(start)
+            .limit(rows)
+            .map(
+                name -> new MavenArtifactVersion(
+                    artifact, name, MvnPackagingType.JAR, null
+                )
+            )
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsNewerThan(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.index(version.artifact()).require(version)
+            .newerThan(version);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsOlderThan(
+        final MvnArtifactVersion version
+    ) throws MvnException {
+        return this.index(version.artifact()).require(version)
+            .olderThan(version);
+    }
+
+    @Override
+    public List<MvnArtifactVersion> findVersionsBetween(
+        final MvnArtifactVersion from, final MvnArtifactVersion to
+    ) throws MvnException {
+        return this.index(from.artifact()).require(from).require(to)
+            .between(from, to);
+    }
+
+    /**
+     * Load all the versions of the artifact into the sorted index.
+     *
+     * @param artifact The artifact.
+     * @return The index of the versions.
+     * @throws MvnException If there is no such artifact.
+     */
+    private VersionIndex index(
+        final MvnArtifact artifact
+    ) throws MvnException {
+        return new VersionIndex(
+            this.findVersions(artifact, 0, Integer.MAX_VALUE)
+        );
+    }
+
+    /**
+     * Count the call and wait until the gate is opened.
+     *
+     * @throws MvnException If the waiting was interrupted.
+     */
+    private void enter() throws MvnException {
+        if (this.count.incrementAndGet() <= this.free) {
+            return;
+        }
+        try {
+            this.gate.await();
+        } catch (final InterruptedException exception) {
+            this.interrupts.incrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new MvnException(exception);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The handler of {@link StubServer} which serves the POMs from memory. The
+ * unknown POMs are answered with HTTP 404.
+ *
+ * @since 2.0
+ */
+final class FakePoms implements HttpHandler {
+
+    /**
+     * HTTP status "Not Found".
+     */
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * The POMs by the paths.
+     */
+    private final Map<String, byte[]> poms;
+
+    /**
+     * Ctor.
+     */
+    FakePoms() {
+        this.poms = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Register the POM.
+     *
+     * @param coordinates The "group:artifact:version" of the POM.
+     * @param content The content of "project" element except the
+     *  coordinates.
+     * @return This handler.
+     */
+    FakePoms with(final String coordinates, final String content) {
+        final String[] parts = coordinates.split(":");
+        this.poms.put(
+            String.format(
+                "/%s/%s/%s/%s-%s.pom", parts[0].replace('.', '/'), parts[1],
+                parts[2], parts[1], parts[2]
+            ),
+            String.format(
+                "<?xml version=\"1.0\"?><project><modelVersion>4.0.0"
+                    + "</modelVersion><groupId>%s</groupId><artifactId>%s"
+                    + "</artifactId><version>%s</version>%s</project>",
+                parts[0], parts[1], parts[2], content
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        return this;
+    }
+
+    /**
+     * The "dependencies" element.
+     *
+     * @param dependencies The "dependency" elements.
+     * @return The element.
+     */
+    static String dependencies(final String... dependencies) {
+        return String.format(
+            "<dependencies>%s</dependencies>", String.join("", dependencies)
+        );
+    }
+
+    /**
+     * The "dependency" element.
+     *
+     * @param coordinates The "group:artifact:version" or "group:artifact" of
+     *  the dependency.
+     * @param extra The additional children of the element.
+     * @return The element.
+     */
+    static String dependency(final String coordinates, final String extra) {
+        final String[] parts = coordinates.split(":");
+        final StringBuilder xml = new StringBuilder("<dependency>")
+            .append("<groupId>").append(parts[0]).append("</groupId>")
+            .append("<artifactId>").append(parts[1]).append("</artifactId>");
+        if (parts.length > 2) {
+            xml.append("<version>").append(parts[2]).append("</version>");
+        }
+        return xml.append(extra).append("</dependency>").toString();
+    }
+
+    @Override
+    public void handle(final HttpExchange exchange) throws IOException {
+        final byte[] pom = this.poms.get(exchange.getRequestURI().getPath());
+        if (pom == null) {
+            StubServer.send(exchange, FakePoms.NOT_FOUND, new byte[0]);
+        } else {
+            StubServer.send(exchange, MvnResponse.OK, pom);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link FederatedRepo}.
+ *
+ * @since 2.0
+ */
+final class FederatedRepoTest {
+
+    /**
+     * The timeout which we use for tests.
+     */
+    private static final Duration TIMEOUT = Duration.ofMillis(200);
+
+    /**
+     * The artifact which we use for tests.
+     */
+    private final MvnArtifact mine = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+    );
+
+    /**
+     * Another artifact which we use for tests.
+     */
+    private final MvnArtifact other = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "maven-browser"
+    );
+
+    /**
+     * Check that the versions of the repositories are merged, deduplicated
+     * and sorted.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testMerge() throws Exception {
+        final FederatedRepo repo = new FederatedRepo(
+            new FakeMvnRepo().with(this.mine, "0.2.1", "0.2", "0.1"),
+            new FakeMvnRepo()
+                .with(this.mine, "0.3", "0.2", "0.0.1")
+                .with(this.other, "1.0")
+        );
+        final List<MvnArtifactVersion> all = repo.findVersions(this.mine);
+        Assertions.assertEquals(
+            List.of("0.3", "0.2.1", "0.2", "0.1", "0.0.1"),
+            FederatedRepoTest.names(all)
+        );
+        Assertions.assertEquals(
+            List.of("0.2.1", "0.2"),
+            FederatedRepoTest.names(repo.findVersions(this.mine, 1, 2))
+        );
+        Assertions.assertEquals(
+            List.of("0.3", "0.2.1"),
+            FederatedRepoTest.names(repo.findVersionsNewerThan(all.get(2)))
+        );
+        Assertions.assertEquals(
+            List.of("0.1", "0.0.1"),
+            FederatedRepoTest.names(repo.findVersionsOlderThan(all.get(2)))
+        );
+        Assertions.assertEquals(
+            List.of("0.2.1", "0.2"),
+            FederatedRepoTest.names(
+                repo.findVersionsBetween(all.get(2 + 1), all.get(1))
+            )
+        );
+        Assertions.assertEquals(
+            List.of("1.0"),
+            FederatedRepoTest.names(repo.findVersions(this.other))
+        );
+        Assertions.assertEquals(
+            List.of(this.mine, this.other), repo.findArtifacts("aistomin")
+        );
+        Assertions.assertEquals(
+            List.of(this.other), repo.findArtifacts("aistomin", 1, 1)
+        );
+        Assertions.assertThrows(
+            MvnException.class,
+            () -> repo.findVersions(
+                new MavenArtifact(new MavenGroup("org"), "missing")
+            )
+        );
+    }
+
+    /**
+     * Check that the slow repository doesn't stall the answer.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testTimeout() throws Exception {
+        final CountDownLatch gate = new CountDownLatch(1);
+        final FederatedRepo repo = new FederatedRepo(
+            List.of(
+                new FakeMvnRepo(gate).with(this.mine, "0.3"),
+                new FakeMvnRepo().with(this.mine, "0.2", "0.1")
+            ),
+            FederatedRepoTest.TIMEOUT, FederatedRepo.Mode.MERGE
+        );
+        try {
+            Assertions.assertEquals(
+                List.of("0.2", "0.1"),
+                FederatedRepoTest.names(repo.findVersions(this.mine))
+            );
+            Assertions.assertEquals(1, repo.timeouts());
+            final FederatedRepo stalled = new FederatedRepo(
+                List.of(new FakeMvnRepo(gate).with(this.mine, "0.3")),
+                FederatedRepoTest.TIMEOUT, FederatedRepo.Mode.MERGE
+            );
+            Assertions.assertThrows(
+                MvnException.class, () -> stalled.findVersions(this.mine)
+            );
+        } finally {
+            gate.countDown();
+        }
+    }
+
+    /**
+     * Check that the first responder wins in the first mode.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testFirst() throws Exception {
+        final CountDownLatch gate = new CountDownLatch(1);
+        final FederatedRepo repo = new FederatedRepo(
+            List.of(
+                new FakeMvnRepo(gate).with(this.mine, "0.3", "0.2"),
+                new FakeMvnRepo().with(this.other, "1.0"),
+                new FakeMvnRepo().with(this.mine, "0.2", "0.1")
+            ),
+            FederatedRepo.TIMEOUT, FederatedRepo.Mode.FIRST
+        );
+        try {
+            Assertions.assertEquals(
+                List.of("0.2", "0.1"),
+                FederatedRepoTest.names(repo.findVersions(this.mine))
+            );
+            Assertions.assertEquals(0, repo.timeouts());
+        } finally {
+            gate.countDown();
+        }
+        final FederatedRepo broken = new FederatedRepo(
+            List.of(new FakeMvnRepo(), new FakeMvnRepo()),
+            FederatedRepo.TIMEOUT, FederatedRepo.Mode.FIRST
+        );
+        Assertions.assertThrows(
+            MvnException.class, () -> broken.findVersions(this.mine)
+        );
+    }
+
+    /**
+     * The names of the versions.
+     *
+     * @param versions The versions.
+     * @return The names.
+     */
+    private static List<String> names(
+        final List<MvnArtifactVersion> versions
+    ) {
+        return versions.stream()
+            .map(MvnArtifactVersion::name)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link HistogramMetrics}.
+ *
+ * @since 2.0
+ */
+final class HistogramMetricsTest {
+
+    /**
+     * The artifact which we use for tests.
+     */
+    private final MvnArtifact mine = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+    );
+
+    /**
+     * Check that we record the metrics and render them.
+     */
+    @Test
+    void testScrape() {
+        final HistogramMetrics metrics = new HistogramMetrics();
+        metrics.timing("findVersions", MvnPhase.PARSE, 1_500L);
+        metrics.timing("findVersions", MvnPhase.PARSE, 3_000L);
+        metrics.bytes("findVersions", 512L);
+        metrics.results("findVersions", 5);
+        metrics.error("findArtifacts", new IOException("boom"));
+        Assertions.assertEquals(
+            2L, metrics.histogram("findVersions", MvnPhase.PARSE).count()
+        );
+        Assertions.assertEquals(512L, metrics.bytesRead("findVersions"));
+        Assertions.assertEquals(5L, metrics.resultCount("findVersions"));
+        Assertions.assertEquals(
+            1L, metrics.errorCount("findArtifacts", IOException.class)
+        );
+        Assertions.assertEquals(
+            0L, metrics.errorCount("findVersions", IOException.class)
+        );
+        final String text = metrics.scrape();
+        for (final String bucket : List.of("0\"} 0", "1023\"} 0",
+            "2047\"} 1", "4095\"} 2", "+Inf\"} 2")) {
+            Assertions.assertTrue(
+                text.contains(
+                    String.join(
+                        "",
+                        "mvn_phase_nanoseconds_bucket{",
+                        "operation=\"findVersions\",phase=\"parse\",le=\"",
+                        bucket, "\n"
+                    )
+                ),
+                text
+            );
+        }
+        Assertions.assertEquals(
+            LatencyHistogram.BUCKETS,
+            text.lines().filter(
+                line -> line.startsWith("mvn_phase_nanoseconds_bucket{")
+            ).count()
+        );
+        Assertions.assertTrue(
+            text.contains(
+                String.join(
+                    "",
+                    "mvn_phase_nanoseconds_count{operation=\"findVersions\",",
+                    "phase=\"parse\"} 2\n"
+                )
+            ),
+            text
+        );
+        Assertions.assertFalse(text.contains("phase=\"map\""), text);
+        Assertions.assertTrue(
+            text.contains("mvn_bytes_total{operation=\"findVersions\"} 512"),
+            text
+        );
+        Assertions.assertTrue(
+            text.contains(
+                String.join(
+                    "",
+                    "mvn_errors_total{operation=\"findArtifacts\",",
+                    "error=\"java.io.IOException\"} 1"
+                )
+            ),
+            text
+        );
+    }
+
+    /**
+     * Check that MavenCentral reports the metrics of its operations.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testMavenCentral() throws Exception {
+        final byte[] metadata = StubServer.resource("maven-metadata.xml");
+        final byte[] search = StubServer.resource("search.json");
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    final String path = exchange.getRequestURI().getPath();
+                    if (path.startsWith("/search")) {
+                        StubServer.send(exchange, MvnResponse.OK, search);
+                    } else if (path.contains("/missing/")) {
+                        StubServer.send(exchange, 404, new byte[0]);
+                    } else {
+                        StubServer.send(exchange, MvnResponse.OK, metadata);
+                    }
+                }
+            )
+        ) {
+            final HistogramMetrics metrics = new HistogramMetrics();
+            final MvnRepo repo = new MavenCentral(
+                server.url(), String.format("%s/search", server.url()),
+                new UrlTransport(), metrics
+            );
+            Assertions.assertEquals(
+                List.of("0.2.1", "0.2"),
+                repo.findVersions(this.mine, 0, 2).stream()
+                    .map(MvnArtifactVersion::name).toList()
+            );
+            final List<MvnArtifact> artifacts = repo.findArtifacts("aistomin");
+            final MvnArtifactVersion anchor = repo.findVersions(this.mine)
+                .get(2);
+            Assertions.assertEquals(
+                2, repo.findVersionsNewerThan(anchor).size()
+            );
+            for (final MvnPhase phase : MvnPhase.values()) {
+                Assertions.assertEquals(
+                    2L, metrics.histogram("findVersions", phase).count(),
+                    phase.name()
+                );
+            }
+            Assertions.assertEquals(
+                0L, metrics.histogram("findArtifacts", MvnPhase.MAP).count()
+            );
+            Assertions.assertEquals(
+                1L,
+                metrics.histogram("findVersionsNewerThan", MvnPhase.MAP).count()
+            );
+            Assertions.assertEquals(
+                artifacts.size(), metrics.resultCount("findArtifacts")
+            );
+            Assertions.assertEquals(
+                2L + 5L, metrics.resultCount("findVersions")
+            );
+            Assertions.assertTrue(metrics.bytesRead("findArtifacts") > 0L);
+            Assertions.assertTrue(metrics.bytesRead("findVersions") > 0L);
+            Assertions.assertThrows(
+                MvnException.class,
+                () -> repo.findVersions(
+                    new MavenArtifact(new MavenGroup("org"), "missing")
+                )
+            );
+            Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> repo.findVersionsOlderThan(
+                    new MavenArtifactVersion(
+                        this.mine, "9.9", MvnPackagingType.JAR, null
+                    )
+                )
+            );
+            Assertions.assertEquals(
+                1L, metrics.errorCount("findVersions", IOException.class)
+            );
+            Assertions.assertEquals(
+                1L,
+                metrics.errorCount(
+                    "findVersionsOlderThan", IllegalStateException.class
+                )
+            );
+        }
+    }
+}
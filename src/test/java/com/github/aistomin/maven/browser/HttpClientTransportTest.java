@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link HttpClientTransport}.
+ *
+ * @since 2.0
+ */
+final class HttpClientTransportTest {
+
+    /**
+     * The amount of the requests in the test.
+     */
+    private static final int REQUESTS = 5;
+
+    /**
+     * Check that we negotiate gzip compression and decompress the body.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testGzip() throws Exception {
+        final byte[] metadata = StubServer.resource("maven-metadata.xml");
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    final String accept = exchange.getRequestHeaders()
+                        .getFirst("Accept-Encoding");
+                    if ("gzip".equals(accept)) {
+                        exchange.getResponseHeaders()
+                            .add("Content-Encoding", "gzip");
+                        StubServer.send(
+                            exchange, MvnResponse.OK,
+                            HttpClientTransportTest.gzip(metadata)
+                        );
+                    } else {
+                        StubServer.send(exchange, MvnResponse.OK, metadata);
+                    }
+                }
+            )
+        ) {
+            final HttpClientTransport transport = new HttpClientTransport();
+            try (
+                MvnResponse response = transport.get(
+                    URI.create(server.url()), Collections.emptyMap()
+                )
+            ) {
+                Assertions.assertEquals(
+                    "gzip", response.header("content-encoding")
+                );
+                Assertions.assertArrayEquals(
+                    metadata, response.body().readAllBytes()
+                );
+            }
+            try (
+                MvnResponse response = transport.getAsync(
+                    URI.create(server.url()), Collections.emptyMap()
+                ).join()
+            ) {
+                Assertions.assertArrayEquals(
+                    metadata, response.body().readAllBytes()
+                );
+            }
+            try (
+                MvnResponse response = transport.get(
+                    URI.create(server.url()),
+                    Map.of("Accept-Encoding", "identity")
+                )
+            ) {
+                Assertions.assertArrayEquals(
+                    metadata, response.body().readAllBytes()
+                );
+            }
+            Assertions.assertEquals(
+                "0.2.1",
+                new MavenCentral(server.url(), server.url(), transport)
+                    .findVersions(
+                        new MavenArtifact(
+                            new MavenGroup("com.github.aistomin"),
+                            "jenkins-sdk"
+                        )
+                    ).get(0).name()
+            );
+        }
+    }
+
+    /**
+     * Check that the connection is kept alive and reused.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testKeepAlive() throws Exception {
+        final Set<Integer> ports = ConcurrentHashMap.newKeySet();
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    ports.add(exchange.getRemoteAddress().getPort());
+                    StubServer.send(
+                        exchange, MvnResponse.OK,
+                        "ok".getBytes(StandardCharsets.UTF_8)
+                    );
+                }
+            )
+        ) {
+            final MvnTransport transport = new HttpClientTransport(
+                HttpClientTransport.CONNECT_TIMEOUT,
+                HttpClientTransport.READ_TIMEOUT
+            );
+            for (int idx = 0; idx < HttpClientTransportTest.REQUESTS; ++idx) {
+                try (
+                    MvnResponse response = transport.get(
+                        URI.create(server.url()), Collections.emptyMap()
+                    )
+                ) {
+                    Assertions.assertEquals(
+                        "ok",
+                        new String(
+                            response.body().readAllBytes(),
+                            StandardCharsets.UTF_8
+                        )
+                    );
+                }
+            }
+            Assertions.assertEquals(
+                HttpClientTransportTest.REQUESTS, server.requests()
+            );
+            Assertions.assertEquals(1, ports.size());
+        }
+    }
+
+    /**
+     * Check that we fail when the server doesn't answer in time.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testReadTimeout() throws Exception {
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    try {
+                        TimeUnit.SECONDS.sleep(2L);
+                    } catch (final InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                    StubServer.send(exchange, MvnResponse.OK, new byte[0]);
+                }
+            )
+        ) {
+            final MvnTransport transport = new HttpClientTransport(
+                HttpClientTransport.CONNECT_TIMEOUT, Duration.ofMillis(100L)
+            );
+            Assertions.assertThrows(
+                HttpTimeoutException.class,
+                () -> transport.get(
+                    URI.create(server.url()), Collections.emptyMap()
+                )
+            );
+            Assertions.assertThrows(
+                MvnException.class,
+                () -> new MavenCentral(server.url(), server.url(), transport)
+                    .findArtifacts("aistomin")
+            );
+        }
+    }
+
+    /**
+     * Check that the read of the body fails when the server stalls after the
+     * headers, and the thread isn't left interrupted.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testBodyTimeout() throws Exception {
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    exchange.sendResponseHeaders(MvnResponse.OK, 0L);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write("partial".getBytes(StandardCharsets.UTF_8));
+                        out.flush();
+                        TimeUnit.SECONDS.sleep(2L);
+                    } catch (final InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    } catch (final IOException exception) {
+                        exchange.close();
+                    }
+                }
+            )
+        ) {
+            final MvnTransport transport = new HttpClientTransport(
+                HttpClientTransport.CONNECT_TIMEOUT, Duration.ofMillis(200L)
+            );
+            final long start = System.nanoTime();
+            try (
+                MvnResponse response = transport.get(
+                    URI.create(server.url()), Collections.emptyMap()
+                )
+            ) {
+                Assertions.assertEquals(MvnResponse.OK, response.status());
+                Assertions.assertThrows(
+                    SocketTimeoutException.class,
+                    () -> response.body().readAllBytes()
+                );
+            }
+            Assertions.assertTrue(
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                    < TimeUnit.SECONDS.toMillis(2L)
+            );
+            Assertions.assertFalse(Thread.currentThread().isInterrupted());
+        }
+    }
+
+    /**
+     * Compress the data with gzip.
+     *
+     * @param data The data.
+     * @return The compressed data.
+     * @throws IOException If compression fails.
+     */
+    private static byte[] gzip(final byte[] data) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The tests for {@link IndexedRepo}.
+ *
+ * @since 2.0
+ */
+final class IndexedRepoTest {
+
+    /**
+     * The artifact which we use for tests.
+     */
+    private final MvnArtifact mine = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+    );
+
+    /**
+     * Check that we find the pages of the artifacts in the index and the
+     * versions in the origin repository.
+     *
+     * @param dir The directory of the index.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testFind(@TempDir final Path dir) throws Exception {
+        final Path local = dir.resolve("local");
+        Files.createDirectories(
+            local.resolve("com/github/aistomin/jenkins-sdk/0.1")
+        ).resolve("jenkins-sdk-0.1.pom").toFile().createNewFile();
+        final Path dump = dir.resolve("dump.txt");
+        Files.writeString(
+            dump, "io.jenkins:jenkins-core\norg.jenkins-ci:jenkins\n"
+        );
+        final ArtifactIndex index = new ArtifactIndexWriter()
+            .add(new LocalRepo(local))
+            .dump(dump)
+            .write(dir.resolve("index"));
+        final FakeMvnRepo origin = new FakeMvnRepo()
+            .with(this.mine, "0.2", "0.1");
+        final IndexedRepo repo = new IndexedRepo(index, origin);
+        Assertions.assertEquals(
+            List.of(
+                this.mine,
+                new MavenArtifact(new MavenGroup("io.jenkins"), "jenkins-core"),
+                new MavenArtifact(new MavenGroup("org.jenkins-ci"), "jenkins")
+            ),
+            repo.findArtifacts("jenkins")
+        );
+        Assertions.assertEquals(
+            List.of(
+                new MavenArtifact(new MavenGroup("io.jenkins"), "jenkins-core")
+            ),
+            repo.findArtifacts("jenkins", 1, 1)
+        );
+        Assertions.assertTrue(repo.findArtifacts("jenkins", 0, 0).isEmpty());
+        Assertions.assertTrue(
+            repo.findArtifacts("jenkins", 2 + 1, 1).isEmpty()
+        );
+        Assertions.assertEquals(
+            1,
+            new IndexedRepo(index, ArtifactIndex.Match.PREFIX, origin)
+                .findArtifacts("org.").size()
+        );
+        Assertions.assertEquals(0, origin.calls());
+        final List<MvnArtifactVersion> versions = repo.findVersions(this.mine);
+        Assertions.assertEquals(2, versions.size());
+        Assertions.assertEquals(
+            1, repo.findVersionsNewerThan(versions.get(1)).size()
+        );
+    }
+}
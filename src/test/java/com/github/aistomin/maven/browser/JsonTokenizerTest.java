@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link JsonTokenizer}.
+ *
+ * @since 2.0
+ */
+final class JsonTokenizerTest {
+
+    /**
+     * Check that we read the scalar values and skip the nested ones.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testWalk() throws Exception {
+        final JsonTokenizer json = new JsonTokenizer(
+            new StringReader(
+                String.join(
+                    "",
+                    " { \"s\" : \"a\\\"b\\\\c\\/\\n\\u0041\\u00e9\",",
+                    "\"skip\": {\"x\": [1, {\"y\": \"]}\"}, true],",
+                    "\"z\": null},",
+                    "\"n\": -12.5e3, \"t\": true, \"nil\": null,",
+                    "\"arr\": [\"one\", \"two\"] }"
+                )
+            )
+        );
+        json.beginObject();
+        Assertions.assertEquals("s", json.nextName());
+        Assertions.assertEquals("a\"b\\c/\nA\u00e9", json.nextString());
+        Assertions.assertEquals("skip", json.nextName());
+        json.skipValue();
+        Assertions.assertEquals("n", json.nextName());
+        Assertions.assertEquals("-12.5e3", json.nextString());
+        Assertions.assertEquals("t", json.nextName());
+        Assertions.assertEquals("true", json.nextString());
+        Assertions.assertEquals("nil", json.nextName());
+        Assertions.assertNull(json.nextString());
+        Assertions.assertEquals("arr", json.nextName());
+        json.beginArray();
+        Assertions.assertTrue(json.hasNext());
+        Assertions.assertEquals("one", json.nextString());
+        Assertions.assertTrue(json.hasNext());
+        Assertions.assertEquals("two", json.nextString());
+        Assertions.assertFalse(json.hasNext());
+        json.endArray();
+        Assertions.assertFalse(json.hasNext());
+        json.endObject();
+    }
+
+    /**
+     * Check that the long strings are read across the buffer boundaries.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testLongString() throws Exception {
+        final String value = "x\\ty".repeat(10_000);
+        final JsonTokenizer json = new JsonTokenizer(
+            new StringReader(String.format("[\"%s\", 7]", value))
+        );
+        json.beginArray();
+        Assertions.assertEquals(
+            value.replace("\\t", "\t"), json.nextString()
+        );
+        Assertions.assertEquals("7", json.nextString());
+        json.endArray();
+    }
+
+    /**
+     * Check that the malformed JSON is reported.
+     */
+    @Test
+    void testMalformed() {
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new JsonTokenizer(new StringReader("[1")).endArray()
+        );
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new JsonTokenizer(new StringReader("\"abc")).nextString()
+        );
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new JsonTokenizer(new StringReader("{\"a\" 1}")).nextName()
+        );
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new JsonTokenizer(new StringReader("\"\\q\"")).nextString()
+        );
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new JsonTokenizer(new StringReader("{\"a\": ")).skipValue()
+        );
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link LatencyHistogram}.
+ *
+ * @since 2.0
+ */
+final class LatencyHistogramTest {
+
+    /**
+     * The amount of the recorded durations.
+     */
+    private static final int DURATIONS = 100;
+
+    /**
+     * Check the statistics of the recorded durations.
+     */
+    @Test
+    void testStatistics() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Assertions.assertEquals(0L, histogram.percentile(50.0));
+        for (int idx = 1; idx <= LatencyHistogramTest.DURATIONS; ++idx) {
+            histogram.record(idx * 1_000L);
+        }
+        histogram.record(-1L);
+        Assertions.assertEquals(
+            LatencyHistogramTest.DURATIONS + 1, histogram.count()
+        );
+        Assertions.assertEquals(5_050_000L, histogram.sum());
+        Assertions.assertEquals(100_000L, histogram.max());
+        Assertions.assertEquals(1L, histogram.bucketCount(0));
+        final long median = histogram.percentile(50.0);
+        Assertions.assertTrue(
+            median >= 50_000L && median <= 100_000L, Long.toString(median)
+        );
+        Assertions.assertEquals(100_000L, histogram.percentile(100.0));
+        Assertions.assertEquals(1L, histogram.percentile(0.0));
+    }
+
+    /**
+     * Check the bounds of the buckets.
+     */
+    @Test
+    void testBounds() {
+        Assertions.assertEquals(1L, LatencyHistogram.bound(0));
+        Assertions.assertEquals(1_024L, LatencyHistogram.bound(10));
+        Assertions.assertEquals(
+            Long.MAX_VALUE,
+            LatencyHistogram.bound(LatencyHistogram.BUCKETS - 1)
+        );
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(1_023L);
+        histogram.record(1_024L);
+        Assertions.assertEquals(
+            1L, histogram.bucketCount(LatencyHistogram.BUCKETS - 1)
+        );
+        Assertions.assertEquals(1L, histogram.bucketCount(10));
+        Assertions.assertEquals(1L, histogram.bucketCount(11));
+    }
+}
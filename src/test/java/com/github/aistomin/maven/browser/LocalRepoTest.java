@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The tests for {@link LocalRepo}.
+ *
+ * @since 2.0
+ */
+final class LocalRepoTest {
+
+    /**
+     * The artifact which we use for tests.
+     */
+    private final MvnArtifact mine = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+    );
+
+    /**
+     * Another artifact which we use for tests.
+     */
+    private final MvnArtifact other = new MavenArtifact(
+        new MavenGroup("org.example"), "lib"
+    );
+
+    /**
+     * Check that we read the versions from the metadata files and from the
+     * version directories.
+     *
+     * @param root The root directory of the repository.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testVersions(@TempDir final Path root) throws Exception {
+        final LocalRepo repo = LocalRepoTest.repo(root);
+        Assertions.assertEquals(
+            List.of("0.3", "0.2.1", "0.2", "0.1", "0.0.2", "0.0.1"),
+            LocalRepoTest.names(repo.findVersions(this.mine))
+        );
+        Assertions.assertEquals(
+            List.of("0.2", "0.1"),
+            LocalRepoTest.names(repo.findVersions(this.mine, 2, 2))
+        );
+        Assertions.assertTrue(repo.findVersions(this.mine, 10, 2).isEmpty());
+        Assertions.assertEquals(
+            List.of("1.1", "1.0"),
+            LocalRepoTest.names(repo.findVersions(this.other))
+        );
+        Assertions.assertTrue(
+            repo.findVersions(
+                new MavenArtifact(new MavenGroup("org.example"), "missing")
+            ).isEmpty()
+        );
+    }
+
+    /**
+     * Check that the newer, older and between queries are answered from the
+     * index.
+     *
+     * @param root The root directory of the repository.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testRangeQueries(@TempDir final Path root) throws Exception {
+        final LocalRepo repo = LocalRepoTest.repo(root);
+        final List<MvnArtifactVersion> all = repo.findVersions(this.mine);
+        Assertions.assertEquals(
+            List.of("0.3", "0.2.1"),
+            LocalRepoTest.names(repo.findVersionsNewerThan(all.get(2)))
+        );
+        Assertions.assertEquals(
+            List.of("0.0.2", "0.0.1"),
+            LocalRepoTest.names(repo.findVersionsOlderThan(all.get(2 + 1)))
+        );
+        Assertions.assertEquals(
+            List.of("0.2.1", "0.2"),
+            LocalRepoTest.names(
+                repo.findVersionsBetween(all.get(2 + 1), all.get(1))
+            )
+        );
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> repo.findVersionsNewerThan(
+                new MavenArtifactVersion(
+                    this.mine, "1.0", MvnPackagingType.JAR, null
+                )
+            )
+        );
+    }
+
+    /**
+     * Check that we find the artifacts by their identifiers.
+     *
+     * @param root The root directory of the repository.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testArtifacts(@TempDir final Path root) throws Exception {
+        final LocalRepo repo = LocalRepoTest.repo(root);
+        Assertions.assertEquals(2, repo.size());
+        Assertions.assertEquals(
+            List.of(this.mine, this.other), repo.findArtifacts("")
+        );
+        Assertions.assertEquals(
+            List.of(this.mine), repo.findArtifacts("jenkins")
+        );
+        Assertions.assertEquals(
+            List.of(this.other), repo.findArtifacts("", 1, 1)
+        );
+        Assertions.assertTrue(repo.findArtifacts("nothing").isEmpty());
+    }
+
+    /**
+     * Check that we keep the index until it is refreshed.
+     *
+     * @param root The root directory of the repository.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testRefresh(@TempDir final Path root) throws Exception {
+        final LocalRepo repo = LocalRepoTest.repo(root);
+        Assertions.assertEquals(2, repo.findVersions(this.other).size());
+        LocalRepoTest.pom(root.resolve("org/example/lib"), "lib", "2.0");
+        Assertions.assertEquals(2, repo.findVersions(this.other).size());
+        repo.refresh();
+        Assertions.assertEquals(
+            "2.0", repo.findVersions(this.other).get(0).name()
+        );
+        Assertions.assertEquals(
+            0, new LocalRepo(root.resolve("absent")).size()
+        );
+    }
+
+    /**
+     * Check that the symbolic links are followed, but their loops are
+     * skipped.
+     *
+     * @param root The root directory of the repository.
+     * @param outside The directory outside of the repository.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testSymbolicLinks(
+        @TempDir final Path root, @TempDir final Path outside
+    ) throws Exception {
+        LocalRepoTest.repo(root);
+        Files.createSymbolicLink(
+            root.resolve("org/example/lib/loop"), root.resolve("org")
+        );
+        Files.createSymbolicLink(root.resolve("self"), root);
+        LocalRepoTest.pom(outside.resolve("lib"), "lib", "1.0");
+        Files.createSymbolicLink(root.resolve("net"), outside);
+        final LocalRepo repo = new LocalRepo(root);
+        Assertions.assertEquals(2 + 1, repo.size());
+        Assertions.assertEquals(
+            List.of("1.1", "1.0"),
+            LocalRepoTest.names(repo.findVersions(this.other))
+        );
+        Assertions.assertEquals(
+            List.of("1.0"),
+            LocalRepoTest.names(
+                repo.findVersions(
+                    new MavenArtifact(new MavenGroup("net"), "lib")
+                )
+            )
+        );
+    }
+
+    /**
+     * Create the repository with two artifacts, a broken metadata file and
+     * some unrelated files.
+     *
+     * @param root The root directory of the repository.
+     * @return The repository.
+     * @throws Exception If something went wrong.
+     */
+    private static LocalRepo repo(final Path root) throws Exception {
+        final Path mine = Files.createDirectories(
+            root.resolve("com/github/aistomin/jenkins-sdk")
+        );
+        Files.write(
+            mine.resolve("maven-metadata-central.xml"),
+            StubServer.resource("maven-metadata.xml")
+        );
+        LocalRepoTest.pom(mine, "jenkins-sdk", "0.3");
+        final Path other = Files.createDirectories(
+            root.resolve("org/example/lib")
+        );
+        LocalRepoTest.pom(other, "lib", "1.0");
+        LocalRepoTest.pom(other, "lib", "1.1");
+        Files.writeString(other.resolve("1.1/lib-1.1.pom.sha1"), "abc");
+        Files.writeString(
+            other.resolve("maven-metadata-local.xml"), "<broken",
+            StandardCharsets.UTF_8
+        );
+        Files.writeString(root.resolve("org/readme.pom"), "<project/>");
+        return new LocalRepo(root);
+    }
+
+    /**
+     * Create the version directory with the POM file.
+     *
+     * @param dir The directory of the artifact.
+     * @param artifact The name of the artifact.
+     * @param version The name of the version.
+     * @throws Exception If something went wrong.
+     */
+    private static void pom(
+        final Path dir, final String artifact, final String version
+    ) throws Exception {
+        final Path ver = Files.createDirectories(dir.resolve(version));
+        Files.writeString(
+            ver.resolve(String.format("%s-%s.pom", artifact, version)),
+            "<project/>"
+        );
+    }
+
+    /**
+     * The names of the versions.
+     *
+     * @param versions The versions.
+     * @return The names.
+     */
+    private static List<String> names(
+        final List<MvnArtifactVersion> versions
+    ) {
+        return versions.stream()
+            .map(MvnArtifactVersion::name)
+            .collect(Collectors.toList());
+    }
+}
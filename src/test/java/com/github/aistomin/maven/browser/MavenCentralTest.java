@@ -154,6 +154,88 @@ final class MavenCentralTest {
         );
     }
 
+    /**
+     * Check that we correctly page the versions which are read from the
+     * local stub of the repository.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testFindVersionsFromStub() throws Exception {
+        final byte[] metadata = StubServer.resource("maven-metadata.xml");
+        try (
+            StubServer server = new StubServer(
+                exchange -> StubServer.send(
+                    exchange, MvnResponse.OK, metadata
+                )
+            )
+        ) {
+            final MvnRepo mvn = new MavenCentral(server.url(), server.url());
+            final List<MvnArtifactVersion> all = mvn.findVersions(
+                this.mine, 0, Integer.MAX_VALUE
+            );
+            Assertions.assertEquals(this.vers.size(), all.size());
+            for (int idx = 0; idx < all.size(); ++idx) {
+                Assertions.assertEquals(
+                    this.vers.get(idx), all.get(idx).name()
+                );
+            }
+            final List<MvnArtifactVersion> page = mvn.findVersions(
+                this.mine, MavenCentralTest.THREE, MavenCentralTest.TEN
+            );
+            Assertions.assertEquals(2, page.size());
+            Assertions.assertEquals(
+                this.vers.get(MavenCentralTest.THREE), page.get(0).name()
+            );
+            Assertions.assertTrue(
+                mvn.findVersions(this.mine, MavenCentralTest.TEN, 1).isEmpty()
+            );
+        }
+    }
+
+    /**
+     * Check that we correctly find the versions between two provided ones
+     * using the local stub of the repository.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testFindVersionsBetweenFromStub() throws Exception {
+        final byte[] metadata = StubServer.resource("maven-metadata.xml");
+        try (
+            StubServer server = new StubServer(
+                exchange -> StubServer.send(
+                    exchange, MvnResponse.OK, metadata
+                )
+            )
+        ) {
+            final MvnRepo mvn = new MavenCentral(server.url(), server.url());
+            final List<MvnArtifactVersion> all = mvn.findVersions(this.mine);
+            final List<MvnArtifactVersion> between = mvn.findVersionsBetween(
+                all.get(MavenCentralTest.THREE), all.get(1)
+            );
+            Assertions.assertEquals(2, between.size());
+            Assertions.assertEquals(this.vers.get(1), between.get(0).name());
+            Assertions.assertEquals(this.vers.get(2), between.get(1).name());
+            Assertions.assertEquals(
+                all.subList(0, MavenCentralTest.THREE),
+                mvn.findVersionsNewerThan(all.get(MavenCentralTest.THREE))
+            );
+            Assertions.assertTrue(
+                mvn.findVersionsBetween(all.get(1), all.get(2)).isEmpty()
+            );
+            Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> mvn.findVersionsBetween(
+                    all.get(1),
+                    new MavenArtifactVersion(
+                        this.mine, "9.9", MvnPackagingType.JAR, null
+                    )
+                )
+            );
+        }
+    }
+
     /**
      * Check that we correctly find the versions which are newer than provided
      * one.
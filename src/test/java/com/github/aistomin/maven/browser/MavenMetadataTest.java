@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javax.xml.stream.XMLStreamException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link MavenMetadata}.
+ *
+ * @since 2.0
+ */
+final class MavenMetadataTest {
+
+    /**
+     * Check that we read the versions newest first and the timestamp.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testRead() throws Exception {
+        final MavenMetadata metadata = new MavenMetadata(
+            MavenMetadataTest.sample()
+        );
+        Assertions.assertEquals(
+            List.of("0.2.1", "0.2", "0.1", "0.0.2", "0.0.1"),
+            metadata.versions()
+        );
+        Assertions.assertEquals("20170302183302", metadata.lastUpdated());
+        Assertions.assertThrows(
+            UnsupportedOperationException.class,
+            () -> metadata.versions().clear()
+        );
+    }
+
+    /**
+     * Check that we keep only the requested amount of the newest versions.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testNewest() throws Exception {
+        Assertions.assertEquals(
+            List.of("0.2.1", "0.2"),
+            new MavenMetadata(MavenMetadataTest.sample(), 2).versions()
+        );
+        Assertions.assertTrue(
+            new MavenMetadata(MavenMetadataTest.sample(), 0)
+                .versions().isEmpty()
+        );
+    }
+
+    /**
+     * Check that we read only the "versioning" element of the document.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testReadOnlyVersioning() throws Exception {
+        final MavenMetadata metadata = new MavenMetadata(
+            MavenMetadataTest.stream(
+                String.join(
+                    "",
+                    "<metadata><groupId>g</groupId><artifactId>a</artifactId>",
+                    "<version>9.9</version><versioning>",
+                    "<snapshot><version>8.8</version></snapshot>",
+                    "<versions><version> 1.0 </version>",
+                    "<version>1.1</version></versions></versioning>",
+                    "<broken"
+                )
+            )
+        );
+        Assertions.assertEquals(List.of("1.1", "1.0"), metadata.versions());
+        Assertions.assertNull(metadata.lastUpdated());
+        Assertions.assertThrows(
+            XMLStreamException.class,
+            () -> new MavenMetadata(MavenMetadataTest.stream("<metadata>"))
+        );
+    }
+
+    /**
+     * Check that we don't process the external entities.
+     */
+    @Test
+    void testNoExternalEntities() {
+        Assertions.assertThrows(
+            XMLStreamException.class,
+            () -> new MavenMetadata(
+                MavenMetadataTest.stream(
+                    String.join(
+                        "",
+                        "<!DOCTYPE metadata [<!ENTITY x SYSTEM ",
+                        "\"file:///etc/passwd\">]><metadata><versioning>",
+                        "<versions><version>&x;</version></versions>",
+                        "</versioning></metadata>"
+                    )
+                )
+            ).versions()
+        );
+    }
+
+    /**
+     * The sample maven-metadata.xml.
+     *
+     * @return The input stream.
+     * @throws Exception If reading fails.
+     */
+    private static InputStream sample() throws Exception {
+        return new ByteArrayInputStream(
+            StubServer.resource("maven-metadata.xml")
+        );
+    }
+
+    /**
+     * The input stream of the string.
+     *
+     * @param xml The string.
+     * @return The input stream.
+     */
+    private static InputStream stream(final String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
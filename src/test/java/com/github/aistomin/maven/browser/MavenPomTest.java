@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link MavenPom}.
+ *
+ * @since 2.0
+ */
+final class MavenPomTest {
+
+    /**
+     * Check that we read the coordinates, the parent, the properties and the
+     * dependencies and skip the rest of the document.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testRead() throws Exception {
+        final MavenPom pom = MavenPomTest.pom(
+            String.join(
+                "",
+                "<project><modelVersion>4.0.0</modelVersion>",
+                "<parent><groupId>com.example</groupId>",
+                "<artifactId>parent</artifactId><version>7</version>",
+                "<relativePath/></parent>",
+                "<artifactId>child</artifactId><packaging>pom</packaging>",
+                "<properties><lib.version>${project.version}.1",
+                "</lib.version><other>${lib.version}-x</other></properties>",
+                "<dependencyManagement><dependencies><dependency>",
+                "<groupId>com.example</groupId><artifactId>bom</artifactId>",
+                "<version>1</version><type>pom</type><scope>import</scope>",
+                "</dependency></dependencies></dependencyManagement>",
+                "<dependencies><dependency><groupId>com.example</groupId>",
+                "<artifactId>lib</artifactId>",
+                "<version>${lib.version}</version><optional>true</optional>",
+                "<exclusions><exclusion><groupId>org.slf4j</groupId>",
+                "<artifactId>*</artifactId></exclusion></exclusions>",
+                "</dependency></dependencies>",
+                "<build><pluginManagement><plugins><plugin>",
+                "<artifactId>maven-jar-plugin</artifactId>",
+                "<version>3.3.0</version></plugin></plugins>",
+                "</pluginManagement><plugins><plugin>",
+                "<groupId>org.example</groupId><artifactId>tool</artifactId>",
+                "<configuration><version>x</version></configuration>",
+                "<dependencies><dependency><groupId>org.example</groupId>",
+                "<artifactId>extra</artifactId><version>2</version>",
+                "</dependency></dependencies></plugin></plugins></build>",
+                "</project>"
+            )
+        );
+        Assertions.assertEquals("com.example", pom.group());
+        Assertions.assertEquals("child", pom.name());
+        Assertions.assertEquals("7", pom.version());
+        Assertions.assertEquals("pom", pom.packaging());
+        Assertions.assertEquals(
+            "com.example:parent:7", pom.parent().toString()
+        );
+        Assertions.assertEquals("pom", pom.parent().type());
+        Assertions.assertEquals(
+            Map.of("lib.version", "${project.version}.1",
+                "other", "${lib.version}-x"),
+            pom.properties()
+        );
+        Assertions.assertEquals(1, pom.managed().size());
+        Assertions.assertEquals("import", pom.managed().get(0).scope());
+        Assertions.assertEquals(1, pom.dependencies().size());
+        final PomDependency dep = pom.dependencies().get(0);
+        Assertions.assertTrue(dep.optional());
+        Assertions.assertNull(dep.scope());
+        Assertions.assertEquals(List.of("org.slf4j:*"), dep.exclusions());
+        Assertions.assertEquals("7.1", pom.interpolate(dep.version()));
+        Assertions.assertEquals(2, pom.plugins().size());
+        Assertions.assertEquals(
+            "org.apache.maven.plugins:maven-jar-plugin:3.3.0",
+            pom.plugins().get(0).toString()
+        );
+        Assertions.assertEquals(
+            "org.example:tool:null", pom.plugins().get(1).toString()
+        );
+        Assertions.assertEquals("maven-plugin", pom.plugins().get(1).type());
+    }
+
+    /**
+     * Check that we expand the nested expressions, leave the unknown ones and
+     * don't hang on the cycles.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testInterpolate() throws Exception {
+        final MavenPom pom = MavenPomTest.pom(
+            String.join(
+                "",
+                "<project><groupId>g</groupId><artifactId>a</artifactId>",
+                "<version>1.0</version><properties><one>${two}</one>",
+                "<two>${one}</two><x>${project.groupId}:${pom.artifactId}",
+                "</x></properties></project>"
+            )
+        );
+        Assertions.assertEquals("g:a@1.0", pom.interpolate("${x}@${version}"));
+        Assertions.assertEquals("${nope}", pom.interpolate("${nope}"));
+        Assertions.assertTrue(pom.interpolate("${one}").startsWith("${"));
+        Assertions.assertEquals("jar", pom.packaging());
+        Assertions.assertNull(pom.parent());
+        Assertions.assertNull(pom.interpolate(null));
+        Assertions.assertFalse(MavenPom.resolved("${x}"));
+        Assertions.assertTrue(MavenPom.resolved("1.0"));
+    }
+
+    /**
+     * Parse the POM.
+     *
+     * @param xml The content of the POM.
+     * @return The POM.
+     * @throws Exception If something went wrong.
+     */
+    private static MavenPom pom(final String xml) throws Exception {
+        return new MavenPom(
+            new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link MvnVersionKey}.
+ *
+ * @since 2.0
+ */
+final class MvnVersionKeyTest {
+
+    /**
+     * Check that the versions with qualifiers are ordered like Maven does.
+     */
+    @Test
+    void testQualifiersOrder() {
+        MvnVersionKeyTest.assertOrder(
+            List.of(
+                "1-alpha2snapshot", "1-alpha2", "1-alpha-123", "1-beta-2",
+                "1-beta123", "1-m2", "1-m11", "1-rc", "1-cr2", "1-rc123",
+                "1-SNAPSHOT", "1", "1-sp", "1-sp2", "1-sp123", "1-abc",
+                "1-def", "1-pom-1", "1-1-snapshot", "1-1", "1-2", "1-123"
+            )
+        );
+    }
+
+    /**
+     * Check that the numeric versions are ordered like Maven does.
+     */
+    @Test
+    void testNumbersOrder() {
+        MvnVersionKeyTest.assertOrder(
+            List.of(
+                "2.0", "2-1", "2.0.a", "2.0.0.a", "2.0.2", "2.0.123",
+                "2.1.0", "2.1-a", "2.1b", "2.1-c", "2.1-1", "2.1.0.1", "2.2",
+                "2.123", "11.a2", "11.a11", "11.b2", "11.b11", "11.m2",
+                "11.m11", "11", "11.a", "11b", "11c", "11m"
+            )
+        );
+        MvnVersionKeyTest.assertOrder(
+            List.of(
+                "5.12.2", "5.13.0-M1", "5.13.0-RC1", "5.13.0-SNAPSHOT",
+                "5.13.0", "5.13.0.Final-1", "5.13.1",
+                "123456789012345678901234567890",
+                "123456789012345678901234567891"
+            )
+        );
+    }
+
+    /**
+     * Check that the whole list is compared with the absent item, not only
+     * its first item (MNG-6964).
+     */
+    @Test
+    void testMng6964() {
+        MvnVersionKeyTest.assertOrder(
+            List.of("1-0.alpha", "1-0.beta", "1", "1-0.1")
+        );
+        MvnVersionKeyTest.assertOrder(List.of("1-0-alpha", "1", "1-0-1"));
+    }
+
+    /**
+     * Check that the equivalent versions are equal.
+     */
+    @Test
+    void testEquivalence() {
+        MvnVersionKeyTest.assertEquivalent(
+            "1", "1.0", "1.0.0", "1-0", "1.0-0", "1ga", "1-ga", "1.final",
+            "1.0.RELEASE", "01"
+        );
+        MvnVersionKeyTest.assertEquivalent("1cr", "1rc", "1-rc");
+        MvnVersionKeyTest.assertEquivalent("1a1", "1-alpha-1", "1alpha1");
+        MvnVersionKeyTest.assertEquivalent("1m3", "1milestone3", "1-M3");
+        final MvnVersionKey key = new MvnVersionKey("1.0.Final");
+        Assertions.assertEquals("1.0.Final", key.version());
+        Assertions.assertEquals("1.0.Final", key.toString());
+        Assertions.assertNotEquals(key, new MvnVersionKey("1.1"));
+        Assertions.assertNotEquals(key, null);
+    }
+
+    /**
+     * Check that the version of the artifact provides the key and keeps it.
+     */
+    @Test
+    void testArtifactVersionKey() {
+        final MvnArtifactVersion version = new MavenArtifactVersion(
+            new MavenArtifact(new MavenGroup("g"), "a"), "1.0-RC1",
+            MvnPackagingType.JAR, null
+        );
+        Assertions.assertSame(version.key(), version.key());
+        Assertions.assertEquals(new MvnVersionKey("1-cr1"), version.key());
+    }
+
+    /**
+     * Check that the versions are strictly ascending.
+     *
+     * @param versions The versions.
+     */
+    private static void assertOrder(final List<String> versions) {
+        for (int low = 0; low < versions.size(); ++low) {
+            final MvnVersionKey first = new MvnVersionKey(versions.get(low));
+            for (int high = low + 1; high < versions.size(); ++high) {
+                final MvnVersionKey second =
+                    new MvnVersionKey(versions.get(high));
+                Assertions.assertTrue(
+                    first.compareTo(second) < 0,
+                    String.format("%s < %s", first, second)
+                );
+                Assertions.assertTrue(
+                    second.compareTo(first) > 0,
+                    String.format("%s > %s", second, first)
+                );
+            }
+        }
+    }
+
+    /**
+     * Check that the versions are equivalent.
+     *
+     * @param versions The versions.
+     */
+    private static void assertEquivalent(final String... versions) {
+        final MvnVersionKey first = new MvnVersionKey(versions[0]);
+        for (final String version : versions) {
+            final MvnVersionKey other = new MvnVersionKey(version);
+            Assertions.assertEquals(
+                0, first.compareTo(other),
+                String.format("%s == %s", first, other)
+            );
+            Assertions.assertEquals(first, other);
+            Assertions.assertEquals(first.hashCode(), other.hashCode());
+        }
+    }
+}
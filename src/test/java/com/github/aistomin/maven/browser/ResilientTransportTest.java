@@ -0,0 +1,530 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link ResilientTransport} against the stub server which
+ * injects the faults.
+ *
+ * @since 2.0
+ */
+final class ResilientTransportTest {
+
+    /**
+     * HTTP status "Service Unavailable".
+     */
+    private static final int UNAVAILABLE = 503;
+
+    /**
+     * The delay of the slow response in milliseconds.
+     */
+    private static final long SLOW = 3_000;
+
+    /**
+     * Check that the server errors are retried and the last response is
+     * returned when the attempts are exhausted.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testRetry() throws Exception {
+        try (
+            StubServer server = ResilientTransportTest.server(
+                Fault.ERROR, Fault.ERROR, Fault.NONE, Fault.ERROR,
+                Fault.ERROR, Fault.ERROR
+            )
+        ) {
+            final ResilientTransport transport =
+                ResilientTransportTest.transport(null, Duration.ZERO);
+            Assertions.assertEquals(
+                "ok", ResilientTransportTest.read(transport, server)
+            );
+            Assertions.assertEquals(2, transport.retries());
+            Assertions.assertEquals(
+                String.valueOf(ResilientTransportTest.UNAVAILABLE),
+                ResilientTransportTest.read(transport, server)
+            );
+            Assertions.assertEquals(2 + 2, transport.retries());
+            Assertions.assertEquals(2 + 2 + 2, server.requests());
+        }
+    }
+
+    /**
+     * Check that the network errors are retried and the last one is thrown.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testNetworkError() throws Exception {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final ResilientTransport transport =
+            ResilientTransportTest.transport(null, Duration.ZERO);
+        Assertions.assertThrows(
+            IOException.class,
+            () -> transport.get(
+                URI.create(String.format("http://127.0.0.1:%d/x", port)),
+                Collections.emptyMap()
+            )
+        );
+        Assertions.assertEquals(2, transport.retries());
+    }
+
+    /**
+     * Check that the slow request is hedged and the faster response wins.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testHedge() throws Exception {
+        try (StubServer server = ResilientTransportTest.server(Fault.SLOW)) {
+            final ResilientTransport transport =
+                ResilientTransportTest.transport(
+                    Duration.ofMillis(50), Duration.ZERO
+                );
+            final long start = System.nanoTime();
+            Assertions.assertEquals(
+                "ok", ResilientTransportTest.read(transport, server)
+            );
+            Assertions.assertTrue(
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                    < ResilientTransportTest.SLOW
+            );
+            Assertions.assertEquals(1, transport.hedges());
+            Assertions.assertEquals(0, transport.retries());
+        }
+    }
+
+    /**
+     * Check that a fast server error of one hedged request doesn't beat the
+     * slower successful response of the other one and is closed.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testHedgeServerError() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        final ResilientTransport transport = new ResilientTransport(
+            (uri, headers) -> {
+                if (calls.incrementAndGet() == 1) {
+                    ResilientTransportTest.pause(Duration.ofMillis(200));
+                    return ResilientTransportTest.ok();
+                }
+                return ResilientTransportTest.response(
+                    ResilientTransportTest.UNAVAILABLE, closed
+                );
+            },
+            1, Duration.ZERO, Duration.ofMillis(20), 2, Duration.ZERO
+        );
+        try (
+            MvnResponse response = transport.get(
+                URI.create("http://localhost/x"), Collections.emptyMap()
+            )
+        ) {
+            Assertions.assertEquals(MvnResponse.OK, response.status());
+        }
+        Assertions.assertEquals(1, transport.hedges());
+        Assertions.assertEquals(0, transport.retries());
+        Assertions.assertEquals(1, closed.get());
+    }
+
+    /**
+     * Check that both hedged responses are closed when they come after the
+     * waiting was interrupted.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testHedgeInterrupted() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        final CountDownLatch gate = new CountDownLatch(1);
+        final ResilientTransport transport = new ResilientTransport(
+            (uri, headers) -> {
+                calls.incrementAndGet();
+                try {
+                    gate.await();
+                } catch (final InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                return ResilientTransportTest.response(MvnResponse.OK, closed);
+            },
+            1, Duration.ZERO, Duration.ofMillis(20), 2, Duration.ZERO
+        );
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Thread caller = Thread.startVirtualThread(
+            () -> {
+                try {
+                    transport.get(
+                        URI.create("http://localhost/x"),
+                        Collections.emptyMap()
+                    );
+                } catch (final IOException exception) {
+                    error.set(exception);
+                }
+            }
+        );
+        ResilientTransportTest.await(() -> calls.get() == 2);
+        caller.interrupt();
+        caller.join();
+        Assertions.assertInstanceOf(InterruptedIOException.class, error.get());
+        gate.countDown();
+        ResilientTransportTest.await(() -> closed.get() == 2);
+        Assertions.assertEquals(2, closed.get());
+    }
+
+    /**
+     * Check that the hedge delay follows the latencies once there are enough
+     * of them.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testHedgeDelay() throws Exception {
+        try (StubServer server = ResilientTransportTest.server()) {
+            final Duration initial = Duration.ofMinutes(1);
+            final ResilientTransport transport =
+                ResilientTransportTest.transport(initial, Duration.ZERO);
+            Assertions.assertEquals(initial, transport.hedgeDelay());
+            for (int idx = 0; idx < ResilientTransport.SAMPLES; ++idx) {
+                ResilientTransportTest.read(transport, server);
+            }
+            Assertions.assertTrue(
+                transport.hedgeDelay().compareTo(initial) < 0
+            );
+            Assertions.assertEquals(0, transport.hedges());
+        }
+    }
+
+    /**
+     * Check that the open circuit breaker fails fast and lets the trial
+     * request through after the cooldown: the failed trial opens it again
+     * and the retry fails fast, the successful one closes it.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testCircuitBreaker() throws Exception {
+        try (
+            StubServer server = ResilientTransportTest.server(
+                Fault.ERROR, Fault.ERROR, Fault.ERROR
+            )
+        ) {
+            final Duration cooldown = Duration.ofMillis(200);
+            final ResilientTransport transport =
+                ResilientTransportTest.transport(null, cooldown);
+            ResilientTransportTest.read(transport, server);
+            final URI uri = URI.create(server.url());
+            Assertions.assertEquals(
+                CircuitBreaker.State.OPEN, transport.breaker(uri).state()
+            );
+            final IOException error = Assertions.assertThrows(
+                IOException.class,
+                () -> ResilientTransportTest.read(transport, server)
+            );
+            Assertions.assertTrue(error.getMessage().contains("open"));
+            Assertions.assertEquals(2, server.requests());
+            TimeUnit.MILLISECONDS.sleep(cooldown.toMillis() * 2);
+            Assertions.assertThrows(
+                IOException.class,
+                () -> ResilientTransportTest.read(transport, server)
+            );
+            Assertions.assertEquals(2 + 1, server.requests());
+            Assertions.assertEquals(
+                CircuitBreaker.State.OPEN, transport.breaker(uri).state()
+            );
+            TimeUnit.MILLISECONDS.sleep(cooldown.toMillis() * 2);
+            Assertions.assertEquals(
+                "ok", ResilientTransportTest.read(transport, server)
+            );
+            Assertions.assertEquals(
+                CircuitBreaker.State.CLOSED, transport.breaker(uri).state()
+            );
+        }
+    }
+
+    /**
+     * Check that the unchecked exception of the trial call is recorded as
+     * the failure, so the breaker doesn't stay half-open.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testTrialThrows() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final ResilientTransport transport = new ResilientTransport(
+            (uri, headers) -> {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IOException("Refused");
+                }
+                if (calls.get() == 2) {
+                    throw new IllegalStateException("Broken");
+                }
+                return ResilientTransportTest.ok();
+            },
+            1, Duration.ZERO, null, 1, Duration.ZERO
+        );
+        final URI uri = URI.create("http://localhost/x");
+        Assertions.assertThrows(
+            IOException.class,
+            () -> transport.get(uri, Collections.emptyMap())
+        );
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> transport.get(uri, Collections.emptyMap())
+        );
+        Assertions.assertEquals(
+            CircuitBreaker.State.OPEN, transport.breaker(uri).state()
+        );
+        try (
+            MvnResponse response = transport.get(uri, Collections.emptyMap())
+        ) {
+            Assertions.assertEquals(MvnResponse.OK, response.status());
+        }
+        Assertions.assertEquals(
+            CircuitBreaker.State.CLOSED, transport.breaker(uri).state()
+        );
+    }
+
+    /**
+     * Check that the read timeout is retried like the other network errors
+     * although it is {@link java.io.InterruptedIOException}.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testReadTimeout() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final ResilientTransport transport = new ResilientTransport(
+            (uri, headers) -> {
+                if (calls.incrementAndGet() == 1) {
+                    throw new SocketTimeoutException("Read timed out");
+                }
+                return ResilientTransportTest.ok();
+            },
+            2, Duration.ZERO, null, 2, Duration.ZERO
+        );
+        try (
+            MvnResponse response = transport.get(
+                URI.create("http://localhost/x"), Collections.emptyMap()
+            )
+        ) {
+            Assertions.assertEquals(MvnResponse.OK, response.status());
+        }
+        Assertions.assertEquals(1, transport.retries());
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    /**
+     * Create the transport which makes 3 attempts and opens the breaker
+     * after 2 failures in a row.
+     *
+     * @param hedge The initial hedge delay or null.
+     * @param cooldown The cooldown of the breaker.
+     * @return The transport.
+     */
+    private static ResilientTransport transport(
+        final Duration hedge, final Duration cooldown
+    ) {
+        final int attempts;
+        if (cooldown.isZero()) {
+            attempts = 2 + 1;
+        } else {
+            attempts = 2;
+        }
+        return new ResilientTransport(
+            new UrlTransport(), attempts, Duration.ofMillis(1), hedge,
+            attempts, cooldown
+        );
+    }
+
+    /**
+     * The response which counts its closing.
+     *
+     * @param status The status.
+     * @param closed The counter of the closed responses.
+     * @return The response.
+     */
+    private static MvnResponse response(
+        final int status, final AtomicInteger closed
+    ) {
+        return new MvnResponse(
+            status, Collections.emptyMap(),
+            new ByteArrayInputStream(new byte[0]) {
+                @Override
+                public void close() {
+                    closed.incrementAndGet();
+                }
+            }
+        );
+    }
+
+    /**
+     * Wait up to some seconds until the condition holds.
+     *
+     * @param condition The condition.
+     * @throws InterruptedException If the waiting was interrupted.
+     */
+    private static void await(
+        final BooleanSupplier condition
+    ) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1L);
+        }
+    }
+
+    /**
+     * Sleep without being interrupted.
+     *
+     * @param time The time to sleep.
+     */
+    private static void pause(final Duration time) {
+        try {
+            Thread.sleep(time.toMillis());
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The successful response.
+     *
+     * @return The response.
+     */
+    private static MvnResponse ok() {
+        return new MvnResponse(
+            MvnResponse.OK, Collections.emptyMap(),
+            new ByteArrayInputStream(new byte[0])
+        );
+    }
+
+    /**
+     * Read the resource of the stub server.
+     *
+     * @param transport The transport.
+     * @param server The stub server.
+     * @return The body or the status if it is not successful.
+     * @throws IOException If something went wrong.
+     */
+    private static String read(
+        final ResilientTransport transport, final StubServer server
+    ) throws IOException {
+        try (
+            MvnResponse response = transport.get(
+                URI.create(String.format("%s/x", server.url())),
+                Collections.emptyMap()
+            )
+        ) {
+            final String result;
+            if (response.status() == MvnResponse.OK) {
+                result = new String(
+                    response.body().readAllBytes(), StandardCharsets.UTF_8
+                );
+            } else {
+                result = String.valueOf(response.status());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Start the stub server which injects the faults into the requests in
+     * the order of the script; the other requests succeed.
+     *
+     * @param script The faults.
+     * @return The server.
+     * @throws IOException If something went wrong.
+     */
+    private static StubServer server(final Fault... script)
+        throws IOException {
+        final List<Fault> faults = List.of(script);
+        final AtomicInteger count = new AtomicInteger();
+        return new StubServer(
+            exchange -> {
+                final int idx = count.getAndIncrement();
+                Fault fault = Fault.NONE;
+                if (idx < faults.size()) {
+                    fault = faults.get(idx);
+                }
+                if (fault == Fault.ERROR) {
+                    StubServer.send(
+                        exchange, ResilientTransportTest.UNAVAILABLE,
+                        new byte[0]
+                    );
+                } else {
+                    if (fault == Fault.SLOW) {
+                        try {
+                            TimeUnit.MILLISECONDS.sleep(
+                                ResilientTransportTest.SLOW
+                            );
+                        } catch (final InterruptedException exception) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    StubServer.send(
+                        exchange, MvnResponse.OK,
+                        "ok".getBytes(StandardCharsets.UTF_8)
+                    );
+                }
+            }
+        );
+    }
+
+    /**
+     * The fault which the stub server injects.
+     *
+     * @since 2.0
+     */
+    private enum Fault {
+
+        /**
+         * The request succeeds.
+         */
+        NONE,
+
+        /**
+         * The server answers "503 Service Unavailable".
+         */
+        ERROR,
+
+        /**
+         * The server answers after a long delay.
+         */
+        SLOW
+    }
+}
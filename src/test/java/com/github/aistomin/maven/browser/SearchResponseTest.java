@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link SearchResponse}.
+ *
+ * @since 2.0
+ */
+final class SearchResponseTest {
+
+    /**
+     * The amount of the documents in the big response.
+     */
+    private static final int DOCS = 500;
+
+    /**
+     * The timestamp of the version.
+     */
+    private static final long TIMESTAMP = 1_479_480_474_000L;
+
+    /**
+     * Check that we read the artifacts from the search response.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testArtifacts() throws Exception {
+        final List<MvnArtifact> artifacts = new ArrayList<>(0);
+        new SearchResponse(
+            new ByteArrayInputStream(StubServer.resource("search.json"))
+        ).artifacts(artifacts::add);
+        Assertions.assertEquals(
+            List.of(
+                "com.github.aistomin:jenkins-sdk",
+                "com.github.aistomin:maven-browser",
+                "com.github.aistomin:maven-dependencies-analyser"
+            ),
+            artifacts.stream().map(MvnArtifact::identifier).toList()
+        );
+    }
+
+    /**
+     * Check that we read the versions from the search response.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testVersions() throws Exception {
+        final List<MvnArtifactVersion> versions = new ArrayList<>(0);
+        SearchResponseTest.response(
+            String.join(
+                "",
+                "{\"response\": {\"numFound\": 2, \"docs\": [",
+                "{\"id\": \"x\", \"g\": \"org.x\", \"a\": \"y\",",
+                "\"v\": \"1.0\",",
+                "\"p\": \"maven-plugin\", \"timestamp\": 1479480474000,",
+                "\"tags\": [\"a\", {\"b\": 1}]},",
+                "{\"g\": \"org.x\", \"a\": \"y\", \"v\": \"0.9\", \"p\": null}",
+                "]}, \"spellcheck\": {\"suggestions\": []}}"
+            )
+        ).versions(versions::add);
+        Assertions.assertEquals(2, versions.size());
+        Assertions.assertEquals(
+            "org.x:y:1.0", versions.get(0).identifier()
+        );
+        Assertions.assertEquals(
+            MvnPackagingType.MAVEN_PLUGIN, versions.get(0).packaging()
+        );
+        Assertions.assertEquals(
+            SearchResponseTest.TIMESTAMP, versions.get(0).releaseTimestamp()
+        );
+        Assertions.assertEquals(
+            MvnPackagingType.JAR, versions.get(1).packaging()
+        );
+        Assertions.assertNull(versions.get(1).releaseTimestamp());
+    }
+
+    /**
+     * Check that we read the big response document by document.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testBigResponse() throws Exception {
+        final StringBuilder json = new StringBuilder(
+            "{\"response\":{\"docs\":["
+        );
+        for (int idx = 0; idx < SearchResponseTest.DOCS; ++idx) {
+            if (idx > 0) {
+                json.append(',');
+            }
+            json.append(
+                String.format(
+                    "{\"g\":\"org.group%d\",\"a\":\"art\\u00e9%d\"}", idx, idx
+                )
+            );
+        }
+        json.append("]}}");
+        final List<MvnArtifact> artifacts = new ArrayList<>(0);
+        SearchResponseTest.response(json.toString()).artifacts(artifacts::add);
+        Assertions.assertEquals(SearchResponseTest.DOCS, artifacts.size());
+        Assertions.assertEquals(
+            String.format("art\u00e9%d", SearchResponseTest.DOCS - 1),
+            artifacts.get(SearchResponseTest.DOCS - 1).name()
+        );
+    }
+
+    /**
+     * Check that the malformed responses are reported.
+     */
+    @Test
+    void testMalformed() {
+        Assertions.assertThrows(
+            IOException.class,
+            () -> SearchResponseTest.response("{\"response\": {\"docs\": [")
+                .artifacts(artifact -> { })
+        );
+        Assertions.assertThrows(
+            IOException.class,
+            () -> SearchResponseTest.response(
+                "{\"response\": {\"docs\": [{\"timestamp\": \"soon\"}]}}"
+            ).versions(version -> { })
+        );
+    }
+
+    /**
+     * Check that the documents without the required fields are reported.
+     */
+    @Test
+    void testMissingFields() {
+        Assertions.assertThrows(
+            IOException.class,
+            () -> SearchResponseTest.response(
+                "{\"response\": {\"docs\": [{\"a\": \"guava\"}]}}"
+            ).artifacts(artifact -> { })
+        );
+        Assertions.assertThrows(
+            IOException.class,
+            () -> SearchResponseTest.response(
+                "{\"response\": {\"docs\": [{\"g\": \"com.google\"}]}}"
+            ).artifacts(artifact -> { })
+        );
+        Assertions.assertThrows(
+            IOException.class,
+            () -> SearchResponseTest.response(
+                "{\"response\": {\"docs\": [{\"g\": \"g\", \"a\": \"a\"}]}}"
+            ).versions(version -> { })
+        );
+    }
+
+    /**
+     * Create the response with the body.
+     *
+     * @param body The body.
+     * @return The response.
+     */
+    private static SearchResponse response(final String body) {
+        return new SearchResponse(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+}
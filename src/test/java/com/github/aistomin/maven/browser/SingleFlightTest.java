@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link SingleFlight}.
+ *
+ * @since 2.0
+ */
+final class SingleFlightTest {
+
+    /**
+     * The amount of concurrent callers.
+     */
+    private static final int CALLERS = 8;
+
+    /**
+     * Check that the concurrent callers with the same key share one call and
+     * that the result is not kept after the call.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testSharedResult() throws Exception {
+        final SingleFlight<String, Integer> flight = new SingleFlight<>();
+        final CountDownLatch gate = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        final List<Future<Integer>> results = SingleFlightTest.callers(
+            flight,
+            () -> {
+                calls.incrementAndGet();
+                SingleFlightTest.await(gate);
+                return 42;
+            },
+            gate
+        );
+        for (final Future<Integer> result : results) {
+            Assertions.assertEquals(42, result.get());
+        }
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(0, flight.inFlight());
+        Assertions.assertEquals(
+            SingleFlightTest.CALLERS - 1, flight.shared()
+        );
+        Assertions.assertEquals(
+            7, flight.run("key", () -> calls.incrementAndGet() + 5)
+        );
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    /**
+     * Check that the concurrent callers get the same exception.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testSharedError() throws Exception {
+        final SingleFlight<String, Integer> flight = new SingleFlight<>();
+        final CountDownLatch gate = new CountDownLatch(1);
+        final MvnException error = new MvnException(new IOException("boom"));
+        final List<Future<Integer>> results = SingleFlightTest.callers(
+            flight,
+            () -> {
+                SingleFlightTest.await(gate);
+                throw error;
+            },
+            gate
+        );
+        for (final Future<Integer> result : results) {
+            final ExecutionException thrown = Assertions.assertThrows(
+                ExecutionException.class, result::get
+            );
+            Assertions.assertSame(error, thrown.getCause());
+        }
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> flight.run(
+                "key",
+                () -> {
+                    throw new IllegalStateException("broken");
+                }
+            )
+        );
+        Assertions.assertEquals(0, flight.inFlight());
+    }
+
+    /**
+     * Start the concurrent callers with the same key, wait until all of them
+     * have joined the call and open the gate.
+     *
+     * @param flight The single flight.
+     * @param call The call.
+     * @param gate The gate which holds the call.
+     * @return The results of the callers.
+     * @throws Exception If something went wrong.
+     */
+    private static List<Future<Integer>> callers(
+        final SingleFlight<String, Integer> flight,
+        final SingleFlight.Call<Integer> call, final CountDownLatch gate
+    ) throws Exception {
+        final ExecutorService threads =
+            Executors.newFixedThreadPool(SingleFlightTest.CALLERS);
+        final List<Future<Integer>> results =
+            new ArrayList<>(SingleFlightTest.CALLERS);
+        for (int idx = 0; idx < SingleFlightTest.CALLERS; ++idx) {
+            results.add(threads.submit(() -> flight.run("key", call)));
+        }
+        while (flight.shared() < SingleFlightTest.CALLERS - 1) {
+            Thread.onSpinWait();
+        }
+        gate.countDown();
+        threads.shutdown();
+        Assertions.assertTrue(threads.awaitTermination(1, TimeUnit.MINUTES));
+        return results;
+    }
+
+    /**
+     * Wait until the gate is opened.
+     *
+     * @param gate The gate.
+     * @throws MvnException If the waiting was interrupted.
+     */
+    private static void await(final CountDownLatch gate) throws MvnException {
+        try {
+            gate.await();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new MvnException(exception);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP server which we use in the tests instead of the real remote
+ * repository.
+ *
+ * @since 2.0
+ */
+final class StubServer implements AutoCloseable {
+
+    /**
+     * The HTTP server.
+     */
+    private final HttpServer server;
+
+    /**
+     * The threads which handle the requests.
+     */
+    private final ExecutorService threads;
+
+    /**
+     * The amount of the handled requests.
+     */
+    private final AtomicInteger count;
+
+    /**
+     * Ctor.
+     *
+     * @param handler The request handler.
+     * @throws IOException If the server can't be started.
+     */
+    StubServer(final HttpHandler handler) throws IOException {
+        this.count = new AtomicInteger();
+        this.threads = Executors.newCachedThreadPool();
+        this.server = HttpServer.create(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0
+        );
+        this.server.createContext(
+            "/",
+            exchange -> {
+                this.count.incrementAndGet();
+                try (exchange) {
+                    handler.handle(exchange);
+                }
+            }
+        );
+        this.server.setExecutor(this.threads);
+        this.server.start();
+    }
+
+    /**
+     * The base URL of the server.
+     *
+     * @return The URL without the trailing slash.
+     */
+    String url() {
+        return String.format(
+            "http://%s:%d",
+            this.server.getAddress().getHostString(),
+            this.server.getAddress().getPort()
+        );
+    }
+
+    /**
+     * The amount of the handled requests.
+     *
+     * @return The amount of the requests.
+     */
+    int requests() {
+        return this.count.get();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.threads.shutdownNow();
+    }
+
+    /**
+     * Send the response.
+     *
+     * @param exchange The HTTP exchange.
+     * @param status HTTP status code.
+     * @param body The response body.
+     * @throws IOException If sending fails.
+     */
+    static void send(
+        final HttpExchange exchange, final int status, final byte[] body
+    ) throws IOException {
+        if (body.length == 0) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Read the test resource.
+     *
+     * @param name The name of the resource.
+     * @return The content of the resource.
+     * @throws IOException If reading fails.
+     */
+    static byte[] resource(final String name) throws IOException {
+        try (
+            InputStream input = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(name)
+        ) {
+            return input.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link Throttle}.
+ *
+ * @since 2.0
+ */
+final class ThrottleTest {
+
+    /**
+     * The rate which we use for tests.
+     */
+    private static final int RATE = 100;
+
+    /**
+     * The amount of the requests which we make.
+     */
+    private static final int REQUESTS = 11;
+
+    /**
+     * Min duration of the throttled requests in milliseconds.
+     */
+    private static final long MIN_MILLIS = 80;
+
+    /**
+     * Check that the token bucket limits the rate of the requests.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testRate() throws Exception {
+        final Throttle throttle = new Throttle(ThrottleTest.RATE, 1, 1, 1);
+        final long start = System.nanoTime();
+        for (int idx = 0; idx < ThrottleTest.REQUESTS; ++idx) {
+            throttle.acquire();
+            throttle.release(false);
+        }
+        Assertions.assertTrue(
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                >= ThrottleTest.MIN_MILLIS
+        );
+        Assertions.assertEquals(0, throttle.inFlight());
+    }
+
+    /**
+     * Check that the concurrency limit grows additively and shrinks
+     * multiplicatively.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testAimd() throws Exception {
+        final int max = 10;
+        final Throttle throttle = new Throttle(1_000, 1_000, 2, max);
+        Assertions.assertEquals(2, throttle.limit());
+        for (int idx = 0; idx < ThrottleTest.RATE; ++idx) {
+            throttle.acquire();
+            throttle.release(false);
+        }
+        Assertions.assertEquals(max, throttle.limit());
+        throttle.acquire();
+        throttle.release(true);
+        Assertions.assertEquals(max / 2, throttle.limit());
+        for (int idx = 0; idx < ThrottleTest.REQUESTS; ++idx) {
+            throttle.acquire();
+            throttle.release(true);
+        }
+        Assertions.assertEquals(2, throttle.limit());
+        Assertions.assertEquals(
+            ThrottleTest.REQUESTS + 1, throttle.overloads()
+        );
+        Assertions.assertThrows(
+            IllegalArgumentException.class, () -> new Throttle(1, 1, 2, 1)
+        );
+    }
+
+    /**
+     * Check that the request waits for the free concurrency slot.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testConcurrency() throws Exception {
+        final Throttle throttle = new Throttle(1_000, 1_000, 1, 1);
+        throttle.acquire();
+        final CountDownLatch acquired = new CountDownLatch(1);
+        final Thread second = Thread.startVirtualThread(
+            () -> {
+                try {
+                    throttle.acquire();
+                    acquired.countDown();
+                } catch (final IOException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        );
+        Assertions.assertFalse(
+            acquired.await(ThrottleTest.MIN_MILLIS, TimeUnit.MILLISECONDS)
+        );
+        throttle.release(false);
+        Assertions.assertTrue(acquired.await(1, TimeUnit.MINUTES));
+        second.join();
+        Assertions.assertEquals(1, throttle.inFlight());
+    }
+
+    /**
+     * Check that the paused throttle holds the requests.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testPause() throws Exception {
+        final Throttle throttle = new Throttle(1_000, 1_000, 1, 1);
+        throttle.pause(Duration.ofMillis(ThrottleTest.RATE));
+        final long start = System.nanoTime();
+        throttle.acquire();
+        Assertions.assertTrue(
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                >= ThrottleTest.MIN_MILLIS
+        );
+    }
+
+    /**
+     * Check that the request fails when it waits for the throttle for too
+     * long.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testTimeout() throws Exception {
+        final Throttle throttle = new Throttle(1_000, 1_000, 1, 1);
+        throttle.acquire();
+        final long start = System.nanoTime();
+        Assertions.assertThrows(
+            IOException.class,
+            () -> throttle.acquire(Duration.ofMillis(ThrottleTest.RATE))
+        );
+        Assertions.assertTrue(
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                >= ThrottleTest.MIN_MILLIS
+        );
+        throttle.pause(Duration.ofDays(1));
+        throttle.release(false);
+        Assertions.assertThrows(
+            IOException.class,
+            () -> throttle.acquire(Duration.ofMillis(1))
+        );
+        Assertions.assertEquals(0, throttle.inFlight());
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link ThrottledTransport}.
+ *
+ * @since 2.0
+ */
+final class ThrottledTransportTest {
+
+    /**
+     * HTTP status "Too Many Requests".
+     */
+    private static final int TOO_MANY = 429;
+
+    /**
+     * HTTP status "Service Unavailable".
+     */
+    private static final int UNAVAILABLE = 503;
+
+    /**
+     * Check that the throttled request is repeated after "Retry-After" and
+     * the limits are exposed.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testRetryAfter() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    if (count.getAndIncrement() == 0) {
+                        exchange.getResponseHeaders().add("Retry-After", "0");
+                        StubServer.send(
+                            exchange, ThrottledTransportTest.TOO_MANY,
+                            new byte[0]
+                        );
+                    } else {
+                        StubServer.send(
+                            exchange, MvnResponse.OK,
+                            StubServer.resource("maven-metadata.xml")
+                        );
+                    }
+                }
+            )
+        ) {
+            final ThrottledTransport transport =
+                ThrottledTransportTest.transport(server);
+            final URI uri = URI.create(
+                String.format("%s/maven2/maven-metadata.xml", server.url())
+            );
+            final Throttle throttle = transport.throttle(uri);
+            try (
+                MvnResponse response = transport.get(
+                    uri, Collections.emptyMap()
+                )
+            ) {
+                Assertions.assertEquals(MvnResponse.OK, response.status());
+                Assertions.assertEquals(1, throttle.inFlight());
+                Assertions.assertEquals(
+                    new MavenMetadata(response.body()).versions().size(),
+                    2 + 2 + 1
+                );
+            }
+            Assertions.assertEquals(0, throttle.inFlight());
+            Assertions.assertEquals(1, throttle.overloads());
+            Assertions.assertEquals(2, server.requests());
+            Assertions.assertNotSame(
+                throttle, transport.throttle(URI.create(server.url()))
+            );
+            Assertions.assertTrue(
+                transport.scrape().contains(
+                    String.format(
+                        "mvn_throttle_overloads_total{endpoint=\"%s\"} 1",
+                        String.format("%s/maven2/", server.url())
+                    )
+                )
+            );
+        }
+    }
+
+    /**
+     * Check that the response is returned as is when the attempts are
+     * exhausted or the server asks to wait for too long, and then the
+     * endpoint isn't paused.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testGiveUp() throws Exception {
+        final AtomicInteger wait = new AtomicInteger();
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    exchange.getResponseHeaders().add(
+                        "Retry-After", String.valueOf(wait.get())
+                    );
+                    StubServer.send(
+                        exchange, ThrottledTransportTest.UNAVAILABLE,
+                        new byte[0]
+                    );
+                }
+            )
+        ) {
+            final URI uri = URI.create(String.format("%s/x", server.url()));
+            try (
+                MvnResponse response = ThrottledTransportTest.transport(server)
+                    .get(uri, Collections.emptyMap())
+            ) {
+                Assertions.assertEquals(
+                    ThrottledTransportTest.UNAVAILABLE, response.status()
+                );
+            }
+            Assertions.assertEquals(
+                ThrottledTransport.ATTEMPTS, server.requests()
+            );
+            wait.set((int) ThrottledTransport.MAX_WAIT.getSeconds() + 1);
+            final ThrottledTransport transport =
+                ThrottledTransportTest.transport(server);
+            transport.get(uri, Collections.emptyMap()).close();
+            Assertions.assertEquals(
+                ThrottledTransport.ATTEMPTS + 1, server.requests()
+            );
+            Assertions.assertEquals(0, transport.throttle(uri).inFlight());
+            transport.throttle(uri).acquire(Duration.ofSeconds(1));
+            transport.throttle(uri).release(false);
+        }
+    }
+
+    /**
+     * Check that the slot is released when the origin throws an unchecked
+     * exception.
+     */
+    @Test
+    void testUncheckedFailure() {
+        final int fast = 1_000;
+        final Throttle throttle = new Throttle(fast, fast, 1, 1);
+        final ThrottledTransport transport = new ThrottledTransport(
+            (uri, headers) -> {
+                throw new IllegalStateException("Broken request");
+            },
+            Map.of(),
+            throttle
+        );
+        final URI uri = URI.create("http://localhost/x");
+        for (int idx = 0; idx < 2; ++idx) {
+            Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> transport.get(uri, Collections.emptyMap())
+            );
+            Assertions.assertEquals(0, throttle.inFlight());
+        }
+    }
+
+    /**
+     * Check that "Retry-After" is read in seconds and as the HTTP date.
+     */
+    @Test
+    void testRetryAfterHeader() {
+        final long minute = 60;
+        Assertions.assertEquals(
+            Duration.ofSeconds(minute),
+            ThrottledTransport.retryAfter(
+                ThrottledTransportTest.response(String.valueOf(minute))
+            )
+        );
+        final Duration date = ThrottledTransport.retryAfter(
+            ThrottledTransportTest.response(
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                    ZonedDateTime.now().plusMinutes(2)
+                )
+            )
+        );
+        Assertions.assertTrue(date.getSeconds() > minute);
+        Assertions.assertEquals(
+            Duration.ofSeconds(1),
+            ThrottledTransport.retryAfter(
+                ThrottledTransportTest.response("soon")
+            )
+        );
+        Assertions.assertEquals(
+            Duration.ZERO,
+            ThrottledTransport.retryAfter(
+                ThrottledTransportTest.response("-5")
+            )
+        );
+    }
+
+    /**
+     * Create the transport which throttles the stub server.
+     *
+     * @param server The stub server.
+     * @return The transport.
+     */
+    private static ThrottledTransport transport(final StubServer server) {
+        final int fast = 1_000;
+        return new ThrottledTransport(
+            new UrlTransport(),
+            Map.of(
+                String.format("%s/maven2/", server.url()),
+                new Throttle(fast, fast, 1, 2)
+            ),
+            new Throttle(fast, fast, 1, 2)
+        );
+    }
+
+    /**
+     * Create the throttled response.
+     *
+     * @param retry The value of "Retry-After".
+     * @return The response.
+     */
+    private static MvnResponse response(final String retry) {
+        return new MvnResponse(
+            ThrottledTransportTest.TOO_MANY,
+            Map.of("Retry-After", List.of(retry)),
+            new ByteArrayInputStream(new byte[0])
+        );
+    }
+}
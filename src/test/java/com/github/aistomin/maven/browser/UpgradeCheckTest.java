@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The tests for {@link UpgradeCheck}.
+ *
+ * @since 2.0
+ */
+final class UpgradeCheckTest {
+
+    /**
+     * The POM which we use for tests.
+     */
+    private static final String POM = String.join(
+        "",
+        "<project><groupId>com.example</groupId><artifactId>app</artifactId>",
+        "<version>1.0</version><parent><groupId>com.example</groupId>",
+        "<artifactId>parent</artifactId><version>1</version></parent>",
+        "<properties><io.version>2.6</io.version></properties>",
+        "<dependencyManagement>",
+        FakePoms.dependencies(
+            FakePoms.dependency("commons-io:commons-io:${io.version}", "")
+        ),
+        "</dependencyManagement>",
+        FakePoms.dependencies(
+            FakePoms.dependency("commons-io:commons-io:2.6", ""),
+            FakePoms.dependency("commons-io:commons-io", ""),
+            FakePoms.dependency("junit:junit:4.13", "<scope>test</scope>"),
+            FakePoms.dependency("com.example:gone:1.0", ""),
+            FakePoms.dependency("com.example:managed", "")
+        ),
+        "<build><plugins><plugin><artifactId>maven-jar-plugin</artifactId>",
+        "<version>3.0</version><configuration><archive><index>true",
+        "</index></archive></configuration><dependencies>",
+        FakePoms.dependency("org.ow2.asm:asm:9.0", ""),
+        "</dependencies></plugin></plugins></build></project>"
+    );
+
+    /**
+     * Check that we report the upgrades of the dependencies, the managed
+     * dependencies and the plugins and look up every artifact once.
+     *
+     * @param dir The temporary directory.
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testReport(@TempDir final Path dir) throws Exception {
+        final FakeMvnRepo repo = new FakeMvnRepo()
+            .with(
+                CoordinatePool.SHARED.artifact("commons-io", "commons-io"),
+                "2.11.0", "2.8.0", "2.6", "2.5"
+            )
+            .with(
+                CoordinatePool.SHARED.artifact("junit", "junit"),
+                "4.13", "4.12"
+            )
+            .with(
+                CoordinatePool.SHARED.artifact(
+                    "org.apache.maven.plugins", "maven-jar-plugin"
+                ),
+                "3.3.0", "3.0"
+            );
+        final UpgradeReport report = new UpgradeCheck(repo).report(
+            new ByteArrayInputStream(
+                UpgradeCheckTest.POM.getBytes(StandardCharsets.UTF_8)
+            )
+        );
+        final List<String> upgrades = new ArrayList<>(0);
+        for (final Upgrade upgrade : report.upgrades()) {
+            upgrades.add(upgrade.toString());
+        }
+        Assertions.assertEquals(
+            List.of(
+                "commons-io:commons-io:2.6 -> 2.11.0",
+                "org.apache.maven.plugins:maven-jar-plugin:3.0 -> 3.3.0"
+            ),
+            upgrades
+        );
+        Assertions.assertEquals(
+            2, report.upgrades().get(0).versions().size()
+        );
+        Assertions.assertEquals(
+            List.of(
+                CoordinatePool.SHARED.artifact("com.example", "gone")
+            ),
+            new ArrayList<>(report.failures().keySet())
+        );
+        Assertions.assertEquals(2, report.unresolved().size());
+        Assertions.assertEquals(2 + 2, repo.calls());
+        final Path file = dir.resolve("pom.xml");
+        Files.writeString(file, UpgradeCheckTest.POM);
+        Assertions.assertEquals(
+            2, new UpgradeCheck(repo).report(file).upgrades().size()
+        );
+        Assertions.assertThrows(
+            MvnException.class,
+            () -> new UpgradeCheck(repo).report(dir.resolve("absent.xml"))
+        );
+    }
+}
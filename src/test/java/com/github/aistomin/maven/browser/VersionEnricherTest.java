@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link VersionEnricher}.
+ *
+ * @since 2.0
+ */
+final class VersionEnricherTest {
+
+    /**
+     * HTTP status "Not Found".
+     */
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * HTTP status "Service Unavailable".
+     */
+    private static final int UNAVAILABLE = 503;
+
+    /**
+     * The release timestamp in the search API.
+     */
+    private static final long RELEASED = 1_488_479_582_000L;
+
+    /**
+     * The "Last-Modified" header of the POM.
+     */
+    private static final String MODIFIED = "Tue, 02 Mar 2021 10:00:00 GMT";
+
+    /**
+     * Check that the versions are enriched from the batched search queries
+     * and the POMs, and cached.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testEnrich() throws Exception {
+        final List<String> queries = new CopyOnWriteArrayList<>();
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    final String path = exchange.getRequestURI().getPath();
+                    if (path.endsWith("/select")) {
+                        final String query = URLDecoder.decode(
+                            exchange.getRequestURI().getRawQuery(),
+                            StandardCharsets.UTF_8
+                        );
+                        queries.add(query);
+                        StubServer.send(
+                            exchange, MvnResponse.OK,
+                            VersionEnricherTest.docs(query)
+                        );
+                    } else if (path.endsWith("/c/3.0/c-3.0.pom")) {
+                        exchange.getResponseHeaders().add(
+                            "Last-Modified", VersionEnricherTest.MODIFIED
+                        );
+                        StubServer.send(
+                            exchange, MvnResponse.OK, VersionEnricherTest.war()
+                        );
+                    } else {
+                        StubServer.send(
+                            exchange, VersionEnricherTest.NOT_FOUND,
+                            new byte[0]
+                        );
+                    }
+                }
+            )
+        ) {
+            final VersionEnricher enricher = new VersionEnricher(
+                server.url(), String.format("%s/select", server.url()),
+                new UrlTransport(), 2, 2
+            );
+            final List<MvnArtifactVersion> versions = List.of(
+                VersionEnricherTest.version("a", "2.0"),
+                VersionEnricherTest.version("a", "1.0"),
+                VersionEnricherTest.version("b", "1.0"),
+                VersionEnricherTest.version("c", "3.0"),
+                VersionEnricherTest.version("d", "1.0")
+            );
+            final List<MvnArtifactVersion> enriched =
+                enricher.enrich(versions);
+            Assertions.assertEquals(versions, enriched);
+            Assertions.assertEquals(
+                List.of(
+                    "jar", "jar", "pom", "war", "jar"
+                ),
+                VersionEnricherTest.packagings(enriched)
+            );
+            Assertions.assertEquals(
+                VersionEnricherTest.RELEASED + 2,
+                enriched.get(0).releaseTimestamp()
+            );
+            Assertions.assertEquals(
+                ZonedDateTime.parse(
+                    VersionEnricherTest.MODIFIED,
+                    DateTimeFormatter.RFC_1123_DATE_TIME
+                ).toInstant().toEpochMilli(),
+                enriched.get(2 + 1).releaseTimestamp()
+            );
+            Assertions.assertNull(enriched.get(2 + 2).releaseTimestamp());
+            Assertions.assertEquals(2, queries.size());
+            Assertions.assertTrue(queries.get(0).contains("core=gav"));
+            Assertions.assertTrue(
+                queries.get(0).contains("fl=g,a,v,p,timestamp")
+            );
+            Assertions.assertEquals(2 + 2, enricher.requests());
+            Assertions.assertEquals(1, enricher.failures());
+            Assertions.assertEquals(2 + 2, enricher.size());
+            enricher.enrich(versions.subList(0, 2 + 2));
+            Assertions.assertEquals(2 + 2, enricher.requests());
+        }
+    }
+
+    /**
+     * Check that the versions of the failed query are counted as failures
+     * and not read from their POMs, and the cache keeps only the configured
+     * amount of the versions.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testFailedQuery() throws Exception {
+        final List<String> poms = new CopyOnWriteArrayList<>();
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    final String path = exchange.getRequestURI().getPath();
+                    final String query = URLDecoder.decode(
+                        String.valueOf(exchange.getRequestURI().getRawQuery()),
+                        StandardCharsets.UTF_8
+                    );
+                    if (path.endsWith("/select") && query.contains("a:\"a\"")) {
+                        StubServer.send(
+                            exchange, VersionEnricherTest.UNAVAILABLE,
+                            new byte[0]
+                        );
+                    } else if (path.endsWith("/select")) {
+                        StubServer.send(
+                            exchange, MvnResponse.OK,
+                            VersionEnricherTest.docs(query)
+                        );
+                    } else {
+                        poms.add(path);
+                        StubServer.send(
+                            exchange, MvnResponse.OK, VersionEnricherTest.war()
+                        );
+                    }
+                }
+            )
+        ) {
+            final VersionEnricher enricher = new VersionEnricher(
+                server.url(), String.format("%s/select", server.url()),
+                new UrlTransport(), 1, 2, 1
+            );
+            final List<MvnArtifactVersion> enriched = enricher.enrich(
+                List.of(
+                    VersionEnricherTest.version("a", "2.0"),
+                    VersionEnricherTest.version("a", "1.0"),
+                    VersionEnricherTest.version("b", "1.0"),
+                    VersionEnricherTest.version("c", "3.0")
+                )
+            );
+            Assertions.assertEquals(
+                List.of("jar", "jar", "pom", "war"),
+                VersionEnricherTest.packagings(enriched)
+            );
+            Assertions.assertNull(enriched.get(0).releaseTimestamp());
+            Assertions.assertEquals(
+                List.of("/org/example/c/3.0/c-3.0.pom"), poms
+            );
+            Assertions.assertEquals(2, enricher.failures());
+            Assertions.assertEquals(1, enricher.size());
+        }
+    }
+
+    /**
+     * The POM of "org.example:c:3.0" with WAR packaging.
+     *
+     * @return The POM.
+     */
+    private static byte[] war() {
+        return String.join(
+            "",
+            "<project><groupId>org.example</groupId>",
+            "<artifactId>c</artifactId>",
+            "<version>3.0</version>",
+            "<packaging>war</packaging></project>"
+        ).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The response of the search API with the versions of the artifacts
+     * "a" and "b" which are mentioned in the query.
+     *
+     * @param query The decoded query.
+     * @return The response.
+     */
+    private static byte[] docs(final String query) {
+        final List<String> docs = new ArrayList<>(0);
+        if (query.contains("a:\"a\"")) {
+            docs.add(VersionEnricherTest.doc("a", "2.0", "jar", 2));
+            docs.add(VersionEnricherTest.doc("a", "1.0", "jar", 1));
+        }
+        if (query.contains("a:\"b\"")) {
+            docs.add(VersionEnricherTest.doc("b", "1.0", "pom", 0));
+        }
+        return String.format(
+            "{\"response\":{\"numFound\":%d,\"start\":0,\"docs\":[%s]}}",
+            docs.size(), String.join(",", docs)
+        ).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The document of the search API.
+     *
+     * @param name The artifact.
+     * @param version The version.
+     * @param packaging The packaging.
+     * @param shift The shift of the timestamp.
+     * @return The document.
+     */
+    private static String doc(
+        final String name, final String version, final String packaging,
+        final int shift
+    ) {
+        return String.format(
+            "{\"g\":\"org.example\",\"a\":\"%s\",\"v\":\"%s\",\"p\":\"%s\","
+                + "\"timestamp\":%d}",
+            name, version, packaging, VersionEnricherTest.RELEASED + shift
+        );
+    }
+
+    /**
+     * Create the version of the artifact from "org.example" group.
+     *
+     * @param name The artifact.
+     * @param version The version.
+     * @return The version with JAR packaging and without the timestamp.
+     */
+    private static MvnArtifactVersion version(
+        final String name, final String version
+    ) {
+        return new MavenArtifactVersion(
+            CoordinatePool.SHARED.artifact("org.example", name), version,
+            MvnPackagingType.JAR, null
+        );
+    }
+
+    /**
+     * The packagings of the versions.
+     *
+     * @param versions The versions.
+     * @return The packagings.
+     */
+    private static List<String> packagings(
+        final List<MvnArtifactVersion> versions
+    ) {
+        final List<String> result = new ArrayList<>(versions.size());
+        for (final MvnArtifactVersion version : versions) {
+            result.add(version.packaging().packaging());
+        }
+        return result;
+    }
+}
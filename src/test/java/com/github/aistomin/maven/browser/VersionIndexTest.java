@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link VersionIndex}.
+ *
+ * @since 2.0
+ */
+final class VersionIndexTest {
+
+    /**
+     * The artifact which we use for tests.
+     */
+    private final MvnArtifact mine = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+    );
+
+    /**
+     * Check that the versions are sorted like Maven does, no matter in which
+     * order they were published.
+     */
+    @Test
+    void testSorting() {
+        final VersionIndex index = this.index(
+            "1.10", "2.0-rc1", "1.9.1", "2.0", "1.2-SNAPSHOT", "1.2"
+        );
+        Assertions.assertEquals(
+            List.of("2.0", "2.0-rc1", "1.10", "1.9.1", "1.2", "1.2-SNAPSHOT"),
+            VersionIndexTest.names(index.sorted())
+        );
+        Assertions.assertEquals(
+            "1.10", index.versions().get(0).name()
+        );
+        Assertions.assertEquals(
+            List.of("2.0", "2.0-rc1"),
+            VersionIndexTest.names(index.latest(2))
+        );
+        Assertions.assertTrue(index.latest(0).isEmpty());
+        Assertions.assertEquals(
+            index.sorted(), index.latest(Integer.MAX_VALUE)
+        );
+    }
+
+    /**
+     * Check the range queries.
+     */
+    @Test
+    void testRanges() {
+        final VersionIndex index = this.index(
+            "2.0", "1.10", "1.9.1", "1.2", "1.2-SNAPSHOT"
+        );
+        Assertions.assertEquals(
+            List.of("2.0", "1.10"),
+            VersionIndexTest.names(index.newerThan(this.version("1.9.1")))
+        );
+        Assertions.assertEquals(
+            List.of("1.2", "1.2-SNAPSHOT"),
+            VersionIndexTest.names(index.olderThan(this.version("1.9.1")))
+        );
+        Assertions.assertEquals(
+            List.of("1.10", "1.9.1"),
+            VersionIndexTest.names(
+                index.between(this.version("1.2"), this.version("1.10"))
+            )
+        );
+        Assertions.assertTrue(
+            index.between(this.version("1.10"), this.version("1.2")).isEmpty()
+        );
+        Assertions.assertEquals(
+            List.of("1.9.1", "1.2"),
+            VersionIndexTest.names(
+                index.between(
+                    this.version("1.2.0-SNAPSHOT"), this.version("1.9.5")
+                )
+            )
+        );
+        Assertions.assertTrue(index.newerThan(this.version("3")).isEmpty());
+        Assertions.assertEquals(
+            index.sorted(), index.olderThan(this.version("3"))
+        );
+        Assertions.assertThrows(
+            UnsupportedOperationException.class,
+            () -> index.newerThan(this.version("1.2")).clear()
+        );
+    }
+
+    /**
+     * Check that we find the versions by the name.
+     */
+    @Test
+    void testContains() {
+        final VersionIndex index = this.index("1.0", "1.0.0", "0.9");
+        Assertions.assertTrue(index.contains(this.version("1.0.0")));
+        Assertions.assertTrue(index.contains(this.version("1.0")));
+        Assertions.assertFalse(index.contains(this.version("1")));
+        Assertions.assertFalse(index.contains(this.version("0.8")));
+        Assertions.assertEquals(2, index.newerThan(this.version("0.9")).size());
+        Assertions.assertSame(index, index.require(this.version("0.9")));
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> index.require(this.version("1"))
+        );
+        Assertions.assertTrue(
+            new VersionIndex(List.of()).newerThan(this.version("1")).isEmpty()
+        );
+    }
+
+    /**
+     * Create the index of the versions of the artifact.
+     *
+     * @param names The names of the versions.
+     * @return The index.
+     */
+    private VersionIndex index(final String... names) {
+        return new VersionIndex(
+            Stream.of(names).map(this::version).collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Create the version of the artifact.
+     *
+     * @param name The name of the version.
+     * @return The version.
+     */
+    private MvnArtifactVersion version(final String name) {
+        return new MavenArtifactVersion(
+            this.mine, name, MvnPackagingType.JAR, null
+        );
+    }
+
+    /**
+     * The names of the versions.
+     *
+     * @param versions The versions.
+     * @return The names.
+     */
+    private static List<String> names(final List<MvnArtifactVersion> versions) {
+        return versions.stream()
+            .map(MvnArtifactVersion::name)
+            .collect(Collectors.toList());
+    }
+}
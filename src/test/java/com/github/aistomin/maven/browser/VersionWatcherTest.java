@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2019-2022, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.maven.browser;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests for {@link VersionWatcher}.
+ *
+ * @since 2.0
+ */
+final class VersionWatcherTest {
+
+    /**
+     * HTTP status "Not Found".
+     */
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * HTTP status "Service Unavailable".
+     */
+    private static final int UNAVAILABLE = 503;
+
+    /**
+     * The artifact which we use for tests.
+     */
+    private final MvnArtifact mine = new MavenArtifact(
+        new MavenGroup("com.github.aistomin"), "jenkins-sdk"
+    );
+
+    /**
+     * Check that only the new versions are emitted, the unchanged metadata is
+     * revalidated and the versions are not compared when "lastUpdated" didn't
+     * change.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testNewVersions() throws Exception {
+        final AtomicReference<Revision> current = new AtomicReference<>(
+            new Revision("1", "20170302183302", "0.1", "0.2")
+        );
+        final AtomicInteger unchanged = new AtomicInteger();
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    final Revision revision = current.get();
+                    exchange.getResponseHeaders().add("ETag", revision.etag);
+                    if (revision.etag.equals(
+                        exchange.getRequestHeaders().getFirst("If-None-Match")
+                    )) {
+                        unchanged.incrementAndGet();
+                        StubServer.send(
+                            exchange, MvnResponse.NOT_MODIFIED, new byte[0]
+                        );
+                    } else {
+                        StubServer.send(
+                            exchange, MvnResponse.OK, revision.metadata()
+                        );
+                    }
+                }
+            )
+        ) {
+            final List<List<String>> released = new CopyOnWriteArrayList<>();
+            final VersionWatcher watcher = new VersionWatcher(
+                server.url(), new UrlTransport(), Duration.ofMinutes(1), 0
+            ).watch(this.mine).listen(
+                versions -> released.add(
+                    versions.stream()
+                        .map(MvnArtifactVersion::name)
+                        .collect(Collectors.toList())
+                )
+            );
+            Assertions.assertEquals(0, watcher.poll());
+            Assertions.assertEquals(0, watcher.poll());
+            Assertions.assertEquals(1, unchanged.get());
+            current.set(
+                new Revision(
+                    "2", "20230101000000", "0.1", "0.2", "0.2.2", "0.3"
+                )
+            );
+            Assertions.assertEquals(2, watcher.poll());
+            Assertions.assertEquals(List.of(List.of("0.3", "0.2.2")), released);
+            current.set(
+                new Revision(
+                    "3", "20230101000000", "0.1", "0.2", "0.2.2", "0.3", "0.4"
+                )
+            );
+            Assertions.assertEquals(0, watcher.poll());
+            watcher.unwatch(this.mine);
+            Assertions.assertEquals(0, watcher.poll());
+            Assertions.assertEquals(2 + 2, server.requests());
+        }
+    }
+
+    /**
+     * Check that the exception of one listener doesn't stop the other ones
+     * and is passed to the uncaught exception handler.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testBrokenListener() throws Exception {
+        final AtomicReference<Revision> current = new AtomicReference<>(
+            new Revision("1", "20170302183302", "0.1")
+        );
+        final Thread thread = Thread.currentThread();
+        final Thread.UncaughtExceptionHandler handler =
+            thread.getUncaughtExceptionHandler();
+        final List<Throwable> uncaught = new CopyOnWriteArrayList<>();
+        try (
+            StubServer server = new StubServer(
+                exchange -> StubServer.send(
+                    exchange, MvnResponse.OK, current.get().metadata()
+                )
+            )
+        ) {
+            thread.setUncaughtExceptionHandler(
+                (failed, exception) -> uncaught.add(exception)
+            );
+            final List<MvnArtifactVersion> released =
+                new CopyOnWriteArrayList<>();
+            final VersionWatcher watcher = new VersionWatcher(
+                server.url(), new UrlTransport(), Duration.ofMinutes(1), 0
+            ).watch(this.mine)
+                .listen(
+                    versions -> {
+                        throw new IllegalStateException("Broken listener");
+                    }
+                )
+                .listen(released::addAll);
+            Assertions.assertEquals(0, watcher.poll());
+            current.set(new Revision("2", "20230101000000", "0.1", "0.2"));
+            Assertions.assertEquals(1, watcher.poll());
+            Assertions.assertEquals(1, released.size());
+            Assertions.assertEquals("0.2", released.get(0).name());
+            Assertions.assertEquals(1, uncaught.size());
+            Assertions.assertInstanceOf(
+                IllegalStateException.class, uncaught.get(0)
+            );
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+    }
+
+    /**
+     * Check that the host backs off after the server error, but not after
+     * the missing metadata.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testBackoff() throws Exception {
+        final AtomicInteger status = new AtomicInteger(
+            VersionWatcherTest.UNAVAILABLE
+        );
+        try (
+            StubServer server = new StubServer(
+                exchange -> StubServer.send(exchange, status.get(), new byte[0])
+            )
+        ) {
+            final AtomicInteger failures = new AtomicInteger();
+            final VersionListener listener = new VersionListener() {
+                @Override
+                public void released(final List<MvnArtifactVersion> versions) {
+                    Assertions.fail("Nothing was released");
+                }
+
+                @Override
+                public void failed(
+                    final MvnArtifact artifact, final MvnException error
+                ) {
+                    failures.incrementAndGet();
+                }
+            };
+            final VersionWatcher down = new VersionWatcher(
+                server.url(), new UrlTransport(), Duration.ofMinutes(1), 0
+            ).watch(this.mine).listen(listener);
+            down.poll();
+            down.poll();
+            Assertions.assertEquals(1, server.requests());
+            Assertions.assertEquals(1, failures.get());
+            status.set(VersionWatcherTest.NOT_FOUND);
+            final VersionWatcher missing = new VersionWatcher(
+                server.url(), new UrlTransport(), Duration.ofMinutes(1), 0
+            ).watch(this.mine).listen(listener);
+            missing.poll();
+            missing.poll();
+            Assertions.assertEquals(2 + 1, server.requests());
+            Assertions.assertEquals(2 + 1, failures.get());
+            Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> new VersionWatcher(
+                    server.url(), new UrlTransport(), Duration.ofMinutes(1), 1
+                )
+            );
+        }
+    }
+
+    /**
+     * Check that the started watcher polls the artifacts in the background.
+     *
+     * @throws Exception If something went wrong.
+     */
+    @Test
+    void testSchedule() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        try (
+            StubServer server = new StubServer(
+                exchange -> {
+                    final Revision revision;
+                    if (requests.getAndIncrement() == 0) {
+                        revision = new Revision("1", "1", "0.1");
+                    } else {
+                        revision = new Revision("2", "2", "0.1", "0.2");
+                    }
+                    StubServer.send(
+                        exchange, MvnResponse.OK, revision.metadata()
+                    );
+                }
+            );
+            VersionWatcher watcher = new VersionWatcher(
+                server.url(), new UrlTransport(), Duration.ofMillis(20),
+                VersionWatcher.JITTER
+            )
+        ) {
+            final CountDownLatch released = new CountDownLatch(1);
+            watcher.listen(versions -> released.countDown()).watch(this.mine);
+            watcher.start();
+            Assertions.assertTrue(released.await(1, TimeUnit.MINUTES));
+        }
+    }
+
+    /**
+     * The revision of the metadata.
+     *
+     * @since 2.0
+     */
+    private static final class Revision {
+
+        /**
+         * The ETag of the revision.
+         */
+        private final String etag;
+
+        /**
+         * "lastUpdated" of the revision.
+         */
+        private final String updated;
+
+        /**
+         * The names of the versions, oldest first.
+         */
+        private final List<String> versions;
+
+        /**
+         * Ctor.
+         *
+         * @param tag The ETag of the revision.
+         * @param timestamp "lastUpdated" of the revision.
+         * @param names The names of the versions, oldest first.
+         */
+        Revision(
+            final String tag, final String timestamp, final String... names
+        ) {
+            this.etag = String.format("\"%s\"", tag);
+            this.updated = timestamp;
+            this.versions = List.of(names);
+        }
+
+        /**
+         * The content of maven-metadata.xml.
+         *
+         * @return The bytes of the content.
+         */
+        byte[] metadata() {
+            return String.format(
+                "<metadata><versioning><versions>%s</versions>"
+                    + "<lastUpdated>%s</lastUpdated></versioning></metadata>",
+                this.versions.stream()
+                    .map(name -> String.format("<version>%s</version>", name))
+                    .collect(Collectors.joining()),
+                this.updated
+            ).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}